@@ -0,0 +1,91 @@
+#!/bin/bash
+
+# Compares the reactive read path with the servlet/JPA backend for tail latency and
+# PostgreSQL connection usage under high fan-out reads.
+# Usage: ./benchmarks/compare-servlet.sh [concurrency] [duration]
+#
+# Requires both jars to be built:
+#   ./mvnw -f ../backend/pom.xml install -DskipTests
+#   ./mvnw package -DskipTests
+# and psql access to the database (DB_HOST, DB_PORT, DB_NAME, DB_USERNAME, PGPASSWORD).
+
+set -e
+
+source "$(dirname "$0")/../../backend/benchmarks/common.sh"
+
+REACTIVE_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+REACTIVE_JAR="${REACTIVE_JAR:-$(ls "$REACTIVE_DIR"/target/todo-app-reactive-*.jar 2>/dev/null | head -n 1)}"
+REACTIVE_URL="${REACTIVE_URL:-http://localhost:8081}"
+CONCURRENCY="${1:-1000}"
+DURATION="${2:-30s}"
+TODO_COUNT="${TODO_COUNT:-500}"
+
+require_tools java curl jq hey psql
+require_jar
+if [ -z "$REACTIVE_JAR" ] || [ ! -f "$REACTIVE_JAR" ]; then
+    print_error "Reactive jar not found, run ./mvnw package -DskipTests in backend-reactive first"
+    exit 1
+fi
+
+REACTIVE_PID=""
+cleanup() {
+    stop_backend
+    if [ -n "$REACTIVE_PID" ]; then
+        kill "$REACTIVE_PID" 2> /dev/null || true
+    fi
+}
+trap cleanup EXIT
+
+# Samples the number of backend connections to the database every 200ms while a load runs
+sample_connections() {
+    local output=$1
+    : > "$output"
+    while true; do
+        psql -h "${DB_HOST:-localhost}" -p "${DB_PORT:-5432}" -U "${DB_USERNAME:-postgres}" -d "${DB_NAME:-todoapp}" -Atc \
+            "SELECT count(*) FILTER (WHERE state = 'active'), count(*) FROM pg_stat_activity WHERE datname = current_database() AND pid <> pg_backend_pid()" \
+            >> "$output" 2> /dev/null || true
+        sleep 0.2
+    done
+}
+
+report_connections() {
+    local samples=$1
+    awk -F'|' '{ if ($1 > active) active = $1; if ($2 > total) total = $2 } END { printf "    peak active connections: %d, peak open connections: %d\n", active, total }' "$samples"
+}
+
+# measure <slug> <label> <hey args...>
+measure() {
+    local slug=$1
+    local label=$2
+    shift 2
+    sample_connections "$RESULTS_DIR/$slug-connections.txt" &
+    local sampler_pid=$!
+    run_load "$slug" "$label" "$CONCURRENCY" "$DURATION" "$@"
+    kill $sampler_pid 2> /dev/null || true
+    report_connections "$RESULTS_DIR/$slug-connections.txt"
+}
+
+start_backend "servlet"
+TOKEN=$(bench_token)
+seed_todos "$TOKEN" "$TODO_COUNT"
+
+print_info "Starting reactive read path..."
+java -jar "$REACTIVE_JAR" --logging.level.root=WARN > "$RESULTS_DIR/reactive.log" 2>&1 &
+REACTIVE_PID=$!
+for _ in $(seq 1 120); do
+    curl -sf "$REACTIVE_URL/health" > /dev/null && break
+    sleep 0.5
+done
+
+# Warm up both stacks
+hey -z 10s -c 50 -H "Authorization: Bearer $TOKEN" "$BASE_URL/api/todos" > /dev/null
+hey -z 10s -c 50 -H "Authorization: Bearer $TOKEN" "$REACTIVE_URL/api/todos" > /dev/null
+
+print_info "Concurrency: $CONCURRENCY, duration: $DURATION, todos per list: $TODO_COUNT"
+print_table_header
+measure "servlet-get-todos" "servlet: GET /api/todos" -H "Authorization: Bearer $TOKEN" "$BASE_URL/api/todos"
+measure "reactive-get-todos-json" "reactive: GET /api/todos (json)" -H "Authorization: Bearer $TOKEN" "$REACTIVE_URL/api/todos"
+measure "reactive-get-todos-ndjson" "reactive: GET /api/todos (ndjson)" -H "Authorization: Bearer $TOKEN" -H "Accept: application/x-ndjson" "$REACTIVE_URL/api/todos"
+measure "servlet-get-stats" "servlet: GET /api/todos/stats" -H "Authorization: Bearer $TOKEN" "$BASE_URL/api/todos/stats"
+measure "reactive-get-stats" "reactive: GET /api/todos/stats" -H "Authorization: Bearer $TOKEN" "$REACTIVE_URL/api/todos/stats"
+print_status "Raw reports written to $RESULTS_DIR"
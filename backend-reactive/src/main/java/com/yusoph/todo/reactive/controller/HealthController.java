@@ -0,0 +1,18 @@
+package com.yusoph.todo.reactive.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/health")
+public class HealthController {
+
+    @GetMapping
+    public Mono<Map<String, String>> health() {
+        return Mono.just(Map.of("status", "UP", "service", "todo-api-reactive"));
+    }
+}
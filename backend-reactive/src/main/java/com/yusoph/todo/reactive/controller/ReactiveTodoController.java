@@ -0,0 +1,71 @@
+package com.yusoph.todo.reactive.controller;
+
+import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.entity.Todo;
+import com.yusoph.todo.reactive.service.ReactiveTodoService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Read-only mirror of the servlet TodoController. List endpoints return Flux so they can be
+ * streamed as NDJSON (Accept: application/x-ndjson) or as a JSON array.
+ */
+@RestController
+@RequestMapping("/api/todos")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveTodoController {
+    
+    private final ReactiveTodoService todoService;
+    
+    // GET /api/todos - Stream all todos
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<TodoResponse> getAllTodos() {
+        log.debug("GET /api/todos");
+        return todoService.getAllTodos();
+    }
+    
+    // GET /api/todos/{id} - Get todo by ID
+    @GetMapping("/{id}")
+    public Mono<TodoResponse> getTodoById(@PathVariable Long id) {
+        log.debug("GET /api/todos/{}", id);
+        return todoService.getTodoById(id);
+    }
+    
+    // GET /api/todos/completed/{completed} - Stream todos by completion status
+    @GetMapping(value = "/completed/{completed}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<TodoResponse> getTodosByCompleted(@PathVariable Boolean completed) {
+        log.debug("GET /api/todos/completed/{}", completed);
+        return todoService.getTodosByCompleted(completed);
+    }
+    
+    // GET /api/todos/priority/{priority} - Stream todos by priority
+    @GetMapping(value = "/priority/{priority}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<TodoResponse> getTodosByPriority(@PathVariable Todo.Priority priority) {
+        log.debug("GET /api/todos/priority/{}", priority);
+        return todoService.getTodosByPriority(priority);
+    }
+    
+    // GET /api/todos/overdue - Stream overdue todos
+    @GetMapping(value = "/overdue", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<TodoResponse> getOverdueTodos() {
+        log.debug("GET /api/todos/overdue");
+        return todoService.getOverdueTodos();
+    }
+    
+    // GET /api/todos/stats - Get todo statistics
+    @GetMapping("/stats")
+    public Mono<Map<String, Long>> getTodoStats() {
+        log.debug("GET /api/todos/stats");
+        return todoService.getTodoStats();
+    }
+}
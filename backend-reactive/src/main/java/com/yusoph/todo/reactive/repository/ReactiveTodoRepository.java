@@ -0,0 +1,120 @@
+package com.yusoph.todo.reactive.repository;
+
+import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.entity.Todo;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * R2DBC equivalents of the TodoRepository read queries. Rows are mapped straight into
+ * TodoResponse and emitted as the driver decodes them, so demand from the HTTP response
+ * propagates back to the PostgreSQL cursor.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveTodoRepository {
+    
+    private static final String SELECT_TODOS =
+            "SELECT id, title, description, completed, priority, created_at, updated_at, due_date, user_id FROM todos ";
+    
+    private static final String SELECT_STATS =
+            "SELECT COUNT(*) AS total, " +
+            "       COUNT(*) FILTER (WHERE completed) AS completed, " +
+            "       COUNT(*) FILTER (WHERE NOT completed) AS pending, " +
+            "       COUNT(*) FILTER (WHERE priority = 'HIGH') AS high_priority, " +
+            "       COUNT(*) FILTER (WHERE priority = 'MEDIUM') AS medium_priority, " +
+            "       COUNT(*) FILTER (WHERE priority = 'LOW') AS low_priority " +
+            "FROM todos ";
+    
+    private final DatabaseClient databaseClient;
+    
+    // Find all todos
+    public Flux<TodoResponse> findAll() {
+        return databaseClient.sql(SELECT_TODOS + "ORDER BY id")
+                .map(ReactiveTodoRepository::toResponse)
+                .all();
+    }
+    
+    // Find all todos for a specific user
+    public Flux<TodoResponse> findByUserId(Long userId) {
+        return databaseClient.sql(SELECT_TODOS + "WHERE user_id = :userId ORDER BY id")
+                .bind("userId", userId)
+                .map(ReactiveTodoRepository::toResponse)
+                .all();
+    }
+    
+    // Find a todo together with its owner id, for the ownership check
+    public Mono<OwnedTodo> findById(Long id) {
+        return databaseClient.sql(SELECT_TODOS + "WHERE id = :id")
+                .bind("id", id)
+                .map(row -> new OwnedTodo(row.get("user_id", Long.class), toResponse(row)))
+                .one();
+    }
+    
+    // Find todos by completion status for a specific user
+    public Flux<TodoResponse> findByUserIdAndCompleted(Long userId, Boolean completed) {
+        return databaseClient.sql(SELECT_TODOS + "WHERE user_id = :userId AND completed = :completed ORDER BY id")
+                .bind("userId", userId)
+                .bind("completed", completed)
+                .map(ReactiveTodoRepository::toResponse)
+                .all();
+    }
+    
+    // Find todos by priority for a specific user
+    public Flux<TodoResponse> findByUserIdAndPriority(Long userId, Todo.Priority priority) {
+        return databaseClient.sql(SELECT_TODOS + "WHERE user_id = :userId AND priority = :priority ORDER BY id")
+                .bind("userId", userId)
+                .bind("priority", priority.name())
+                .map(ReactiveTodoRepository::toResponse)
+                .all();
+    }
+    
+    // Find overdue todos (not completed and due date passed)
+    public Flux<TodoResponse> findOverdueTodos(LocalDateTime currentDate) {
+        return databaseClient.sql(SELECT_TODOS + "WHERE completed = false AND due_date < :currentDate ORDER BY due_date")
+                .bind("currentDate", currentDate)
+                .map(ReactiveTodoRepository::toResponse)
+                .all();
+    }
+    
+    // Count todos by status and priority in a single pass, optionally for a specific user
+    public Mono<Map<String, Long>> countStats(Long userId) {
+        DatabaseClient.GenericExecuteSpec spec = userId == null
+                ? databaseClient.sql(SELECT_STATS)
+                : databaseClient.sql(SELECT_STATS + "WHERE user_id = :userId").bind("userId", userId);
+        return spec.map(row -> {
+            Map<String, Long> stats = new LinkedHashMap<>();
+            stats.put("total", row.get("total", Long.class));
+            stats.put("completed", row.get("completed", Long.class));
+            stats.put("pending", row.get("pending", Long.class));
+            stats.put("highPriority", row.get("high_priority", Long.class));
+            stats.put("mediumPriority", row.get("medium_priority", Long.class));
+            stats.put("lowPriority", row.get("low_priority", Long.class));
+            return stats;
+        }).one();
+    }
+    
+    private static TodoResponse toResponse(Readable row) {
+        return new TodoResponse(
+                row.get("id", Long.class),
+                row.get("title", String.class),
+                row.get("description", String.class),
+                row.get("completed", Boolean.class),
+                Todo.Priority.valueOf(row.get("priority", String.class)),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class),
+                row.get("due_date", LocalDateTime.class)
+        );
+    }
+    
+    public record OwnedTodo(Long ownerId, TodoResponse todo) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.yusoph.todo.reactive.repository;
+
+import com.yusoph.todo.reactive.security.ReactiveUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+@RequiredArgsConstructor
+public class ReactiveUserRepository {
+    
+    private final DatabaseClient databaseClient;
+    
+    public Mono<ReactiveUser> findByUsername(String username) {
+        return databaseClient.sql("SELECT id, username, role, enabled, account_non_locked FROM users WHERE username = :username")
+                .bind("username", username)
+                .map((row, metadata) -> new ReactiveUser(
+                        row.get("id", Long.class),
+                        row.get("username", String.class),
+                        row.get("role", String.class),
+                        Boolean.TRUE.equals(row.get("enabled", Boolean.class)),
+                        Boolean.TRUE.equals(row.get("account_non_locked", Boolean.class))
+                ))
+                .one();
+    }
+}
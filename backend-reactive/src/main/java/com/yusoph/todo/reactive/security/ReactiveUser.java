@@ -0,0 +1,40 @@
+package com.yusoph.todo.reactive.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read-only view of a row in the users table, as needed to authenticate a request
+ * and scope its todo queries.
+ */
+@Data
+@AllArgsConstructor
+public class ReactiveUser implements UserDetails {
+    
+    private Long id;
+    private String username;
+    private String role;
+    private boolean enabled;
+    private boolean accountNonLocked;
+    
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+    
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+    
+    // Password checks never happen on the read path
+    @Override
+    public String getPassword() {
+        return null;
+    }
+}
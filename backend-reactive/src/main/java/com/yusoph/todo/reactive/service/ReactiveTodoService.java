@@ -0,0 +1,68 @@
+package com.yusoph.todo.reactive.service;
+
+import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.entity.Todo;
+import com.yusoph.todo.exception.TodoNotFoundException;
+import com.yusoph.todo.reactive.repository.ReactiveTodoRepository;
+import com.yusoph.todo.reactive.security.ReactiveUser;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Reactive counterpart of the read methods in TodoService, with the same visibility rules:
+ * admins see every todo, users only their own.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveTodoService {
+    
+    private final ReactiveTodoRepository todoRepository;
+    
+    private Mono<ReactiveUser> getCurrentUser() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(context -> (ReactiveUser) context.getAuthentication().getPrincipal());
+    }
+    
+    public Flux<TodoResponse> getAllTodos() {
+        return getCurrentUser().flatMapMany(user -> {
+            log.debug("Streaming all todos for user: {} with role: {}", user.getUsername(), user.getRole());
+            return user.isAdmin() ? todoRepository.findAll() : todoRepository.findByUserId(user.getId());
+        });
+    }
+    
+    public Mono<TodoResponse> getTodoById(Long id) {
+        return getCurrentUser().flatMap(user -> todoRepository.findById(id)
+                .switchIfEmpty(Mono.error(new TodoNotFoundException(id)))
+                .flatMap(owned -> {
+                    if (!user.isAdmin() && !owned.ownerId().equals(user.getId())) {
+                        return Mono.error(new AccessDeniedException("You don't have permission to access this todo"));
+                    }
+                    return Mono.just(owned.todo());
+                }));
+    }
+    
+    public Flux<TodoResponse> getTodosByCompleted(Boolean completed) {
+        return getCurrentUser().flatMapMany(user -> todoRepository.findByUserIdAndCompleted(user.getId(), completed));
+    }
+    
+    public Flux<TodoResponse> getTodosByPriority(Todo.Priority priority) {
+        return getCurrentUser().flatMapMany(user -> todoRepository.findByUserIdAndPriority(user.getId(), priority));
+    }
+    
+    public Flux<TodoResponse> getOverdueTodos() {
+        return todoRepository.findOverdueTodos(LocalDateTime.now());
+    }
+    
+    public Mono<Map<String, Long>> getTodoStats() {
+        return getCurrentUser().flatMap(user -> todoRepository.countStats(user.isAdmin() ? null : user.getId()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.yusoph.todo.reactive.security;
+
+import com.yusoph.todo.reactive.repository.ReactiveUserRepository;
+import com.yusoph.todo.security.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReactiveSecurityConfigTests {
+    
+    private static final String JWT = "header.payload.signature";
+    
+    private final JwtTokenProvider jwtTokenProvider = mock(JwtTokenProvider.class);
+    private final ReactiveUserRepository userRepository = mock(ReactiveUserRepository.class);
+    private final ReactiveAuthenticationManager manager =
+            new ReactiveSecurityConfig(jwtTokenProvider, userRepository).jwtAuthenticationManager();
+    
+    @BeforeEach
+    void validToken() {
+        when(jwtTokenProvider.extractUsername(JWT)).thenReturn("alice");
+        when(jwtTokenProvider.validateToken(eq(JWT), any())).thenReturn(true);
+    }
+    
+    @Test
+    void authenticatesAnEnabledUser() throws Exception {
+        ReactiveUser alice = new ReactiveUser(1L, "alice", "USER", true, true);
+        when(userRepository.findByUsername("alice")).thenReturn(Mono.just(alice));
+        
+        StepVerifier.create(manager.authenticate(bearer()))
+                .assertNext(authentication -> assertThat(authentication.getPrincipal()).isEqualTo(alice))
+                .verifyComplete();
+    }
+    
+    @Test
+    void rejectsADisabledUser() throws Exception {
+        when(userRepository.findByUsername("alice"))
+                .thenReturn(Mono.just(new ReactiveUser(1L, "alice", "USER", false, true)));
+        
+        StepVerifier.create(manager.authenticate(bearer()))
+                .verifyError(BadCredentialsException.class);
+    }
+    
+    @Test
+    void rejectsALockedUser() throws Exception {
+        when(userRepository.findByUsername("alice"))
+                .thenReturn(Mono.just(new ReactiveUser(1L, "alice", "USER", true, false)));
+        
+        StepVerifier.create(manager.authenticate(bearer()))
+                .verifyError(BadCredentialsException.class);
+    }
+    
+    private static UsernamePasswordAuthenticationToken bearer() {
+        return new UsernamePasswordAuthenticationToken(JWT, JWT);
+    }
+}
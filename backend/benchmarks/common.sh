@@ -0,0 +1,172 @@
+#!/bin/bash
+
+# Shared helpers for the backend benchmark scripts.
+# Requires: java, curl, jq and hey (https://github.com/rakyll/hey)
+# plus a reachable PostgreSQL configured through the usual DB_* variables.
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+BENCH_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+BACKEND_DIR="$(dirname "$BENCH_DIR")"
+RESULTS_DIR="${RESULTS_DIR:-$BACKEND_DIR/target/benchmarks}"
+APP_JAR="${APP_JAR:-$(ls "$BACKEND_DIR"/target/todo-app-*-exec.jar 2>/dev/null | head -n 1)}"
+BASE_URL="${BASE_URL:-http://localhost:8080}"
+BENCH_USER="${BENCH_USER:-bench_user}"
+BENCH_PASSWORD="${BENCH_PASSWORD:-bench_password}"
+
+APP_PID=""
+
+print_status() {
+    echo -e "${GREEN}✓${NC} $1"
+}
+
+print_error() {
+    echo -e "${RED}✗${NC} $1"
+}
+
+print_info() {
+    echo -e "${BLUE}ℹ${NC} $1"
+}
+
+require_tools() {
+    for tool in "$@"; do
+        if ! command -v "$tool" &> /dev/null; then
+            print_error "$tool is required but not installed"
+            exit 1
+        fi
+    done
+}
+
+require_jar() {
+    if [ -z "$APP_JAR" ] || [ ! -f "$APP_JAR" ]; then
+        print_error "Backend jar not found, run ./mvnw package -DskipTests first (or set APP_JAR)"
+        exit 1
+    fi
+}
+
+# start_backend <label> [extra java args...]
+start_backend() {
+    local label=$1
+    shift
+    mkdir -p "$RESULTS_DIR"
+    print_info "Starting backend ($label)..."
+    java "$@" -jar "$APP_JAR" \
+        --logging.level.root=WARN \
+        --logging.level.com.yusoph.todo=WARN \
+        --logging.level.org.hibernate.SQL=WARN \
+        --spring.jpa.show-sql=false \
+        --rate-limit.enabled="${BENCH_RATE_LIMIT:-false}" \
+        --load-shedding.enabled="${BENCH_LOAD_SHEDDING:-false}" \
+        > "$RESULTS_DIR/$label.log" 2>&1 &
+    APP_PID=$!
+    wait_for_health
+}
+
+wait_for_health() {
+    for _ in $(seq 1 120); do
+        if curl -sf "$BASE_URL/health" > /dev/null; then
+            print_status "Backend is up (pid $APP_PID)"
+            return 0
+        fi
+        sleep 0.5
+    done
+    print_error "Backend did not become healthy, see $RESULTS_DIR"
+    stop_backend
+    exit 1
+}
+
+stop_backend() {
+    if [ -n "$APP_PID" ]; then
+        kill "$APP_PID" 2> /dev/null || true
+        wait "$APP_PID" 2> /dev/null || true
+        APP_PID=""
+    fi
+}
+
+# first_request <log> <command...> - launches the backend with <command> (a java or native command
+# line), waits for the benchmark user's first successful login and sets FIRST_REQUEST_MS to the time
+# since launch. The backend keeps running; stop it with stop_backend.
+first_request() {
+    local log=$1
+    shift
+    mkdir -p "$(dirname "$log")"
+    local launched
+    launched=$(date +%s%N)
+    "$@" \
+        --logging.level.root=WARN \
+        --logging.level.com.yusoph.todo.TodoAppApplication=INFO \
+        --spring.jpa.show-sql=false \
+        --rate-limit.enabled=false \
+        --load-shedding.enabled=false \
+        > "$log" 2>&1 &
+    APP_PID=$!
+    while ! curl -sf -o /dev/null -X POST "$BASE_URL/api/auth/login" \
+            -H "Content-Type: application/json" \
+            -d "{\"username\":\"$BENCH_USER\",\"password\":\"$BENCH_PASSWORD\"}"; do
+        if ! kill -0 "$APP_PID" 2> /dev/null; then
+            print_error "Backend exited during startup, see $log" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    FIRST_REQUEST_MS=$((($(date +%s%N) - launched) / 1000000))
+}
+
+# started_seconds <log> - Spring's own "Started TodoAppApplication in" time, or ? if not logged
+started_seconds() {
+    local started
+    started=$(sed -n 's/.*Started TodoAppApplication in \([0-9.]*\) seconds.*/\1/p' "$1")
+    echo "${started:-?}"
+}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+# Registers the benchmark user on first use and prints a JWT for it
+bench_token() {
+    curl -s -o /dev/null -X POST "$BASE_URL/api/auth/register" \
+        -H "Content-Type: application/json" \
+        -d "{\"username\":\"$BENCH_USER\",\"email\":\"$BENCH_USER@bench.local\",\"password\":\"$BENCH_PASSWORD\"}"
+    curl -sf -X POST "$BASE_URL/api/auth/login" \
+        -H "Content-Type: application/json" \
+        -d "{\"username\":\"$BENCH_USER\",\"password\":\"$BENCH_PASSWORD\"}" | jq -r '.token'
+}
+
+# seed_todos <token> <count> - tops the benchmark user up to <count> todos
+seed_todos() {
+    local token=$1
+    local count=$2
+    local existing
+    existing=$(curl -sf "$BASE_URL/api/todos/stats" -H "Authorization: Bearer $token" | jq -r '.total')
+    for i in $(seq $((existing + 1)) "$count"); do
+        curl -s -o /dev/null -X POST "$BASE_URL/api/todos" \
+            -H "Authorization: Bearer $token" \
+            -H "Content-Type: application/json" \
+            -d "{\"title\":\"Benchmark todo $i\",\"description\":\"Seeded by benchmarks/common.sh\",\"priority\":\"MEDIUM\"}"
+    done
+}
+
+# run_load <slug> <label> <concurrency> <duration> <hey args...>
+# Prints "<label> <requests/sec> <p99 ms>" and keeps the raw hey report in $RESULTS_DIR/<slug>.txt.
+run_load() {
+    local slug=$1
+    local label=$2
+    local concurrency=$3
+    local duration=$4
+    shift 4
+    local report="$RESULTS_DIR/$slug.txt"
+    hey -z "$duration" -c "$concurrency" "$@" > "$report"
+    local rps p99
+    rps=$(awk '/Requests\/sec/ {print $2}' "$report")
+    p99=$(awk '/ 99% in / {printf "%.1f", $3 * 1000}' "$report")
+    printf "%-40s %12s %12s\n" "$label" "$rps" "$p99"
+}
+
+print_table_header() {
+    printf "%-40s %12s %12s\n" "scenario" "req/s" "p99 (ms)"
+}
@@ -0,0 +1,71 @@
+#!/bin/bash
+
+# Compares the native executable with the JVM build, from a cold start every run:
+#   started          - Spring's own "Started TodoAppApplication in" time
+#   first request    - from launch to the first successful login
+#   RSS idle         - resident set size right after the first request
+#   RSS loaded       - resident set size after LOAD_REQUESTS (2000) GET /api/todos from
+#                      LOAD_CONCURRENCY (20) clients, with the benchmark user's 100 todos
+# Usage: ./benchmarks/native.sh [runs]
+#
+# Requires GraalVM; one build produces both the jar and target/todo-app:
+#   ./mvnw -Pnative package -DskipTests
+# Heap limits are left to each runtime unless JVM_ARGS / NATIVE_ARGS set them (e.g. -Xmx256m), and
+# the JVM figures are for the plain jar; benchmarks/startup.sh has the JVM's own startup options.
+# All columns are medians over the runs.
+
+set -e
+
+source "$(dirname "$0")/common.sh"
+
+RUNS="${1:-5}"
+NATIVE_BINARY="${NATIVE_BINARY:-$BACKEND_DIR/target/todo-app}"
+NATIVE_DIR="$RESULTS_DIR/native"
+LOAD_REQUESTS="${LOAD_REQUESTS:-2000}"
+LOAD_CONCURRENCY="${LOAD_CONCURRENCY:-20}"
+
+require_tools java curl jq hey
+require_jar
+if [ ! -x "$NATIVE_BINARY" ]; then
+    print_error "Native binary not found, run ./mvnw -Pnative package -DskipTests first (or set NATIVE_BINARY)"
+    exit 1
+fi
+trap stop_backend EXIT
+
+rss_mb() {
+    ps -o rss= -p "$APP_PID" | awk '{ printf "%.0f", $1 / 1024 }'
+}
+
+# run_mode <mode> <command...>
+run_mode() {
+    local mode=$1
+    shift
+    local results="$NATIVE_DIR/$mode.txt"
+    : > "$results"
+    for run in $(seq 1 "$RUNS"); do
+        local log="$NATIVE_DIR/$mode-$run.log"
+        first_request "$log" "$@"
+        local idle
+        idle=$(rss_mb)
+        hey -n "$LOAD_REQUESTS" -c "$LOAD_CONCURRENCY" -H "Authorization: Bearer $(bench_token)" \
+            "$BASE_URL/api/todos" > "$NATIVE_DIR/$mode-$run-load.txt"
+        local loaded
+        loaded=$(rss_mb)
+        stop_backend
+        echo "$(started_seconds "$log") $FIRST_REQUEST_MS $idle $loaded" >> "$results"
+    done
+    printf "%-8s %12s %20s %15s %17s\n" "$mode" \
+        "$(cut -d' ' -f1 "$results" | median)" "$(cut -d' ' -f2 "$results" | median)" \
+        "$(cut -d' ' -f3 "$results" | median)" "$(cut -d' ' -f4 "$results" | median)"
+}
+
+# The login and the load need the benchmark user and its todos
+start_backend "native-setup"
+seed_todos "$(bench_token)" 100
+stop_backend
+
+print_info "Runs per mode: $RUNS"
+printf "%-8s %12s %20s %15s %17s\n" "mode" "started (s)" "first request (ms)" "RSS idle (MB)" "RSS loaded (MB)"
+run_mode "jvm" java $JVM_ARGS -jar "$APP_JAR"
+run_mode "native" "$NATIVE_BINARY" $NATIVE_ARGS
+print_status "Logs written to $NATIVE_DIR"
@@ -0,0 +1,83 @@
+#!/bin/bash
+
+# Measures time to first request for each startup-performance option, from a cold JVM every run:
+#   jvm   - the plain jar
+#   lazy  - the startup profile (lazy initialization of non-critical beans)
+#   aot   - lazy, with the Spring AOT-generated bean definitions
+#   cds   - lazy, with a class data sharing archive
+#   all   - lazy, AOT and CDS
+# Usage: ./benchmarks/startup.sh [runs]
+#
+# Requires the jar built with the startup profile, which adds the AOT-generated code:
+#   ./mvnw package -Pstartup -DskipTests
+# Time to first request runs from launching java to the first successful login, which goes through
+# security, a controller, a service and the database. The "started" column is Spring's own
+# "Started TodoAppApplication in" time. Both are medians over the runs.
+
+set -e
+
+source "$(dirname "$0")/common.sh"
+
+RUNS="${1:-5}"
+STARTUP_DIR="$RESULTS_DIR/startup"
+
+require_tools java curl jq
+require_jar
+if ! jar tf "$APP_JAR" | grep -q "TodoAppApplication__ApplicationContextInitializer"; then
+    print_error "$APP_JAR has no AOT-generated code, run ./mvnw package -Pstartup -DskipTests first"
+    exit 1
+fi
+trap stop_backend EXIT
+
+# CDS needs the extracted layout: the application jar with its dependencies in lib/ next to it
+extract_jar() {
+    rm -rf "$STARTUP_DIR/app"
+    mkdir -p "$STARTUP_DIR"
+    java -Djarmode=tools -jar "$APP_JAR" extract --destination "$STARTUP_DIR/app" > /dev/null
+    EXTRACTED_JAR="$STARTUP_DIR/app/$(basename "$APP_JAR")"
+}
+
+# create_archive <name> [java args...] - a training run that refreshes the context, then exits
+create_archive() {
+    local name=$1
+    shift
+    print_info "Creating CDS archive $name.jsa..."
+    java -XX:ArchiveClassesAtExit="$STARTUP_DIR/$name.jsa" -Dspring.context.exit=onRefresh "$@" \
+        -jar "$EXTRACTED_JAR" > "$STARTUP_DIR/$name-training.log" 2>&1
+}
+
+# run_mode <mode> [java args...]
+run_mode() {
+    local mode=$1
+    shift
+    local results="$STARTUP_DIR/$mode.txt"
+    : > "$results"
+    for run in $(seq 1 "$RUNS"); do
+        local log="$STARTUP_DIR/$mode-$run.log"
+        first_request "$log" java "$@" -jar "$EXTRACTED_JAR"
+        stop_backend
+        echo "$(started_seconds "$log") $FIRST_REQUEST_MS" >> "$results"
+    done
+    printf "%-8s %14s %22s\n" "$mode" \
+        "$(cut -d' ' -f1 "$results" | median)" "$(cut -d' ' -f2 "$results" | median)"
+}
+
+# The login needs the benchmark user
+start_backend "startup-setup"
+bench_token > /dev/null
+stop_backend
+
+extract_jar
+LAZY="-Dspring.profiles.active=startup"
+AOT="-Dspring.aot.enabled=true"
+create_archive "lazy" $LAZY
+create_archive "lazy-aot" $LAZY $AOT
+
+print_info "Runs per mode: $RUNS"
+printf "%-8s %14s %22s\n" "mode" "started (s)" "first request (ms)"
+run_mode "jvm"
+run_mode "lazy" $LAZY
+run_mode "aot" $LAZY $AOT
+run_mode "cds" $LAZY -XX:SharedArchiveFile="$STARTUP_DIR/lazy.jsa"
+run_mode "all" $LAZY $AOT -XX:SharedArchiveFile="$STARTUP_DIR/lazy-aot.jsa"
+print_status "Logs written to $STARTUP_DIR"
@@ -0,0 +1,56 @@
+#!/bin/bash
+
+# Compares the platform-thread and virtual-thread serving modes at high concurrency.
+# Usage: ./benchmarks/virtual-threads.sh [concurrency] [duration]
+#
+# Each mode runs the same two scenarios against a fresh JVM:
+#   - todo list reads (JDBC-bound)
+#   - login storm (BCrypt-bound) mixed with concurrent todo reads
+
+set -e
+
+source "$(dirname "$0")/common.sh"
+
+CONCURRENCY="${1:-800}"
+DURATION="${2:-30s}"
+TODO_COUNT="${TODO_COUNT:-200}"
+
+require_tools java curl jq hey
+require_jar
+trap stop_backend EXIT
+
+run_mode() {
+    local mode=$1
+    local virtual=$2
+    VIRTUAL_THREADS_ENABLED=$virtual start_backend "vt-$mode"
+    local token
+    token=$(bench_token)
+    seed_todos "$token" "$TODO_COUNT"
+
+    # Warm up the JIT before measuring
+    hey -z 10s -c 50 -H "Authorization: Bearer $token" "$BASE_URL/api/todos" > /dev/null
+
+    run_load "vt-$mode-get-todos" "$mode: GET /api/todos" "$CONCURRENCY" "$DURATION" \
+        -H "Authorization: Bearer $token" "$BASE_URL/api/todos"
+
+    hey -z "$DURATION" -c $((CONCURRENCY / 4)) -m POST -T "application/json" \
+        -d "{\"username\":\"$BENCH_USER\",\"password\":\"$BENCH_PASSWORD\"}" \
+        "$BASE_URL/api/auth/login" > "$RESULTS_DIR/vt-$mode-login-storm.txt" &
+    local storm_pid=$!
+    run_load "vt-$mode-get-todos-during-logins" "$mode: GET /api/todos during logins" "$CONCURRENCY" "$DURATION" \
+        -H "Authorization: Bearer $token" "$BASE_URL/api/todos"
+    wait $storm_pid
+
+    if [ "$virtual" = "true" ]; then
+        local pinned
+        pinned=$(grep -c "Virtual thread pinned" "$RESULTS_DIR/vt-$mode.log" || true)
+        print_info "Pinned virtual thread events logged: $pinned"
+    fi
+    stop_backend
+}
+
+print_info "Concurrency: $CONCURRENCY, duration: $DURATION, pool size: ${DB_POOL_SIZE:-10}"
+print_table_header
+run_mode "platform" false
+run_mode "virtual" true
+print_status "Raw reports written to $RESULTS_DIR"
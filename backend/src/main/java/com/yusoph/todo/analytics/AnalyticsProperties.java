@@ -0,0 +1,33 @@
+package com.yusoph.todo.analytics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "analytics")
+public class AnalyticsProperties {
+    
+    // How often overdue counts are recomputed
+    private Duration sealInterval = Duration.ofHours(1);
+    
+    // Days before today whose overdue counts every seal recomputes, so downtime up to this long heals itself
+    private int sealDays = 7;
+    
+    // Longest date range one /api/admin/analytics request may cover
+    private int maxRangeDays = 3660;
+    
+    private Backfill backfill = new Backfill();
+    
+    @Data
+    public static class Backfill {
+        
+        // Worker threads, each holding one pooled connection while it rebuilds a partition;
+        // 0 uses every core, capped at 4 so the pool keeps room for requests
+        private int parallelism = 0;
+        
+        // Partitions are split until they cover fewer user ids than this
+        private int usersPerTask = 500;
+    }
+}
@@ -0,0 +1,79 @@
+package com.yusoph.todo.analytics;
+
+import com.yusoph.todo.dto.AnalyticsDay;
+import com.yusoph.todo.dto.AnalyticsResponse;
+import com.yusoph.todo.dto.RollupCounts;
+import com.yusoph.todo.entity.Todo;
+import com.yusoph.todo.repository.DailyRollupTotals;
+import com.yusoph.todo.repository.TodoDailyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Daily trends for admins, read from {@code todo_daily_rollups} only: the cost depends on the number
+ * of days and users in range, never on the number of todos.
+ */
+@Service
+@Profile("!embedded")
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsService {
+    
+    private final TodoDailyRollupRepository rollupRepository;
+    private final AnalyticsProperties properties;
+    
+    /**
+     * Created, completed and overdue counts for every day from {@code from} to {@code to} inclusive,
+     * for one user or, with {@code userId} null, for all users.
+     */
+    @Transactional(readOnly = true)
+    public AnalyticsResponse getTrends(LocalDate from, LocalDate to, Long userId) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > properties.getMaxRangeDays()) {
+            throw new IllegalArgumentException("Date range must not exceed " + properties.getMaxRangeDays() + " days");
+        }
+        log.debug("Fetching analytics from {} to {} for user: {}", from, to, userId);
+        
+        List<DailyRollupTotals> totals = userId == null
+                ? rollupRepository.sumByDateAndPriority(from, to)
+                : rollupRepository.sumByDateAndPriorityForUser(userId, from, to);
+        
+        // Zeros for days without rows, so charts get a continuous series
+        Map<LocalDate, AnalyticsDay> byDate = new LinkedHashMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            Map<Todo.Priority, RollupCounts> byPriority = new EnumMap<>(Todo.Priority.class);
+            for (Todo.Priority priority : Todo.Priority.values()) {
+                byPriority.put(priority, new RollupCounts());
+            }
+            byDate.put(date, new AnalyticsDay(date, new RollupCounts(), byPriority));
+        }
+        RollupCounts rangeTotal = new RollupCounts();
+        for (DailyRollupTotals row : totals) {
+            AnalyticsDay day = byDate.get(row.date());
+            add(day.getByPriority().get(row.priority()), row);
+            add(day.getTotal(), row);
+            add(rangeTotal, row);
+        }
+        return new AnalyticsResponse(from, to, userId, rangeTotal, new ArrayList<>(byDate.values()));
+    }
+    
+    private static void add(RollupCounts counts, DailyRollupTotals row) {
+        counts.setCreated(counts.getCreated() + row.created());
+        counts.setCompleted(counts.getCompleted() + row.completed());
+        counts.setOverdue(counts.getOverdue() + row.overdue());
+    }
+}
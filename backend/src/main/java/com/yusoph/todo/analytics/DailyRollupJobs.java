@@ -0,0 +1,249 @@
+package com.yusoph.todo.analytics;
+
+import com.yusoph.todo.dto.RollupBackfillResponse;
+import com.yusoph.todo.exception.ConflictException;
+import com.yusoph.todo.repository.TodoDailyRollupRepository;
+import com.yusoph.todo.resilience.DatabaseCircuitBreaker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The parts of {@code todo_daily_rollups} that the write paths cannot maintain.
+ * <ul>
+ * <li>Overdue counts depend on time passing, not on a write. Every {@code analytics.seal-interval}
+ * the last {@code analytics.seal-days} days are recomputed from the todos due on them, on a thread
+ * of their own like the archiver.</li>
+ * <li>The backfill rebuilds all rollups from {@code todos} and {@code todos_archive}, for the history
+ * written before rollups existed or to repair counts. The user id range is split recursively on a
+ * dedicated {@link ForkJoinPool} until each partition covers fewer than
+ * {@code analytics.backfill.users-per-task} ids; each partition is rebuilt in one transaction.</li>
+ * </ul>
+ * Writes that race a partition being rebuilt may be counted twice or not at all; running the
+ * backfill again when the application is quiet reconciles them.
+ */
+@Component
+@Profile("!embedded")
+@Slf4j
+public class DailyRollupJobs implements MeterBinder, InitializingBean, DisposableBean {
+    
+    public enum Status { RUNNING, COMPLETED, FAILED }
+    
+    private static final int MAX_DEFAULT_PARALLELISM = 4;
+    
+    private static final class Backfill {
+        
+        private final int parallelism;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong partitionsDone = new AtomicLong();
+        private final AtomicLong rollupRows = new AtomicLong();
+        private volatile Status status = Status.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        
+        private Backfill(int parallelism) {
+            this.parallelism = parallelism;
+        }
+        
+        private void finish(Status status) {
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+    }
+    
+    private final AnalyticsProperties properties;
+    private final TodoDailyRollupRepository rollupRepository;
+    private final DatabaseCircuitBreaker circuitBreaker;
+    private final TransactionTemplate transaction;
+    private final AtomicLong sealed = new AtomicLong();
+    private final ReentrantLock backfillLock = new ReentrantLock();
+    private volatile Backfill backfill;
+    private final ScheduledExecutorService sealer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rollup-seal");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public DailyRollupJobs(AnalyticsProperties properties,
+                           TodoDailyRollupRepository rollupRepository,
+                           DatabaseCircuitBreaker circuitBreaker,
+                           PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.rollupRepository = rollupRepository;
+        this.circuitBreaker = circuitBreaker;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+    
+    @Override
+    public void afterPropertiesSet() {
+        long interval = properties.getSealInterval().toMillis();
+        sealer.scheduleWithFixedDelay(this::runSeal, interval, interval, TimeUnit.MILLISECONDS);
+    }
+    
+    private void runSeal() {
+        if (circuitBreaker.isOpen()) {
+            return;
+        }
+        try {
+            sealOverdue(LocalDate.now());
+        } catch (RuntimeException e) {
+            circuitBreaker.recordFailure(e);
+            log.warn("Sealing overdue rollups failed; retrying in {}: {}", properties.getSealInterval(), e.toString());
+        }
+    }
+    
+    /**
+     * Recomputes the overdue counts of the {@code analytics.seal-days} days before {@code today}.
+     *
+     * @return the number of rollup rows written
+     */
+    public int sealOverdue(LocalDate today) {
+        LocalDateTime to = today.atStartOfDay();
+        LocalDateTime from = to.minusDays(properties.getSealDays());
+        // Reset first: days whose todos are no longer overdue (completed on time, moved or deleted)
+        // get no row from the upsert
+        Integer rows = transaction.execute(status -> {
+            rollupRepository.resetOverdue(from.toLocalDate(), to.toLocalDate());
+            return rollupRepository.sealOverdue(from, to);
+        });
+        sealed.addAndGet(rows);
+        return rows;
+    }
+    
+    /**
+     * Starts rebuilding every user's rollups in the background.
+     *
+     * @throws ConflictException if a backfill is already running
+     */
+    public RollupBackfillResponse startBackfill() {
+        backfillLock.lock();
+        try {
+            if (backfill != null && backfill.status == Status.RUNNING) {
+                throw new ConflictException("A rollup backfill is already running");
+            }
+            Long minUserId = rollupRepository.findMinUserId();
+            Long maxUserId = rollupRepository.findMaxUserId();
+            Backfill run = new Backfill(parallelism());
+            backfill = run;
+            if (minUserId == null) {
+                run.finish(Status.COMPLETED);
+                return describe(run);
+            }
+            
+            ForkJoinPool pool = new ForkJoinPool(run.parallelism, DailyRollupJobs::newWorker, null, false);
+            LocalDateTime today = LocalDate.now().atStartOfDay();
+            log.info("Backfilling daily rollups for user ids {}..{} on {} threads", minUserId, maxUserId, run.parallelism);
+            CompletableFuture.supplyAsync(() -> new Partition(run, minUserId, maxUserId, today).invoke(), pool)
+                    .whenComplete((rows, failure) -> {
+                        pool.shutdown();
+                        if (failure != null) {
+                            run.finish(Status.FAILED);
+                            log.error("Backfilling daily rollups failed after {} partitions", run.partitionsDone.get(), failure);
+                        } else {
+                            run.finish(Status.COMPLETED);
+                            log.info("Backfilled {} daily rollup rows in {} partitions", rows, run.partitionsDone.get());
+                        }
+                    });
+            return describe(run);
+        } finally {
+            backfillLock.unlock();
+        }
+    }
+    
+    public Optional<RollupBackfillResponse> backfillStatus() {
+        return Optional.ofNullable(backfill).map(DailyRollupJobs::describe);
+    }
+    
+    private int parallelism() {
+        int configured = properties.getBackfill().getParallelism();
+        return configured > 0
+                ? configured
+                : Math.min(Runtime.getRuntime().availableProcessors(), MAX_DEFAULT_PARALLELISM);
+    }
+    
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("rollup-backfill-" + thread.getPoolIndex());
+        return thread;
+    }
+    
+    // Splitting tasks run outside any transaction, so a thread that steals a leaf while it waits in
+    // join() never nests one partition's transaction in another's
+    private final class Partition extends RecursiveTask<Long> {
+        
+        private final Backfill run;
+        private final long fromUserId;
+        private final long toUserId;
+        private final LocalDateTime today;
+        
+        private Partition(Backfill run, long fromUserId, long toUserId, LocalDateTime today) {
+            this.run = run;
+            this.fromUserId = fromUserId;
+            this.toUserId = toUserId;
+            this.today = today;
+        }
+        
+        @Override
+        protected Long compute() {
+            if (toUserId - fromUserId < properties.getBackfill().getUsersPerTask()) {
+                Integer rows = transaction.execute(status -> {
+                    rollupRepository.deleteByUserIdBetween(fromUserId, toUserId);
+                    return rollupRepository.rebuildForUserIdsBetween(fromUserId, toUserId, today);
+                });
+                run.partitionsDone.incrementAndGet();
+                run.rollupRows.addAndGet(rows);
+                return (long) rows;
+            }
+            long middle = fromUserId + (toUserId - fromUserId) / 2;
+            Partition upper = new Partition(run, middle + 1, toUserId, today);
+            upper.fork();
+            long lowerRows = new Partition(run, fromUserId, middle, today).compute();
+            return lowerRows + upper.join();
+        }
+    }
+    
+    private static RollupBackfillResponse describe(Backfill run) {
+        return new RollupBackfillResponse(run.status.name(), run.parallelism, run.partitionsDone.get(),
+                run.rollupRows.get(), run.startedAt, run.finishedAt);
+    }
+    
+    private int runningBackfills() {
+        Backfill run = backfill;
+        return run != null && run.status == Status.RUNNING ? 1 : 0;
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("analytics.backfill.running", this, DailyRollupJobs::runningBackfills)
+                .description("Whether a daily rollup backfill is running")
+                .register(registry);
+        FunctionCounter.builder("analytics.rollups.sealed", sealed, AtomicLong::get)
+                .description("Daily rollup rows whose overdue counts were recomputed")
+                .register(registry);
+    }
+    
+    @Override
+    public void destroy() {
+        sealer.shutdownNow();
+    }
+}
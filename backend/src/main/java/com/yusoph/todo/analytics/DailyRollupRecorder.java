@@ -0,0 +1,92 @@
+package com.yusoph.todo.analytics;
+
+import com.yusoph.todo.entity.Todo;
+import com.yusoph.todo.repository.TodoDailyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps {@code todo_daily_rollups} current from the {@code TodoService} write paths. Every write adds
+ * to its counter rows with upserts in the caller's transaction, so the counts commit or roll back
+ * with the todo itself.
+ * <p>
+ * Creations are events: deleting a todo does not take its creation back. Completions follow the
+ * todos' current state, exactly as the backfill rebuilds them: a completed todo counts once, on the
+ * day it was last updated ({@link Completion}). Reopening, editing or deleting it moves or takes
+ * back that count, so completing a todo again never counts it twice.
+ */
+@Component
+@Profile("!embedded") // The embedded engine has no rollup table
+@RequiredArgsConstructor
+public class DailyRollupRecorder {
+    
+    /**
+     * The rollup row a completed todo counts towards: the day of {@code COALESCE(updated_at, created_at)}
+     * and its priority, as in {@code TodoDailyRollupRepository.rebuildForUserIdsBetween}.
+     */
+    public record Completion(LocalDate day, Todo.Priority priority) {
+        
+        // Null while the todo is open
+        public static Completion of(Todo todo) {
+            if (!Boolean.TRUE.equals(todo.getCompleted())) {
+                return null;
+            }
+            LocalDateTime lastUpdated = todo.getUpdatedAt() != null ? todo.getUpdatedAt() : todo.getCreatedAt();
+            return new Completion(lastUpdated != null ? lastUpdated.toLocalDate() : LocalDate.now(), todo.getPriority());
+        }
+    }
+    
+    private final TodoDailyRollupRepository rollupRepository;
+    
+    public void created(Todo todo) {
+        LocalDate day = todo.getCreatedAt() != null ? todo.getCreatedAt().toLocalDate() : LocalDate.now();
+        rollupRepository.increment(todo.getUser().getId(), day, todo.getPriority().name(), 1, 0);
+        Completion completion = Completion.of(todo);
+        if (completion != null) {
+            count(todo.getUser().getId(), completion, 1);
+        }
+    }
+    
+    /**
+     * Moves {@code todo}'s completion from {@code before}, taken before the write, to wherever the
+     * write left it.
+     */
+    public void updated(Completion before, Todo todo) {
+        // updated_at is only generated when the changes are flushed
+        rollupRepository.flush();
+        Completion after = Completion.of(todo);
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            count(todo.getUser().getId(), before, -1);
+        }
+        if (after != null) {
+            count(todo.getUser().getId(), after, 1);
+        }
+    }
+    
+    // Takes back the completions of todos about to be deleted, one upsert per rollup row
+    public void deleted(Collection<Todo> todos) {
+        Map<Long, Map<Completion, Integer>> byUser = new HashMap<>();
+        for (Todo todo : todos) {
+            Completion completion = Completion.of(todo);
+            if (completion != null) {
+                byUser.computeIfAbsent(todo.getUser().getId(), ignored -> new HashMap<>()).merge(completion, 1, Integer::sum);
+            }
+        }
+        byUser.forEach((userId, completions) -> completions.forEach((completion, count) -> count(userId, completion, -count)));
+    }
+    
+    private void count(Long userId, Completion completion, long completed) {
+        rollupRepository.increment(userId, completion.day(), completion.priority().name(), 0, completed);
+    }
+}
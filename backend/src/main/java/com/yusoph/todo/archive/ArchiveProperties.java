@@ -0,0 +1,25 @@
+package com.yusoph.todo.archive;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "archive")
+public class ArchiveProperties {
+    
+    // Off by default: the frontend lists hot todos only, and archived ones can no longer be edited or deleted
+    private boolean enabled = false;
+    
+    // Completed todos not updated for this long move to todos_archive
+    private Duration completedAge = Duration.ofDays(30);
+    
+    // Todos moved per statement and transaction
+    private int batchSize = 1000;
+    
+    private Duration interval = Duration.ofHours(1);
+    
+    // Pause between batches within one run, so archiving leaves the pool to request traffic
+    private Duration batchPause = Duration.ofMillis(50);
+}
@@ -0,0 +1,114 @@
+package com.yusoph.todo.archive;
+
+import com.yusoph.todo.repository.TodoRepository;
+import com.yusoph.todo.resilience.DatabaseCircuitBreaker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves completed todos older than {@code archive.completed-age} from {@code todos} to
+ * {@code todos_archive}, so the hot table and its indexes only hold live work. Each batch is one
+ * set-based statement in its own transaction. Runs every {@code archive.interval} on its own
+ * thread: a run can take a while and must not hold up the shared scheduler (rate-limit eviction,
+ * load-shedding updates).
+ * <p>
+ * Coalesced reads are not invalidated: no request waits on an archival write, so no caller can
+ * expect to see its effect. The moved rows stay visible to the {@code includeArchived} reads.
+ */
+@Component
+@Slf4j
+public class TodoArchiver implements MeterBinder, InitializingBean, DisposableBean {
+    
+    private final ArchiveProperties properties;
+    private final TodoRepository todoRepository;
+    private final DatabaseCircuitBreaker circuitBreaker;
+    private final TransactionTemplate transaction;
+    private final AtomicLong archived = new AtomicLong();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "todo-archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public TodoArchiver(ArchiveProperties properties,
+                        TodoRepository todoRepository,
+                        DatabaseCircuitBreaker circuitBreaker,
+                        PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.todoRepository = todoRepository;
+        this.circuitBreaker = circuitBreaker;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+    
+    @Override
+    public void afterPropertiesSet() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long interval = properties.getInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::run, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Archiving todos completed more than {} ago every {}", properties.getCompletedAge(), properties.getInterval());
+    }
+    
+    private void run() {
+        if (circuitBreaker.isOpen()) {
+            return;
+        }
+        try {
+            long moved = archive(LocalDateTime.now().minus(properties.getCompletedAge()));
+            if (moved > 0) {
+                log.info("Archived {} completed todos", moved);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            circuitBreaker.recordFailure(e);
+            log.warn("Archiving completed todos failed; retrying in {}: {}", properties.getInterval(), e.toString());
+        }
+    }
+    
+    /**
+     * Archives every todo completed before {@code cutoff}, batch by batch.
+     *
+     * @return the number of todos moved
+     */
+    public long archive(LocalDateTime cutoff) throws InterruptedException {
+        int batchSize = properties.getBatchSize();
+        long total = 0;
+        int moved;
+        do {
+            moved = transaction.execute(status -> todoRepository.archiveCompletedBefore(cutoff, batchSize));
+            total += moved;
+            archived.addAndGet(moved);
+            if (moved == batchSize && !properties.getBatchPause().isZero()) {
+                Thread.sleep(properties.getBatchPause().toMillis());
+            }
+        } while (moved == batchSize);
+        return total;
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("todos.archived", archived, AtomicLong::get)
+                .description("Completed todos moved to todos_archive")
+                .register(registry);
+    }
+    
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
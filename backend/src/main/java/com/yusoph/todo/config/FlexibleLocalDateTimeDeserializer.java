@@ -1,47 +1,165 @@
 package com.yusoph.todo.config;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 
 import java.io.IOException;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.time.Month;
+import java.time.Year;
 
+/**
+ * Accepts yyyy-MM-dd (start of day) and yyyy-MM-dd'T'HH:mm[:ss[.SSSSSSSSS]] with an optional
+ * Z or +-HH[:mm] offset, which is normalised to UTC.
+ * <p>
+ * Parsing works directly on the parser's character buffer: no trimmed copies, formatter lookups
+ * or exceptions on the happy path. Invalid input is reported through
+ * {@link DeserializationContext#handleWeirdStringValue}, which surfaces as a 400.
+ */
 public class FlexibleLocalDateTimeDeserializer extends JsonDeserializer<LocalDateTime> {
     
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
-    private static final DateTimeFormatter DATE_TIME_WITH_MILLIS_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+    private static final String EXPECTED_FORMATS =
+            "Expected formats: yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss[.SSS][Z|+HH:mm]";
+    
+    private static final int MAX_OFFSET_SECONDS = 18 * 3600;
+    
+    private static final int[] NANO_SCALE = {
+            1_000_000_000, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1
+    };
 
     @Override
     public LocalDateTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
-        String dateString = p.getValueAsString();
+        if (!p.hasToken(JsonToken.VALUE_STRING)) {
+            return (LocalDateTime) ctxt.handleUnexpectedToken(LocalDateTime.class, p);
+        }
+        
+        char[] buffer = p.getTextCharacters();
+        int start = p.getTextOffset();
+        int end = start + p.getTextLength();
+        
+        // Trim in place
+        while (start < end && buffer[start] <= ' ') {
+            start++;
+        }
+        while (end > start && buffer[end - 1] <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return null;
+        }
         
-        if (dateString == null || dateString.trim().isEmpty()) {
+        LocalDateTime dateTime = parse(buffer, start, end);
+        if (dateTime == null) {
+            return (LocalDateTime) ctxt.handleWeirdStringValue(LocalDateTime.class,
+                    new String(buffer, start, end - start), "Unable to parse date. " + EXPECTED_FORMATS);
+        }
+        return dateTime;
+    }
+    
+    /**
+     * Parses {@code text[start, end)}, returning null if it is not in one of the accepted formats.
+     */
+    static LocalDateTime parse(char[] text, int start, int end) {
+        // yyyy-MM-dd
+        if (end - start < 10 || text[start + 4] != '-' || text[start + 7] != '-') {
+            return null;
+        }
+        int year = digits(text, start, 4, end);
+        int month = digits(text, start + 5, 2, end);
+        int day = digits(text, start + 8, 2, end);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
             return null;
         }
+        int pos = start + 10;
+        if (pos == end) {
+            return LocalDateTime.of(year, month, day, 0, 0);
+        }
         
-        dateString = dateString.trim();
+        // 'T'HH:mm
+        if (text[pos] != 'T' || end - pos < 6 || text[pos + 3] != ':') {
+            return null;
+        }
+        int hour = digits(text, pos + 1, 2, end);
+        int minute = digits(text, pos + 4, 2, end);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return null;
+        }
+        pos += 6;
         
-        try {
-            // Try parsing as full datetime with milliseconds
-            if (dateString.contains("T") && dateString.contains(".")) {
-                return LocalDateTime.parse(dateString, DATE_TIME_WITH_MILLIS_FORMATTER);
+        // [:ss[.SSSSSSSSS]]
+        int second = 0;
+        int nano = 0;
+        if (pos < end && text[pos] == ':') {
+            second = digits(text, pos + 1, 2, end);
+            if (second < 0 || second > 59) {
+                return null;
             }
-            // Try parsing as full datetime without milliseconds
-            else if (dateString.contains("T")) {
-                return LocalDateTime.parse(dateString, DATE_TIME_FORMATTER);
+            pos += 3;
+            if (pos < end && text[pos] == '.') {
+                int fractionStart = ++pos;
+                while (pos < end && pos - fractionStart < 9 && isDigit(text[pos])) {
+                    nano = nano * 10 + (text[pos] - '0');
+                    pos++;
+                }
+                int fractionDigits = pos - fractionStart;
+                if (fractionDigits == 0 || (pos < end && isDigit(text[pos]))) {
+                    return null;
+                }
+                nano *= NANO_SCALE[fractionDigits];
             }
-            // Try parsing as date only (default to start of day)
-            else {
-                LocalDate date = LocalDate.parse(dateString, DATE_FORMATTER);
-                return date.atStartOfDay();
+        }
+        LocalDateTime dateTime = LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        if (pos == end) {
+            return dateTime;
+        }
+        
+        // [Z|+-HH[[:]mm]]
+        char designator = text[pos];
+        if (designator == 'Z' || designator == 'z') {
+            return pos + 1 == end ? dateTime : null;
+        }
+        if (designator != '+' && designator != '-') {
+            return null;
+        }
+        int offsetHours = digits(text, pos + 1, 2, end);
+        pos += 3;
+        int offsetMinutes = 0;
+        if (pos < end) {
+            if (text[pos] == ':') {
+                pos++;
+            }
+            offsetMinutes = digits(text, pos, 2, end);
+            pos += 2;
+        }
+        if (pos != end || offsetHours < 0 || offsetMinutes < 0 || offsetMinutes > 59) {
+            return null;
+        }
+        int offsetSeconds = offsetHours * 3600 + offsetMinutes * 60;
+        if (offsetSeconds > MAX_OFFSET_SECONDS) {
+            return null;
+        }
+        return dateTime.minusSeconds(designator == '-' ? -offsetSeconds : offsetSeconds);
+    }
+    
+    // Value of text[pos, pos + count) as a non-negative number, or -1 if out of bounds or not all digits
+    private static int digits(char[] text, int pos, int count, int end) {
+        if (pos + count > end) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = pos; i < pos + count; i++) {
+            char c = text[i];
+            if (!isDigit(c)) {
+                return -1;
             }
-        } catch (DateTimeParseException e) {
-            throw new RuntimeException("Unable to parse date: " + dateString + ". Expected formats: yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss[.SSS]", e);
+            value = value * 10 + (c - '0');
         }
+        return value;
+    }
+    
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
-}
\ No newline at end of file
+}
@@ -1,26 +1,27 @@
 package com.yusoph.todo.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Primary;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
+// Modules are exposed as beans so Boot's auto-configured ObjectMapper picks them up along with the
+// spring.jackson.* settings and its other modules
 @Configuration
 public class JacksonConfig {
 
     @Bean
-    @Primary
-    public ObjectMapper objectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
-        
+    public JavaTimeModule javaTimeModule() {
         JavaTimeModule javaTimeModule = new JavaTimeModule();
         
         DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
@@ -37,8 +38,25 @@ public class JacksonConfig {
         javaTimeModule.addSerializer(LocalDate.class, 
                 new LocalDateSerializer(dateFormatter));
         
-        mapper.registerModule(javaTimeModule);
-        
-        return mapper;
+        return javaTimeModule;
+    }
+    
+    // Hand-written serializers for TodoResponse and List<TodoResponse>
+    @Bean
+    public TodoJsonModule todoJsonModule() {
+        return new TodoJsonModule();
+    }
+    
+    // Accept: application/cbor. Replaces Spring's default CBOR converter so the same modules and
+    // spring.jackson.* settings apply as for JSON.
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+    
+    // Accept: application/vnd.todo.columnar+json for todo lists
+    @Bean
+    public TodoColumnarHttpMessageConverter todoColumnarHttpMessageConverter(ObjectMapper objectMapper) {
+        return new TodoColumnarHttpMessageConverter(objectMapper.getFactory());
     }
-}
\ No newline at end of file
+}
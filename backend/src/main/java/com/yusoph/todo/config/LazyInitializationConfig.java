@@ -0,0 +1,43 @@
+package com.yusoph.todo.config;
+
+import com.yusoph.todo.analytics.DailyRollupJobs;
+import com.yusoph.todo.archive.TodoArchiver;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+
+/**
+ * Beans kept eager when spring.main.lazy-initialization is on (the startup profile). Everything
+ * else is created on first use, so a replica starts serving sooner:
+ * <ul>
+ *   <li>the data source, Flyway and the entity manager factory, so migrations and schema validation
+ *       run at startup, fail it when they fail, and are not paid for by the first request;</li>
+ *   <li>beans running background work from their initialization (archiver, rollup jobs) or from
+ *       {@code @Scheduled} methods, which would otherwise never run until something used them.</li>
+ * </ul>
+ */
+@Configuration(proxyBeanMethods = false)
+public class LazyInitializationConfig {
+    
+    @Bean
+    static LazyInitializationExcludeFilter eagerBeans() {
+        LazyInitializationExcludeFilter critical = LazyInitializationExcludeFilter.forBeanTypes(
+                DataSource.class, FlywayMigrationInitializer.class, EntityManagerFactory.class,
+                TodoArchiver.class, DailyRollupJobs.class);
+        return (beanName, beanDefinition, beanType) ->
+                critical.isExcluded(beanName, beanDefinition, beanType) || hasScheduledMethods(beanType);
+    }
+    
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return beanType != null && Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(beanType))
+                .anyMatch(method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+    }
+}
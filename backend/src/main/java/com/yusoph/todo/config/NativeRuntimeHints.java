@@ -0,0 +1,95 @@
+package com.yusoph.todo.config;
+
+import com.yusoph.todo.dto.AdminTodoPageResponse;
+import com.yusoph.todo.dto.AdminTodoResponse;
+import com.yusoph.todo.dto.AuthResponse;
+import com.yusoph.todo.dto.LoginRequest;
+import com.yusoph.todo.dto.RegisterRequest;
+import com.yusoph.todo.dto.TodoCreateRequest;
+import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.dto.TodoStatsResponse;
+import com.yusoph.todo.dto.TodoUpdateRequest;
+import com.yusoph.todo.dto.UpdateUserRequest;
+import com.yusoph.todo.dto.UserResponse;
+import com.yusoph.todo.entity.ArchivedTodo;
+import com.yusoph.todo.entity.Todo;
+import com.yusoph.todo.entity.TodoDailyRollup;
+import com.yusoph.todo.entity.User;
+import com.yusoph.todo.repository.DailyRollupTotals;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reachability metadata for the native image (the native profile) beyond what Spring's AOT
+ * processing infers from the bean definitions:
+ * <ul>
+ *   <li>the entities, which Hibernate reads and writes field by field, and their enums;</li>
+ *   <li>the targets of JPQL and Criteria constructor expressions, which Hibernate instantiates by
+ *       reflection and Spring never sees;</li>
+ *   <li>the request and response bodies, bound by Jackson, and the serializers registered in
+ *       {@link JacksonConfig} (including {@link FlexibleLocalDateTimeDeserializer} for every
+ *       {@code LocalDateTime} field of a request);</li>
+ *   <li>jjwt, whose API module loads its implementation by class name and its Jackson serializer
+ *       through {@code java.util.ServiceLoader}.</li>
+ * </ul>
+ * A type missing here fails only on the first request that needs it, so new DTOs, constructor
+ * expressions and entities belong in these lists.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+    
+    private static final List<Class<?>> ENTITIES = List.of(
+            Todo.class, Todo.Priority.class, User.class, User.Role.class,
+            ArchivedTodo.class, TodoDailyRollup.class, TodoDailyRollup.Key.class);
+    
+    // SELECT new ... and CriteriaBuilder.construct(...)
+    private static final List<Class<?>> CONSTRUCTED = List.of(
+            TodoResponse.class, AdminTodoResponse.class, TodoStatsResponse.class, DailyRollupTotals.class);
+    
+    private static final List<Class<?>> BODIES = List.of(
+            RegisterRequest.class, LoginRequest.class, AuthResponse.class, UpdateUserRequest.class, UserResponse.class,
+            TodoCreateRequest.class, TodoUpdateRequest.class, TodoResponse.class, TodoStatsResponse.class,
+            AdminTodoPageResponse.class, AdminTodoResponse.class);
+    
+    // Registered by instance in JacksonConfig; also nameable in @JsonDeserialize/@JsonSerialize(using = ...)
+    private static final List<Class<?>> JACKSON = List.of(
+            FlexibleLocalDateTimeDeserializer.class, TodoResponseSerializer.class);
+    
+    // Instantiated by io.jsonwebtoken.lang.Classes from jjwt-impl, a runtime-only dependency
+    private static final List<String> JJWT_IMPLEMENTATIONS = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+    
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> entity : ENTITIES) {
+            hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+        for (Class<?> type : CONSTRUCTED) {
+            hints.reflection().registerType(type, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), BODIES.toArray(Class<?>[]::new));
+        for (Class<?> type : JACKSON) {
+            hints.reflection().registerType(type, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+        
+        for (String implementation : JJWT_IMPLEMENTATIONS) {
+            hints.reflection().registerType(TypeReference.of(implementation), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.Serializer");
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.Deserializer");
+    }
+}
@@ -0,0 +1,192 @@
+package com.yusoph.todo.config;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.entity.Todo;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes {@code List<TodoResponse>} bodies as one array per field when the client sends
+ * {@code Accept: application/vnd.todo.columnar+json}:
+ * <pre>
+ * {"count":2,"id":[1,2],"title":[..],"description":[..],"completed":[true,false],
+ *  "priorityDictionary":["LOW","MEDIUM","HIGH"],"priority":[2,0],
+ *  "createdAt":[1709288130000000,5000000],"updatedAt":[..],"dueDate":[null,1709337600000000]}
+ * </pre>
+ * {@code priority} holds indexes into {@code priorityDictionary}. Timestamps are epoch microseconds
+ * (UTC), the precision PostgreSQL stores; anything finer is truncated. Each is the difference from
+ * the previous non-null value in its column, so the first is absolute. Epoch microseconds stay well
+ * within JavaScript's exact integer range. Decoded by {@code decodeColumnarTodos} in the frontend's
+ * todoApi.ts.
+ */
+public class TodoColumnarHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<TodoResponse>> {
+    
+    public static final MediaType COLUMNAR_JSON = MediaType.parseMediaType("application/vnd.todo.columnar+json");
+    
+    private static final SerializedString COUNT = new SerializedString("count");
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString COMPLETED = new SerializedString("completed");
+    private static final SerializedString PRIORITY_DICTIONARY = new SerializedString("priorityDictionary");
+    private static final SerializedString PRIORITY = new SerializedString("priority");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializedString DUE_DATE = new SerializedString("dueDate");
+    
+    private final JsonFactory jsonFactory;
+    
+    public TodoColumnarHttpMessageConverter(JsonFactory jsonFactory) {
+        super(COLUMNAR_JSON);
+        this.jsonFactory = jsonFactory;
+    }
+    
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+    
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+    
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+    
+    // Only an explicit Accept for the columnar type selects this converter. Returning false for a null
+    // media type keeps it out of the producible types, so */* still negotiates plain JSON; the
+    // columnar type is still producible through Jackson's application/*+json (see the converter tests).
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return type != null && mediaType != null && COLUMNAR_JSON.equalsTypeAndSubtype(mediaType)
+                && ResolvableType.forType(type).asCollection().resolveGeneric(0) == TodoResponse.class;
+    }
+    
+    @Override
+    public boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+    
+    @Override
+    public List<TodoResponse> read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar todo lists are write-only", inputMessage);
+    }
+    
+    @Override
+    protected List<TodoResponse> readInternal(Class<? extends List<TodoResponse>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar todo lists are write-only", inputMessage);
+    }
+    
+    @Override
+    protected void writeInternal(List<TodoResponse> todos, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator gen = jsonFactory.createGenerator(outputMessage.getBody(), JsonEncoding.UTF8)) {
+            write(todos, gen);
+        }
+    }
+    
+    public static void write(List<TodoResponse> todos, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(COUNT);
+        gen.writeNumber(todos.size());
+        
+        gen.writeFieldName(ID);
+        gen.writeStartArray(todos, todos.size());
+        for (TodoResponse todo : todos) {
+            if (todo.getId() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(todo.getId());
+            }
+        }
+        gen.writeEndArray();
+        
+        writeStrings(TITLE, todos, TodoResponse::getTitle, gen);
+        writeStrings(DESCRIPTION, todos, TodoResponse::getDescription, gen);
+        
+        gen.writeFieldName(COMPLETED);
+        gen.writeStartArray(todos, todos.size());
+        for (TodoResponse todo : todos) {
+            if (todo.getCompleted() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeBoolean(todo.getCompleted());
+            }
+        }
+        gen.writeEndArray();
+        
+        Todo.Priority[] priorities = Todo.Priority.values();
+        gen.writeFieldName(PRIORITY_DICTIONARY);
+        gen.writeStartArray(priorities, priorities.length);
+        for (Todo.Priority priority : priorities) {
+            gen.writeString(priority.name());
+        }
+        gen.writeEndArray();
+        gen.writeFieldName(PRIORITY);
+        gen.writeStartArray(todos, todos.size());
+        for (TodoResponse todo : todos) {
+            if (todo.getPriority() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(todo.getPriority().ordinal());
+            }
+        }
+        gen.writeEndArray();
+        
+        writeTimestampDeltas(CREATED_AT, todos, TodoResponse::getCreatedAt, gen);
+        writeTimestampDeltas(UPDATED_AT, todos, TodoResponse::getUpdatedAt, gen);
+        writeTimestampDeltas(DUE_DATE, todos, TodoResponse::getDueDate, gen);
+        
+        gen.writeEndObject();
+    }
+    
+    private static void writeStrings(SerializedString name, List<TodoResponse> todos,
+                                     Function<TodoResponse, String> column, JsonGenerator gen) throws IOException {
+        gen.writeFieldName(name);
+        gen.writeStartArray(todos, todos.size());
+        for (TodoResponse todo : todos) {
+            gen.writeString(column.apply(todo));
+        }
+        gen.writeEndArray();
+    }
+    
+    private static void writeTimestampDeltas(SerializedString name, List<TodoResponse> todos,
+                                             Function<TodoResponse, LocalDateTime> column, JsonGenerator gen) throws IOException {
+        gen.writeFieldName(name);
+        gen.writeStartArray(todos, todos.size());
+        long previous = 0;
+        for (TodoResponse todo : todos) {
+            LocalDateTime value = column.apply(todo);
+            if (value == null) {
+                gen.writeNull();
+            } else {
+                long epochMicro = toEpochMicro(value);
+                gen.writeNumber(epochMicro - previous);
+                previous = epochMicro;
+            }
+        }
+        gen.writeEndArray();
+    }
+    
+    private static long toEpochMicro(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + value.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,68 @@
+package com.yusoph.todo.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.Serializers;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.yusoph.todo.dto.TodoResponse;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Registers {@link TodoResponseSerializer} for single todos and a dedicated serializer for
+ * {@code List<TodoResponse>} bodies, which writes every element with one shared date buffer
+ * and skips the per-element serializer lookup of the generic collection serializer.
+ * <p>
+ * Both write into the generator's own output buffer, which Jackson recycles between requests.
+ */
+public class TodoJsonModule extends SimpleModule {
+    
+    public TodoJsonModule() {
+        super("TodoJsonModule");
+        addSerializer(TodoResponse.class, new TodoResponseSerializer());
+    }
+    
+    @Override
+    public void setupModule(SetupContext context) {
+        super.setupModule(context);
+        context.addSerializers(new Serializers.Base() {
+            @Override
+            public JsonSerializer<?> findCollectionSerializer(SerializationConfig config, CollectionType type,
+                                                              BeanDescription beanDesc, TypeSerializer elementTypeSerializer,
+                                                              JsonSerializer<Object> elementValueSerializer) {
+                return type.getContentType().hasRawClass(TodoResponse.class) ? TodoResponseListSerializer.INSTANCE : null;
+            }
+        });
+    }
+    
+    static class TodoResponseListSerializer extends StdSerializer<Collection<TodoResponse>> {
+        
+        static final TodoResponseListSerializer INSTANCE = new TodoResponseListSerializer();
+        
+        @SuppressWarnings("unchecked")
+        private TodoResponseListSerializer() {
+            super((Class<Collection<TodoResponse>>) (Class<?>) Collection.class);
+        }
+        
+        @Override
+        public void serialize(Collection<TodoResponse> todos, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            char[] scratch = new char[TodoResponseSerializer.DATE_TIME_MAX_LENGTH];
+            gen.writeStartArray(todos, todos.size());
+            for (TodoResponse todo : todos) {
+                if (todo == null) {
+                    gen.writeNull();
+                } else {
+                    TodoResponseSerializer.write(todo, gen, scratch);
+                }
+            }
+            gen.writeEndArray();
+        }
+    }
+}
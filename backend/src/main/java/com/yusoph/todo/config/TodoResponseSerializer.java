@@ -0,0 +1,156 @@
+package com.yusoph.todo.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.entity.Todo;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes {@link TodoResponse} straight to the {@link JsonGenerator} instead of going through
+ * bean introspection. Field names and {@link Todo.Priority} values are pre-encoded once, and
+ * dates are formatted into a reusable scratch buffer rather than through {@link DateTimeFormatter}.
+ * <p>
+ * Output is byte-for-byte what the reflective serializer produced: same field order, nulls
+ * included, dates as {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}.
+ */
+public class TodoResponseSerializer extends StdSerializer<TodoResponse> {
+    
+    // yyyy-MM-ddTHH:mm:ss.SSSSSSSSS
+    static final int DATE_TIME_MAX_LENGTH = 29;
+    
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString COMPLETED = new SerializedString("completed");
+    private static final SerializedString PRIORITY = new SerializedString("priority");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializedString DUE_DATE = new SerializedString("dueDate");
+    
+    private static final SerializedString[] PRIORITY_NAMES;
+    
+    static {
+        Todo.Priority[] priorities = Todo.Priority.values();
+        PRIORITY_NAMES = new SerializedString[priorities.length];
+        for (Todo.Priority priority : priorities) {
+            PRIORITY_NAMES[priority.ordinal()] = new SerializedString(priority.name());
+        }
+    }
+    
+    public TodoResponseSerializer() {
+        super(TodoResponse.class);
+    }
+    
+    @Override
+    public void serialize(TodoResponse todo, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        write(todo, gen, new char[DATE_TIME_MAX_LENGTH]);
+    }
+    
+    /**
+     * Writes one todo object; {@code scratch} must hold at least {@link #DATE_TIME_MAX_LENGTH} chars
+     * and can be shared across calls on the same thread.
+     */
+    static void write(TodoResponse todo, JsonGenerator gen, char[] scratch) throws IOException {
+        gen.writeStartObject(todo);
+        
+        gen.writeFieldName(ID);
+        if (todo.getId() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(todo.getId());
+        }
+        
+        gen.writeFieldName(TITLE);
+        gen.writeString(todo.getTitle());
+        
+        gen.writeFieldName(DESCRIPTION);
+        gen.writeString(todo.getDescription());
+        
+        gen.writeFieldName(COMPLETED);
+        if (todo.getCompleted() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeBoolean(todo.getCompleted());
+        }
+        
+        gen.writeFieldName(PRIORITY);
+        if (todo.getPriority() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(PRIORITY_NAMES[todo.getPriority().ordinal()]);
+        }
+        
+        gen.writeFieldName(CREATED_AT);
+        writeDateTime(todo.getCreatedAt(), gen, scratch);
+        gen.writeFieldName(UPDATED_AT);
+        writeDateTime(todo.getUpdatedAt(), gen, scratch);
+        gen.writeFieldName(DUE_DATE);
+        writeDateTime(todo.getDueDate(), gen, scratch);
+        
+        gen.writeEndObject();
+    }
+    
+    private static void writeDateTime(LocalDateTime value, JsonGenerator gen, char[] scratch) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        int length = formatDateTime(value, scratch);
+        if (length < 0) {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        } else {
+            gen.writeString(scratch, 0, length);
+        }
+    }
+    
+    /**
+     * Formats like {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME} into {@code out} and returns the
+     * length, or -1 for years outside 0000-9999, which that formatter writes with a sign.
+     */
+    static int formatDateTime(LocalDateTime value, char[] out) {
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            return -1;
+        }
+        write2(out, 0, year / 100);
+        write2(out, 2, year % 100);
+        out[4] = '-';
+        write2(out, 5, value.getMonthValue());
+        out[7] = '-';
+        write2(out, 8, value.getDayOfMonth());
+        out[10] = 'T';
+        write2(out, 11, value.getHour());
+        out[13] = ':';
+        write2(out, 14, value.getMinute());
+        out[16] = ':';
+        write2(out, 17, value.getSecond());
+        
+        int nano = value.getNano();
+        if (nano == 0) {
+            return 19;
+        }
+        // Fraction with trailing zeros removed, as appendFraction(NANO_OF_SECOND, 0, 9, true) does
+        out[19] = '.';
+        int digits = 9;
+        while (nano % 10 == 0) {
+            nano /= 10;
+            digits--;
+        }
+        for (int i = 19 + digits; i > 19; i--) {
+            out[i] = (char) ('0' + nano % 10);
+            nano /= 10;
+        }
+        return 20 + digits;
+    }
+    
+    private static void write2(char[] out, int pos, int value) {
+        out[pos] = (char) ('0' + value / 10);
+        out[pos + 1] = (char) ('0' + value % 10);
+    }
+}
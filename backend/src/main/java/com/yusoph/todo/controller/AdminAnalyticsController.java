@@ -0,0 +1,59 @@
+package com.yusoph.todo.controller;
+
+import com.yusoph.todo.analytics.AnalyticsService;
+import com.yusoph.todo.analytics.DailyRollupJobs;
+import com.yusoph.todo.dto.AnalyticsResponse;
+import com.yusoph.todo.dto.RollupBackfillResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/admin/analytics")
+@RequiredArgsConstructor
+@Slf4j
+@Profile("!embedded")
+@PreAuthorize("hasRole('ADMIN')")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class AdminAnalyticsController {
+    
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    
+    private final AnalyticsService analyticsService;
+    private final DailyRollupJobs rollupJobs;
+    
+    // GET /api/admin/analytics?from=2024-01-01&to=2024-01-31&userId=42 - Daily created, completed and
+    // overdue counts by priority (defaults: the last 30 days, all users)
+    @GetMapping
+    public ResponseEntity<AnalyticsResponse> getTrends(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long userId) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        log.info("GET /api/admin/analytics - from: {}, to: {}, userId: {}", start, end, userId);
+        return ResponseEntity.ok(analyticsService.getTrends(start, end, userId));
+    }
+    
+    // POST /api/admin/analytics/backfill - Rebuild all rollups from todos in the background
+    @PostMapping("/backfill")
+    public ResponseEntity<RollupBackfillResponse> startBackfill() {
+        log.info("POST /api/admin/analytics/backfill");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(rollupJobs.startBackfill());
+    }
+    
+    // GET /api/admin/analytics/backfill - State of the last backfill
+    @GetMapping("/backfill")
+    public ResponseEntity<RollupBackfillResponse> getBackfillStatus() {
+        return rollupJobs.backfillStatus()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
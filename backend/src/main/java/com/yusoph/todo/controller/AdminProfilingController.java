@@ -0,0 +1,65 @@
+package com.yusoph.todo.controller;
+
+import com.yusoph.todo.service.JfrRecordingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/jfr")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasRole('ADMIN')")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class AdminProfilingController {
+    
+    private final JfrRecordingService jfrRecordingService;
+    
+    // GET /api/admin/jfr - Get the state of the current recording
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getRecordingStatus() {
+        return ResponseEntity.ok(jfrRecordingService.status());
+    }
+    
+    // POST /api/admin/jfr/start - Start a JFR recording
+    @PostMapping("/start")
+    public ResponseEntity<Map<String, Object>> startRecording(
+            @RequestParam(required = false, defaultValue = "profile") String settings,
+            @RequestParam(required = false) Long maxDurationSeconds) {
+        log.info("POST /api/admin/jfr/start - settings: {}, maxDurationSeconds: {}", settings, maxDurationSeconds);
+        Duration maxDuration = maxDurationSeconds != null ? Duration.ofSeconds(maxDurationSeconds) : null;
+        return ResponseEntity.ok(jfrRecordingService.start(settings, maxDuration));
+    }
+    
+    // POST /api/admin/jfr/stop - Stop the recording and stream back the .jfr file
+    @PostMapping("/stop")
+    public ResponseEntity<StreamingResponseBody> stopRecording() throws IOException {
+        log.info("POST /api/admin/jfr/stop");
+        Path file = jfrRecordingService.stop();
+        
+        StreamingResponseBody body = outputStream -> {
+            try {
+                Files.copy(file, outputStream);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,37 @@
+package com.yusoph.todo.controller;
+
+import com.yusoph.todo.dto.AdminTodoPageResponse;
+import com.yusoph.todo.entity.Todo;
+import com.yusoph.todo.repository.AdminTodoFilter;
+import com.yusoph.todo.service.TodoService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/todos")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasRole('ADMIN')")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class AdminTodoController {
+    
+    private final TodoService todoService;
+    
+    // GET /api/admin/todos?owner=alice&completed=false&priority=HIGH&cursor=1200&size=50 - All users'
+    // todos with their owner's username and email, in id order; pass nextCursor back as cursor
+    @GetMapping
+    public ResponseEntity<AdminTodoPageResponse> getTodosWithOwners(
+            @RequestParam(required = false) String owner,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) Todo.Priority priority,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false, defaultValue = "50") int size) {
+        log.info("GET /api/admin/todos - owner: {}, completed: {}, priority: {}, cursor: {}, size: {}",
+                owner, completed, priority, cursor, size);
+        AdminTodoFilter filter = new AdminTodoFilter(owner, completed, priority);
+        return ResponseEntity.ok(todoService.getTodosWithOwners(filter, cursor, size));
+    }
+}
@@ -1,10 +1,12 @@
 package com.yusoph.todo.controller;
 
+import com.yusoph.todo.dto.AccountDeletionResponse;
 import com.yusoph.todo.dto.AuthResponse;
 import com.yusoph.todo.dto.LoginRequest;
 import com.yusoph.todo.dto.RegisterRequest;
 import com.yusoph.todo.dto.UpdateUserRequest;
 import com.yusoph.todo.dto.UserResponse;
+import com.yusoph.todo.service.AccountDeletionService;
 import com.yusoph.todo.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -12,7 +14,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.Map;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -21,6 +25,7 @@ import java.util.Map;
 public class AuthController {
     
     private final AuthService authService;
+    private final AccountDeletionService accountDeletionService;
     
     /**
      * Register a new user
@@ -68,11 +73,25 @@ public class AuthController {
     }
     
     /**
-     * Delete current user account
+     * Delete current user account. The account is disabled immediately and deleted in the
+     * background; the Location header points at the deletion's status.
      */
     @DeleteMapping("/me")
-    public ResponseEntity<Map<String, String>> deleteAccount() {
-        authService.deleteAccount();
-        return ResponseEntity.ok(Map.of("message", "Account deleted successfully"));
+    public ResponseEntity<AccountDeletionResponse> deleteAccount() {
+        AccountDeletionResponse response = authService.deleteAccount();
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/auth/deletions/" + response.getId()))
+                .body(response);
+    }
+    
+    /**
+     * Status of an account deletion (the account's token stops working once it is requested,
+     * so the unguessable id is the only credential)
+     */
+    @GetMapping("/deletions/{id}")
+    public ResponseEntity<AccountDeletionResponse> getAccountDeletion(@PathVariable UUID id) {
+        return accountDeletionService.status(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 }
@@ -0,0 +1,30 @@
+package com.yusoph.todo.controller;
+
+import com.yusoph.todo.dto.BootstrapResponse;
+import com.yusoph.todo.entity.User;
+import com.yusoph.todo.service.BootstrapService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/bootstrap")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class BootstrapController {
+    
+    private final BootstrapService bootstrapService;
+    
+    // GET /api/bootstrap - Current user, first page of todos and stats in one round trip
+    // (admins get estimated stats unless exactStats=true)
+    @GetMapping
+    public ResponseEntity<BootstrapResponse> bootstrap(@AuthenticationPrincipal User user,
+                                                       @RequestParam(required = false) Integer size,
+                                                       @RequestParam(required = false, defaultValue = "false") boolean exactStats) {
+        log.info("GET /api/bootstrap - user: {}, size: {}, exactStats: {}", user.getUsername(), size, exactStats);
+        return ResponseEntity.ok(bootstrapService.bootstrap(user, size, exactStats));
+    }
+}
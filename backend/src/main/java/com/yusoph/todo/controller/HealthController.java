@@ -1,5 +1,9 @@
 package com.yusoph.todo.controller;
 
+import com.yusoph.todo.loadshedding.AdaptiveConcurrencyLimiter;
+import com.yusoph.todo.resilience.DatabaseCircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -10,13 +14,23 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/health")
+@RequiredArgsConstructor
 public class HealthController {
 
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final DatabaseCircuitBreaker circuitBreaker;
+
+    // 503 while the node keeps shedding core requests, so load balancers route new traffic elsewhere.
+    // A database outage is reported as DEGRADED but stays 200: every node shares the database,
+    // and this one can still serve snapshots.
     @GetMapping
-    public ResponseEntity<Map<String, String>> health() {
-        Map<String, String> response = new HashMap<>();
-        response.put("status", "UP");
+    public ResponseEntity<Map<String, Object>> health() {
+        boolean saturated = concurrencyLimiter.isSaturated();
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", saturated ? "SATURATED" : circuitBreaker.isOpen() ? "DEGRADED" : "UP");
         response.put("service", "todo-api");
-        return ResponseEntity.ok(response);
+        response.put("concurrency", concurrencyLimiter.state());
+        response.put("database", circuitBreaker.state());
+        return ResponseEntity.status(saturated ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK).body(response);
     }
 }
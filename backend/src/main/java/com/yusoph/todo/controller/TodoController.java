@@ -1,20 +1,28 @@
 package com.yusoph.todo.controller;
 
 import com.yusoph.todo.dto.TodoCreateRequest;
+import com.yusoph.todo.dto.TodoField;
 import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.dto.TodoStatsResponse;
 import com.yusoph.todo.dto.TodoUpdateRequest;
 import com.yusoph.todo.entity.Todo;
+import com.yusoph.todo.repository.TodoQuery;
+import com.yusoph.todo.repository.TodoSort;
 import com.yusoph.todo.service.TodoService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/todos")
@@ -25,11 +33,16 @@ public class TodoController {
     
     private final TodoService todoService;
     
-    // GET /api/todos - Get all todos
+    // GET /api/todos - Get all todos (archived ones too with includeArchived=true)
     @GetMapping
     public ResponseEntity<List<TodoResponse>> getAllTodos(
-            @RequestParam(required = false, defaultValue = "false") boolean orderByPriority) {
-        log.info("GET /api/todos - orderByPriority: {}", orderByPriority);
+            @RequestParam(required = false, defaultValue = "false") boolean orderByPriority,
+            @RequestParam(required = false, defaultValue = "false") boolean includeArchived) {
+        log.info("GET /api/todos - orderByPriority: {}, includeArchived: {}", orderByPriority, includeArchived);
+        
+        if (includeArchived) {
+            return ResponseEntity.ok(todoService.getAllTodosIncludingArchived(orderByPriority));
+        }
         
         List<TodoResponse> todos = orderByPriority ? 
                 todoService.getAllTodosOrderedByPriority() : 
@@ -38,6 +51,15 @@ public class TodoController {
         return ResponseEntity.ok(todos);
     }
     
+    // GET /api/todos?fields=id,title,... - Get all todos, selecting only the given columns
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllTodoFields(
+            @RequestParam(required = false, defaultValue = "false") boolean orderByPriority,
+            @RequestParam String fields) {
+        log.info("GET /api/todos?fields={} - orderByPriority: {}", fields, orderByPriority);
+        return ResponseEntity.ok(todoService.getAllTodoFields(TodoField.parse(fields), orderByPriority));
+    }
+    
     // GET /api/todos/{id} - Get todo by ID
     @GetMapping("/{id}")
     public ResponseEntity<TodoResponse> getTodoById(@PathVariable Long id) {
@@ -70,6 +92,14 @@ public class TodoController {
         return ResponseEntity.ok(todos);
     }
     
+    // GET /api/todos/search?fields=id,title,... - Search todos by title, selecting only the given columns
+    @GetMapping(value = "/search", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> searchTodoFields(@RequestParam String title,
+                                                                      @RequestParam String fields) {
+        log.info("GET /api/todos/search?title={}&fields={}", title, fields);
+        return ResponseEntity.ok(todoService.searchTodoFieldsByTitle(title, TodoField.parse(fields)));
+    }
+    
     // GET /api/todos/overdue - Get overdue todos
     @GetMapping("/overdue")
     public ResponseEntity<List<TodoResponse>> getOverdueTodos() {
@@ -78,17 +108,45 @@ public class TodoController {
         return ResponseEntity.ok(todos);
     }
     
-    // GET /api/todos/stats - Get todo statistics
+    // GET /api/todos/overdue?fields=id,title,... - Get overdue todos, selecting only the given columns
+    @GetMapping(value = "/overdue", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getOverdueTodoFields(@RequestParam String fields) {
+        log.info("GET /api/todos/overdue?fields={}", fields);
+        return ResponseEntity.ok(todoService.getOverdueTodoFields(TodoField.parse(fields)));
+    }
+    
+    // GET /api/todos/query?completed=false&priority=HIGH,MEDIUM&dueFrom=...&dueTo=...&createdFrom=...&createdTo=...
+    //     &text=milk&sort=dueDate&direction=desc&limit=50 - Any combination of filters in one query. Ranges are
+    // [from, to); sort is id (default), createdAt, dueDate or priority
+    @GetMapping("/query")
+    public ResponseEntity<List<TodoResponse>> queryTodos(
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) Set<Todo.Priority> priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) String text,
+            @RequestParam(required = false, defaultValue = "id") String sort,
+            @RequestParam(required = false, defaultValue = "asc") String direction,
+            @RequestParam(required = false) Integer limit) {
+        TodoQuery query = new TodoQuery(null, completed, priority, dueFrom, dueTo, createdFrom, createdTo,
+                text == null || text.isBlank() ? null : text.trim(), TodoSort.parse(sort),
+                Sort.Direction.fromString(direction).isDescending(), limit);
+        log.info("GET /api/todos/query - {}", query);
+        return ResponseEntity.ok(todoService.queryTodos(query));
+    }
+    
+    // GET /api/todos/stats - Get todo statistics (archived todos counted with includeArchived=true;
+    // admins get estimates with error bounds unless exact=true)
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Long>> getTodoStats() {
-        log.info("GET /api/todos/stats");
-        Map<String, Long> stats = new HashMap<>();
-        stats.put("total", todoService.getTodoCount());
-        stats.put("completed", todoService.getCompletedTodoCount());
-        stats.put("pending", todoService.getPendingTodoCount());
-        stats.put("highPriority", todoService.getHighPriorityTodoCount());
-        stats.put("mediumPriority", todoService.getMediumPriorityTodoCount());
-        stats.put("lowPriority", todoService.getLowPriorityTodoCount());
+    public ResponseEntity<TodoStatsResponse> getTodoStats(
+            @RequestParam(required = false, defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false, defaultValue = "false") boolean exact) {
+        log.info("GET /api/todos/stats - includeArchived: {}, exact: {}", includeArchived, exact);
+        TodoStatsResponse stats = includeArchived ?
+                todoService.getTodoStatsIncludingArchived(exact) :
+                todoService.getTodoStats(exact);
         return ResponseEntity.ok(stats);
     }
     
@@ -0,0 +1,21 @@
+package com.yusoph.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountDeletionResponse {
+    
+    private UUID id;
+    // QUEUED, RUNNING, COMPLETED or FAILED
+    private String status;
+    private long deletedTodos;
+    private LocalDateTime requestedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,18 @@
+package com.yusoph.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminTodoPageResponse {
+    
+    // Ordered by id
+    private List<AdminTodoResponse> todos;
+    // Pass as ?cursor= for the next page; null on the last page
+    private Long nextCursor;
+}
@@ -0,0 +1,27 @@
+package com.yusoph.todo.dto;
+
+import com.yusoph.todo.entity.Todo;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A TodoResponse plus its owner, for the admin list across users
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminTodoResponse {
+    
+    private Long id;
+    private String title;
+    private String description;
+    private Boolean completed;
+    private Todo.Priority priority;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime dueDate;
+    private Long ownerId;
+    private String ownerUsername;
+    private String ownerEmail;
+}
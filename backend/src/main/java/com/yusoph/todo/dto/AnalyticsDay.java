@@ -0,0 +1,20 @@
+package com.yusoph.todo.dto;
+
+import com.yusoph.todo.entity.Todo;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsDay {
+    
+    private LocalDate date;
+    private RollupCounts total;
+    // Every priority is present, with zeros for days without activity
+    private Map<Todo.Priority, RollupCounts> byPriority;
+}
@@ -0,0 +1,22 @@
+package com.yusoph.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsResponse {
+    
+    private LocalDate from;
+    private LocalDate to;
+    // Null when the counts cover all users
+    private Long userId;
+    private RollupCounts total;
+    // One entry per day from..to, in order
+    private List<AnalyticsDay> days;
+}
@@ -0,0 +1,19 @@
+package com.yusoph.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BootstrapResponse {
+    
+    private UserResponse user;
+    // First page of todos, ordered by id
+    private List<TodoResponse> todos;
+    private boolean hasMoreTodos;
+    private TodoStatsResponse stats;
+}
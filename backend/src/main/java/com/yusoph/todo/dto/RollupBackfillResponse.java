@@ -0,0 +1,21 @@
+package com.yusoph.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupBackfillResponse {
+    
+    // RUNNING, COMPLETED or FAILED
+    private String status;
+    private int parallelism;
+    private long partitionsDone;
+    private long rollupRows;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
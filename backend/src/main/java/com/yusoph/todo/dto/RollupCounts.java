@@ -0,0 +1,16 @@
+package com.yusoph.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupCounts {
+    
+    private long created;
+    private long completed;
+    // Todos due that day that were still open at its end
+    private long overdue;
+}
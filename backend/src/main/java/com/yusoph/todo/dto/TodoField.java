@@ -0,0 +1,54 @@
+package com.yusoph.todo.dto;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Fields of {@link TodoResponse} that can be requested with {@code ?fields=}. The name is both the
+ * JSON property and the {@code Todo} entity attribute it is selected from.
+ */
+public enum TodoField {
+    ID("id"),
+    TITLE("title"),
+    DESCRIPTION("description"),
+    COMPLETED("completed"),
+    PRIORITY("priority"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt"),
+    DUE_DATE("dueDate");
+    
+    private final String name;
+    
+    TodoField(String name) {
+        this.name = name;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Parses a comma-separated field list such as {@code id,title,completed}. Fields are returned in
+     * {@link TodoResponse} order regardless of the order requested.
+     */
+    public static Set<TodoField> parse(String fields) {
+        Set<TodoField> result = EnumSet.noneOf(TodoField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            result.add(Arrays.stream(values())
+                    .filter(field -> field.name.equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown field '" + trimmed + "'. Allowed fields: "
+                            + Arrays.stream(values()).map(TodoField::getName).collect(Collectors.joining(",")))));
+        }
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("fields must name at least one field");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,21 @@
+package com.yusoph.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How far each count of an estimated {@link TodoStatsResponse} may be off, in todos, at about 95% confidence.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoStatsErrorBounds {
+    
+    private long total;
+    private long completed;
+    private long pending;
+    private long highPriority;
+    private long mediumPriority;
+    private long lowPriority;
+}
@@ -0,0 +1,29 @@
+package com.yusoph.todo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoStatsResponse {
+    
+    private Long total;
+    private Long completed;
+    private Long pending;
+    private Long highPriority;
+    private Long mediumPriority;
+    private Long lowPriority;
+    // False for admin estimates from PostgreSQL's statistics, see TodoStatsEstimator
+    private boolean exact = true;
+    // Only on estimates
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private TodoStatsErrorBounds errorBounds;
+    
+    // Exact counts; also the constructor expression of the aggregate queries
+    public TodoStatsResponse(Long total, Long completed, Long pending, Long highPriority, Long mediumPriority, Long lowPriority) {
+        this(total, completed, pending, highPriority, mediumPriority, lowPriority, true, null);
+    }
+}
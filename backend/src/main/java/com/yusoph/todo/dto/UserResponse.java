@@ -1,5 +1,6 @@
 package com.yusoph.todo.dto;
 
+import com.yusoph.todo.entity.User;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,4 +22,16 @@ public class UserResponse {
     private String role;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    
+    // Constructor from User entity
+    public UserResponse(User user) {
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.email = user.getEmail();
+        this.firstName = user.getFirstName();
+        this.lastName = user.getLastName();
+        this.role = user.getRole().name();
+        this.createdAt = user.getCreatedAt();
+        this.updatedAt = user.getUpdatedAt();
+    }
 }
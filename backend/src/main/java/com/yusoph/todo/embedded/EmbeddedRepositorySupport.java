@@ -0,0 +1,216 @@
+package com.yusoph.todo.embedded;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.orm.ObjectRetrievalFailureException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * The generic {@link JpaRepository} operations in terms of a few per-entity primitives, so the
+ * embedded repositories can stand in for the Spring Data ones. Query by example is not supported.
+ */
+abstract class EmbeddedRepositorySupport<T> implements JpaRepository<T, Long> {
+    
+    private final Class<T> entityType;
+    
+    protected EmbeddedRepositorySupport(Class<T> entityType) {
+        this.entityType = entityType;
+    }
+    
+    protected abstract Long idOf(T entity);
+    
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        for (S entity : entities) {
+            saved.add(save(entity));
+        }
+        return saved;
+    }
+    
+    @Override
+    public List<T> findAllById(Iterable<Long> ids) {
+        List<T> found = new ArrayList<>();
+        for (Long id : ids) {
+            findById(id).ifPresent(found::add);
+        }
+        return found;
+    }
+    
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        List<T> all = findAll(pageable.getSort());
+        return new PageImpl<>(page(all, pageable), pageable, all.size());
+    }
+    
+    @Override
+    public void delete(T entity) {
+        Long id = idOf(entity);
+        if (id != null) {
+            deleteById(id);
+        }
+    }
+    
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        for (Long id : ids) {
+            deleteById(id);
+        }
+    }
+    
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        for (T entity : entities) {
+            delete(entity);
+        }
+    }
+    
+    // Writes are applied and logged immediately
+    @Override
+    public void flush() {
+    }
+    
+    @Override
+    public <S extends T> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+    
+    @Override
+    public <S extends T> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+    
+    @Override
+    public void deleteAllInBatch(Iterable<T> entities) {
+        deleteAll(entities);
+    }
+    
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        deleteAllById(ids);
+    }
+    
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+    
+    @Override
+    @Deprecated
+    public T getOne(Long id) {
+        return getReferenceById(id);
+    }
+    
+    @Override
+    @Deprecated
+    public T getById(Long id) {
+        return getReferenceById(id);
+    }
+    
+    @Override
+    public T getReferenceById(Long id) {
+        return findById(id).orElseThrow(() -> new ObjectRetrievalFailureException(entityType, id));
+    }
+    
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        throw unsupported();
+    }
+    
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        throw unsupported();
+    }
+    
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        throw unsupported();
+    }
+    
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw unsupported();
+    }
+    
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        throw unsupported();
+    }
+    
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        throw unsupported();
+    }
+    
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unsupported();
+    }
+    
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Query by example is not supported by the embedded storage engine");
+    }
+    
+    static <E> List<E> page(List<E> sorted, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return sorted;
+        }
+        int from = (int) Math.min(pageable.getOffset(), sorted.size());
+        int to = Math.min(from + pageable.getPageSize(), sorted.size());
+        return new ArrayList<>(sorted.subList(from, to));
+    }
+    
+    /**
+     * Sorts by bean properties the way PostgreSQL orders the columns: enums by name (they are stored
+     * as strings) and nulls after every value, so first when descending unless the order says otherwise.
+     * Each property is read once per element, not once per comparison.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <E> List<E> sort(List<E> items, Sort sort) {
+        if (sort.isUnsorted() || items.size() < 2) {
+            return items;
+        }
+        List<Sort.Order> orders = sort.toList();
+        Object[][] keys = new Object[items.size()][];
+        Integer[] positions = new Integer[items.size()];
+        for (int i = 0; i < keys.length; i++) {
+            BeanWrapper wrapper = new BeanWrapperImpl(items.get(i));
+            keys[i] = new Object[orders.size()];
+            for (int k = 0; k < orders.size(); k++) {
+                Object value = wrapper.getPropertyValue(orders.get(k).getProperty());
+                keys[i][k] = value instanceof Enum<?> constant ? constant.name() : value;
+            }
+            positions[i] = i;
+        }
+        Comparator<Integer> comparator = null;
+        for (int k = 0; k < orders.size(); k++) {
+            Sort.Order order = orders.get(k);
+            boolean nullsFirst = order.getNullHandling() == Sort.NullHandling.NULLS_FIRST
+                    || (order.getNullHandling() == Sort.NullHandling.NATIVE && order.isDescending());
+            Comparator<Comparable> values = order.isAscending() ? Comparator.naturalOrder() : Comparator.reverseOrder();
+            values = nullsFirst ? Comparator.nullsFirst(values) : Comparator.nullsLast(values);
+            int key = k;
+            Comparator<Integer> next = Comparator.comparing(position -> (Comparable) keys[position][key], values);
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Arrays.sort(positions, comparator);
+        List<E> sorted = new ArrayList<>(items.size());
+        for (Integer position : positions) {
+            sorted.add(items.get(position));
+        }
+        return sorted;
+    }
+}
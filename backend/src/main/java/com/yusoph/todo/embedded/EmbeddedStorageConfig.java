@@ -0,0 +1,17 @@
+package com.yusoph.todo.embedded;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+// Replaces the JPA transaction manager, which is not auto-configured without a DataSource
+@Configuration
+@Profile("embedded")
+public class EmbeddedStorageConfig {
+    
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new EmbeddedTransactionManager();
+    }
+}
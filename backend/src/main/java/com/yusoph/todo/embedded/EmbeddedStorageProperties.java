@@ -0,0 +1,29 @@
+package com.yusoph.todo.embedded;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "embedded-storage")
+public class EmbeddedStorageProperties {
+    
+    // Holds the write-ahead log segments and the snapshot
+    private String directory = "./data";
+    
+    private DataSize walSegmentSize = DataSize.ofMegabytes(64);
+    
+    // Force each write to disk before returning; otherwise the log is forced every flush-interval
+    // (a process crash loses nothing either way, a power loss up to one interval)
+    private boolean syncOnWrite = false;
+    
+    private Duration flushInterval = Duration.ofSeconds(1);
+    
+    // A snapshot is taken once this much log has accumulated, checked every flush-interval
+    private DataSize snapshotAfter = DataSize.ofMegabytes(256);
+    
+    // Rows to allocate for up front
+    private int initialCapacity = 1024;
+}
@@ -0,0 +1,639 @@
+package com.yusoph.todo.embedded;
+
+import com.yusoph.todo.dto.AdminTodoResponse;
+import com.yusoph.todo.dto.TodoField;
+import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.dto.TodoStatsResponse;
+import com.yusoph.todo.entity.Todo;
+import com.yusoph.todo.entity.User;
+import com.yusoph.todo.repository.AdminTodoFilter;
+import com.yusoph.todo.repository.TodoFilter;
+import com.yusoph.todo.repository.TodoQuery;
+import com.yusoph.todo.repository.TodoRepository;
+import com.yusoph.todo.repository.TodoSort;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * {@link TodoRepository} on the embedded engine. Per-user queries walk that user's slot list; the
+ * rest scan the table. Filters and aggregates read the primitive columns directly, and objects are
+ * only created for the rows returned.
+ */
+@Repository
+@Profile("embedded")
+public class EmbeddedTodoRepository extends EmbeddedRepositorySupport<Todo> implements TodoRepository {
+    
+    private static final Comparator<TodoResponse> RESPONSE_PRIORITY_ORDER = Comparator
+            .comparing(TodoResponse::getPriority, Comparator.reverseOrder())
+            .thenComparing(TodoResponse::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(TodoResponse::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()));
+    
+    private static final Comparator<Todo> ENTITY_PRIORITY_ORDER = Comparator
+            .comparing(Todo::getPriority, Comparator.reverseOrder())
+            .thenComparing(Todo::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Todo::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()));
+    
+    @FunctionalInterface
+    private interface RowFilter {
+        boolean test(TodoTable table, int slot);
+    }
+    
+    @FunctionalInterface
+    private interface TimeColumn {
+        long get(TodoTable table, int slot);
+    }
+    
+    private static final RowFilter ALL = (table, slot) -> true;
+    
+    private final EmbeddedDatabase database;
+    
+    public EmbeddedTodoRepository(EmbeddedDatabase database) {
+        super(Todo.class);
+        this.database = database;
+    }
+    
+    @Override
+    protected Long idOf(Todo todo) {
+        return todo.getId();
+    }
+    
+    // Writes
+    
+    @Override
+    public <S extends Todo> S save(S todo) {
+        if (todo.getUser() == null || todo.getUser().getId() == null) {
+            throw new DataIntegrityViolationException("null value in column \"user_id\" of relation \"todos\"");
+        }
+        if (todo.getTitle() == null || todo.getCompleted() == null || todo.getPriority() == null) {
+            throw new DataIntegrityViolationException("null value in a not-null column of relation \"todos\"");
+        }
+        return database.write(() -> {
+            TodoTable todos = database.todos();
+            long userId = todo.getUser().getId();
+            if (!database.users().contains(userId)) {
+                throw new DataIntegrityViolationException("todos.user_id " + userId + " references no user");
+            }
+            long now = TodoRow.toMicros(LocalDateTime.now());
+            long id;
+            long createdAt;
+            if (todo.getId() == null) {
+                id = database.allocateTodoId();
+                createdAt = now;
+            } else {
+                int slot = todos.slotOf(todo.getId());
+                if (slot == LongIntHashMap.MISSING) {
+                    throw new ObjectOptimisticLockingFailureException(Todo.class, todo.getId());
+                }
+                id = todo.getId();
+                createdAt = todos.createdAt(slot);
+            }
+            database.logPutTodo(TodoRow.of(todo, id, createdAt, now));
+            todo.setId(id);
+            todo.setCreatedAt(TodoRow.fromMicros(createdAt));
+            todo.setUpdatedAt(TodoRow.fromMicros(now));
+            return todo;
+        });
+    }
+    
+    @Override
+    public void deleteById(Long id) {
+        database.write(() -> {
+            if (database.todos().slotOf(id) != LongIntHashMap.MISSING) {
+                database.logDeleteTodo(id);
+            }
+            return null;
+        });
+    }
+    
+    @Override
+    public void deleteAll() {
+        database.write(() -> {
+            TodoTable todos = database.todos();
+            List<Long> ids = new ArrayList<>(todos.size());
+            for (int slot = 0; slot < todos.highWater(); slot++) {
+                if (todos.isLive(slot)) {
+                    ids.add(todos.id(slot));
+                }
+            }
+            ids.forEach(database::logDeleteTodo);
+            return null;
+        });
+    }
+    
+    @Override
+    public int deleteChunkByUserId(Long userId, int limit) {
+        return database.write(() -> {
+            TodoTable todos = database.todos();
+            SlotList slots = todos.slotsOfUser(userId);
+            if (slots == null) {
+                return 0;
+            }
+            // From the tail of the id-ordered list, so each removal shifts nothing
+            int count = Math.min(limit, slots.size());
+            List<Long> ids = new ArrayList<>(count);
+            for (int i = slots.size() - 1; i >= slots.size() - count; i--) {
+                ids.add(todos.id(slots.get(i)));
+            }
+            ids.forEach(database::logDeleteTodo);
+            return count;
+        });
+    }
+    
+    // Archive: this engine keeps every todo hot. Its per-user slot lists have no index depth to
+    // bound, so there is never anything archived
+    
+    @Override
+    public int deleteArchivedChunkByUserId(Long userId, int limit) {
+        return 0;
+    }
+    
+    @Override
+    public int archiveCompletedBefore(LocalDateTime cutoff, int limit) {
+        return 0;
+    }
+    
+    @Override
+    public List<TodoResponse> findAllArchivedResponses() {
+        return List.of();
+    }
+    
+    @Override
+    public List<TodoResponse> findArchivedResponsesByUserId(Long userId) {
+        return List.of();
+    }
+    
+    @Override
+    public TodoStatsResponse aggregateArchivedStats() {
+        return new TodoStatsResponse(0L, 0L, 0L, 0L, 0L, 0L);
+    }
+    
+    @Override
+    public TodoStatsResponse aggregateArchivedStatsByUserId(Long userId) {
+        return new TodoStatsResponse(0L, 0L, 0L, 0L, 0L, 0L);
+    }
+    
+    // Estimates: the aggregates read the columns in memory, which is already cheap enough to
+    // answer exactly
+    
+    @Override
+    public Optional<TodoStatsResponse> estimateStats() {
+        return Optional.empty();
+    }
+    
+    @Override
+    public Optional<TodoStatsResponse> estimateArchivedStats() {
+        return Optional.empty();
+    }
+    
+    // Entities
+    
+    @Override
+    public Optional<Todo> findById(Long id) {
+        return database.read(() -> {
+            TodoTable todos = database.todos();
+            int slot = todos.slotOf(id);
+            return slot == LongIntHashMap.MISSING
+                    ? Optional.empty()
+                    : Optional.of(todos.row(slot).toEntity(database.users().get(todos.userId(slot))));
+        });
+    }
+    
+    @Override
+    public boolean existsById(Long id) {
+        return database.read(() -> database.todos().slotOf(id) != LongIntHashMap.MISSING);
+    }
+    
+    @Override
+    public long count() {
+        return database.read(() -> (long) database.todos().size());
+    }
+    
+    @Override
+    public List<Todo> findAll() {
+        return entities(null, ALL);
+    }
+    
+    @Override
+    public List<Todo> findAll(Sort sort) {
+        return sort(findAll(), sort);
+    }
+    
+    @Override
+    public List<Todo> findByUserId(Long userId) {
+        return entities(userId, ALL);
+    }
+    
+    @Override
+    public List<Todo> findByUserIdAndCompleted(Long userId, Boolean completed) {
+        return entities(userId, completed(completed));
+    }
+    
+    @Override
+    public List<Todo> findByUserIdAndPriority(Long userId, Todo.Priority priority) {
+        return entities(userId, priority(priority));
+    }
+    
+    @Override
+    public List<Todo> findByCompleted(Boolean completed) {
+        return entities(null, completed(completed));
+    }
+    
+    @Override
+    public List<Todo> findByPriority(Todo.Priority priority) {
+        return entities(null, priority(priority));
+    }
+    
+    @Override
+    public List<Todo> findByTitleContainingIgnoreCase(String title) {
+        return entities(null, titleContains(title));
+    }
+    
+    @Override
+    public List<Todo> findByCompletedAndPriority(Boolean completed, Todo.Priority priority) {
+        RowFilter completedFilter = completed(completed);
+        RowFilter priorityFilter = priority(priority);
+        return entities(null, (table, slot) -> completedFilter.test(table, slot) && priorityFilter.test(table, slot));
+    }
+    
+    @Override
+    public List<Todo> findByDueDateBefore(LocalDateTime dueDate) {
+        return entities(null, dueBefore(dueDate));
+    }
+    
+    @Override
+    public List<Todo> findOverdueTodos(LocalDateTime currentDate) {
+        return entities(null, overdue(currentDate));
+    }
+    
+    @Override
+    public List<Todo> findTodosCreatedBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        long start = TodoRow.toMicros(startDate);
+        long end = TodoRow.toMicros(endDate);
+        List<Todo> todos = entities(null, (table, slot) -> table.createdAt(slot) >= start && table.createdAt(slot) <= end);
+        todos.sort(Comparator.comparing(Todo::getCreatedAt).reversed());
+        return todos;
+    }
+    
+    @Override
+    public List<Todo> findAllOrderedByPriorityAndDueDate() {
+        List<Todo> todos = findAll();
+        todos.sort(ENTITY_PRIORITY_ORDER);
+        return todos;
+    }
+    
+    @Override
+    public List<Todo> findAllByUserIdOrderedByPriorityAndDueDate(Long userId) {
+        List<Todo> todos = findByUserId(userId);
+        todos.sort(ENTITY_PRIORITY_ORDER);
+        return todos;
+    }
+    
+    // Read-only projections
+    
+    @Override
+    public List<TodoResponse> findAllResponses(Sort sort) {
+        return sort(responses(null, ALL), sort);
+    }
+    
+    @Override
+    public List<TodoResponse> findResponsesByUserId(Long userId) {
+        return responses(userId, ALL);
+    }
+    
+    @Override
+    public Slice<TodoResponse> findAllResponses(Pageable pageable) {
+        return slice(findAllResponses(pageable.getSort()), pageable);
+    }
+    
+    @Override
+    public Slice<TodoResponse> findResponsesByUserId(Long userId, Pageable pageable) {
+        return slice(sort(responses(userId, ALL), pageable.getSort()), pageable);
+    }
+    
+    @Override
+    public List<TodoResponse> findResponsesByUserIdOrderedByPriorityAndDueDate(Long userId) {
+        List<TodoResponse> responses = responses(userId, ALL);
+        responses.sort(RESPONSE_PRIORITY_ORDER);
+        return responses;
+    }
+    
+    @Override
+    public Optional<TodoResponse> findResponseById(Long id) {
+        return database.read(() -> {
+            int slot = database.todos().slotOf(id);
+            return slot == LongIntHashMap.MISSING ? Optional.empty() : Optional.of(database.todos().response(slot));
+        });
+    }
+    
+    @Override
+    public Optional<TodoResponse> findResponseByIdAndUserId(Long id, Long userId) {
+        return database.read(() -> {
+            TodoTable todos = database.todos();
+            int slot = todos.slotOf(id);
+            return slot == LongIntHashMap.MISSING || todos.userId(slot) != userId
+                    ? Optional.empty()
+                    : Optional.of(todos.response(slot));
+        });
+    }
+    
+    @Override
+    public List<TodoResponse> findResponsesByUserIdAndCompleted(Long userId, Boolean completed) {
+        return responses(userId, completed(completed));
+    }
+    
+    @Override
+    public List<TodoResponse> findResponsesByUserIdAndPriority(Long userId, Todo.Priority priority) {
+        return responses(userId, priority(priority));
+    }
+    
+    // Matches the text literally, as the LIKE query does once wildcards are escaped
+    @Override
+    public List<TodoResponse> findResponsesByTitleContainingIgnoreCase(String title) {
+        return responses(null, titleContains(title));
+    }
+    
+    @Override
+    public List<TodoResponse> findResponsesByTitleLikeIgnoreCase(String pattern) {
+        throw new UnsupportedOperationException("LIKE patterns are not supported by the embedded storage engine");
+    }
+    
+    @Override
+    public List<TodoResponse> findOverdueResponses(LocalDateTime currentDate) {
+        return responses(null, overdue(currentDate));
+    }
+    
+    @Override
+    public TodoStatsResponse aggregateStats() {
+        return stats(null);
+    }
+    
+    @Override
+    public TodoStatsResponse aggregateStatsByUserId(Long userId) {
+        return stats(userId);
+    }
+    
+    @Override
+    public List<Map<String, Object>> findFields(Set<TodoField> fields, TodoFilter filter, boolean orderByPriority) {
+        RowFilter rowFilter = ALL;
+        if (filter.completed() != null) {
+            rowFilter = and(rowFilter, completed(filter.completed()));
+        }
+        if (filter.titleContains() != null) {
+            rowFilter = and(rowFilter, titleContains(filter.titleContains()));
+        }
+        if (filter.dueBefore() != null) {
+            rowFilter = and(rowFilter, dueBefore(filter.dueBefore()));
+        }
+        List<TodoResponse> responses = responses(filter.userId(), rowFilter);
+        if (orderByPriority) {
+            responses.sort(RESPONSE_PRIORITY_ORDER);
+        }
+        List<Map<String, Object>> rows = new ArrayList<>(responses.size());
+        for (TodoResponse response : responses) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (TodoField field : fields) {
+                row.put(field.getName(), value(response, field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+    
+    @Override
+    public List<TodoResponse> query(TodoQuery query) {
+        RowFilter rowFilter = ALL;
+        if (query.completed() != null) {
+            rowFilter = and(rowFilter, completed(query.completed()));
+        }
+        Set<Todo.Priority> priorities = query.priorities();
+        if (priorities != null && !priorities.isEmpty() && priorities.size() < Todo.Priority.values().length) {
+            rowFilter = and(rowFilter, priorities(priorities));
+        }
+        if (query.dueFrom() != null || query.dueTo() != null) {
+            rowFilter = and(rowFilter, timeRange(TodoTable::dueDate, query.dueFrom(), query.dueTo()));
+        }
+        if (query.createdFrom() != null || query.createdTo() != null) {
+            rowFilter = and(rowFilter, timeRange(TodoTable::createdAt, query.createdFrom(), query.createdTo()));
+        }
+        if (query.text() != null) {
+            rowFilter = and(rowFilter, titleContains(query.text()));
+        }
+        List<TodoResponse> responses = responses(query.userId(), rowFilter);
+        responses.sort(order(query.sort(), query.descending()));
+        return query.limit() != null && query.limit() < responses.size()
+                ? new ArrayList<>(responses.subList(0, query.limit()))
+                : responses;
+    }
+    
+    // The orders of the JPA query, nulls placed as PostgreSQL places them: last ascending, first descending
+    private static Comparator<TodoResponse> order(TodoSort sort, boolean descending) {
+        Comparator<TodoResponse> byId = Comparator.comparing(TodoResponse::getId);
+        Comparator<TodoResponse> order = switch (sort) {
+            case ID -> byId;
+            case CREATED_AT -> Comparator.comparing(TodoResponse::getCreatedAt,
+                    Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder())).thenComparing(byId);
+            case DUE_DATE -> Comparator.comparing(TodoResponse::getDueDate,
+                    Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder())).thenComparing(byId);
+            case PRIORITY -> {
+                Comparator<TodoResponse> byPriority = Comparator.comparing(TodoResponse::getPriority, Comparator.reverseOrder());
+                yield (descending ? byPriority.reversed() : byPriority)
+                        .thenComparing(RESPONSE_PRIORITY_ORDER)
+                        .thenComparing(byId);
+            }
+        };
+        return descending && sort != TodoSort.PRIORITY ? order.reversed() : order;
+    }
+    
+    @Override
+    public List<AdminTodoResponse> findWithOwners(AdminTodoFilter filter, Long afterId, int limit) {
+        return database.read(() -> {
+            Long userId = null;
+            if (filter.owner() != null) {
+                userId = database.users().idByUsername(filter.owner());
+                if (userId == null) {
+                    return List.of();
+                }
+            }
+            RowFilter rowFilter = ALL;
+            if (afterId != null) {
+                rowFilter = and(rowFilter, (table, slot) -> table.id(slot) > afterId);
+            }
+            if (filter.completed() != null) {
+                rowFilter = and(rowFilter, completed(filter.completed()));
+            }
+            if (filter.priority() != null) {
+                rowFilter = and(rowFilter, priority(filter.priority()));
+            }
+            TodoTable todos = database.todos();
+            List<Integer> slots = new ArrayList<>();
+            forEach(todos, userId, rowFilter, slots::add);
+            slots.sort(Comparator.comparingLong(todos::id));
+            
+            Map<Long, User> owners = new HashMap<>();
+            List<AdminTodoResponse> result = new ArrayList<>(Math.min(limit, slots.size()));
+            for (int slot : slots.subList(0, Math.min(limit, slots.size()))) {
+                TodoResponse todo = todos.response(slot);
+                User owner = owners.computeIfAbsent(todos.userId(slot), database.users()::get);
+                result.add(new AdminTodoResponse(todo.getId(), todo.getTitle(), todo.getDescription(),
+                        todo.getCompleted(), todo.getPriority(), todo.getCreatedAt(), todo.getUpdatedAt(),
+                        todo.getDueDate(), owner.getId(), owner.getUsername(), owner.getEmail()));
+            }
+            return result;
+        });
+    }
+    
+    private static Object value(TodoResponse response, TodoField field) {
+        return switch (field) {
+            case ID -> response.getId();
+            case TITLE -> response.getTitle();
+            case DESCRIPTION -> response.getDescription();
+            case COMPLETED -> response.getCompleted();
+            case PRIORITY -> response.getPriority();
+            case CREATED_AT -> response.getCreatedAt();
+            case UPDATED_AT -> response.getUpdatedAt();
+            case DUE_DATE -> response.getDueDate();
+        };
+    }
+    
+    // Scans
+    
+    private List<TodoResponse> responses(Long userId, RowFilter filter) {
+        return database.read(() -> {
+            TodoTable todos = database.todos();
+            List<TodoResponse> result = new ArrayList<>();
+            forEach(todos, userId, filter, slot -> result.add(todos.response(slot)));
+            return result;
+        });
+    }
+    
+    private List<Todo> entities(Long userId, RowFilter filter) {
+        return database.read(() -> {
+            TodoTable todos = database.todos();
+            Map<Long, User> owners = new HashMap<>();
+            List<Todo> result = new ArrayList<>();
+            forEach(todos, userId, filter, slot -> result.add(todos.row(slot)
+                    .toEntity(owners.computeIfAbsent(todos.userId(slot), database.users()::get))));
+            return result;
+        });
+    }
+    
+    private TodoStatsResponse stats(Long userId) {
+        return database.read(() -> {
+            TodoTable todos = database.todos();
+            long[] counts = new long[2 + Todo.Priority.values().length];
+            forEach(todos, userId, ALL, slot -> {
+                counts[todos.completed(slot) ? 0 : 1]++;
+                counts[2 + todos.priorityOrdinal(slot)]++;
+            });
+            return new TodoStatsResponse(counts[0] + counts[1], counts[0], counts[1],
+                    counts[2 + Todo.Priority.HIGH.ordinal()],
+                    counts[2 + Todo.Priority.MEDIUM.ordinal()],
+                    counts[2 + Todo.Priority.LOW.ordinal()]);
+        });
+    }
+    
+    private static void forEach(TodoTable todos, Long userId, RowFilter filter, IntConsumer action) {
+        if (userId != null) {
+            SlotList slots = todos.slotsOfUser(userId);
+            if (slots == null) {
+                return;
+            }
+            for (int i = 0; i < slots.size(); i++) {
+                int slot = slots.get(i);
+                if (filter.test(todos, slot)) {
+                    action.accept(slot);
+                }
+            }
+            return;
+        }
+        for (int slot = 0; slot < todos.highWater(); slot++) {
+            if (todos.isLive(slot) && filter.test(todos, slot)) {
+                action.accept(slot);
+            }
+        }
+    }
+    
+    private static <E> Slice<E> slice(List<E> sorted, Pageable pageable) {
+        List<E> content = page(sorted, pageable);
+        boolean hasNext = pageable.isPaged() && pageable.getOffset() + content.size() < sorted.size();
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+    
+    // Filters
+    
+    private static RowFilter and(RowFilter first, RowFilter second) {
+        return first == ALL ? second : (table, slot) -> first.test(table, slot) && second.test(table, slot);
+    }
+    
+    private static RowFilter completed(Boolean completed) {
+        boolean value = Boolean.TRUE.equals(completed);
+        return completed == null ? (table, slot) -> false : (table, slot) -> table.completed(slot) == value;
+    }
+    
+    private static RowFilter priority(Todo.Priority priority) {
+        if (priority == null) {
+            return (table, slot) -> false;
+        }
+        byte ordinal = (byte) priority.ordinal();
+        return (table, slot) -> table.priorityOrdinal(slot) == ordinal;
+    }
+    
+    private static RowFilter priorities(Set<Todo.Priority> priorities) {
+        boolean[] accepted = new boolean[Todo.Priority.values().length];
+        priorities.forEach(priority -> accepted[priority.ordinal()] = true);
+        return (table, slot) -> accepted[table.priorityOrdinal(slot)];
+    }
+    
+    // [from, to) on a time column; rows without a time never match
+    private static RowFilter timeRange(TimeColumn column, LocalDateTime from, LocalDateTime to) {
+        long fromMicros = from != null ? TodoRow.toMicros(from) : Long.MIN_VALUE;
+        long toMicros = to != null ? TodoRow.toMicros(to) : Long.MAX_VALUE;
+        return (table, slot) -> {
+            long time = column.get(table, slot);
+            return time != TodoRow.NULL_TIME && time >= fromMicros && time < toMicros;
+        };
+    }
+    
+    private static RowFilter dueBefore(LocalDateTime time) {
+        long micros = TodoRow.toMicros(time);
+        return (table, slot) -> table.dueDate(slot) != TodoRow.NULL_TIME && table.dueDate(slot) < micros;
+    }
+    
+    private static RowFilter overdue(LocalDateTime now) {
+        RowFilter due = dueBefore(now);
+        return (table, slot) -> !table.completed(slot) && due.test(table, slot);
+    }
+    
+    // Case-insensitive substring match without lower-casing (and copying) every title
+    private static RowFilter titleContains(String text) {
+        if (text == null) {
+            return (table, slot) -> false;
+        }
+        return (table, slot) -> {
+            String title = table.title(slot);
+            for (int i = 0; i <= title.length() - text.length(); i++) {
+                if (title.regionMatches(true, i, text, 0, text.length())) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+}
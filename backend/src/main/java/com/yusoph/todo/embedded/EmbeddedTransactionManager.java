@@ -0,0 +1,61 @@
+package com.yusoph.todo.embedded;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Lets {@code @Transactional} and {@code TransactionTemplate} run unchanged against the embedded
+ * engine. Each repository write is atomic and logged on its own, so there is nothing to commit, and
+ * a rollback does not undo writes already made. What this keeps is transaction scoping:
+ * propagation, and synchronizations such as afterCommit callbacks, which fire on commit as usual.
+ */
+public class EmbeddedTransactionManager extends AbstractPlatformTransactionManager {
+    
+    private static final class EmbeddedTransaction {
+        private final boolean existing;
+        
+        private EmbeddedTransaction(boolean existing) {
+            this.existing = existing;
+        }
+    }
+    
+    @Override
+    protected Object doGetTransaction() {
+        return new EmbeddedTransaction(TransactionSynchronizationManager.hasResource(this));
+    }
+    
+    @Override
+    protected boolean isExistingTransaction(Object transaction) {
+        return ((EmbeddedTransaction) transaction).existing;
+    }
+    
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+    }
+    
+    @Override
+    protected Object doSuspend(Object transaction) {
+        return TransactionSynchronizationManager.unbindResource(this);
+    }
+    
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        TransactionSynchronizationManager.bindResource(this, suspendedResources);
+    }
+    
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+    }
+    
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+    }
+    
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(this);
+    }
+}
@@ -0,0 +1,192 @@
+package com.yusoph.todo.embedded;
+
+import com.yusoph.todo.entity.User;
+import com.yusoph.todo.repository.UserRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link UserRepository} on the embedded engine, enforcing the same unique username and email
+ * constraints as the {@code users} table. Deleting a user deletes their todos.
+ */
+@Repository
+@Profile("embedded")
+public class EmbeddedUserRepository extends EmbeddedRepositorySupport<User> implements UserRepository {
+    
+    private final EmbeddedDatabase database;
+    
+    public EmbeddedUserRepository(EmbeddedDatabase database) {
+        super(User.class);
+        this.database = database;
+    }
+    
+    @Override
+    protected Long idOf(User user) {
+        return user.getId();
+    }
+    
+    @Override
+    public <S extends User> S save(S user) {
+        if (user.getUsername() == null || user.getEmail() == null || user.getPassword() == null || user.getRole() == null) {
+            throw new DataIntegrityViolationException("null value in a not-null column of relation \"users\"");
+        }
+        return database.write(() -> {
+            UserTable users = database.users();
+            checkUnique("username", users.idByUsername(user.getUsername()), user.getId());
+            checkUnique("email", users.idByEmail(user.getEmail()), user.getId());
+            LocalDateTime now = TodoRow.fromMicros(TodoRow.toMicros(LocalDateTime.now()));
+            if (user.getId() == null) {
+                user.setId(database.allocateUserId());
+                user.setCreatedAt(now);
+            } else {
+                User existing = users.get(user.getId());
+                if (existing == null) {
+                    throw new ObjectOptimisticLockingFailureException(User.class, user.getId());
+                }
+                user.setCreatedAt(existing.getCreatedAt());
+            }
+            user.setUpdatedAt(now);
+            database.logPutUser(user);
+            return user;
+        });
+    }
+    
+    private static void checkUnique(String column, Long holder, Long id) {
+        if (holder != null && !holder.equals(id)) {
+            throw new DataIntegrityViolationException("duplicate key value violates unique constraint on users." + column);
+        }
+    }
+    
+    @Override
+    public int updatePassword(String username, String password) {
+        return database.write(() -> {
+            Long id = database.users().idByUsername(username);
+            if (id == null) {
+                return 0;
+            }
+            User user = database.users().get(id);
+            user.setPassword(password);
+            database.logPutUser(user);
+            return 1;
+        });
+    }
+    
+    @Override
+    public int markForDeletion(Long id, LocalDateTime requestedAt) {
+        return database.write(() -> {
+            User user = database.users().get(id);
+            if (user == null || user.getDeletionRequestedAt() != null) {
+                return 0;
+            }
+            user.setEnabled(false);
+            user.setDeletionRequestedAt(requestedAt);
+            database.logPutUser(user);
+            return 1;
+        });
+    }
+    
+    @Override
+    public List<Long> findIdsPendingDeletion() {
+        return database.read(() -> {
+            List<Long> ids = new ArrayList<>();
+            for (User user : database.users().all()) {
+                if (user.getDeletionRequestedAt() != null) {
+                    ids.add(user.getId());
+                }
+            }
+            return ids;
+        });
+    }
+    
+    @Override
+    public int deleteRowById(Long id) {
+        return database.write(() -> {
+            if (!database.users().contains(id)) {
+                return 0;
+            }
+            database.logDeleteUser(id);
+            return 1;
+        });
+    }
+    
+    @Override
+    public void deleteById(Long id) {
+        database.write(() -> {
+            if (database.users().contains(id)) {
+                database.logDeleteUser(id);
+            }
+            return null;
+        });
+    }
+    
+    @Override
+    public void deleteAll() {
+        database.write(() -> {
+            for (User user : database.users().all()) {
+                database.logDeleteUser(user.getId());
+            }
+            return null;
+        });
+    }
+    
+    @Override
+    public Optional<User> findById(Long id) {
+        return database.read(() -> Optional.ofNullable(database.users().get(id)));
+    }
+    
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return database.read(() -> {
+            Long id = database.users().idByUsername(username);
+            return id == null ? Optional.empty() : Optional.of(database.users().get(id));
+        });
+    }
+    
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return database.read(() -> {
+            Long id = database.users().idByEmail(email);
+            return id == null ? Optional.empty() : Optional.of(database.users().get(id));
+        });
+    }
+    
+    @Override
+    public Boolean existsByUsername(String username) {
+        return database.read(() -> database.users().idByUsername(username) != null);
+    }
+    
+    @Override
+    public Boolean existsByEmail(String email) {
+        return database.read(() -> database.users().idByEmail(email) != null);
+    }
+    
+    @Override
+    public boolean existsById(Long id) {
+        return database.read(() -> database.users().contains(id));
+    }
+    
+    @Override
+    public long count() {
+        return database.read(() -> (long) database.users().size());
+    }
+    
+    @Override
+    public List<User> findAll() {
+        List<User> users = database.read(() -> database.users().all());
+        users.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+        return users;
+    }
+    
+    @Override
+    public List<User> findAll(Sort sort) {
+        return sort(new ArrayList<>(findAll()), sort);
+    }
+}
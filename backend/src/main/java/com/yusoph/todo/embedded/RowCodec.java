@@ -0,0 +1,125 @@
+package com.yusoph.todo.embedded;
+
+import com.yusoph.todo.entity.User;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary layout of rows, shared by write-ahead log records and snapshots. Strings are a length
+ * (-1 for null) followed by UTF-8 bytes; timestamps use the {@link TodoRow} microsecond encoding.
+ */
+final class RowCodec {
+    
+    static final byte PUT_USER = 1;
+    static final byte DELETE_USER = 2;
+    static final byte PUT_TODO = 3;
+    static final byte DELETE_TODO = 4;
+    
+    private static final User.Role[] ROLES = User.Role.values();
+    
+    // Marks a trailing deletion timestamp, so user records written before it existed still decode
+    private static final int DELETION_REQUESTED = 16;
+    
+    private RowCodec() {
+    }
+    
+    static void writeTodo(ByteBuffer buffer, TodoRow row) {
+        buffer.putLong(row.id());
+        buffer.putLong(row.userId());
+        writeString(buffer, row.title());
+        writeString(buffer, row.description());
+        buffer.put(row.completed() ? (byte) 1 : (byte) 0);
+        buffer.put(row.priority());
+        buffer.putLong(row.createdAt());
+        buffer.putLong(row.updatedAt());
+        buffer.putLong(row.dueDate());
+    }
+    
+    static TodoRow readTodo(ByteBuffer buffer) {
+        return new TodoRow(buffer.getLong(), buffer.getLong(), readString(buffer), readString(buffer),
+                buffer.get() == 1, buffer.get(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+    
+    static void writeUser(ByteBuffer buffer, User user) {
+        buffer.putLong(user.getId());
+        writeString(buffer, user.getUsername());
+        writeString(buffer, user.getEmail());
+        writeString(buffer, user.getPassword());
+        writeString(buffer, user.getFirstName());
+        writeString(buffer, user.getLastName());
+        buffer.put((byte) user.getRole().ordinal());
+        buffer.put(flags(user));
+        buffer.putLong(TodoRow.toMicros(user.getCreatedAt()));
+        buffer.putLong(TodoRow.toMicros(user.getUpdatedAt()));
+        if (user.getDeletionRequestedAt() != null) {
+            buffer.putLong(TodoRow.toMicros(user.getDeletionRequestedAt()));
+        }
+    }
+    
+    static User readUser(ByteBuffer buffer) {
+        User user = User.builder()
+                .id(buffer.getLong())
+                .username(readString(buffer))
+                .email(readString(buffer))
+                .password(readString(buffer))
+                .firstName(readString(buffer))
+                .lastName(readString(buffer))
+                .role(ROLES[buffer.get()])
+                .build();
+        byte flags = buffer.get();
+        user.setEnabled((flags & 1) != 0);
+        user.setAccountNonExpired((flags & 2) != 0);
+        user.setAccountNonLocked((flags & 4) != 0);
+        user.setCredentialsNonExpired((flags & 8) != 0);
+        user.setCreatedAt(TodoRow.fromMicros(buffer.getLong()));
+        user.setUpdatedAt(TodoRow.fromMicros(buffer.getLong()));
+        if ((flags & DELETION_REQUESTED) != 0) {
+            user.setDeletionRequestedAt(TodoRow.fromMicros(buffer.getLong()));
+        }
+        return user;
+    }
+    
+    // Upper bounds, so callers can size buffers before writing
+    static int maxTodoSize(TodoRow row) {
+        return 8 + 8 + maxStringSize(row.title()) + maxStringSize(row.description()) + 1 + 1 + 8 + 8 + 8;
+    }
+    
+    static int maxUserSize(User user) {
+        return 8 + maxStringSize(user.getUsername()) + maxStringSize(user.getEmail())
+                + maxStringSize(user.getPassword()) + maxStringSize(user.getFirstName())
+                + maxStringSize(user.getLastName()) + 1 + 1 + 8 + 8 + 8;
+    }
+    
+    private static byte flags(User user) {
+        return (byte) ((Boolean.TRUE.equals(user.getEnabled()) ? 1 : 0)
+                | (Boolean.TRUE.equals(user.getAccountNonExpired()) ? 2 : 0)
+                | (Boolean.TRUE.equals(user.getAccountNonLocked()) ? 4 : 0)
+                | (Boolean.TRUE.equals(user.getCredentialsNonExpired()) ? 8 : 0)
+                | (user.getDeletionRequestedAt() != null ? DELETION_REQUESTED : 0));
+    }
+    
+    private static int maxStringSize(String value) {
+        return 4 + (value == null ? 0 : value.length() * 3);
+    }
+    
+    private static void writeString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+    
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
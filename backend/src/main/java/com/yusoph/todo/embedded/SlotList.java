@@ -0,0 +1,51 @@
+package com.yusoph.todo.embedded;
+
+import java.util.Arrays;
+
+/**
+ * Growable {@code int} list of row slots, used for the per-user index and for free-slot recycling.
+ * Not thread-safe.
+ */
+final class SlotList {
+    
+    private int[] slots;
+    private int size;
+    
+    SlotList(int capacity) {
+        this.slots = new int[Math.max(4, capacity)];
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    int get(int index) {
+        return slots[index];
+    }
+    
+    void add(int slot) {
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size + (size >> 1));
+        }
+        slots[size++] = slot;
+    }
+    
+    void insert(int index, int slot) {
+        add(0);
+        System.arraycopy(slots, index, slots, index + 1, size - 1 - index);
+        slots[index] = slot;
+    }
+    
+    void removeAt(int index) {
+        System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+        size--;
+    }
+    
+    int removeLast() {
+        return slots[--size];
+    }
+    
+    void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,132 @@
+package com.yusoph.todo.embedded;
+
+import com.yusoph.todo.entity.User;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Full copy of both tables as of the start of a write-ahead log segment:
+ * {@code magic, version, firstSegment, nextUserId, nextTodoId, users, todos, crc32c}.
+ * Written to a temporary file, synced, atomically renamed and the directory synced, so a crash mid-write
+ * leaves the previous snapshot in place and a returned write survives a power loss.
+ */
+final class SnapshotFile {
+    
+    static final String FILE_NAME = "snapshot.bin";
+    
+    private static final int MAGIC = 0x54444f53;
+    private static final int VERSION = 1;
+    
+    record Header(long firstSegment, long nextUserId, long nextTodoId) {
+    }
+    
+    private SnapshotFile() {
+    }
+    
+    static void write(Path directory, Header header, List<User> users, TodoTable todos) throws IOException {
+        Path target = directory.resolve(FILE_NAME);
+        Path temporary = directory.resolve(FILE_NAME + ".tmp");
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream file = Channels.newOutputStream(channel);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(header.firstSegment());
+            out.writeLong(header.nextUserId());
+            out.writeLong(header.nextTodoId());
+            
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            out.writeInt(users.size());
+            for (User user : users) {
+                buffer = ensureCapacity(buffer, RowCodec.maxUserSize(user));
+                RowCodec.writeUser(buffer, user);
+                writeRecord(out, buffer);
+            }
+            out.writeInt(todos.size());
+            for (int slot = 0; slot < todos.highWater(); slot++) {
+                if (todos.isLive(slot)) {
+                    TodoRow row = todos.row(slot);
+                    buffer = ensureCapacity(buffer, RowCodec.maxTodoSize(row));
+                    RowCodec.writeTodo(buffer, row);
+                    writeRecord(out, buffer);
+                }
+            }
+            out.flush();
+            // The checksum itself is written past the checked stream
+            new DataOutputStream(file).writeLong(crc.getValue());
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // The rename is only durable once the directory is; until then the log it replaces must stay
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        }
+    }
+    
+    /**
+     * @return the snapshot header, or null if there is no snapshot
+     */
+    static Header read(Path directory, Consumer<User> users, Consumer<TodoRow> todos) throws IOException {
+        Path file = directory.resolve(FILE_NAME);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        try (BufferedInputStream buffered = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(buffered, crc));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a version " + VERSION + " snapshot: " + file);
+            }
+            Header header = new Header(in.readLong(), in.readLong(), in.readLong());
+            int userCount = in.readInt();
+            for (int i = 0; i < userCount; i++) {
+                users.accept(RowCodec.readUser(readRecord(in)));
+            }
+            int todoCount = in.readInt();
+            for (int i = 0; i < todoCount; i++) {
+                todos.accept(RowCodec.readTodo(readRecord(in)));
+            }
+            long expected = crc.getValue();
+            if (new DataInputStream(buffered).readLong() != expected) {
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            }
+            return header;
+        }
+    }
+    
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int size) {
+        ByteBuffer result = buffer.capacity() >= size ? buffer : ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2));
+        result.clear();
+        return result;
+    }
+    
+    private static void writeRecord(DataOutputStream out, ByteBuffer buffer) throws IOException {
+        out.writeInt(buffer.position());
+        out.write(buffer.array(), 0, buffer.position());
+    }
+    
+    private static ByteBuffer readRecord(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return ByteBuffer.wrap(bytes);
+    }
+}
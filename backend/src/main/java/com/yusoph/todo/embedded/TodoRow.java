@@ -0,0 +1,53 @@
+package com.yusoph.todo.embedded;
+
+import com.yusoph.todo.entity.Todo;
+import com.yusoph.todo.entity.User;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * One todo as stored: timestamps are UTC epoch microseconds (the precision PostgreSQL keeps) with
+ * {@link #NULL_TIME} for null, priority is the enum ordinal and completed is 0/1.
+ */
+record TodoRow(long id, long userId, String title, String description, boolean completed, byte priority,
+               long createdAt, long updatedAt, long dueDate) {
+    
+    static final long NULL_TIME = Long.MIN_VALUE;
+    
+    private static final Todo.Priority[] PRIORITIES = Todo.Priority.values();
+    
+    static TodoRow of(Todo todo, long id, long createdAt, long updatedAt) {
+        return new TodoRow(id, todo.getUser().getId(), todo.getTitle(), todo.getDescription(),
+                Boolean.TRUE.equals(todo.getCompleted()), (byte) todo.getPriority().ordinal(),
+                createdAt, updatedAt, toMicros(todo.getDueDate()));
+    }
+    
+    Todo toEntity(User user) {
+        Todo todo = new Todo(title, description, completed, PRIORITIES[priority], fromMicros(dueDate));
+        todo.setId(id);
+        todo.setCreatedAt(fromMicros(createdAt));
+        todo.setUpdatedAt(fromMicros(updatedAt));
+        todo.setUser(user);
+        return todo;
+    }
+    
+    static Todo.Priority priority(byte ordinal) {
+        return PRIORITIES[ordinal];
+    }
+    
+    static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return NULL_TIME;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+    
+    static LocalDateTime fromMicros(long micros) {
+        if (micros == NULL_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
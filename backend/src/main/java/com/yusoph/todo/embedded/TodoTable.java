@@ -0,0 +1,283 @@
+package com.yusoph.todo.embedded;
+
+import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.entity.Todo;
+
+import java.util.Arrays;
+
+/**
+ * Todos in column arrays indexed by slot, with an id -> slot hash index and a per-user list of slots
+ * kept in id order. A row costs a few primitives plus its two strings; there is no object per row.
+ * Freed slots are recycled. Not thread-safe: {@link EmbeddedDatabase} serializes writers.
+ */
+final class TodoTable {
+    
+    private long[] ids;
+    private long[] userIds;
+    private boolean[] completed;
+    private byte[] priorities;
+    private long[] createdAt;
+    private long[] updatedAt;
+    private long[] dueDates;
+    private String[] titles;
+    private String[] descriptions;
+    
+    // Slots in use are below highWater; a free slot has id 0
+    private int highWater;
+    private int size;
+    private final SlotList freeSlots = new SlotList(16);
+    private final LongIntHashMap slotsById;
+    // userId -> index into userSlots
+    private final LongIntHashMap userIndex = new LongIntHashMap(64);
+    private SlotList[] userSlots = new SlotList[64];
+    private int userCount;
+    private final SlotList freeUserIndexes = new SlotList(4);
+    
+    TodoTable(int capacity) {
+        int initial = Math.max(16, capacity);
+        ids = new long[initial];
+        userIds = new long[initial];
+        completed = new boolean[initial];
+        priorities = new byte[initial];
+        createdAt = new long[initial];
+        updatedAt = new long[initial];
+        dueDates = new long[initial];
+        titles = new String[initial];
+        descriptions = new String[initial];
+        slotsById = new LongIntHashMap(initial);
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    int highWater() {
+        return highWater;
+    }
+    
+    boolean isLive(int slot) {
+        return ids[slot] != 0;
+    }
+    
+    int slotOf(long id) {
+        return slotsById.get(id);
+    }
+    
+    /**
+     * Slots of the user's todos in id order, or null if the user has none. The list is live: do not
+     * keep it across writes.
+     */
+    SlotList slotsOfUser(long userId) {
+        int index = userIndex.get(userId);
+        return index == LongIntHashMap.MISSING ? null : userSlots[index];
+    }
+    
+    long id(int slot) {
+        return ids[slot];
+    }
+    
+    long userId(int slot) {
+        return userIds[slot];
+    }
+    
+    boolean completed(int slot) {
+        return completed[slot];
+    }
+    
+    Todo.Priority priority(int slot) {
+        return TodoRow.priority(priorities[slot]);
+    }
+    
+    byte priorityOrdinal(int slot) {
+        return priorities[slot];
+    }
+    
+    long createdAt(int slot) {
+        return createdAt[slot];
+    }
+    
+    long dueDate(int slot) {
+        return dueDates[slot];
+    }
+    
+    String title(int slot) {
+        return titles[slot];
+    }
+    
+    TodoRow row(int slot) {
+        return new TodoRow(ids[slot], userIds[slot], titles[slot], descriptions[slot], completed[slot],
+                priorities[slot], createdAt[slot], updatedAt[slot], dueDates[slot]);
+    }
+    
+    TodoResponse response(int slot) {
+        return new TodoResponse(ids[slot], titles[slot], descriptions[slot], completed[slot],
+                TodoRow.priority(priorities[slot]), TodoRow.fromMicros(createdAt[slot]),
+                TodoRow.fromMicros(updatedAt[slot]), TodoRow.fromMicros(dueDates[slot]));
+    }
+    
+    // Inserts or replaces the row with the same id
+    void put(TodoRow row) {
+        int slot = slotsById.get(row.id());
+        if (slot == LongIntHashMap.MISSING) {
+            slot = allocateSlot();
+            slotsById.put(row.id(), slot);
+            ids[slot] = row.id();
+            userIds[slot] = row.userId();
+            addToUser(row.userId(), slot);
+            size++;
+        } else if (userIds[slot] != row.userId()) {
+            removeFromUser(userIds[slot], slot);
+            userIds[slot] = row.userId();
+            addToUser(row.userId(), slot);
+        }
+        completed[slot] = row.completed();
+        priorities[slot] = row.priority();
+        createdAt[slot] = row.createdAt();
+        updatedAt[slot] = row.updatedAt();
+        dueDates[slot] = row.dueDate();
+        titles[slot] = row.title();
+        descriptions[slot] = row.description();
+    }
+    
+    boolean remove(long id) {
+        int slot = slotsById.remove(id);
+        if (slot == LongIntHashMap.MISSING) {
+            return false;
+        }
+        removeFromUser(userIds[slot], slot);
+        release(slot);
+        return true;
+    }
+    
+    // ON DELETE CASCADE for a deleted user
+    int removeUser(long userId) {
+        int index = userIndex.remove(userId);
+        if (index == LongIntHashMap.MISSING) {
+            return 0;
+        }
+        SlotList slots = userSlots[index];
+        int removed = slots.size();
+        for (int i = 0; i < removed; i++) {
+            int slot = slots.get(i);
+            slotsById.remove(ids[slot]);
+            release(slot);
+        }
+        slots.clear();
+        freeUserIndexes.add(index);
+        return removed;
+    }
+    
+    void clear() {
+        Arrays.fill(ids, 0, highWater, 0);
+        Arrays.fill(titles, 0, highWater, null);
+        Arrays.fill(descriptions, 0, highWater, null);
+        highWater = 0;
+        size = 0;
+        freeSlots.clear();
+        slotsById.clear();
+        userIndex.clear();
+        Arrays.fill(userSlots, null);
+        userCount = 0;
+        freeUserIndexes.clear();
+    }
+    
+    /**
+     * Copy of the columns for writing a snapshot outside the lock. Arrays are copied; strings are
+     * immutable and shared. The copy has no indexes and must only be read through {@link #row}.
+     */
+    TodoTable copyForSnapshot() {
+        TodoTable copy = new TodoTable(0);
+        copy.ids = Arrays.copyOf(ids, highWater);
+        copy.userIds = Arrays.copyOf(userIds, highWater);
+        copy.completed = Arrays.copyOf(completed, highWater);
+        copy.priorities = Arrays.copyOf(priorities, highWater);
+        copy.createdAt = Arrays.copyOf(createdAt, highWater);
+        copy.updatedAt = Arrays.copyOf(updatedAt, highWater);
+        copy.dueDates = Arrays.copyOf(dueDates, highWater);
+        copy.titles = Arrays.copyOf(titles, highWater);
+        copy.descriptions = Arrays.copyOf(descriptions, highWater);
+        copy.highWater = highWater;
+        copy.size = size;
+        return copy;
+    }
+    
+    private void addToUser(long userId, int slot) {
+        int index = userIndex.get(userId);
+        SlotList slots;
+        if (index == LongIntHashMap.MISSING) {
+            index = freeUserIndexes.size() > 0 ? freeUserIndexes.removeLast() : userCount++;
+            if (index == userSlots.length) {
+                userSlots = Arrays.copyOf(userSlots, index * 2);
+            }
+            if (userSlots[index] == null) {
+                userSlots[index] = new SlotList(8);
+            }
+            userIndex.put(userId, index);
+        }
+        slots = userSlots[index];
+        // Ids are assigned in increasing order, so this is an append except during unordered recovery
+        long id = ids[slot];
+        int size = slots.size();
+        if (size == 0 || ids[slots.get(size - 1)] < id) {
+            slots.add(slot);
+        } else {
+            slots.insert(-(search(slots, id) + 1), slot);
+        }
+    }
+    
+    private void removeFromUser(long userId, int slot) {
+        SlotList slots = slotsOfUser(userId);
+        int position = search(slots, ids[slot]);
+        if (position >= 0) {
+            slots.removeAt(position);
+        }
+    }
+    
+    // Binary search by id; returns -(insertion point + 1) if absent, like Arrays.binarySearch
+    private int search(SlotList slots, long id) {
+        int low = 0;
+        int high = slots.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = ids[slots.get(mid)];
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+    
+    private int allocateSlot() {
+        if (freeSlots.size() > 0) {
+            return freeSlots.removeLast();
+        }
+        if (highWater == ids.length) {
+            grow(ids.length + (ids.length >> 1));
+        }
+        return highWater++;
+    }
+    
+    private void release(int slot) {
+        ids[slot] = 0;
+        titles[slot] = null;
+        descriptions[slot] = null;
+        freeSlots.add(slot);
+        size--;
+    }
+    
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        userIds = Arrays.copyOf(userIds, capacity);
+        completed = Arrays.copyOf(completed, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        updatedAt = Arrays.copyOf(updatedAt, capacity);
+        dueDates = Arrays.copyOf(dueDates, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+    }
+}
@@ -0,0 +1,93 @@
+package com.yusoph.todo.embedded;
+
+import com.yusoph.todo.entity.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Users by id with unique username and email indexes. Rows are detached copies without the todos
+ * collection; callers always get a fresh copy back. Not thread-safe.
+ */
+final class UserTable {
+    
+    private final Map<Long, User> byId = new HashMap<>();
+    private final Map<String, Long> idsByUsername = new HashMap<>();
+    private final Map<String, Long> idsByEmail = new HashMap<>();
+    
+    int size() {
+        return byId.size();
+    }
+    
+    User get(long id) {
+        User user = byId.get(id);
+        return user == null ? null : copyOf(user);
+    }
+    
+    boolean contains(long id) {
+        return byId.containsKey(id);
+    }
+    
+    Long idByUsername(String username) {
+        return idsByUsername.get(username);
+    }
+    
+    Long idByEmail(String email) {
+        return idsByEmail.get(email);
+    }
+    
+    List<User> all() {
+        List<User> users = new ArrayList<>(byId.size());
+        for (User user : byId.values()) {
+            users.add(copyOf(user));
+        }
+        return users;
+    }
+    
+    void put(User user) {
+        User previous = byId.put(user.getId(), copyOf(user));
+        if (previous != null) {
+            idsByUsername.remove(previous.getUsername());
+            idsByEmail.remove(previous.getEmail());
+        }
+        idsByUsername.put(user.getUsername(), user.getId());
+        idsByEmail.put(user.getEmail(), user.getId());
+    }
+    
+    boolean remove(long id) {
+        User previous = byId.remove(id);
+        if (previous == null) {
+            return false;
+        }
+        idsByUsername.remove(previous.getUsername());
+        idsByEmail.remove(previous.getEmail());
+        return true;
+    }
+    
+    void clear() {
+        byId.clear();
+        idsByUsername.clear();
+        idsByEmail.clear();
+    }
+    
+    static User copyOf(User user) {
+        return User.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .role(user.getRole())
+                .enabled(user.getEnabled())
+                .accountNonExpired(user.getAccountNonExpired())
+                .accountNonLocked(user.getAccountNonLocked())
+                .credentialsNonExpired(user.getCredentialsNonExpired())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .deletionRequestedAt(user.getDeletionRequestedAt())
+                .build();
+    }
+}
@@ -0,0 +1,194 @@
+package com.yusoph.todo.embedded;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of row changes in fixed-size, memory-mapped segment files ({@code wal-<n>.log}).
+ * A record is {@code [int length][int crc32c][byte type][payload]}, and the length is written last,
+ * so a zero length marks the end of a segment. Appending is a memory copy; the page cache makes a
+ * record survive a process crash immediately, and {@link #force()} makes it survive a power loss.
+ * Not thread-safe: {@link EmbeddedDatabase} appends under its write lock.
+ */
+@Slf4j
+final class WriteAheadLog implements AutoCloseable {
+    
+    interface RecordHandler {
+        void apply(byte type, ByteBuffer payload);
+    }
+    
+    private static final int HEADER_SIZE = 4 + 4 + 1;
+    
+    private final Path directory;
+    private final int segmentSize;
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+    private long segmentNumber;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private boolean dirty;
+    
+    /**
+     * Opens a new segment numbered {@code segmentNumber}; recovery always starts a fresh one rather
+     * than appending to a segment that may end in a torn record.
+     */
+    WriteAheadLog(Path directory, int segmentSize, long segmentNumber) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        openSegment(segmentNumber);
+    }
+    
+    long segmentNumber() {
+        return segmentNumber;
+    }
+    
+    /**
+     * @param maxPayloadSize upper bound of what {@code payloadWriter} writes
+     */
+    void append(byte type, int maxPayloadSize, Consumer<ByteBuffer> payloadWriter) {
+        if (HEADER_SIZE + maxPayloadSize + 4 > segmentSize) {
+            throw new IllegalArgumentException("Record of up to " + maxPayloadSize + " bytes does not fit a "
+                    + segmentSize + " byte log segment");
+        }
+        if (scratch.capacity() < maxPayloadSize) {
+            scratch = ByteBuffer.allocate(Math.max(maxPayloadSize, scratch.capacity() * 2));
+        }
+        scratch.clear();
+        payloadWriter.accept(scratch);
+        scratch.flip();
+        int length = scratch.remaining();
+        
+        // Keep 4 zero bytes at the end so a reader always finds a terminating length
+        if (segment.position() + HEADER_SIZE + length + 4 > segmentSize) {
+            roll();
+        }
+        crc.reset();
+        crc.update(type);
+        crc.update(scratch.duplicate());
+        
+        int start = segment.position();
+        segment.putInt(start + 4, (int) crc.getValue());
+        segment.put(start + 8, type);
+        segment.put(start + HEADER_SIZE, scratch, 0, length);
+        segment.putInt(start, length);
+        segment.position(start + HEADER_SIZE + length);
+        dirty = true;
+    }
+    
+    void force() {
+        if (dirty) {
+            segment.force();
+            dirty = false;
+        }
+    }
+    
+    // Starts the next segment; records before it can be dropped once a snapshot covers them
+    void roll() {
+        try {
+            force();
+            channel.close();
+            openSegment(segmentNumber + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start log segment " + (segmentNumber + 1), e);
+        }
+    }
+    
+    void deleteSegmentsBefore(long number) throws IOException {
+        for (long existing : segmentNumbers(directory)) {
+            if (existing < number) {
+                Files.deleteIfExists(segmentPath(directory, existing));
+            }
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+    
+    /**
+     * Replays every record in segments numbered {@code fromSegment} and above, in order. A record
+     * with a bad checksum (a write torn by a crash) ends its segment: the rest of it is zeroed so
+     * later segments stay readable on the next recovery.
+     *
+     * @return the highest segment number found, or {@code fromSegment - 1} if there is none
+     */
+    static long replay(Path directory, long fromSegment, RecordHandler handler) throws IOException {
+        long last = fromSegment - 1;
+        CRC32C crc = new CRC32C();
+        for (long number : segmentNumbers(directory)) {
+            if (number < fromSegment) {
+                continue;
+            }
+            last = number;
+            try (FileChannel channel = FileChannel.open(segmentPath(directory, number),
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+                int position = 0;
+                while (position + HEADER_SIZE <= segment.limit()) {
+                    int length = segment.getInt(position);
+                    if (length == 0) {
+                        break;
+                    }
+                    int end = position + HEADER_SIZE + length;
+                    boolean valid = length > 0 && end <= segment.limit();
+                    if (valid) {
+                        crc.reset();
+                        crc.update(segment.get(position + 8));
+                        crc.update(segment.slice(position + HEADER_SIZE, length));
+                        valid = (int) crc.getValue() == segment.getInt(position + 4);
+                    }
+                    if (!valid) {
+                        log.warn("Discarding torn or corrupt log tail in segment {} at offset {}", number, position);
+                        for (int i = position; i < segment.limit(); i++) {
+                            segment.put(i, (byte) 0);
+                        }
+                        segment.force();
+                        break;
+                    }
+                    handler.apply(segment.get(position + 8), segment.slice(position + HEADER_SIZE, length));
+                    position = end;
+                }
+            }
+        }
+        return last;
+    }
+    
+    private void openSegment(long number) throws IOException {
+        channel = FileChannel.open(segmentPath(directory, number),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segmentNumber = number;
+        dirty = false;
+    }
+    
+    private static Path segmentPath(Path directory, long number) {
+        return directory.resolve(String.format("wal-%010d.log", number));
+    }
+    
+    static List<Long> segmentNumbers(Path directory) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "wal-*.log")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                numbers.add(Long.parseLong(name.substring(4, name.length() - 4)));
+            }
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+}
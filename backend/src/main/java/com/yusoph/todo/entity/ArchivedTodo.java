@@ -0,0 +1,57 @@
+package com.yusoph.todo.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * A completed todo moved out of {@code todos} by the archiver. Rows keep their original id and are
+ * read-only; they are only written by the set-based move in {@code TodoRepository.archiveCompletedBefore}.
+ */
+@Entity
+@Table(name = "todos_archive", indexes = @Index(name = "idx_todos_archive_user_id", columnList = "user_id, id"))
+@Data
+@NoArgsConstructor
+public class ArchivedTodo {
+    
+    @Id
+    private Long id;
+    
+    @Column(nullable = false, length = 200)
+    private String title;
+    
+    @Column(length = 1000)
+    private String description;
+    
+    @Column(nullable = false)
+    private Boolean completed;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Todo.Priority priority;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "due_date")
+    private LocalDateTime dueDate;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User user;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
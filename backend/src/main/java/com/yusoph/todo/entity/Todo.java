@@ -6,14 +6,23 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "todos")
+// The user-leading indexes of /api/todos/query, so a schema generated by Hibernate has them too
+@Table(name = "todos", indexes = {
+        @Index(name = "idx_todos_user_id_id", columnList = "user_id, id"),
+        @Index(name = "idx_todos_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_todos_user_due", columnList = "user_id, due_date, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -53,6 +62,10 @@ public class Todo {
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    // Matches fk_todos_user in V1__baseline.sql, so a schema generated by Hibernate cascades too
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
     
     public enum Priority {
@@ -0,0 +1,65 @@
+package com.yusoph.todo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Per user, day and priority: todos created, todos completed and todos that went overdue. Rows are
+ * counters maintained with upserts in {@code TodoDailyRollupRepository}, never loaded for update.
+ */
+@Entity
+@Table(name = "todo_daily_rollups", indexes = @Index(name = "idx_todo_daily_rollups_date", columnList = "rollup_date"))
+@IdClass(TodoDailyRollup.Key.class)
+@Data
+@NoArgsConstructor
+public class TodoDailyRollup {
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        
+        private Long userId;
+        private LocalDate rollupDate;
+        private Todo.Priority priority;
+    }
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Id
+    @Column(name = "rollup_date")
+    private LocalDate rollupDate;
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Todo.Priority priority;
+    
+    @Column(nullable = false)
+    private long created;
+    
+    @Column(nullable = false)
+    private long completed;
+    
+    @Column(nullable = false)
+    private long overdue;
+    
+    // Only here for the cascading foreign key; rows are written by user id
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User user;
+}
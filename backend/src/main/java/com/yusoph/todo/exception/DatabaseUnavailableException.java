@@ -0,0 +1,11 @@
+package com.yusoph.todo.exception;
+
+public class DatabaseUnavailableException extends RuntimeException {
+    public DatabaseUnavailableException(String message) {
+        super(message);
+    }
+    
+    public DatabaseUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
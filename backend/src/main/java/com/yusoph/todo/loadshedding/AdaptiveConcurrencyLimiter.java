@@ -0,0 +1,148 @@
+package com.yusoph.todo.loadshedding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gradient concurrency limiter driven by repository latency.
+ * <p>
+ * Every update interval the average repository latency of the last window (short RTT) is compared
+ * with a slow moving baseline (long RTT). While the database keeps up the limit grows by roughly
+ * sqrt(limit); once latency rises above the tolerated baseline the limit shrinks in proportion,
+ * so requests queue at the edge (and get shed) instead of on Hikari connections.
+ * <p>
+ * The node reports itself saturated only once CORE requests have been shed in
+ * {@code saturationWindows} consecutive updates; shedding LOW requests alone is normal operation.
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+    
+    private final LoadSheddingProperties properties;
+    
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicInteger peakInflight = new AtomicInteger();
+    private final LongAdder latencySamples = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final AtomicLong shedLowPriority = new AtomicLong();
+    private final AtomicLong shedCore = new AtomicLong();
+    
+    // Written only by the scheduled update, read by request threads
+    private volatile double limit;
+    private volatile double shortRttNanos;
+    private volatile double longRttNanos;
+    private volatile long lastSustainedShedNanos;
+    
+    // Accessed only by the scheduled update
+    private long shedCoreAtLastUpdate;
+    private int coreShedStreak;
+    
+    public AdaptiveConcurrencyLimiter(LoadSheddingProperties properties) {
+        this.properties = properties;
+        this.limit = properties.getInitialLimit();
+        this.lastSustainedShedNanos = System.nanoTime() - properties.getSaturationHold().toNanos();
+    }
+    
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = (int) limit;
+        if (priority == RequestPriority.LOW) {
+            allowed = Math.max(1, (int) (allowed * properties.getLowPriorityShare()));
+        }
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                (priority == RequestPriority.LOW ? shedLowPriority : shedCore).incrementAndGet();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                peakInflight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+    
+    public void release() {
+        inflight.decrementAndGet();
+    }
+    
+    public void recordLatency(long nanos) {
+        latencySamples.increment();
+        latencyNanos.add(nanos);
+    }
+    
+    @Scheduled(fixedDelayString = "${load-shedding.update-interval:250ms}")
+    public void updateLimit() {
+        long samples = latencySamples.sumThenReset();
+        long totalNanos = latencyNanos.sumThenReset();
+        int peak = peakInflight.getAndSet(inflight.get());
+        updateSaturation();
+        if (samples == 0) {
+            return;
+        }
+        
+        double shortRtt = (double) totalNanos / samples;
+        double longRtt = longRttNanos == 0 ? shortRtt
+                : longRttNanos + (shortRtt - longRttNanos) / properties.getLongWindow();
+        // Let the baseline recover quickly once a latency spike is over
+        if (longRtt > shortRtt * 2) {
+            longRtt *= 0.95;
+        }
+        
+        double currentLimit = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, properties.getRttTolerance() * longRtt / shortRtt));
+        double estimate;
+        if (gradient >= 1.0 && peak < currentLimit / 2) {
+            // Not using the limit we already have - no evidence that a higher one is safe
+            estimate = currentLimit;
+        } else {
+            estimate = currentLimit * gradient + Math.sqrt(currentLimit);
+        }
+        double newLimit = currentLimit * (1 - properties.getSmoothing()) + estimate * properties.getSmoothing();
+        newLimit = Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), newLimit));
+        
+        if ((int) newLimit != (int) currentLimit) {
+            log.debug("Concurrency limit {} -> {} (short RTT {} ms, long RTT {} ms)",
+                    (int) currentLimit, (int) newLimit, toMillis(shortRtt), toMillis(longRtt));
+        }
+        shortRttNanos = shortRtt;
+        longRttNanos = longRtt;
+        limit = newLimit;
+    }
+    
+    private void updateSaturation() {
+        long core = shedCore.get();
+        coreShedStreak = core != shedCoreAtLastUpdate ? coreShedStreak + 1 : 0;
+        shedCoreAtLastUpdate = core;
+        if (coreShedStreak >= properties.getSaturationWindows()) {
+            lastSustainedShedNanos = System.nanoTime();
+        }
+    }
+    
+    public boolean isSaturated() {
+        return System.nanoTime() - lastSustainedShedNanos < properties.getSaturationHold().toNanos();
+    }
+    
+    public Map<String, Object> state() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("saturated", isSaturated());
+        state.put("limit", (int) limit);
+        state.put("inflight", inflight.get());
+        state.put("shortRttMs", toMillis(shortRttNanos));
+        state.put("longRttMs", toMillis(longRttNanos));
+        state.put("shedLowPriority", shedLowPriority.get());
+        state.put("shedCore", shedCore.get());
+        return state;
+    }
+    
+    private static double toMillis(double nanos) {
+        return Math.round(nanos / TimeUnit.MILLISECONDS.toNanos(1) * 100) / 100.0;
+    }
+}
@@ -0,0 +1,39 @@
+package com.yusoph.todo.loadshedding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "load-shedding")
+public class LoadSheddingProperties {
+    
+    private boolean enabled = true;
+    
+    private int initialLimit = 20;
+    
+    private int minLimit = 4;
+    
+    private int maxLimit = 200;
+    
+    // Fraction of the current limit that low-priority routes may occupy
+    private double lowPriorityShare = 0.6;
+    
+    // Latency increase over the long-term baseline tolerated before the limit shrinks
+    private double rttTolerance = 1.5;
+    
+    // Weight of each new limit estimate (0..1]
+    private double smoothing = 0.2;
+    
+    // Number of updates the long-term (baseline) latency averages over
+    private int longWindow = 600;
+    
+    private Duration updateInterval = Duration.ofMillis(250);
+    
+    // Consecutive updates that must each shed a CORE request before the node reports itself saturated
+    private int saturationWindows = 4;
+    
+    // How long the node keeps reporting itself saturated after the last such update
+    private Duration saturationHold = Duration.ofSeconds(5);
+}
@@ -0,0 +1,22 @@
+package com.yusoph.todo.loadshedding;
+
+/**
+ * Shedding order: LOW requests are rejected first, once they occupy their share of the limit.
+ */
+public enum RequestPriority {
+    
+    // Core CRUD on todos
+    CORE,
+    
+    // Aggregations, searches and exports - expensive and deferrable
+    LOW;
+    
+    public static RequestPriority resolve(String path) {
+        if (path.startsWith("/api/todos/stats")
+                || path.startsWith("/api/todos/search")
+                || path.startsWith("/api/todos/export")) {
+            return LOW;
+        }
+        return CORE;
+    }
+}
@@ -0,0 +1,40 @@
+package com.yusoph.todo.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event recorded for every JWT signature verification done by JwtTokenProvider.
+ */
+@Name("com.yusoph.todo.JwtVerification")
+@Label("JWT Verification")
+@Description("Parsing and HMAC verification of a bearer token")
+@Category({"Todo App", "Security"})
+@StackTrace(false)
+public class JwtVerificationEvent extends Event {
+
+    @Label("Subject")
+    private String subject;
+
+    @Label("Valid")
+    private boolean valid;
+
+    public static JwtVerificationEvent start() {
+        JwtVerificationEvent event = new JwtVerificationEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String subject, boolean valid) {
+        end();
+        if (shouldCommit()) {
+            this.subject = subject;
+            this.valid = valid;
+            commit();
+        }
+    }
+}
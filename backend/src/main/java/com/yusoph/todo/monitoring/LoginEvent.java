@@ -0,0 +1,40 @@
+package com.yusoph.todo.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event covering a full login attempt, including the user lookup and BCrypt check.
+ */
+@Name("com.yusoph.todo.Login")
+@Label("Login")
+@Description("Authentication of a username/password pair through the AuthenticationManager")
+@Category({"Todo App", "Security"})
+@StackTrace(false)
+public class LoginEvent extends Event {
+
+    @Label("Username")
+    private String username;
+
+    @Label("Success")
+    private boolean success;
+
+    public static LoginEvent start() {
+        LoginEvent event = new LoginEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String username, boolean success) {
+        end();
+        if (shouldCommit()) {
+            this.username = username;
+            this.success = success;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.yusoph.todo.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event recorded for every BCrypt encode or match.
+ */
+@Name("com.yusoph.todo.PasswordHash")
+@Label("Password Hash")
+@Description("BCrypt password encoding or verification")
+@Category({"Todo App", "Security"})
+@StackTrace(false)
+public class PasswordHashEvent extends Event {
+
+    public static final String ENCODE = "ENCODE";
+    public static final String MATCHES = "MATCHES";
+
+    @Label("Operation")
+    private final String operation;
+
+    @Label("Matched")
+    private boolean matched;
+
+    public PasswordHashEvent(String operation) {
+        this.operation = operation;
+    }
+
+    public static PasswordHashEvent start(String operation) {
+        PasswordHashEvent event = new PasswordHashEvent(operation);
+        event.begin();
+        return event;
+    }
+
+    public void finish(boolean matched) {
+        end();
+        if (shouldCommit()) {
+            this.matched = matched;
+            commit();
+        }
+    }
+}
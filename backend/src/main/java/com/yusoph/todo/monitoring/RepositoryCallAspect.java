@@ -0,0 +1,51 @@
+package com.yusoph.todo.monitoring;
+
+import com.yusoph.todo.loadshedding.AdaptiveConcurrencyLimiter;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Observes every call into the application's repositories, including the methods inherited
+ * from JpaRepository: emits a {@link RepositoryCallEvent} and feeds successful call latencies
+ * to the {@link AdaptiveConcurrencyLimiter}.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryCallAspect {
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    // Fragment implementations (*Impl) are reached through the repository proxy, which is already observed
+    @Around("execution(* com.yusoph.todo.repository..*(..)) && !within(com.yusoph.todo.repository..*Impl)")
+    public Object recordRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        RepositoryCallEvent event = RepositoryCallEvent.start();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            concurrencyLimiter.recordLatency(System.nanoTime() - start);
+            return result;
+        } finally {
+            if (event.isEnabled()) {
+                event.finish(repositoryName(joinPoint.getThis()), joinPoint.getSignature().getName(), failed);
+            }
+        }
+    }
+
+    private String repositoryName(Object proxy) {
+        return repositoryNames.computeIfAbsent(proxy.getClass(), type -> {
+            Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(proxy);
+            return interfaces.length > 0 ? interfaces[0].getSimpleName() : type.getSimpleName();
+        });
+    }
+}
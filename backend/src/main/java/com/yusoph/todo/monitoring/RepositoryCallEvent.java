@@ -0,0 +1,42 @@
+package com.yusoph.todo.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event recorded around every call into a Spring Data repository.
+ */
+@Name("com.yusoph.todo.RepositoryCall")
+@Label("Repository Call")
+@Description("Invocation of a TodoRepository or UserRepository method")
+@Category({"Todo App", "Repository"})
+public class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    private String repository;
+
+    @Label("Method")
+    private String method;
+
+    @Label("Failed")
+    private boolean failed;
+
+    public static RepositoryCallEvent start() {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String repository, String method, boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.repository = repository;
+            this.method = method;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.yusoph.todo.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event covering a write performed through TodoService (create, update or toggle).
+ * The event duration spans user resolution and the repository calls; it ends before the
+ * transaction commits, so the flush and commit are not included.
+ */
+@Name("com.yusoph.todo.TodoOperation")
+@Label("Todo Operation")
+@Description("Create, update or completion toggle of a todo")
+@Category({"Todo App", "Service"})
+@StackTrace(false)
+public class TodoOperationEvent extends Event {
+
+    public static final String CREATE = "CREATE";
+    public static final String UPDATE = "UPDATE";
+    public static final String TOGGLE = "TOGGLE";
+
+    @Label("Operation")
+    private final String operation;
+
+    @Label("User Id")
+    private long userId;
+
+    @Label("Todo Id")
+    private long todoId;
+
+    @Label("Completed")
+    private boolean completed;
+
+    public TodoOperationEvent(String operation) {
+        this.operation = operation;
+    }
+
+    public static TodoOperationEvent start(String operation) {
+        TodoOperationEvent event = new TodoOperationEvent(operation);
+        event.begin();
+        return event;
+    }
+
+    public void finish(Long userId, Long todoId, Boolean completed) {
+        end();
+        if (shouldCommit()) {
+            this.userId = userId != null ? userId : 0L;
+            this.todoId = todoId != null ? todoId : 0L;
+            this.completed = Boolean.TRUE.equals(completed);
+            commit();
+        }
+    }
+}
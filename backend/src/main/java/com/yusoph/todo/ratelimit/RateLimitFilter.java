@@ -0,0 +1,135 @@
+package com.yusoph.todo.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yusoph.todo.exception.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiting per route group, keyed by the subject (username) of a bearer token and
+ * by client IP otherwise. Runs before JwtAuthenticationFilter, so a rejected request costs neither a
+ * signature check nor a user lookup. Responses carry RateLimit-Limit/-Remaining/-Reset headers, and
+ * rejections add Retry-After.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Map<RateLimitGroup, TokenBucketStore> stores = new EnumMap<>(RateLimitGroup.class);
+    
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        long now = System.nanoTime();
+        for (RateLimitGroup group : RateLimitGroup.values()) {
+            stores.put(group, new TokenBucketStore(properties.getMaxKeys(), now));
+        }
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.isEnabled()
+                || "OPTIONS".equals(request.getMethod())
+                || !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        
+        RateLimitGroup group = RateLimitGroup.resolve(request.getMethod(), request.getRequestURI());
+        RateLimitProperties.Limit limit = properties.limitFor(group);
+        long emissionInterval = limit.getPeriod().toNanos() / limit.getCapacity();
+        
+        long now = System.nanoTime();
+        TokenBucket bucket = stores.get(group).bucketFor(clientKey(group, request), now);
+        TokenBucket.Decision decision = bucket.tryConsume(now, limit.getCapacity(), emissionInterval);
+        
+        response.setHeader("RateLimit-Limit", Integer.toString(limit.getCapacity()));
+        response.setHeader("RateLimit-Remaining", Long.toString(decision.remaining()));
+        response.setHeader("RateLimit-Reset", Long.toString(toSecondsCeil(decision.resetNanos())));
+        
+        if (decision.allowed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        log.debug("Rate limit exceeded for group {} on {}", group, request.getRequestURI());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(toSecondsCeil(decision.retryAfterNanos())));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorResponse error = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too Many Requests",
+                "Rate limit exceeded, please retry later",
+                request.getRequestURI()
+        );
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+    
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval:30s}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        stores.forEach((group, store) -> {
+            int evicted = store.evictIdle(now);
+            if (evicted > 0) {
+                log.debug("Evicted {} idle rate limit buckets for group {} ({} remaining)", evicted, group, store.size());
+            }
+        });
+    }
+    
+    private String clientKey(RateLimitGroup group, HttpServletRequest request) {
+        if (group != RateLimitGroup.AUTH) {
+            String subject = tokenSubject(request);
+            if (subject != null) {
+                return "user:" + subject;
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+    
+    // The subject is only a bucket key, so it is read without verifying the signature; JwtAuthenticationFilter
+    // verifies the token once, and a forged subject can at most spend that user's bucket, never add a new one
+    private String tokenSubject(HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        String[] parts = authHeader.substring(7).split("\\.");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1])).path("sub").textValue();
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private static long toSecondsCeil(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
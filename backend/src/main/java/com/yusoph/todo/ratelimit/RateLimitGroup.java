@@ -0,0 +1,29 @@
+package com.yusoph.todo.ratelimit;
+
+/**
+ * Route groups with independent limits. Each group keeps its own bucket per client.
+ */
+public enum RateLimitGroup {
+    
+    // POST /api/auth/login and /api/auth/register - BCrypt bound, keyed by client IP
+    AUTH,
+    
+    // GET /api/todos/**
+    TODO_READ,
+    
+    // POST/PUT/PATCH/DELETE /api/todos/**
+    TODO_WRITE,
+    
+    // Everything else under /api
+    API;
+    
+    public static RateLimitGroup resolve(String method, String path) {
+        if (path.startsWith("/api/auth/login") || path.startsWith("/api/auth/register")) {
+            return AUTH;
+        }
+        if (path.startsWith("/api/todos")) {
+            return "GET".equals(method) ? TODO_READ : TODO_WRITE;
+        }
+        return API;
+    }
+}
@@ -0,0 +1,39 @@
+package com.yusoph.todo.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+    
+    private boolean enabled = true;
+    
+    // Upper bound on tracked clients per route group; beyond it new clients share striped overflow buckets
+    private int maxKeys = 100_000;
+    
+    // How often fully refilled (idle) buckets are dropped
+    private Duration evictionInterval = Duration.ofSeconds(30);
+    
+    private Map<RateLimitGroup, Limit> groups = new EnumMap<>(RateLimitGroup.class);
+    
+    public Limit limitFor(RateLimitGroup group) {
+        return groups.getOrDefault(group, Limit.DEFAULT);
+    }
+    
+    @Data
+    public static class Limit {
+        
+        static final Limit DEFAULT = new Limit();
+        
+        // Burst size: requests allowed back to back from a full bucket
+        private int capacity = 300;
+        
+        // Time to refill the whole bucket
+        private Duration period = Duration.ofMinutes(1);
+    }
+}
@@ -0,0 +1,41 @@
+package com.yusoph.todo.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented as a generic cell rate algorithm: the whole bucket state
+ * is a single "theoretical arrival time", updated with one CAS per request.
+ */
+public final class TokenBucket {
+    
+    private final AtomicLong theoreticalArrival;
+    
+    public TokenBucket(long nowNanos) {
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+    
+    public Decision tryConsume(long nowNanos, long capacity, long emissionIntervalNanos) {
+        long burstTolerance = emissionIntervalNanos * (capacity - 1);
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long base = Math.max(arrival, nowNanos);
+            long allowedAt = base - burstTolerance;
+            if (nowNanos < allowedAt) {
+                return new Decision(false, 0, base - nowNanos, allowedAt - nowNanos);
+            }
+            long next = base + emissionIntervalNanos;
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                long remaining = (burstTolerance + emissionIntervalNanos - (next - nowNanos)) / emissionIntervalNanos;
+                return new Decision(true, remaining, next - nowNanos, 0);
+            }
+        }
+    }
+    
+    // A bucket that has fully refilled carries no state worth keeping
+    public boolean isIdle(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+    
+    public record Decision(boolean allowed, long remaining, long resetNanos, long retryAfterNanos) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.yusoph.todo.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buckets for one route group, keyed by client. Lookups hit ConcurrentHashMap's lock-free read
+ * path; memory is bounded by {@code maxKeys}. Beyond it, unseen clients are spread by key hash over
+ * {@value #OVERFLOW_STRIPES} overflow buckets until the idle sweep frees room, so a client only
+ * shares its limit with the few others hashed to the same stripe, not with every newcomer.
+ */
+public class TokenBucketStore {
+    
+    static final int OVERFLOW_STRIPES = 1024;
+    
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket[] overflow = new TokenBucket[OVERFLOW_STRIPES];
+    private final int maxKeys;
+    
+    public TokenBucketStore(int maxKeys, long nowNanos) {
+        this.maxKeys = maxKeys;
+        for (int i = 0; i < OVERFLOW_STRIPES; i++) {
+            overflow[i] = new TokenBucket(nowNanos);
+        }
+    }
+    
+    public TokenBucket bucketFor(String key, long nowNanos) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            return overflow[Math.floorMod(key.hashCode(), OVERFLOW_STRIPES)];
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(nowNanos));
+    }
+    
+    public int evictIdle(long nowNanos) {
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isIdle(nowNanos));
+        return before - buckets.size();
+    }
+    
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,10 @@
+package com.yusoph.todo.repository;
+
+import com.yusoph.todo.entity.Todo;
+
+/**
+ * Row filter for {@link TodoRepositoryCustom#findWithOwners}; null components are not applied.
+ * {@code owner} is a username.
+ */
+public record AdminTodoFilter(String owner, Boolean completed, Todo.Priority priority) {
+}
@@ -0,0 +1,11 @@
+package com.yusoph.todo.repository;
+
+import com.yusoph.todo.entity.Todo;
+
+import java.time.LocalDate;
+
+/**
+ * One day and priority of {@code todo_daily_rollups}, summed over the users selected.
+ */
+public record DailyRollupTotals(LocalDate date, Todo.Priority priority, long created, long completed, long overdue) {
+}
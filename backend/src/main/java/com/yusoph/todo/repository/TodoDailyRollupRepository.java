@@ -0,0 +1,104 @@
+package com.yusoph.todo.repository;
+
+import com.yusoph.todo.entity.TodoDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TodoDailyRollupRepository extends JpaRepository<TodoDailyRollup, TodoDailyRollup.Key> {
+    
+    String TOTALS_SELECT = "SELECT new com.yusoph.todo.repository.DailyRollupTotals(" +
+            "r.rollupDate, r.priority, SUM(r.created), SUM(r.completed), SUM(r.overdue)) " +
+            "FROM TodoDailyRollup r ";
+    
+    // A todo counts as overdue on its due day if it was still open then: it is open now, or it was
+    // completed (last updated) after its due date. The backfill and the seal share this predicate.
+    String WENT_OVERDUE = "(NOT completed OR COALESCE(updated_at, created_at) > due_date)";
+    
+    // Incremental maintenance from the write paths, in the writer's transaction
+    
+    @Modifying
+    @Query(value = "INSERT INTO todo_daily_rollups (user_id, rollup_date, priority, created, completed, overdue) " +
+           "VALUES (:userId, :date, :priority, :created, :completed, 0) " +
+           "ON CONFLICT (user_id, rollup_date, priority) DO UPDATE SET " +
+           "created = todo_daily_rollups.created + EXCLUDED.created, " +
+           "completed = todo_daily_rollups.completed + EXCLUDED.completed",
+            nativeQuery = true)
+    int increment(@Param("userId") Long userId,
+                  @Param("date") LocalDate date,
+                  @Param("priority") String priority,
+                  @Param("created") long created,
+                  @Param("completed") long completed);
+    
+    // Overdue counts for days in [from, to), recomputed from todos due on those days: resetOverdue, then
+    // sealOverdue in the same transaction. Idempotent, so every run can re-seal a window of recent days.
+    
+    @Modifying
+    @Query(value = "UPDATE todo_daily_rollups SET overdue = 0 " +
+           "WHERE rollup_date >= :from AND rollup_date < :to AND overdue <> 0",
+            nativeQuery = true)
+    int resetOverdue(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Modifying
+    @Query(value = "INSERT INTO todo_daily_rollups (user_id, rollup_date, priority, created, completed, overdue) " +
+           "SELECT user_id, CAST(due_date AS DATE), priority, 0, 0, COUNT(*) FROM todos " +
+           "WHERE due_date >= :from AND due_date < :to AND " + WENT_OVERDUE + " " +
+           "GROUP BY user_id, CAST(due_date AS DATE), priority " +
+           "ON CONFLICT (user_id, rollup_date, priority) DO UPDATE SET overdue = EXCLUDED.overdue",
+            nativeQuery = true)
+    int sealOverdue(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    // Backfill: rebuilds the rollups of users with ids in [fromUserId, toUserId] from todos and
+    // todos_archive. Only days before today get overdue counts, as in the seal.
+    
+    @Modifying
+    @Query(value = "DELETE FROM todo_daily_rollups WHERE user_id BETWEEN :fromUserId AND :toUserId",
+            nativeQuery = true)
+    int deleteByUserIdBetween(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId);
+    
+    @Modifying
+    @Query(value = "INSERT INTO todo_daily_rollups (user_id, rollup_date, priority, created, completed, overdue) " +
+           "SELECT user_id, day, priority, SUM(created), SUM(completed), SUM(overdue) FROM (" +
+           "SELECT user_id, CAST(created_at AS DATE) AS day, priority, 1 AS created, 0 AS completed, 0 AS overdue " +
+           "FROM todos WHERE user_id BETWEEN :fromUserId AND :toUserId " +
+           "UNION ALL SELECT user_id, CAST(created_at AS DATE), priority, 1, 0, 0 " +
+           "FROM todos_archive WHERE user_id BETWEEN :fromUserId AND :toUserId " +
+           "UNION ALL SELECT user_id, CAST(COALESCE(updated_at, created_at) AS DATE), priority, 0, 1, 0 " +
+           "FROM todos WHERE completed AND user_id BETWEEN :fromUserId AND :toUserId " +
+           "UNION ALL SELECT user_id, CAST(COALESCE(updated_at, created_at) AS DATE), priority, 0, 1, 0 " +
+           "FROM todos_archive WHERE completed AND user_id BETWEEN :fromUserId AND :toUserId " +
+           "UNION ALL SELECT user_id, CAST(due_date AS DATE), priority, 0, 0, 1 " +
+           "FROM todos WHERE due_date < :today AND " + WENT_OVERDUE + " AND user_id BETWEEN :fromUserId AND :toUserId " +
+           "UNION ALL SELECT user_id, CAST(due_date AS DATE), priority, 0, 0, 1 " +
+           "FROM todos_archive WHERE due_date < :today AND " + WENT_OVERDUE + " AND user_id BETWEEN :fromUserId AND :toUserId" +
+           ") events GROUP BY user_id, day, priority",
+            nativeQuery = true)
+    int rebuildForUserIdsBetween(@Param("fromUserId") Long fromUserId,
+                                 @Param("toUserId") Long toUserId,
+                                 @Param("today") LocalDateTime today);
+    
+    @Query(value = "SELECT MIN(id) FROM users", nativeQuery = true)
+    Long findMinUserId();
+    
+    @Query(value = "SELECT MAX(id) FROM users", nativeQuery = true)
+    Long findMaxUserId();
+    
+    // Reads for /api/admin/analytics; only todo_daily_rollups is touched
+    
+    @Query(TOTALS_SELECT + "WHERE r.rollupDate BETWEEN :from AND :to " +
+           "GROUP BY r.rollupDate, r.priority ORDER BY r.rollupDate, r.priority")
+    List<DailyRollupTotals> sumByDateAndPriority(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Query(TOTALS_SELECT + "WHERE r.userId = :userId AND r.rollupDate BETWEEN :from AND :to " +
+           "GROUP BY r.rollupDate, r.priority ORDER BY r.rollupDate, r.priority")
+    List<DailyRollupTotals> sumByDateAndPriorityForUser(@Param("userId") Long userId,
+                                                        @Param("from") LocalDate from,
+                                                        @Param("to") LocalDate to);
+}
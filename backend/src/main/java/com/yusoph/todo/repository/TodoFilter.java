@@ -0,0 +1,25 @@
+package com.yusoph.todo.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row filter for {@link TodoRepositoryCustom#findFields}; null components are not applied.
+ */
+public record TodoFilter(Long userId, Boolean completed, String titleContains, LocalDateTime dueBefore) {
+    
+    public static TodoFilter all() {
+        return new TodoFilter(null, null, null, null);
+    }
+    
+    public static TodoFilter forUser(Long userId) {
+        return new TodoFilter(userId, null, null, null);
+    }
+    
+    public static TodoFilter searchTitle(String title) {
+        return new TodoFilter(null, null, title, null);
+    }
+    
+    public static TodoFilter overdue(LocalDateTime now) {
+        return new TodoFilter(null, false, null, now);
+    }
+}
@@ -0,0 +1,49 @@
+package com.yusoph.todo.repository;
+
+import com.yusoph.todo.entity.Todo;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Criteria of {@link TodoRepositoryCustom#query}; null components are not applied. Ranges include
+ * their {@code from} and exclude their {@code to}, and a due-date range never matches todos without a
+ * due date. An empty {@code priorities} set is not applied either. {@code text} is matched
+ * case-insensitively against the title, like the search endpoint.
+ */
+public record TodoQuery(Long userId,
+                        Boolean completed,
+                        Set<Todo.Priority> priorities,
+                        LocalDateTime dueFrom,
+                        LocalDateTime dueTo,
+                        LocalDateTime createdFrom,
+                        LocalDateTime createdTo,
+                        String text,
+                        TodoSort sort,
+                        boolean descending,
+                        Integer limit) {
+    
+    public TodoQuery {
+        if (sort == null) {
+            sort = TodoSort.ID;
+        }
+        // An EnumSet keeps the criteria's string form, and so their snapshot key, in one order
+        if (priorities != null) {
+            priorities = priorities.isEmpty()
+                    ? Set.of()
+                    : Collections.unmodifiableSet(EnumSet.copyOf(priorities));
+        }
+    }
+    
+    public TodoQuery forUser(Long userId) {
+        return new TodoQuery(userId, completed, priorities, dueFrom, dueTo, createdFrom, createdTo, text,
+                sort, descending, limit);
+    }
+    
+    public TodoQuery withLimit(Integer limit) {
+        return new TodoQuery(userId, completed, priorities, dueFrom, dueTo, createdFrom, createdTo, text,
+                sort, descending, limit);
+    }
+}
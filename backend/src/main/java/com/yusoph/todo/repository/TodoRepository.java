@@ -1,16 +1,51 @@
 package com.yusoph.todo.repository;
 
+import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.dto.TodoStatsResponse;
 import com.yusoph.todo.entity.Todo;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TodoRepository extends JpaRepository<Todo, Long> {
+public interface TodoRepository extends JpaRepository<Todo, Long>, TodoRepositoryCustom {
+    
+    // Constructor expression for read paths: Hibernate builds TodoResponse straight from the
+    // result set, so no managed Todo, snapshot or User proxy is created
+    String TODO_RESPONSE_COLUMNS = "SELECT new com.yusoph.todo.dto.TodoResponse(" +
+            "t.id, t.title, t.description, t.completed, t.priority, t.createdAt, t.updatedAt, t.dueDate) ";
+    
+    String TODO_RESPONSE_SELECT = TODO_RESPONSE_COLUMNS + "FROM Todo t ";
+    
+    // All six stats in one pass over the rows
+    String TODO_STATS_COLUMNS = "SELECT new com.yusoph.todo.dto.TodoStatsResponse(COUNT(t), " +
+            "COALESCE(SUM(CASE WHEN t.completed = true THEN 1L ELSE 0L END), 0L), " +
+            "COALESCE(SUM(CASE WHEN t.completed = false THEN 1L ELSE 0L END), 0L), " +
+            "COALESCE(SUM(CASE WHEN t.priority = 'HIGH' THEN 1L ELSE 0L END), 0L), " +
+            "COALESCE(SUM(CASE WHEN t.priority = 'MEDIUM' THEN 1L ELSE 0L END), 0L), " +
+            "COALESCE(SUM(CASE WHEN t.priority = 'LOW' THEN 1L ELSE 0L END), 0L)) ";
+    
+    String TODO_STATS_SELECT = TODO_STATS_COLUMNS + "FROM Todo t ";
+    
+    // The same projections over todos_archive, which only the includeArchived paths read
+    String ARCHIVED_RESPONSE_SELECT = TODO_RESPONSE_COLUMNS + "FROM ArchivedTodo t ";
+    
+    String ARCHIVED_STATS_SELECT = TODO_STATS_COLUMNS + "FROM ArchivedTodo t ";
+    
+    String PRIORITY_DUE_DATE_ORDER = "ORDER BY " +
+            "CASE WHEN t.priority = 'HIGH' THEN 1 " +
+            "     WHEN t.priority = 'MEDIUM' THEN 2 " +
+            "     WHEN t.priority = 'LOW' THEN 3 END, " +
+            "t.dueDate ASC NULLS LAST, t.createdAt ASC";
     
     // Find all todos for a specific user
     List<Todo> findByUserId(Long userId);
@@ -45,18 +80,6 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
     List<Todo> findTodosCreatedBetween(@Param("startDate") LocalDateTime startDate, 
                                      @Param("endDate") LocalDateTime endDate);
     
-    // Count todos by completion status
-    long countByCompleted(Boolean completed);
-    
-    // Count todos by priority
-    long countByPriority(Todo.Priority priority);
-    
-    // Count todos by priority for a specific user
-    long countByUserIdAndPriority(Long userId, Todo.Priority priority);
-    
-    // Count todos by completion status for a specific user
-    long countByUserIdAndCompleted(Long userId, Boolean completed);
-    
     // Find all todos ordered by priority and due date
     @Query("SELECT t FROM Todo t ORDER BY " +
            "CASE WHEN t.priority = 'HIGH' THEN 1 " +
@@ -72,4 +95,93 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
            "     WHEN t.priority = 'LOW' THEN 3 END, " +
            "t.dueDate ASC NULLS LAST, t.createdAt ASC")
     List<Todo> findAllByUserIdOrderedByPriorityAndDueDate(@Param("userId") Long userId);
-}
\ No newline at end of file
+    
+    // Read-only projections
+    
+    @Query(TODO_RESPONSE_SELECT)
+    List<TodoResponse> findAllResponses(Sort sort);
+    
+    @Query(TODO_RESPONSE_SELECT + "WHERE t.user.id = :userId")
+    List<TodoResponse> findResponsesByUserId(@Param("userId") Long userId);
+    
+    @Query(TODO_RESPONSE_SELECT)
+    Slice<TodoResponse> findAllResponses(Pageable pageable);
+    
+    @Query(TODO_RESPONSE_SELECT + "WHERE t.user.id = :userId")
+    Slice<TodoResponse> findResponsesByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query(TODO_RESPONSE_SELECT + "WHERE t.user.id = :userId " + PRIORITY_DUE_DATE_ORDER)
+    List<TodoResponse> findResponsesByUserIdOrderedByPriorityAndDueDate(@Param("userId") Long userId);
+    
+    @Query(TODO_RESPONSE_SELECT + "WHERE t.id = :id")
+    Optional<TodoResponse> findResponseById(@Param("id") Long id);
+    
+    @Query(TODO_RESPONSE_SELECT + "WHERE t.id = :id AND t.user.id = :userId")
+    Optional<TodoResponse> findResponseByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+    
+    @Query(TODO_RESPONSE_SELECT + "WHERE t.user.id = :userId AND t.completed = :completed")
+    List<TodoResponse> findResponsesByUserIdAndCompleted(@Param("userId") Long userId,
+                                                         @Param("completed") Boolean completed);
+    
+    @Query(TODO_RESPONSE_SELECT + "WHERE t.user.id = :userId AND t.priority = :priority")
+    List<TodoResponse> findResponsesByUserIdAndPriority(@Param("userId") Long userId,
+                                                        @Param("priority") Todo.Priority priority);
+    
+    @Query(TODO_RESPONSE_SELECT + "WHERE LOWER(t.title) LIKE LOWER(:pattern) ESCAPE '\\'")
+    List<TodoResponse> findResponsesByTitleLikeIgnoreCase(@Param("pattern") String pattern);
+    
+    // % and _ in the search text match literally, as in findFields
+    default List<TodoResponse> findResponsesByTitleContainingIgnoreCase(String title) {
+        return findResponsesByTitleLikeIgnoreCase("%" + TodoRepositoryCustomImpl.escapeLike(title) + "%");
+    }
+    
+    @Query(TODO_RESPONSE_SELECT + "WHERE t.completed = false AND t.dueDate < :currentDate")
+    List<TodoResponse> findOverdueResponses(@Param("currentDate") LocalDateTime currentDate);
+    
+    @Query(TODO_STATS_SELECT)
+    TodoStatsResponse aggregateStats();
+    
+    @Query(TODO_STATS_SELECT + "WHERE t.user.id = :userId")
+    TodoStatsResponse aggregateStatsByUserId(@Param("userId") Long userId);
+    
+    // Bulk deletes: one statement per chunk, no entities loaded
+    
+    // Deletes up to limit of the user's todos and returns how many went; callers repeat until it is below limit
+    @Modifying
+    @Query(value = "DELETE FROM todos WHERE id IN (SELECT id FROM todos WHERE user_id = :userId LIMIT :limit)",
+            nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+    
+    @Modifying
+    @Query(value = "DELETE FROM todos_archive WHERE id IN (SELECT id FROM todos_archive WHERE user_id = :userId LIMIT :limit)",
+            nativeQuery = true)
+    int deleteArchivedChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+    
+    // Archive
+    
+    // Moves up to limit todos completed (last updated) before cutoff into todos_archive in one
+    // statement and returns how many moved. SKIP LOCKED leaves rows a request is updating for the next batch.
+    @Modifying
+    @Query(value = "WITH moved AS (" +
+           "DELETE FROM todos WHERE id IN (" +
+           "SELECT id FROM todos WHERE completed AND COALESCE(updated_at, created_at) < :cutoff " +
+           "LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+           "RETURNING id, title, description, completed, priority, created_at, updated_at, due_date, user_id) " +
+           "INSERT INTO todos_archive (id, title, description, completed, priority, created_at, updated_at, due_date, user_id, archived_at) " +
+           "SELECT id, title, description, completed, priority, created_at, updated_at, due_date, user_id, CURRENT_TIMESTAMP " +
+           "FROM moved",
+            nativeQuery = true)
+    int archiveCompletedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+    
+    @Query(ARCHIVED_RESPONSE_SELECT + "ORDER BY t.id")
+    List<TodoResponse> findAllArchivedResponses();
+    
+    @Query(ARCHIVED_RESPONSE_SELECT + "WHERE t.user.id = :userId ORDER BY t.id")
+    List<TodoResponse> findArchivedResponsesByUserId(@Param("userId") Long userId);
+    
+    @Query(ARCHIVED_STATS_SELECT)
+    TodoStatsResponse aggregateArchivedStats();
+    
+    @Query(ARCHIVED_STATS_SELECT + "WHERE t.user.id = :userId")
+    TodoStatsResponse aggregateArchivedStatsByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,49 @@
+package com.yusoph.todo.repository;
+
+import com.yusoph.todo.dto.AdminTodoResponse;
+import com.yusoph.todo.dto.TodoField;
+import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.dto.TodoStatsResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public interface TodoRepositoryCustom {
+    
+    /**
+     * Selects only the given columns, so unrequested ones (typically {@code description}) are never
+     * read from the table. Each row is a map from field name to value, in {@link TodoField} order.
+     * With {@code orderByPriority}, rows are ordered HIGH to LOW, then by due date (nulls last) and creation time.
+     */
+    List<Map<String, Object>> findFields(Set<TodoField> fields, TodoFilter filter, boolean orderByPriority);
+    
+    /**
+     * Todos matching any combination of the criteria in {@code query}, in its {@link TodoSort} order and
+     * at most {@code query.limit()} of them. The statement is built from the criteria actually given: it
+     * filters on {@code user_id} first and, sorted by id, creation time or due date, reads a user's todos
+     * in the order of the matching {@code (user_id, <column>, id)} index, so the range bounds and the limit
+     * cut the index scan short instead of filtering and sorting all of the user's todos.
+     */
+    List<TodoResponse> query(TodoQuery query);
+    
+    /**
+     * Up to {@code limit} todos of all users with ids above {@code afterId} (null for the first page), in
+     * id order, each with its owner's id, username and email. The owner columns come from a join in the
+     * same statement, so a page costs one query whatever its size and no {@code User} is loaded.
+     */
+    List<AdminTodoResponse> findWithOwners(AdminTodoFilter filter, Long afterId, int limit);
+    
+    /**
+     * Stats of the whole {@code todos} table from PostgreSQL's statistics rather than a scan: the
+     * live-row counter of {@code pg_stat_user_tables} and the {@code completed} and {@code priority}
+     * frequencies that the last ANALYZE sampled into {@code pg_stats}. The result is not
+     * {@link TodoStatsResponse#isExact() exact} and carries error bounds. Empty if the table has not been
+     * analyzed yet.
+     */
+    Optional<TodoStatsResponse> estimateStats();
+    
+    // The same over todos_archive
+    Optional<TodoStatsResponse> estimateArchivedStats();
+}
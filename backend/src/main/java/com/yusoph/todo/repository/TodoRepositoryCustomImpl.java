@@ -0,0 +1,285 @@
+package com.yusoph.todo.repository;
+
+import com.yusoph.todo.dto.AdminTodoResponse;
+import com.yusoph.todo.dto.TodoField;
+import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.dto.TodoStatsErrorBounds;
+import com.yusoph.todo.dto.TodoStatsResponse;
+import com.yusoph.todo.entity.Todo;
+import com.yusoph.todo.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public class TodoRepositoryCustomImpl implements TodoRepositoryCustom {
+    
+    private static final char LIKE_ESCAPE = '\\';
+    
+    // Two-sided 95% confidence for the error bounds of estimates
+    private static final double Z_95 = 1.96;
+    
+    // ANALYZE samples this many rows per unit of statistics target
+    private static final int SAMPLE_ROWS_PER_TARGET = 300;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<Map<String, Object>> findFields(Set<TodoField> fields, TodoFilter filter, boolean orderByPriority) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Todo> todo = query.from(Todo.class);
+        
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (TodoField field : fields) {
+            selections.add(todo.get(field.getName()).alias(field.getName()));
+        }
+        query.multiselect(selections);
+        
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.userId() != null) {
+            predicates.add(cb.equal(todo.get("user").get("id"), filter.userId()));
+        }
+        if (filter.completed() != null) {
+            predicates.add(cb.equal(todo.get("completed"), filter.completed()));
+        }
+        if (filter.titleContains() != null) {
+            predicates.add(cb.like(cb.lower(todo.get("title")),
+                    "%" + escapeLike(filter.titleContains().toLowerCase(Locale.ROOT)) + "%", LIKE_ESCAPE));
+        }
+        if (filter.dueBefore() != null) {
+            predicates.add(cb.lessThan(todo.get("dueDate"), filter.dueBefore()));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        
+        if (orderByPriority) {
+            query.orderBy(priorityOrder(cb, todo, false));
+        }
+        
+        List<Tuple> rows = entityManager.createQuery(query).getResultList();
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (TodoField field : fields) {
+                values.put(field.getName(), row.get(field.getName()));
+            }
+            result.add(values);
+        }
+        return result;
+    }
+    
+    @Override
+    public List<TodoResponse> query(TodoQuery criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TodoResponse> query = cb.createQuery(TodoResponse.class);
+        Root<Todo> todo = query.from(Todo.class);
+        query.select(cb.construct(TodoResponse.class,
+                todo.get("id"), todo.get("title"), todo.get("description"), todo.get("completed"),
+                todo.get("priority"), todo.get("createdAt"), todo.get("updatedAt"), todo.get("dueDate")));
+        
+        // user_id first: it leads every index the rest of the criteria can use
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.userId() != null) {
+            predicates.add(cb.equal(todo.get("user").get("id"), criteria.userId()));
+        }
+        if (criteria.completed() != null) {
+            predicates.add(cb.equal(todo.get("completed"), criteria.completed()));
+        }
+        Set<Todo.Priority> priorities = criteria.priorities();
+        if (priorities != null && !priorities.isEmpty() && priorities.size() < Todo.Priority.values().length) {
+            predicates.add(todo.get("priority").in(priorities));
+        }
+        addRange(cb, predicates, todo.get("dueDate"), criteria.dueFrom(), criteria.dueTo());
+        addRange(cb, predicates, todo.get("createdAt"), criteria.createdFrom(), criteria.createdTo());
+        if (criteria.text() != null) {
+            predicates.add(cb.like(cb.lower(todo.get("title")),
+                    "%" + escapeLike(criteria.text().toLowerCase(Locale.ROOT)) + "%", LIKE_ESCAPE));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        
+        // The column and the id in the same direction and with PostgreSQL's default null placement,
+        // which a backward index scan yields as well
+        boolean descending = criteria.descending();
+        query.orderBy(switch (criteria.sort()) {
+            case ID -> List.of(order(cb, todo.get("id"), descending));
+            case CREATED_AT -> List.of(order(cb, todo.get("createdAt"), descending), order(cb, todo.get("id"), descending));
+            case DUE_DATE -> List.of(order(cb, todo.get("dueDate"), descending), order(cb, todo.get("id"), descending));
+            case PRIORITY -> priorityOrder(cb, todo, descending);
+        });
+        
+        TypedQuery<TodoResponse> typed = entityManager.createQuery(query);
+        if (criteria.limit() != null) {
+            typed.setMaxResults(criteria.limit());
+        }
+        return typed.getResultList();
+    }
+    
+    private static void addRange(CriteriaBuilder cb, List<Predicate> predicates, Expression<LocalDateTime> column,
+                                 LocalDateTime from, LocalDateTime to) {
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(column, from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(column, to));
+        }
+    }
+    
+    private static Order order(CriteriaBuilder cb, Expression<?> column, boolean descending) {
+        return descending ? cb.desc(column) : cb.asc(column);
+    }
+    
+    // HIGH to LOW (LOW to HIGH when descending), then by due date (nulls last), creation time and id
+    private static List<Order> priorityOrder(CriteriaBuilder cb, Root<Todo> todo, boolean descending) {
+        Expression<Integer> priorityRank = cb.<Todo.Priority, Integer>selectCase(todo.get("priority"))
+                .when(Todo.Priority.HIGH, 1)
+                .when(Todo.Priority.MEDIUM, 2)
+                .otherwise(3);
+        Expression<Integer> dueDateMissing = cb.<Integer>selectCase()
+                .when(cb.isNull(todo.get("dueDate")), 1)
+                .otherwise(0);
+        return List.of(order(cb, priorityRank, descending), cb.asc(dueDateMissing), cb.asc(todo.get("dueDate")),
+                cb.asc(todo.get("createdAt")), cb.asc(todo.get("id")));
+    }
+    
+    @Override
+    public List<AdminTodoResponse> findWithOwners(AdminTodoFilter filter, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AdminTodoResponse> query = cb.createQuery(AdminTodoResponse.class);
+        Root<Todo> todo = query.from(Todo.class);
+        Join<Todo, User> owner = todo.join("user");
+        query.select(cb.construct(AdminTodoResponse.class,
+                todo.get("id"), todo.get("title"), todo.get("description"), todo.get("completed"),
+                todo.get("priority"), todo.get("createdAt"), todo.get("updatedAt"), todo.get("dueDate"),
+                owner.get("id"), owner.get("username"), owner.get("email")));
+        
+        List<Predicate> predicates = new ArrayList<>();
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(todo.get("id"), afterId));
+        }
+        if (filter.owner() != null) {
+            predicates.add(cb.equal(owner.get("username"), filter.owner()));
+        }
+        if (filter.completed() != null) {
+            predicates.add(cb.equal(todo.get("completed"), filter.completed()));
+        }
+        if (filter.priority() != null) {
+            predicates.add(cb.equal(todo.get("priority"), filter.priority()));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(cb.asc(todo.get("id")));
+        
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+    
+    @Override
+    public Optional<TodoStatsResponse> estimateStats() {
+        return estimateStats("todos");
+    }
+    
+    @Override
+    public Optional<TodoStatsResponse> estimateArchivedStats() {
+        return estimateStats("todos_archive");
+    }
+    
+    private Optional<TodoStatsResponse> estimateStats(String table) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "SELECT c.reltuples, s.n_live_tup, s.n_mod_since_analyze, " +
+                        "current_setting('default_statistics_target') " +
+                        "FROM pg_class c JOIN pg_stat_user_tables s ON s.relid = c.oid " +
+                        "WHERE c.oid = to_regclass(:table)")
+                .setParameter("table", table)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        // reltuples is the row count of the last ANALYZE or VACUUM, -1 if there was none
+        double analyzedRows = ((Number) rows.get(0)[0]).doubleValue();
+        long total = ((Number) rows.get(0)[1]).longValue();
+        long modified = ((Number) rows.get(0)[2]).longValue();
+        int statisticsTarget = Integer.parseInt((String) rows.get(0)[3]);
+        Map<String, Double> completed = frequencies(table, "completed");
+        Map<String, Double> priority = frequencies(table, "priority");
+        if (analyzedRows < 1 || completed.isEmpty() || priority.isEmpty()) {
+            return Optional.empty();
+        }
+        
+        // The live-row counter follows every commit; how far the last ANALYZE's count has drifted from
+        // it bounds its error as well as anything else available
+        long totalBound = Math.round(Math.abs(total - analyzedRows));
+        double sampleRows = Math.min(analyzedRows, (double) SAMPLE_ROWS_PER_TARGET * statisticsTarget);
+        FrequencyEstimate done = new FrequencyEstimate(total, totalBound, analyzedRows, sampleRows, modified);
+        
+        long completedCount = done.count(completed.getOrDefault("t", 0.0));
+        long completedBound = done.bound(completed.getOrDefault("t", 0.0));
+        double high = priority.getOrDefault(Todo.Priority.HIGH.name(), 0.0);
+        double medium = priority.getOrDefault(Todo.Priority.MEDIUM.name(), 0.0);
+        double low = priority.getOrDefault(Todo.Priority.LOW.name(), 0.0);
+        TodoStatsErrorBounds bounds = new TodoStatsErrorBounds(totalBound, completedBound, completedBound,
+                done.bound(high), done.bound(medium), done.bound(low));
+        return Optional.of(new TodoStatsResponse(total, completedCount, total - completedCount,
+                done.count(high), done.count(medium), done.count(low), false, bounds));
+    }
+    
+    // Most common values of a column with their sampled frequencies; for completed and priority
+    // these are all the values the sample contained
+    private Map<String, Double> frequencies(String table, String column) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "SELECT v.value, v.frequency FROM pg_stats s " +
+                        "CROSS JOIN LATERAL unnest(CAST(CAST(s.most_common_vals AS text) AS text[]), s.most_common_freqs) " +
+                        "AS v(value, frequency) " +
+                        "WHERE s.schemaname = current_schema() AND s.tablename = :table AND s.attname = :column")
+                .setParameter("table", table)
+                .setParameter("column", column)
+                .getResultList();
+        Map<String, Double> frequencies = new HashMap<>();
+        for (Object[] row : rows) {
+            frequencies.put((String) row[0], ((Number) row[1]).doubleValue());
+        }
+        return frequencies;
+    }
+    
+    private record FrequencyEstimate(long total, long totalBound, double analyzedRows, double sampleRows, long modified) {
+        
+        long count(double frequency) {
+            return Math.round(frequency * total);
+        }
+        
+        // Sampling error of the frequency (with the finite population correction, so a sample of the
+        // whole table has none), plus every row modified since the sample, plus the error of total.
+        // A value the sample missed gets the error of a frequency of one sampled row.
+        long bound(double frequency) {
+            double p = Math.max(frequency, 1 / sampleRows);
+            double populationCorrection = analyzedRows > 1
+                    ? Math.sqrt(Math.max(0, analyzedRows - sampleRows) / (analyzedRows - 1))
+                    : 0;
+            double standardError = Math.sqrt(p * (1 - p) / sampleRows) * populationCorrection;
+            return (long) Math.ceil(Z_95 * standardError * total + modified + frequency * totalBound);
+        }
+    }
+    
+    // For LIKE ... ESCAPE '\'
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
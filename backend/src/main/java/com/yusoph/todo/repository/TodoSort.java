@@ -0,0 +1,36 @@
+package com.yusoph.todo.repository;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Orders of {@link TodoRepositoryCustom#query}, named by the {@code Todo} attribute they sort on. Each
+ * ends with the id, so the order is total. For one user, every order but {@code priority} is the order
+ * of a {@code (user_id, <column>, id)} index, which PostgreSQL reads forwards or backwards instead of
+ * sorting.
+ */
+public enum TodoSort {
+    ID("id"),
+    CREATED_AT("createdAt"),
+    DUE_DATE("dueDate"),
+    // HIGH to LOW, then by due date (nulls last) and creation time, as on the todo list
+    PRIORITY("priority");
+    
+    private final String name;
+    
+    TodoSort(String name) {
+        this.name = name;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public static TodoSort parse(String name) {
+        return Arrays.stream(values())
+                .filter(sort -> sort.name.equals(name.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown sort '" + name + "'. Allowed sorts: "
+                        + Arrays.stream(values()).map(TodoSort::getName).collect(Collectors.joining(","))));
+    }
+}
@@ -2,8 +2,13 @@ package com.yusoph.todo.repository;
 
 import com.yusoph.todo.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +21,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByUsername(String username);
     
     Boolean existsByEmail(String email);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+    
+    // Disables the account and records the deletion request; 0 if one is already pending
+    @Modifying
+    @Query("UPDATE User u SET u.enabled = false, u.deletionRequestedAt = :requestedAt " +
+           "WHERE u.id = :id AND u.deletionRequestedAt IS NULL")
+    int markForDeletion(@Param("id") Long id, @Param("requestedAt") LocalDateTime requestedAt);
+    
+    @Query("SELECT u.id FROM User u WHERE u.deletionRequestedAt IS NOT NULL")
+    List<Long> findIdsPendingDeletion();
+    
+    // Deletes just the row: unlike delete(user), User.todos is not loaded, and any remaining
+    // todos go with it through ON DELETE CASCADE
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int deleteRowById(@Param("id") Long id);
 }
@@ -0,0 +1,193 @@
+package com.yusoph.todo.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.JDBCConnectionException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import javax.sql.DataSource;
+import java.net.ConnectException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Opens after {@code resilience.failure-threshold} consecutive connection-level failures, that is
+ * when PostgreSQL is unreachable rather than when a query is wrong. While open, callers are expected
+ * to skip the database entirely (see {@link DegradedModeAspect}). A background probe on its own
+ * thread checks a connection every {@code resilience.probe-interval} and closes the circuit on success,
+ * so no request ever waits on a connection timeout to find out.
+ */
+@Component
+@Slf4j
+public class DatabaseCircuitBreaker implements MeterBinder, DisposableBean {
+    
+    public enum State { CLOSED, OPEN }
+    
+    private final ResilienceProperties properties;
+    private final DataSource dataSource;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong opened = new AtomicLong();
+    private final ReentrantLock stateLock = new ReentrantLock();
+    // Own thread: a probe can block for the whole Hikari connection timeout
+    private final ScheduledExecutorService probeExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "db-circuit-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private volatile State state = State.CLOSED;
+    private volatile Instant openedAt;
+    private ScheduledFuture<?> probeTask;
+    
+    public DatabaseCircuitBreaker(ResilienceProperties properties, ObjectProvider<DataSource> dataSource) {
+        this.properties = properties;
+        // Absent with the embedded storage engine, which has no outages to ride out
+        this.dataSource = dataSource.getIfAvailable();
+    }
+    
+    public boolean isEnabled() {
+        return properties.isEnabled() && dataSource != null;
+    }
+    
+    public boolean isOpen() {
+        return state == State.OPEN;
+    }
+    
+    public Duration getProbeInterval() {
+        return properties.getProbeInterval();
+    }
+    
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+    
+    /**
+     * Counts {@code failure} towards opening the circuit if it indicates the database is unreachable.
+     *
+     * @return whether the failure was an outage
+     */
+    public boolean recordFailure(Throwable failure) {
+        if (!isOutage(failure)) {
+            return false;
+        }
+        if (isEnabled() && consecutiveFailures.incrementAndGet() >= properties.getFailureThreshold()) {
+            open(failure);
+        }
+        return true;
+    }
+    
+    private void open(Throwable cause) {
+        stateLock.lock();
+        try {
+            if (state == State.OPEN) {
+                return;
+            }
+            state = State.OPEN;
+            openedAt = Instant.now();
+            opened.incrementAndGet();
+            long interval = properties.getProbeInterval().toMillis();
+            probeTask = probeExecutor.scheduleWithFixedDelay(this::probe, interval, interval, TimeUnit.MILLISECONDS);
+            log.error("Database circuit opened after {} consecutive failures: {}", consecutiveFailures.get(), cause.toString());
+        } finally {
+            stateLock.unlock();
+        }
+    }
+    
+    private void close() {
+        stateLock.lock();
+        try {
+            if (state == State.CLOSED) {
+                return;
+            }
+            state = State.CLOSED;
+            consecutiveFailures.set(0);
+            if (probeTask != null) {
+                probeTask.cancel(false);
+                probeTask = null;
+            }
+            log.warn("Database reachable again after {}; circuit closed", Duration.between(openedAt, Instant.now()));
+        } finally {
+            stateLock.unlock();
+        }
+    }
+    
+    private void probe() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (connection.isValid((int) Math.max(1, properties.getProbeInterval().toSeconds()))) {
+                close();
+            }
+        } catch (SQLException | RuntimeException e) {
+            log.debug("Database probe failed: {}", e.toString());
+        }
+    }
+    
+    /**
+     * Whether {@code failure} (or a cause) means the database cannot be reached, as opposed to a
+     * failing statement.
+     */
+    public static boolean isOutage(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof CannotCreateTransactionException
+                    || t instanceof DataAccessResourceFailureException
+                    || t instanceof TransientDataAccessResourceException
+                    || t instanceof JDBCConnectionException
+                    || t instanceof SQLTransientConnectionException
+                    || t instanceof SQLNonTransientConnectionException
+                    || t instanceof ConnectException) {
+                return true;
+            }
+            // 08xxx: connection exception; 57P03: cannot connect now (server starting or shutting down)
+            if (t instanceof SQLException sql && sql.getSQLState() != null
+                    && (sql.getSQLState().startsWith("08") || sql.getSQLState().equals("57P03"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public Map<String, Object> state() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("circuit", state);
+        result.put("consecutiveFailures", consecutiveFailures.get());
+        if (state == State.OPEN) {
+            result.put("openSince", openedAt);
+        }
+        return result;
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.circuit.open", () -> isOpen() ? 1 : 0)
+                .description("1 while the database circuit is open and reads are served from snapshots")
+                .register(registry);
+        FunctionCounter.builder("db.circuit.opened", opened, AtomicLong::get)
+                .description("Times the database circuit has opened")
+                .register(registry);
+    }
+    
+    @Override
+    public void destroy() {
+        probeExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,130 @@
+package com.yusoph.todo.resilience;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.yusoph.todo.entity.User;
+import com.yusoph.todo.exception.DatabaseUnavailableException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The circuit breaker around the todo, bootstrap and auth services. Runs outside their transactions, so an open circuit
+ * never borrows (or waits for) a connection:
+ * <ul>
+ *   <li>circuit open: {@link SnapshotRead} methods return the user's last-known-good result with
+ *   {@code X-Data-Stale: true} and {@code Age}; everything else, writes included, fails with a 503</li>
+ *   <li>circuit closed: successful {@link SnapshotRead} results are snapshotted; an outage failure is
+ *   counted towards opening the circuit and falls back to the snapshot the same way</li>
+ * </ul>
+ * Login is left out: it reads the user only through {@code CustomUserDetailsService}, which falls back
+ * to the {@link SnapshotStore} user itself.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class DegradedModeAspect {
+    
+    public static final String STALE_HEADER = "X-Data-Stale";
+    
+    private final DatabaseCircuitBreaker circuitBreaker;
+    private final SnapshotStore snapshotStore;
+    private final Map<Method, JavaType> returnTypes = new ConcurrentHashMap<>();
+    
+    @Around("execution(public * com.yusoph.todo.service.TodoService.*(..))"
+            + " || execution(public * com.yusoph.todo.service.BootstrapService.*(..))"
+            + " || (execution(public * com.yusoph.todo.service.AuthService.*(..))"
+            + " && !execution(* com.yusoph.todo.service.AuthService.login(..)))")
+    public Object guard(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!circuitBreaker.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        boolean snapshotRead = method.isAnnotationPresent(SnapshotRead.class);
+        String username = currentUsername();
+        String key = snapshotRead && username != null ? snapshotKey(method, joinPoint.getArgs()) : null;
+        
+        if (circuitBreaker.isOpen()) {
+            return fromSnapshot(method, username, key, null);
+        }
+        
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable failure) {
+            if (circuitBreaker.recordFailure(failure)) {
+                return fromSnapshot(method, username, key, failure);
+            }
+            throw failure;
+        }
+        circuitBreaker.recordSuccess();
+        if (key != null && result != null) {
+            snapshotStore.put(username, key, result);
+        }
+        return result;
+    }
+    
+    private Object fromSnapshot(Method method, String username, String key, Throwable cause) {
+        if (key != null) {
+            Optional<SnapshotStore.Snapshot<Object>> snapshot = snapshotStore.get(username, key, returnType(method));
+            if (snapshot.isPresent()) {
+                log.debug("Serving stale {} for user {} captured at {}", key, username, snapshot.get().capturedAt());
+                markStale(snapshot.get().capturedAt());
+                return snapshot.get().value();
+            }
+        }
+        throw new DatabaseUnavailableException("The database is temporarily unavailable, please retry shortly", cause);
+    }
+    
+    private JavaType returnType(Method method) {
+        return returnTypes.computeIfAbsent(method,
+                m -> TypeFactory.defaultInstance().constructType(m.getGenericReturnType()));
+    }
+    
+    private static void markStale(Instant capturedAt) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletResponse response = attributes.getResponse();
+            if (response != null && !response.isCommitted()) {
+                response.setHeader(STALE_HEADER, "true");
+                response.setHeader("Age", Long.toString(Duration.between(capturedAt, Instant.now()).toSeconds()));
+            }
+        }
+    }
+    
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+    
+    // The user is the partition; entity arguments would drag lazy associations into toString
+    private static String snapshotKey(Method method, Object[] args) {
+        StringBuilder key = new StringBuilder(method.getName()).append('(');
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                key.append(',');
+            }
+            key.append(args[i] instanceof User ? "principal" : String.valueOf(args[i]));
+        }
+        return key.append(')').toString();
+    }
+}
@@ -0,0 +1,92 @@
+package com.yusoph.todo.resilience;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-size ring of bytes in a memory-mapped file. Appends return a logical position, and a read
+ * returns null once later appends have wrapped around and overwritten the entry, so the oldest
+ * snapshots are evicted implicitly. Contents are scratch data and are not reused after a restart.
+ * Snapshots hold users' todos, so on POSIX file systems the file is readable by its owner only.
+ */
+class MappedSpillArea implements AutoCloseable {
+    
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    // Total bytes ever appended, including padding skipped at the end of the ring
+    private long written;
+    
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rw-------");
+    
+    MappedSpillArea(Path file, int capacity) throws IOException {
+        Set<OpenOption> options = Set.of(StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            FileAttribute<Set<PosixFilePermission>> ownerOnly = PosixFilePermissions.asFileAttribute(OWNER_ONLY);
+            this.channel = FileChannel.open(file, options, ownerOnly);
+            // The attribute only applies to a newly created file
+            Files.setPosixFilePermissions(file, OWNER_ONLY);
+        } else {
+            this.channel = FileChannel.open(file, options);
+        }
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        this.capacity = capacity;
+    }
+    
+    int capacity() {
+        return capacity;
+    }
+    
+    long append(byte[] bytes) {
+        if (bytes.length > capacity) {
+            throw new IllegalArgumentException("Entry of " + bytes.length + " bytes exceeds spill capacity " + capacity);
+        }
+        lock.lock();
+        try {
+            int offset = (int) (written % capacity);
+            // Entries never straddle the end of the ring
+            if (offset + bytes.length > capacity) {
+                written += capacity - offset;
+                offset = 0;
+            }
+            buffer.put(offset, bytes);
+            long position = written;
+            written += bytes.length;
+            return position;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    byte[] read(long position, int length) {
+        lock.lock();
+        try {
+            if (written > position + capacity) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get((int) (position % capacity), bytes);
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,40 @@
+package com.yusoph.todo.resilience;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "resilience")
+public class ResilienceProperties {
+    
+    private boolean enabled = true;
+    
+    // Consecutive connection-level failures that open the circuit
+    private int failureThreshold = 3;
+    
+    // How often the background probe tries the database while the circuit is open
+    private Duration probeInterval = Duration.ofSeconds(5);
+    
+    private Snapshot snapshot = new Snapshot();
+    
+    @Data
+    public static class Snapshot {
+        
+        // Users whose last-known-good reads are kept (least recently used are dropped)
+        private int maxUsers = 10_000;
+        
+        // Distinct reads kept per user
+        private int maxEntriesPerUser = 16;
+        
+        // Larger results are not kept
+        private DataSize maxEntrySize = DataSize.ofKilobytes(256);
+        
+        // If set, snapshot bytes go to this memory-mapped ring file instead of the heap
+        private String spillFile;
+        
+        private DataSize spillSize = DataSize.ofMegabytes(64);
+    }
+}
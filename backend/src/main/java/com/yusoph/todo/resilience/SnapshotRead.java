@@ -0,0 +1,18 @@
+package com.yusoph.todo.resilience;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only service method whose last successful result is kept per user and served, marked
+ * stale, while the database is unreachable. Unmarked methods of advised services fail fast with a 503
+ * instead. See {@link DegradedModeAspect}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SnapshotRead {
+}
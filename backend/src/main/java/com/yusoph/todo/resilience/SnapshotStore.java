@@ -0,0 +1,203 @@
+package com.yusoph.todo.resilience;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.yusoph.todo.entity.User;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Last-known-good results of {@link SnapshotRead} methods, per user and per call, encoded as CBOR.
+ * Both levels are LRU-bounded ({@code resilience.snapshot.max-users} and {@code max-entries-per-user}).
+ * With {@code resilience.snapshot.spill-file} set, the encoded bytes live in a memory-mapped ring
+ * instead of the heap and only the index stays on the heap; entries the ring has overwritten are
+ * simply gone. The spill file is created owner-only. Users (including the password hash needed to
+ * log in) are only ever kept on the heap and never reach the spill file.
+ */
+@Component
+@Slf4j
+public class SnapshotStore implements MeterBinder, DisposableBean {
+    
+    public record Snapshot<T>(T value, Instant capturedAt) {
+    }
+    
+    // Either inline bytes or a position in the spill area
+    private record Entry(byte[] bytes, long position, int length, Instant capturedAt) {
+    }
+    
+    private final ObjectMapper cborMapper;
+    private final int maxEntriesPerUser;
+    private final int maxEntryBytes;
+    private final MappedSpillArea spillArea;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, LinkedHashMap<String, Entry>> entries;
+    private final LinkedHashMap<String, User> users;
+    private final AtomicLong served = new AtomicLong();
+    
+    public SnapshotStore(ResilienceProperties properties, Jackson2ObjectMapperBuilder objectMapperBuilder) throws IOException {
+        ResilienceProperties.Snapshot snapshot = properties.getSnapshot();
+        // Same modules and settings as the HTTP responses, so snapshots round-trip exactly
+        this.cborMapper = objectMapperBuilder.factory(new CBORFactory()).build();
+        this.maxEntriesPerUser = snapshot.getMaxEntriesPerUser();
+        this.maxEntryBytes = (int) snapshot.getMaxEntrySize().toBytes();
+        this.entries = lruMap(snapshot.getMaxUsers());
+        this.users = lruMap(snapshot.getMaxUsers());
+        if (snapshot.getSpillFile() != null && !snapshot.getSpillFile().isBlank()) {
+            this.spillArea = new MappedSpillArea(Path.of(snapshot.getSpillFile()), (int) snapshot.getSpillSize().toBytes());
+            log.info("Snapshot bytes spill to {} ({} bytes)", snapshot.getSpillFile(), spillArea.capacity());
+        } else {
+            this.spillArea = null;
+        }
+    }
+    
+    public void put(String username, String key, Object value) {
+        byte[] bytes;
+        try {
+            bytes = cborMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            log.warn("Could not snapshot {} for user {}: {}", key, username, e.toString());
+            return;
+        }
+        if (bytes.length > maxEntryBytes || (spillArea != null && bytes.length > spillArea.capacity())) {
+            return;
+        }
+        Instant now = Instant.now();
+        Entry entry = spillArea != null
+                ? new Entry(null, spillArea.append(bytes), bytes.length, now)
+                : new Entry(bytes, -1, bytes.length, now);
+        lock.lock();
+        try {
+            entries.computeIfAbsent(username, ignored -> lruMap(maxEntriesPerUser)).put(key, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public <T> Optional<Snapshot<T>> get(String username, String key, JavaType type) {
+        Entry entry;
+        lock.lock();
+        try {
+            Map<String, Entry> userEntries = entries.get(username);
+            entry = userEntries == null ? null : userEntries.get(key);
+        } finally {
+            lock.unlock();
+        }
+        if (entry == null) {
+            return Optional.empty();
+        }
+        byte[] bytes = entry.bytes() != null ? entry.bytes() : spillArea.read(entry.position(), entry.length());
+        if (bytes == null) {
+            return Optional.empty();
+        }
+        try {
+            T value = cborMapper.readValue(bytes, type);
+            served.incrementAndGet();
+            return Optional.of(new Snapshot<>(value, entry.capturedAt()));
+        } catch (IOException e) {
+            log.warn("Discarding unreadable snapshot {} for user {}: {}", key, username, e.toString());
+            return Optional.empty();
+        }
+    }
+    
+    // A detached copy: the entity's lazy todos collection must not outlive its session
+    public void putUser(User user) {
+        User copy = copyOf(user);
+        lock.lock();
+        try {
+            users.put(user.getUsername(), copy);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public Optional<User> getUser(String username) {
+        lock.lock();
+        try {
+            User user = users.get(username);
+            return user == null ? Optional.empty() : Optional.of(copyOf(user));
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Drops the user and their read snapshots, e.g. once the account is being deleted
+    public void removeUser(String username) {
+        lock.lock();
+        try {
+            users.remove(username);
+            entries.remove(username);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private static User copyOf(User user) {
+        return User.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .role(user.getRole())
+                .enabled(user.getEnabled())
+                .accountNonExpired(user.getAccountNonExpired())
+                .accountNonLocked(user.getAccountNonLocked())
+                .credentialsNonExpired(user.getCredentialsNonExpired())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .deletionRequestedAt(user.getDeletionRequestedAt())
+                .build();
+    }
+    
+    private static <K, V> LinkedHashMap<K, V> lruMap(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+    
+    private int userCount() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.snapshot.users", this, SnapshotStore::userCount)
+                .description("Users with last-known-good read snapshots")
+                .register(registry);
+        FunctionCounter.builder("db.snapshot.served", served, AtomicLong::get)
+                .description("Responses served from snapshots while the database was unreachable")
+                .register(registry);
+    }
+    
+    @Override
+    public void destroy() throws IOException {
+        if (spillArea != null) {
+            spillArea.close();
+        }
+    }
+}
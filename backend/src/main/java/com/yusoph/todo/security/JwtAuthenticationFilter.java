@@ -1,10 +1,16 @@
 package com.yusoph.todo.security;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yusoph.todo.exception.DatabaseUnavailableException;
+import com.yusoph.todo.exception.ErrorResponse;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -15,6 +21,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 
 @Component
 @RequiredArgsConstructor
@@ -22,6 +29,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtTokenProvider jwtTokenProvider;
     private final UserDetailsService userDetailsService;
+    private final ObjectMapper objectMapper;
     
     @Override
     protected void doFilterInternal(
@@ -46,10 +54,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         // If username is found and user is not already authenticated
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails;
+            try {
+                userDetails = this.userDetailsService.loadUserByUsername(username);
+            } catch (DatabaseUnavailableException e) {
+                // Database down and no snapshot of this user: nothing downstream can be served
+                writeServiceUnavailable(request, response, e);
+                return;
+            }
             
-            // Validate token
-            if (jwtTokenProvider.validateToken(jwt, userDetails)) {
+            // Validate token; a disabled account (e.g. one being deleted) no longer authenticates
+            if (userDetails.isEnabled() && jwtTokenProvider.validateToken(jwt, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -62,4 +77,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
+    
+    private void writeServiceUnavailable(HttpServletRequest request, HttpServletResponse response,
+                                         DatabaseUnavailableException e) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorResponse error = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                e.getMessage(),
+                request.getRequestURI()
+        );
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
 }
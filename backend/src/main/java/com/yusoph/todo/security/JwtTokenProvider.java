@@ -1,6 +1,8 @@
 package com.yusoph.todo.security;
 
+import com.yusoph.todo.monitoring.JwtVerificationEvent;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -43,11 +45,19 @@ public class JwtTokenProvider {
     
     // Extract all claims from token
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        JwtVerificationEvent event = JwtVerificationEvent.start();
+        try {
+            Claims claims = Jwts.parser()
+                    .verifyWith(getSignKey())
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+            event.finish(claims.getSubject(), true);
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            event.finish(null, false);
+            throw e;
+        }
     }
     
     // Check if token is expired
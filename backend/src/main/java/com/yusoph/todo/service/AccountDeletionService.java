@@ -0,0 +1,214 @@
+package com.yusoph.todo.service;
+
+import com.yusoph.todo.dto.AccountDeletionResponse;
+import com.yusoph.todo.entity.User;
+import com.yusoph.todo.repository.TodoRepository;
+import com.yusoph.todo.repository.UserRepository;
+import com.yusoph.todo.resilience.SnapshotStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Deletes accounts in the background instead of through {@code User.todos}, which would load every
+ * todo and delete them one by one in a single transaction. A request only disables the account and
+ * records when deletion was asked for. A single worker then deletes the archived and hot todos in
+ * chunks of {@code account-deletion.chunk-size}, one short transaction each, and finally the user
+ * row, so memory and lock duration stay bounded whatever the account size. Accounts left marked by
+ * a restart are picked up again on startup.
+ */
+@Service
+@Slf4j
+public class AccountDeletionService implements MeterBinder, DisposableBean {
+    
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+    
+    private static final class Job {
+        
+        private final UUID id = UUID.randomUUID();
+        private final Long userId;
+        private final LocalDateTime requestedAt;
+        private final AtomicLong deletedTodos = new AtomicLong();
+        private volatile Status status = Status.QUEUED;
+        private volatile LocalDateTime finishedAt;
+        
+        private Job(Long userId, LocalDateTime requestedAt) {
+            this.userId = userId;
+            this.requestedAt = requestedAt;
+        }
+        
+        private boolean isActive() {
+            return status == Status.QUEUED || status == Status.RUNNING;
+        }
+    }
+    
+    private final UserRepository userRepository;
+    private final TodoRepository todoRepository;
+    private final TodoReadCoalescer readCoalescer;
+    private final SnapshotStore snapshotStore;
+    private final TransactionTemplate transaction;
+    private final int chunkSize;
+    private final Duration chunkPause;
+    private final Duration statusRetention;
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong deletedTodos = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    // One account at a time, so deletions never hold more than one pooled connection
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "account-deletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public AccountDeletionService(UserRepository userRepository,
+                                  TodoRepository todoRepository,
+                                  TodoReadCoalescer readCoalescer,
+                                  SnapshotStore snapshotStore,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${account-deletion.chunk-size:1000}") int chunkSize,
+                                  @Value("${account-deletion.chunk-pause:10ms}") Duration chunkPause,
+                                  @Value("${account-deletion.status-retention:1h}") Duration statusRetention) {
+        this.userRepository = userRepository;
+        this.todoRepository = todoRepository;
+        this.readCoalescer = readCoalescer;
+        this.snapshotStore = snapshotStore;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.chunkPause = chunkPause;
+        this.statusRetention = statusRetention;
+    }
+    
+    /**
+     * Disables {@code user} at once and queues the deletion of their todos and account.
+     */
+    public AccountDeletionResponse requestDeletion(User user) {
+        LocalDateTime requestedAt = LocalDateTime.now();
+        Integer marked = transaction.execute(status -> userRepository.markForDeletion(user.getId(), requestedAt));
+        // A degraded-mode copy of the user would still authenticate the old token
+        snapshotStore.removeUser(user.getUsername());
+        if (marked == null || marked == 0) {
+            Optional<Job> running = jobs.values().stream()
+                    .filter(job -> job.userId.equals(user.getId()) && job.isActive())
+                    .findFirst();
+            if (running.isPresent()) {
+                return describe(running.get());
+            }
+        }
+        return describe(submit(user.getId(), requestedAt));
+    }
+    
+    public Optional<AccountDeletionResponse> status(UUID id) {
+        return Optional.ofNullable(jobs.get(id)).map(AccountDeletionService::describe);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        List<Long> pending;
+        try {
+            pending = userRepository.findIdsPendingDeletion();
+        } catch (RuntimeException e) {
+            log.warn("Could not look for unfinished account deletions: {}", e.toString());
+            return;
+        }
+        if (!pending.isEmpty()) {
+            log.info("Resuming {} unfinished account deletion(s)", pending.size());
+            pending.forEach(userId -> submit(userId, LocalDateTime.now()));
+        }
+    }
+    
+    private Job submit(Long userId, LocalDateTime requestedAt) {
+        LocalDateTime expired = LocalDateTime.now().minus(statusRetention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(expired));
+        
+        Job job = new Job(userId, requestedAt);
+        jobs.put(job.id, job);
+        worker.execute(() -> run(job));
+        return job;
+    }
+    
+    private void run(Job job) {
+        job.status = Status.RUNNING;
+        try {
+            deleteInChunks(job, () -> todoRepository.deleteArchivedChunkByUserId(job.userId, chunkSize));
+            deleteInChunks(job, () -> todoRepository.deleteChunkByUserId(job.userId, chunkSize));
+            
+            // Todos created since the last chunk go with the row through ON DELETE CASCADE
+            transaction.execute(status -> userRepository.deleteRowById(job.userId));
+            job.status = Status.COMPLETED;
+            log.info("Deleted account {} with {} todos", job.userId, job.deletedTodos.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.status = Status.FAILED;
+        } catch (RuntimeException e) {
+            job.status = Status.FAILED;
+            failed.incrementAndGet();
+            log.error("Deleting account {} failed after {} todos; it is retried on the next startup",
+                    job.userId, job.deletedTodos.get(), e);
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+    
+    private void deleteInChunks(Job job, IntSupplier deleteChunk) throws InterruptedException {
+        int deleted;
+        do {
+            deleted = transaction.execute(status -> {
+                int count = deleteChunk.getAsInt();
+                readCoalescer.invalidateAfterCommit(job.userId);
+                return count;
+            });
+            job.deletedTodos.addAndGet(deleted);
+            deletedTodos.addAndGet(deleted);
+            if (deleted == chunkSize && !chunkPause.isZero()) {
+                Thread.sleep(chunkPause.toMillis());
+            }
+        } while (deleted == chunkSize);
+    }
+    
+    private static AccountDeletionResponse describe(Job job) {
+        return new AccountDeletionResponse(job.id, job.status.name(), job.deletedTodos.get(), job.requestedAt, job.finishedAt);
+    }
+    
+    private long activeJobs() {
+        return jobs.values().stream().filter(Job::isActive).count();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("account.deletion.active", this, AccountDeletionService::activeJobs)
+                .description("Account deletions queued or running")
+                .register(registry);
+        FunctionCounter.builder("account.deletion.todos.deleted", deletedTodos, AtomicLong::get)
+                .description("Todos deleted by background account deletions")
+                .register(registry);
+        FunctionCounter.builder("account.deletion.failed", failed, AtomicLong::get)
+                .description("Account deletions that failed and wait for the next startup")
+                .register(registry);
+    }
+    
+    @Override
+    public void destroy() {
+        worker.shutdownNow();
+    }
+}
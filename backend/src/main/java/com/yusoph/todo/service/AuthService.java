@@ -1,5 +1,6 @@
 package com.yusoph.todo.service;
 
+import com.yusoph.todo.dto.AccountDeletionResponse;
 import com.yusoph.todo.dto.AuthResponse;
 import com.yusoph.todo.dto.LoginRequest;
 import com.yusoph.todo.dto.RegisterRequest;
@@ -8,16 +9,18 @@ import com.yusoph.todo.dto.UserResponse;
 import com.yusoph.todo.entity.User;
 import com.yusoph.todo.exception.UserAlreadyExistsException;
 import com.yusoph.todo.exception.UserNotFoundException;
+import com.yusoph.todo.monitoring.LoginEvent;
 import com.yusoph.todo.repository.UserRepository;
+import com.yusoph.todo.resilience.SnapshotRead;
 import com.yusoph.todo.security.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -27,8 +30,11 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final AccountDeletionService accountDeletionService;
     
-    @Transactional
+    // Not @Transactional, and open-in-view is off: each repository call borrows a pooled connection
+    // only for its own statement, so none is held while BCrypt runs on the password hashing pool.
+    // The unique constraints on users guard against races.
     public AuthResponse register(RegisterRequest request) {
         // Check if username already exists
         if (userRepository.existsByUsername(request.getUsername())) {
@@ -70,20 +76,28 @@ public class AuthService {
         );
     }
     
+    // Touches the database only through CustomUserDetailsService, so it also works while the circuit is open
     public AuthResponse login(LoginRequest request) {
         // Authenticate user
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getUsername(),
-                        request.getPassword()
-                )
-        );
+        LoginEvent loginEvent = LoginEvent.start();
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            request.getUsername(),
+                            request.getPassword()
+                    )
+            );
+        } catch (AuthenticationException e) {
+            loginEvent.finish(request.getUsername(), false);
+            throw e;
+        }
+        loginEvent.finish(request.getUsername(), true);
         
         SecurityContextHolder.getContext().setAuthentication(authentication);
         
-        // Get user details
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new UserNotFoundException("User not found: " + request.getUsername()));
+        // The user CustomUserDetailsService loaded, from its snapshot while the database is unreachable
+        User user = (User) authentication.getPrincipal();
         
         // Generate JWT token
         String token = jwtTokenProvider.generateToken(user);
@@ -99,6 +113,7 @@ public class AuthService {
         );
     }
     
+    @SnapshotRead
     public UserResponse getCurrentUser() {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         User user = userRepository.findByUsername(username)
@@ -107,7 +122,8 @@ public class AuthService {
         return mapToUserResponse(user);
     }
     
-    @Transactional
+    // Not @Transactional, like register: the password is checked and hashed without a connection held,
+    // then save() merges the changes in its own short transaction
     public UserResponse updateUser(UpdateUserRequest request) {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         User user = userRepository.findByUsername(username)
@@ -143,25 +159,17 @@ public class AuthService {
         return mapToUserResponse(user);
     }
     
-    @Transactional
-    public void deleteAccount() {
+    // Not @Transactional: the account is disabled in its own short transaction and the todos
+    // are deleted in chunks in the background (see AccountDeletionService)
+    public AccountDeletionResponse deleteAccount() {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UserNotFoundException("User not found: " + username));
         
-        userRepository.delete(user);
+        return accountDeletionService.requestDeletion(user);
     }
     
     private UserResponse mapToUserResponse(User user) {
-        return UserResponse.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .role(user.getRole().name())
-                .createdAt(user.getCreatedAt())
-                .updatedAt(user.getUpdatedAt())
-                .build();
+        return new UserResponse(user);
     }
 }
@@ -0,0 +1,155 @@
+package com.yusoph.todo.service;
+
+import com.yusoph.todo.dto.BootstrapResponse;
+import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.dto.TodoStatsResponse;
+import com.yusoph.todo.dto.UserResponse;
+import com.yusoph.todo.entity.User;
+import com.yusoph.todo.repository.TodoRepository;
+import com.yusoph.todo.resilience.SnapshotRead;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Everything the todo page needs on load, for the user already resolved by the JWT filter.
+ * <p>
+ * By default the first page and the stats are read in one REPEATABLE READ transaction, so both come
+ * from the same snapshot. When the Hikari pool has at least {@code bootstrap.parallel-min-idle-connections}
+ * idle connections, the stats query runs concurrently in its own read-only transaction instead.
+ * Admins get estimated stats across all users (see {@link TodoStatsEstimator}) unless they ask for exact ones.
+ */
+@Service
+@Slf4j
+public class BootstrapService {
+    
+    private static final int MAX_PAGE_SIZE = 500;
+    
+    private final TodoRepository todoRepository;
+    private final TodoStatsEstimator statsEstimator;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AsyncTaskExecutor taskExecutor;
+    private final HikariDataSource hikariDataSource;
+    private final int defaultPageSize;
+    private final int parallelMinIdleConnections;
+    
+    public BootstrapService(TodoRepository todoRepository,
+                            TodoStatsEstimator statsEstimator,
+                            PlatformTransactionManager transactionManager,
+                            @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+                            ObjectProvider<DataSource> dataSource,
+                            @Value("${bootstrap.page-size:50}") int defaultPageSize,
+                            @Value("${bootstrap.parallel-min-idle-connections:2}") int parallelMinIdleConnections) {
+        this.todoRepository = todoRepository;
+        this.statsEstimator = statsEstimator;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.taskExecutor = taskExecutor;
+        // No DataSource with the embedded storage engine
+        this.hikariDataSource = unwrapHikari(dataSource.getIfAvailable());
+        this.defaultPageSize = defaultPageSize;
+        this.parallelMinIdleConnections = parallelMinIdleConnections;
+    }
+    
+    @SnapshotRead
+    public BootstrapResponse bootstrap(User user, Integer requestedPageSize, boolean exactStats) {
+        int pageSize = requestedPageSize == null ? defaultPageSize : Math.max(1, Math.min(requestedPageSize, MAX_PAGE_SIZE));
+        UserResponse userResponse = new UserResponse(user);
+        
+        // Estimates come from the catalog, not from the snapshot the page is read in
+        Optional<TodoStatsResponse> estimate = isAdmin(user) && !exactStats
+                ? statsEstimator.estimate(false)
+                : Optional.empty();
+        if (estimate.isPresent()) {
+            Slice<TodoResponse> page = readOnlyTransaction.execute(status -> loadPage(user, pageSize));
+            return new BootstrapResponse(userResponse, page.getContent(), page.hasNext(), estimate.get());
+        }
+        
+        if (hasSpareConnections()) {
+            log.debug("Bootstrapping user {} with concurrent queries", user.getUsername());
+            CompletableFuture<TodoStatsResponse> stats = CompletableFuture.supplyAsync(
+                    () -> readOnlyTransaction.execute(status -> loadStats(user)), taskExecutor);
+            Slice<TodoResponse> page;
+            try {
+                page = readOnlyTransaction.execute(status -> loadPage(user, pageSize));
+            } catch (RuntimeException | Error e) {
+                // Nobody will wait for the stats; a task that has not started yet is skipped
+                stats.cancel(false);
+                throw e;
+            }
+            return new BootstrapResponse(userResponse, page.getContent(), page.hasNext(), join(stats));
+        }
+        
+        log.debug("Bootstrapping user {} in one transaction", user.getUsername());
+        return readOnlyTransaction.execute(status -> {
+            Slice<TodoResponse> page = loadPage(user, pageSize);
+            return new BootstrapResponse(userResponse, page.getContent(), page.hasNext(), loadStats(user));
+        });
+    }
+    
+    private Slice<TodoResponse> loadPage(User user, int pageSize) {
+        PageRequest firstPage = PageRequest.of(0, pageSize, Sort.by("id"));
+        return isAdmin(user)
+                ? todoRepository.findAllResponses(firstPage)
+                : todoRepository.findResponsesByUserId(user.getId(), firstPage);
+    }
+    
+    private TodoStatsResponse loadStats(User user) {
+        return isAdmin(user)
+                ? todoRepository.aggregateStats()
+                : todoRepository.aggregateStatsByUserId(user.getId());
+    }
+    
+    private boolean isAdmin(User user) {
+        return User.Role.ADMIN.equals(user.getRole());
+    }
+    
+    // A second connection is only borrowed when it would not make other requests wait for one
+    private boolean hasSpareConnections() {
+        if (hikariDataSource == null || parallelMinIdleConnections <= 0) {
+            return false;
+        }
+        HikariPoolMXBean pool = hikariDataSource.getHikariPoolMXBean();
+        return pool != null && pool.getIdleConnections() >= parallelMinIdleConnections;
+    }
+    
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private static HikariDataSource unwrapHikari(DataSource dataSource) {
+        if (dataSource == null) {
+            return null;
+        }
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -1,21 +1,75 @@
 package com.yusoph.todo.service;
 
+import com.yusoph.todo.entity.User;
+import com.yusoph.todo.exception.DatabaseUnavailableException;
 import com.yusoph.todo.repository.UserRepository;
+import com.yusoph.todo.resilience.DatabaseCircuitBreaker;
+import com.yusoph.todo.resilience.SnapshotStore;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+@Slf4j
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     
     private final UserRepository userRepository;
+    private final DatabaseCircuitBreaker circuitBreaker;
+    private final SnapshotStore snapshotStore;
     
+    // Every authenticated request starts here, so users are snapshotted too: during an outage a
+    // valid token still resolves and the todo reads can be served from their snapshots
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        if (!circuitBreaker.isEnabled()) {
+            return findUser(username);
+        }
+        if (circuitBreaker.isOpen()) {
+            return snapshotUser(username, null);
+        }
+        User user;
+        try {
+            user = findUser(username);
+        } catch (RuntimeException e) {
+            if (circuitBreaker.recordFailure(e)) {
+                return snapshotUser(username, e);
+            }
+            throw e;
+        }
+        circuitBreaker.recordSuccess();
+        snapshotStore.putUser(user);
+        return user;
+    }
+    
+    private User findUser(String username) {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
     }
+    
+    private User snapshotUser(String username, Throwable cause) {
+        return snapshotStore.getUser(username)
+                .orElseThrow(() -> new DatabaseUnavailableException("The database is temporarily unavailable, please retry shortly", cause));
+    }
+    
+    // Called by DaoAuthenticationProvider after a successful login whose hash needs upgrading
+    // Skipped while the circuit is open (login then works from the snapshot); the next login retries it
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (circuitBreaker.isEnabled() && circuitBreaker.isOpen()) {
+            return user;
+        }
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        log.info("Rehashed password for user: {} with the configured BCrypt cost", user.getUsername());
+        if (user instanceof User entity) {
+            entity.setPassword(newPassword);
+        }
+        return user;
+    }
 }
@@ -0,0 +1,132 @@
+package com.yusoph.todo.service;
+
+import com.yusoph.todo.exception.ConflictException;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Manages a single on-demand Java Flight Recorder recording for the running instance.
+ * Guarded by a ReentrantLock rather than synchronized so dumping to disk never pins a
+ * virtual thread's carrier.
+ */
+@Service
+@Slf4j
+public class JfrRecordingService {
+
+    private static final DateTimeFormatter NAME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Recording recording;
+
+    public Map<String, Object> start(String settings, Duration maxDuration) {
+        lock.lock();
+        try {
+            return startRecording(settings, maxDuration);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<String, Object> startRecording(String settings, Duration maxDuration) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new ConflictException("A JFR recording is already running: " + recording.getName());
+        }
+        closeCurrent();
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + settings + ". Expected 'default' or 'profile'");
+        }
+
+        Recording newRecording = new Recording(configuration);
+        newRecording.setName("todo-app-" + LocalDateTime.now().format(NAME_FORMATTER));
+        newRecording.setToDisk(true);
+        if (maxDuration != null) {
+            newRecording.setDuration(maxDuration);
+        }
+        newRecording.start();
+        recording = newRecording;
+
+        log.info("Started JFR recording {} with settings: {}", newRecording.getName(), settings);
+        return describe();
+    }
+
+    /**
+     * Stops the current recording (if still running) and dumps it to a temporary file.
+     * The caller owns the returned file and is responsible for deleting it.
+     */
+    public Path stop() {
+        lock.lock();
+        try {
+            return stopRecording();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Path stopRecording() {
+        if (recording == null) {
+            throw new ConflictException("No JFR recording has been started");
+        }
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            Path file = Files.createTempFile(recording.getName() + "-", ".jfr");
+            recording.dump(file);
+            log.info("Stopped JFR recording {} and dumped {} bytes", recording.getName(), Files.size(file));
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to dump JFR recording", e);
+        } finally {
+            closeCurrent();
+        }
+    }
+
+    public Map<String, Object> status() {
+        lock.lock();
+        try {
+            return describe();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<String, Object> describe() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("name", recording.getName());
+        status.put("state", recording.getState().name());
+        status.put("startTime", recording.getStartTime() != null ? recording.getStartTime().toString() : null);
+        status.put("duration", recording.getDuration() != null ? recording.getDuration().toString() : null);
+        status.put("size", recording.getSize());
+        return status;
+    }
+
+    private void closeCurrent() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
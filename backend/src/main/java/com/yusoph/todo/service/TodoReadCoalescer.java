@@ -0,0 +1,134 @@
+package com.yusoph.todo.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Single-flight for todo reads: concurrent calls with the same (user, query, argument, version) key
+ * share one database execution. Nothing is cached. An entry is removed as soon as its query
+ * completes, and later calls query again. Every caller gets its own copy of the result, so no two
+ * requests share mutable objects.
+ * <p>
+ * Each user's todo collection has a version. Writes bump it after commit, so a read that starts
+ * after a write returns never joins a query that began before it. Reads across all users
+ * (admins) are keyed by a global version that every write bumps.
+ */
+@Component
+public class TodoReadCoalescer implements MeterBinder {
+    
+    private static final int VERSION_STRIPES = 1024;
+    
+    private record Key(Long userId, String query, Object argument, long version) {
+    }
+    
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    // Striped so memory stays bounded; users sharing a stripe only invalidate each other's keys
+    private final AtomicLongArray userVersions = new AtomicLongArray(VERSION_STRIPES);
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final TransactionTemplate readOnlyTransaction;
+    
+    public TodoReadCoalescer(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    /**
+     * Runs {@code loader} in a read-only transaction, or waits for an identical call already in flight.
+     * Callers should not hold a transaction themselves, or every waiter pins a pooled connection.
+     *
+     * @param userId owner of the todos read, or null for a read across all users
+     * @param copy   makes each caller's copy of the shared result, the caller that ran the query included
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Long userId, String query, Object argument, Supplier<T> loader, UnaryOperator<T> copy) {
+        Key key = new Key(userId, query, argument, userId == null ? globalVersion.get() : userVersions.get(stripe(userId)));
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return copyOf((T) join(existing), copy);
+        }
+        
+        try {
+            T result = readOnlyTransaction.execute(status -> loader.get());
+            flight.complete(result);
+            return copyOf(result, copy);
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+    
+    /**
+     * Invalidates in-flight keys for {@code ownerId}'s todos once the current transaction commits
+     * (immediately if there is none).
+     */
+    public void invalidateAfterCommit(Long ownerId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(ownerId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(ownerId);
+            }
+        });
+    }
+    
+    private void invalidate(Long ownerId) {
+        userVersions.incrementAndGet(stripe(ownerId));
+        globalVersion.incrementAndGet();
+    }
+    
+    private static int stripe(Long userId) {
+        return (Long.hashCode(userId) & 0x7fffffff) % VERSION_STRIPES;
+    }
+    
+    private static <T> T copyOf(T result, UnaryOperator<T> copy) {
+        return result == null ? null : copy.apply(result);
+    }
+    
+    private static Object join(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.reads.in.flight", inFlight, Map::size)
+                .description("Distinct todo reads currently executing")
+                .register(registry);
+        FunctionCounter.builder("todo.reads.coalesced", coalesced, AtomicLong::get)
+                .description("Todo reads served by joining an identical read already in flight")
+                .register(registry);
+    }
+}
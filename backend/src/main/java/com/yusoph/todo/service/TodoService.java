@@ -1,33 +1,58 @@
 package com.yusoph.todo.service;
 
+import com.yusoph.todo.analytics.DailyRollupRecorder;
+import com.yusoph.todo.dto.AdminTodoPageResponse;
+import com.yusoph.todo.dto.AdminTodoResponse;
 import com.yusoph.todo.dto.TodoCreateRequest;
+import com.yusoph.todo.dto.TodoField;
 import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.dto.TodoStatsResponse;
 import com.yusoph.todo.dto.TodoUpdateRequest;
 import com.yusoph.todo.entity.Todo;
 import com.yusoph.todo.entity.User;
 import com.yusoph.todo.exception.TodoNotFoundException;
 import com.yusoph.todo.exception.UserNotFoundException;
+import com.yusoph.todo.monitoring.TodoOperationEvent;
+import com.yusoph.todo.repository.AdminTodoFilter;
+import com.yusoph.todo.repository.TodoFilter;
+import com.yusoph.todo.repository.TodoQuery;
 import com.yusoph.todo.repository.TodoRepository;
 import com.yusoph.todo.repository.UserRepository;
+import com.yusoph.todo.resilience.SnapshotRead;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TodoService {
     
+    private static final int MAX_ADMIN_PAGE_SIZE = 500;
+    private static final int DEFAULT_QUERY_LIMIT = 100;
+    private static final int MAX_QUERY_LIMIT = 1000;
+    private static final Sort BY_PRIORITY_AND_DUE_DATE = Sort.by(Sort.Direction.DESC, "priority")
+            .and(Sort.by(Sort.Direction.ASC, "dueDate"));
+    
     private final TodoRepository todoRepository;
     private final UserRepository userRepository;
+    private final TodoReadCoalescer readCoalescer;
+    private final TodoStatsEstimator statsEstimator;
+    // Absent on the embedded profile
+    private final ObjectProvider<DailyRollupRecorder> rollups;
     
     private User getCurrentUser() {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -48,106 +73,185 @@ public class TodoService {
         }
     }
     
-    @Transactional(readOnly = true)
+    // Read paths select TodoResponse projections. readOnly transactions also run the Hibernate session
+    // with FlushMode.MANUAL and default read-only, so the current User is loaded without a snapshot.
+    // The list and stats reads go through readCoalescer instead of @Transactional: identical concurrent
+    // calls share one query, and with open-in-view disabled, callers waiting on it hold no connection.
+    // Each gets its own copy of the shared result.
+    // @SnapshotRead results are also served, marked stale, while the database is unreachable.
+    @SnapshotRead
     public List<TodoResponse> getAllTodos() {
         User user = getCurrentUser();
-        System.out.println("DEBUG: Fetching all todos for user: " + user.getUsername() + " with role: " + user.getRole());
         log.debug("Fetching all todos for user: {} with role: {}", user.getUsername(), user.getRole());
         
         // Admins can see all todos
         boolean isUserAdmin = isAdmin(user);
-        System.out.println("DEBUG: Is user admin? " + isUserAdmin);
         log.debug("Is user admin? {}", isUserAdmin);
         
         if (isUserAdmin) {
-            System.out.println("DEBUG: User is admin, fetching all todos from all users");
             log.debug("User is admin, fetching all todos from all users");
-            List<Todo> allTodos = todoRepository.findAll();
-            System.out.println("DEBUG: Found " + allTodos.size() + " todos");
-            return allTodos.stream()
-                    .map(TodoResponse::new)
-                    .collect(Collectors.toList());
+            List<TodoResponse> allTodos = findAll(user, false);
+            log.debug("Found {} todos", allTodos.size());
+            return allTodos;
         }
         
-        System.out.println("DEBUG: User is not admin, fetching only user's todos");
         log.debug("User is not admin, fetching only user's todos");
-        return todoRepository.findByUserId(user.getId())
-                .stream()
-                .map(TodoResponse::new)
-                .collect(Collectors.toList());
+        return findAll(user, false);
     }
     
-    @Transactional(readOnly = true)
+    @SnapshotRead
     public List<TodoResponse> getAllTodosOrderedByPriority() {
         User user = getCurrentUser();
         log.debug("Fetching all todos ordered by priority and due date for user: {}", user.getUsername());
-        
+        return findAll(user, true);
+    }
+    
+    // Shared by the public reads, which must not call each other: a call on this bypasses DegradedModeAspect
+    private List<TodoResponse> findAll(User user, boolean orderByPriority) {
         // Admins can see all todos
         if (isAdmin(user)) {
-            log.debug("User is admin, fetching all todos from all users ordered by priority");
-            return todoRepository.findAll(Sort.by(Sort.Direction.DESC, "priority")
-                            .and(Sort.by(Sort.Direction.ASC, "dueDate")))
-                    .stream()
-                    .map(TodoResponse::new)
-                    .collect(Collectors.toList());
+            return orderByPriority
+                    ? readCoalescer.execute(null, "allByPriority", null,
+                            () -> todoRepository.findAllResponses(BY_PRIORITY_AND_DUE_DATE), TodoService::copyTodos)
+                    : readCoalescer.execute(null, "all", null,
+                            () -> todoRepository.findAllResponses(Sort.unsorted()), TodoService::copyTodos);
         }
-        
-        return todoRepository.findAllByUserIdOrderedByPriorityAndDueDate(user.getId())
-                .stream()
-                .map(TodoResponse::new)
-                .collect(Collectors.toList());
+        return orderByPriority
+                ? readCoalescer.execute(user.getId(), "allByPriority", null,
+                        () -> todoRepository.findResponsesByUserIdOrderedByPriorityAndDueDate(user.getId()), TodoService::copyTodos)
+                : readCoalescer.execute(user.getId(), "all", null,
+                        () -> todoRepository.findResponsesByUserId(user.getId()), TodoService::copyTodos);
+    }
+    
+    // Hot todos first, then the archived ones in id order. Not coalesced: both tables are read from one
+    // snapshot, so a todo the archiver moves in between is listed exactly once.
+    @SnapshotRead
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public List<TodoResponse> getAllTodosIncludingArchived(boolean orderByPriority) {
+        User user = getCurrentUser();
+        log.debug("Fetching all todos including archived for user: {}", user.getUsername());
+        List<TodoResponse> hot;
+        List<TodoResponse> archived;
+        if (isAdmin(user)) {
+            hot = todoRepository.findAllResponses(orderByPriority ? BY_PRIORITY_AND_DUE_DATE : Sort.unsorted());
+            archived = todoRepository.findAllArchivedResponses();
+        } else {
+            hot = orderByPriority
+                    ? todoRepository.findResponsesByUserIdOrderedByPriorityAndDueDate(user.getId())
+                    : todoRepository.findResponsesByUserId(user.getId());
+            archived = todoRepository.findArchivedResponsesByUserId(user.getId());
+        }
+        List<TodoResponse> todos = new ArrayList<>(hot.size() + archived.size());
+        todos.addAll(hot);
+        todos.addAll(archived);
+        return todos;
     }
     
+    @SnapshotRead
     @Transactional(readOnly = true)
     public TodoResponse getTodoById(Long id) {
         User user = getCurrentUser();
         log.debug("Fetching todo with id: {} for user: {}", id, user.getUsername());
-        Todo todo = todoRepository.findById(id)
-                .orElseThrow(() -> new TodoNotFoundException(id));
-        validateTodoOwnership(todo, user);
-        return new TodoResponse(todo);
+        if (isAdmin(user)) {
+            return todoRepository.findResponseById(id)
+                    .orElseThrow(() -> new TodoNotFoundException(id));
+        }
+        return todoRepository.findResponseByIdAndUserId(id, user.getId())
+                .orElseThrow(() -> todoRepository.existsById(id)
+                        ? new AccessDeniedException("You don't have permission to access this todo")
+                        : new TodoNotFoundException(id));
     }
     
-    @Transactional(readOnly = true)
+    @SnapshotRead
     public List<TodoResponse> getTodosByCompleted(Boolean completed) {
         User user = getCurrentUser();
         log.debug("Fetching todos by completed status: {} for user: {}", completed, user.getUsername());
-        return todoRepository.findByUserIdAndCompleted(user.getId(), completed)
-                .stream()
-                .map(TodoResponse::new)
-                .collect(Collectors.toList());
+        return readCoalescer.execute(user.getId(), "byCompleted", completed,
+                () -> todoRepository.findResponsesByUserIdAndCompleted(user.getId(), completed), TodoService::copyTodos);
     }
     
-    @Transactional(readOnly = true)
+    @SnapshotRead
     public List<TodoResponse> getTodosByPriority(Todo.Priority priority) {
         User user = getCurrentUser();
         log.debug("Fetching todos by priority: {} for user: {}", priority, user.getUsername());
-        return todoRepository.findByUserIdAndPriority(user.getId(), priority)
-                .stream()
-                .map(TodoResponse::new)
-                .collect(Collectors.toList());
+        return readCoalescer.execute(user.getId(), "byPriority", priority,
+                () -> todoRepository.findResponsesByUserIdAndPriority(user.getId(), priority), TodoService::copyTodos);
     }
     
+    @SnapshotRead
     @Transactional(readOnly = true)
     public List<TodoResponse> searchTodosByTitle(String title) {
         log.debug("Searching todos by title containing: {}", title);
-        return todoRepository.findByTitleContainingIgnoreCase(title)
-                .stream()
-                .map(TodoResponse::new)
-                .collect(Collectors.toList());
+        return todoRepository.findResponsesByTitleContainingIgnoreCase(title);
     }
     
+    @SnapshotRead
     @Transactional(readOnly = true)
     public List<TodoResponse> getOverdueTodos() {
         log.debug("Fetching overdue todos");
-        return todoRepository.findOverdueTodos(LocalDateTime.now())
-                .stream()
-                .map(TodoResponse::new)
-                .collect(Collectors.toList());
+        return todoRepository.findOverdueResponses(LocalDateTime.now());
+    }
+    
+    // Sparse variants: only the requested columns are selected
+    
+    @SnapshotRead
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllTodoFields(Set<TodoField> fields, boolean orderByPriority) {
+        User user = getCurrentUser();
+        log.debug("Fetching todo fields {} for user: {}", fields, user.getUsername());
+        TodoFilter filter = isAdmin(user) ? TodoFilter.all() : TodoFilter.forUser(user.getId());
+        return todoRepository.findFields(fields, filter, orderByPriority);
+    }
+    
+    @SnapshotRead
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchTodoFieldsByTitle(String title, Set<TodoField> fields) {
+        log.debug("Searching todo fields {} by title containing: {}", fields, title);
+        return todoRepository.findFields(fields, TodoFilter.searchTitle(title), false);
+    }
+    
+    @SnapshotRead
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getOverdueTodoFields(Set<TodoField> fields) {
+        log.debug("Fetching overdue todo fields {}", fields);
+        return todoRepository.findFields(fields, TodoFilter.overdue(LocalDateTime.now()), false);
+    }
+    
+    // Any combination of filters and one sort in a single statement; non-admins only ever query their own todos
+    @SnapshotRead
+    @Transactional(readOnly = true)
+    public List<TodoResponse> queryTodos(TodoQuery query) {
+        User user = getCurrentUser();
+        log.debug("Querying todos {} for user: {}", query, user.getUsername());
+        TodoQuery scoped = isAdmin(user) ? query : query.forUser(user.getId());
+        int limit = scoped.limit() == null ? DEFAULT_QUERY_LIMIT : Math.max(1, Math.min(scoped.limit(), MAX_QUERY_LIMIT));
+        return todoRepository.query(scoped.withLimit(limit));
+    }
+    
+    // Admin list across users with each todo's owner, one id-cursor page at a time. Two queries per
+    // page whatever its size: the current user, then the todos joined to their owners.
+    @SnapshotRead
+    @Transactional(readOnly = true)
+    public AdminTodoPageResponse getTodosWithOwners(AdminTodoFilter filter, Long cursor, int size) {
+        User user = getCurrentUser();
+        if (!isAdmin(user)) {
+            throw new AccessDeniedException("Only admins can list the todos of all users");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_ADMIN_PAGE_SIZE));
+        log.debug("Fetching todos with owners after {} ({}), page size {}", cursor, filter, pageSize);
+        
+        // One extra row tells whether there is a next page
+        List<AdminTodoResponse> todos = todoRepository.findWithOwners(filter, cursor, pageSize + 1);
+        if (todos.size() <= pageSize) {
+            return new AdminTodoPageResponse(todos, null);
+        }
+        List<AdminTodoResponse> page = new ArrayList<>(todos.subList(0, pageSize));
+        return new AdminTodoPageResponse(page, page.get(pageSize - 1).getId());
     }
     
     @Transactional
     public TodoResponse createTodo(TodoCreateRequest request) {
+        TodoOperationEvent event = TodoOperationEvent.start(TodoOperationEvent.CREATE);
         User user = getCurrentUser();
         log.debug("Creating new todo with title: {} for user: {}", request.getTitle(), user.getUsername());
         
@@ -161,18 +265,23 @@ public class TodoService {
         todo.setUser(user);
         
         Todo savedTodo = todoRepository.save(todo);
+        rollups.ifAvailable(recorder -> recorder.created(savedTodo));
+        readCoalescer.invalidateAfterCommit(user.getId());
         log.info("Created todo with id: {} for user: {}", savedTodo.getId(), user.getUsername());
+        event.finish(user.getId(), savedTodo.getId(), savedTodo.getCompleted());
         return new TodoResponse(savedTodo);
     }
     
     @Transactional
     public TodoResponse updateTodo(Long id, TodoUpdateRequest request) {
+        TodoOperationEvent event = TodoOperationEvent.start(TodoOperationEvent.UPDATE);
         User user = getCurrentUser();
         log.debug("Updating todo with id: {} for user: {}", id, user.getUsername());
         
         Todo todo = todoRepository.findById(id)
                 .orElseThrow(() -> new TodoNotFoundException(id));
         validateTodoOwnership(todo, user);
+        DailyRollupRecorder.Completion completionBefore = DailyRollupRecorder.Completion.of(todo);
         
         // Update only non-null fields
         if (request.getTitle() != null) {
@@ -192,12 +301,16 @@ public class TodoService {
         }
         
         Todo updatedTodo = todoRepository.save(todo);
+        rollups.ifAvailable(recorder -> recorder.updated(completionBefore, updatedTodo));
+        readCoalescer.invalidateAfterCommit(todo.getUser().getId());
         log.info("Updated todo with id: {}", updatedTodo.getId());
+        event.finish(user.getId(), updatedTodo.getId(), updatedTodo.getCompleted());
         return new TodoResponse(updatedTodo);
     }
     
     @Transactional
     public TodoResponse markAsCompleted(Long id) {
+        TodoOperationEvent event = TodoOperationEvent.start(TodoOperationEvent.TOGGLE);
         User user = getCurrentUser();
         log.debug("Marking todo as completed with id: {} for user: {}", id, user.getUsername());
         
@@ -205,14 +318,19 @@ public class TodoService {
                 .orElseThrow(() -> new TodoNotFoundException(id));
         validateTodoOwnership(todo, user);
         
+        DailyRollupRecorder.Completion completionBefore = DailyRollupRecorder.Completion.of(todo);
         todo.setCompleted(true);
         Todo updatedTodo = todoRepository.save(todo);
+        rollups.ifAvailable(recorder -> recorder.updated(completionBefore, updatedTodo));
+        readCoalescer.invalidateAfterCommit(todo.getUser().getId());
         log.info("Marked todo as completed with id: {}", updatedTodo.getId());
+        event.finish(user.getId(), updatedTodo.getId(), true);
         return new TodoResponse(updatedTodo);
     }
     
     @Transactional
     public TodoResponse markAsIncomplete(Long id) {
+        TodoOperationEvent event = TodoOperationEvent.start(TodoOperationEvent.TOGGLE);
         User user = getCurrentUser();
         log.debug("Marking todo as incomplete with id: {} for user: {}", id, user.getUsername());
         
@@ -220,9 +338,13 @@ public class TodoService {
                 .orElseThrow(() -> new TodoNotFoundException(id));
         validateTodoOwnership(todo, user);
         
+        DailyRollupRecorder.Completion completionBefore = DailyRollupRecorder.Completion.of(todo);
         todo.setCompleted(false);
         Todo updatedTodo = todoRepository.save(todo);
+        rollups.ifAvailable(recorder -> recorder.updated(completionBefore, updatedTodo));
+        readCoalescer.invalidateAfterCommit(todo.getUser().getId());
         log.info("Marked todo as incomplete with id: {}", updatedTodo.getId());
+        event.finish(user.getId(), updatedTodo.getId(), false);
         return new TodoResponse(updatedTodo);
     }
     
@@ -235,7 +357,9 @@ public class TodoService {
                 .orElseThrow(() -> new TodoNotFoundException(id));
         validateTodoOwnership(todo, user);
         
+        rollups.ifAvailable(recorder -> recorder.deleted(List.of(todo)));
         todoRepository.deleteById(id);
+        readCoalescer.invalidateAfterCommit(todo.getUser().getId());
         log.info("Deleted todo with id: {}", id);
     }
     
@@ -244,61 +368,61 @@ public class TodoService {
         User user = getCurrentUser();
         log.debug("Deleting all completed todos for user: {}", user.getUsername());
         List<Todo> completedTodos = todoRepository.findByUserIdAndCompleted(user.getId(), true);
+        rollups.ifAvailable(recorder -> recorder.deleted(completedTodos));
         todoRepository.deleteAll(completedTodos);
+        readCoalescer.invalidateAfterCommit(user.getId());
         log.info("Deleted {} completed todos for user: {}", completedTodos.size(), user.getUsername());
     }
     
-    @Transactional(readOnly = true)
-    public long getTodoCount() {
+    // Like getAllTodosIncludingArchived, both tables are counted in one snapshot
+    @SnapshotRead
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public TodoStatsResponse getTodoStatsIncludingArchived(boolean exact) {
         User user = getCurrentUser();
-        if (isAdmin(user)) {
-            return todoRepository.count();
+        if (isAdmin(user) && !exact) {
+            Optional<TodoStatsResponse> estimate = statsEstimator.estimate(true);
+            if (estimate.isPresent()) {
+                return estimate.get();
+            }
         }
-        return todoRepository.findByUserId(user.getId()).size();
-    }
-    
-    @Transactional(readOnly = true)
-    public long getCompletedTodoCount() {
-        User user = getCurrentUser();
         if (isAdmin(user)) {
-            return todoRepository.countByCompleted(true);
+            return TodoStatsEstimator.sum(todoRepository.aggregateStats(), todoRepository.aggregateArchivedStats());
         }
-        return todoRepository.countByUserIdAndCompleted(user.getId(), true);
+        return TodoStatsEstimator.sum(todoRepository.aggregateStatsByUserId(user.getId()),
+                todoRepository.aggregateArchivedStatsByUserId(user.getId()));
     }
     
-    @Transactional(readOnly = true)
-    public long getPendingTodoCount() {
+    // All stats from one aggregate query. Across all users, admins get an estimate from PostgreSQL's
+    // statistics, with error bounds, unless they ask for the exact counts.
+    @SnapshotRead
+    public TodoStatsResponse getTodoStats(boolean exact) {
         User user = getCurrentUser();
-        if (isAdmin(user)) {
-            return todoRepository.countByCompleted(false);
+        if (isAdmin(user) && !exact) {
+            Optional<TodoStatsResponse> estimate = statsEstimator.estimate(false);
+            if (estimate.isPresent()) {
+                return estimate.get();
+            }
         }
-        return todoRepository.countByUserIdAndCompleted(user.getId(), false);
+        return findStats(user);
     }
     
-    @Transactional(readOnly = true)
-    public long getHighPriorityTodoCount() {
-        User user = getCurrentUser();
-        if (isAdmin(user)) {
-            return todoRepository.countByPriority(Todo.Priority.HIGH);
-        }
-        return todoRepository.countByUserIdAndPriority(user.getId(), Todo.Priority.HIGH);
+    private TodoStatsResponse findStats(User user) {
+        return isAdmin(user)
+                ? readCoalescer.execute(null, "stats", null, todoRepository::aggregateStats, TodoService::copyStats)
+                : readCoalescer.execute(user.getId(), "stats", null,
+                        () -> todoRepository.aggregateStatsByUserId(user.getId()), TodoService::copyStats);
     }
     
-    @Transactional(readOnly = true)
-    public long getMediumPriorityTodoCount() {
-        User user = getCurrentUser();
-        if (isAdmin(user)) {
-            return todoRepository.countByPriority(Todo.Priority.MEDIUM);
-        }
-        return todoRepository.countByUserIdAndPriority(user.getId(), Todo.Priority.MEDIUM);
+    // Per-caller copies of coalesced results (see TodoReadCoalescer)
+    private static List<TodoResponse> copyTodos(List<TodoResponse> todos) {
+        return todos.stream()
+                .map(todo -> new TodoResponse(todo.getId(), todo.getTitle(), todo.getDescription(), todo.getCompleted(),
+                        todo.getPriority(), todo.getCreatedAt(), todo.getUpdatedAt(), todo.getDueDate()))
+                .toList();
     }
     
-    @Transactional(readOnly = true)
-    public long getLowPriorityTodoCount() {
-        User user = getCurrentUser();
-        if (isAdmin(user)) {
-            return todoRepository.countByPriority(Todo.Priority.LOW);
-        }
-        return todoRepository.countByUserIdAndPriority(user.getId(), Todo.Priority.LOW);
+    private static TodoStatsResponse copyStats(TodoStatsResponse stats) {
+        return new TodoStatsResponse(stats.getTotal(), stats.getCompleted(), stats.getPending(), stats.getHighPriority(),
+                stats.getMediumPriority(), stats.getLowPriority(), stats.isExact(), stats.getErrorBounds());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package com.yusoph.todo.service;
+
+import com.yusoph.todo.dto.TodoStatsErrorBounds;
+import com.yusoph.todo.dto.TodoStatsResponse;
+import com.yusoph.todo.repository.TodoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Admin stats over every todo without counting every todo: on a table of hundreds of millions of
+ * rows the aggregate scan takes seconds, while PostgreSQL's statistics answer in a millisecond.
+ * Estimates are only used once {@code todo-stats.estimate-above} todos are reached; below that, and
+ * whenever the tables have no statistics yet, callers fall back to the exact aggregate.
+ */
+@Service
+@Slf4j
+public class TodoStatsEstimator {
+    
+    private final TodoRepository todoRepository;
+    private final long estimateAbove;
+    
+    public TodoStatsEstimator(TodoRepository todoRepository,
+                              @Value("${todo-stats.estimate-above:1000000}") long estimateAbove) {
+        this.todoRepository = todoRepository;
+        this.estimateAbove = estimateAbove;
+    }
+    
+    public Optional<TodoStatsResponse> estimate(boolean includeArchived) {
+        Optional<TodoStatsResponse> hot = todoRepository.estimateStats()
+                .filter(stats -> stats.getTotal() >= estimateAbove);
+        if (hot.isEmpty() || !includeArchived) {
+            return hot;
+        }
+        // An archive without statistics yet is small enough to count
+        TodoStatsResponse archived = todoRepository.estimateArchivedStats()
+                .orElseGet(todoRepository::aggregateArchivedStats);
+        log.debug("Estimated stats: {} hot and {} archived todos", hot.get().getTotal(), archived.getTotal());
+        return Optional.of(sum(hot.get(), archived));
+    }
+    
+    // Counts and error bounds add up; the sum is exact only if both parts are
+    public static TodoStatsResponse sum(TodoStatsResponse a, TodoStatsResponse b) {
+        TodoStatsErrorBounds bounds = null;
+        if (!a.isExact() || !b.isExact()) {
+            TodoStatsErrorBounds x = boundsOf(a);
+            TodoStatsErrorBounds y = boundsOf(b);
+            bounds = new TodoStatsErrorBounds(
+                    x.getTotal() + y.getTotal(),
+                    x.getCompleted() + y.getCompleted(),
+                    x.getPending() + y.getPending(),
+                    x.getHighPriority() + y.getHighPriority(),
+                    x.getMediumPriority() + y.getMediumPriority(),
+                    x.getLowPriority() + y.getLowPriority());
+        }
+        return new TodoStatsResponse(
+                a.getTotal() + b.getTotal(),
+                a.getCompleted() + b.getCompleted(),
+                a.getPending() + b.getPending(),
+                a.getHighPriority() + b.getHighPriority(),
+                a.getMediumPriority() + b.getMediumPriority(),
+                a.getLowPriority() + b.getLowPriority(),
+                bounds == null,
+                bounds);
+    }
+    
+    private static TodoStatsErrorBounds boundsOf(TodoStatsResponse stats) {
+        return stats.getErrorBounds() != null ? stats.getErrorBounds() : new TodoStatsErrorBounds();
+    }
+}
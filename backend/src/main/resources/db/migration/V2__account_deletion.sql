@@ -0,0 +1,37 @@
+-- Background account deletion
+
+-- Step 1: Record pending deletion requests (resumed on startup if the application restarts)
+ALTER TABLE users ADD COLUMN IF NOT EXISTS deletion_requested_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_users_deletion_requested
+    ON users(deletion_requested_at) WHERE deletion_requested_at IS NOT NULL;
+
+-- Step 2: Make sure deleting a user cascades to its todos in the database.
+-- Schemas generated by Hibernate (ddl-auto) got a foreign key without ON DELETE CASCADE.
+DO $$
+DECLARE
+    constraint_record RECORD;
+BEGIN
+    FOR constraint_record IN
+        SELECT con.conname
+        FROM pg_constraint con
+        JOIN pg_attribute att ON att.attrelid = con.conrelid AND att.attnum = ANY (con.conkey)
+        WHERE con.conrelid = 'todos'::regclass
+          AND con.contype = 'f'
+          AND att.attname = 'user_id'
+          AND con.confdeltype <> 'c'
+    LOOP
+        EXECUTE format('ALTER TABLE todos DROP CONSTRAINT %I', constraint_record.conname);
+    END LOOP;
+    
+    IF NOT EXISTS (
+        SELECT 1 FROM pg_constraint
+        WHERE conrelid = 'todos'::regclass AND conname = 'fk_todos_user'
+    ) THEN
+        ALTER TABLE todos ADD CONSTRAINT fk_todos_user
+            FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
+    END IF;
+END $$;
+
+-- Migration complete!
+-- DELETE /api/auth/me now returns 202 Accepted; GET /api/auth/deletions/{id} reports progress
@@ -0,0 +1,26 @@
+-- Hot/cold storage of completed todos
+
+-- Step 1: Archive table; rows keep their original id
+CREATE TABLE IF NOT EXISTS todos_archive (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(200) NOT NULL,
+    description VARCHAR(1000),
+    completed BOOLEAN NOT NULL,
+    priority VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    due_date TIMESTAMP,
+    user_id BIGINT NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_todos_archive_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_todos_archive_user_id ON todos_archive(user_id, id);
+
+-- Step 2: Partial index for the archiver's scan over completed todos
+CREATE INDEX IF NOT EXISTS idx_todos_archivable ON todos((COALESCE(updated_at, created_at))) WHERE completed;
+
+-- Migration complete!
+-- The first archiver run moves the backlog in batches of archive.batch-size. Afterwards, run
+-- VACUUM (ANALYZE) todos; and REINDEX TABLE CONCURRENTLY todos; to give the freed space back
+-- to the hot indexes.
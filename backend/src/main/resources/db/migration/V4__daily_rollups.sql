@@ -0,0 +1,22 @@
+-- Daily rollups behind /api/admin/analytics
+
+-- Step 1: Counter table, maintained by the todo write paths and the overdue seal
+CREATE TABLE IF NOT EXISTS todo_daily_rollups (
+    user_id BIGINT NOT NULL,
+    rollup_date DATE NOT NULL,
+    priority VARCHAR(20) NOT NULL,
+    created BIGINT NOT NULL DEFAULT 0,
+    completed BIGINT NOT NULL DEFAULT 0,
+    overdue BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, rollup_date, priority),
+    CONSTRAINT fk_todo_daily_rollups_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_todo_daily_rollups_date ON todo_daily_rollups(rollup_date);
+
+-- Step 2: Index for the overdue seal's range scan over due dates
+CREATE INDEX IF NOT EXISTS idx_todos_due_date ON todos(due_date) WHERE due_date IS NOT NULL;
+
+-- Migration complete!
+-- Existing todos are not counted yet: once the application runs, call
+-- POST /api/admin/analytics/backfill as an admin to build the rollups for the history.
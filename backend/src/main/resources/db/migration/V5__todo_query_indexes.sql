@@ -0,0 +1,14 @@
+-- Indexes behind GET /api/todos/query
+
+-- Step 1: One index per sort order, each led by user_id and ending with the id tiebreak, so a user's
+-- todos are read in the requested order (forwards or backwards) and range filters bound the scan
+CREATE INDEX IF NOT EXISTS idx_todos_user_id_id ON todos(user_id, id);
+CREATE INDEX IF NOT EXISTS idx_todos_user_created ON todos(user_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_todos_user_due ON todos(user_id, due_date, id);
+
+-- Step 2: idx_todos_user_id_id covers every lookup of the single-column index, including the
+-- cascade from users
+DROP INDEX IF EXISTS idx_todos_user_id;
+
+-- Migration complete!
+-- On a large table, consider CREATE INDEX CONCURRENTLY instead (outside a transaction).
@@ -0,0 +1,135 @@
+package com.yusoph.todo.benchmark;
+
+import com.yusoph.todo.TodoAppApplication;
+import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.dto.TodoStatsResponse;
+import com.yusoph.todo.entity.Todo;
+import com.yusoph.todo.entity.User;
+import com.yusoph.todo.repository.TodoRepository;
+import com.yusoph.todo.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the hot repository calls against the embedded engine and against PostgreSQL. The
+ * postgres engine uses the DB_* environment variables and must point at a disposable database:
+ * <pre>
+ * ./mvnw test-compile -Pbenchmark -Dbenchmark="EmbeddedStorageBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmbeddedStorageBenchmark {
+    
+    @Param({"embedded", "postgres"})
+    public String engine;
+    
+    @Param({"10000"})
+    public int size;
+    
+    private ConfigurableApplicationContext context;
+    private TodoRepository todoRepository;
+    private UserRepository userRepository;
+    private User user;
+    private List<Long> ids;
+    private Random random;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(TodoAppApplication.class)
+                .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.root=WARN",
+                        "logging.level.com.yusoph.todo=WARN", "logging.level.org.hibernate.SQL=WARN",
+                        "rate-limit.enabled=false", "load-shedding.enabled=false");
+        if (engine.equals("embedded")) {
+            builder.profiles("embedded")
+                    .properties("embedded-storage.directory=" + Files.createTempDirectory("embedded-storage"));
+        }
+        context = builder.run();
+        todoRepository = context.getBean(TodoRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        
+        String username = "bench-" + UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("not-a-hash")
+                .role(User.Role.USER)
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .build());
+        
+        random = new Random(42);
+        Todo.Priority[] priorities = Todo.Priority.values();
+        List<Todo> todos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Todo todo = new Todo("Todo item " + i, random.nextInt(3) == 0 ? null : "Description for todo " + i,
+                    random.nextBoolean(), priorities[random.nextInt(priorities.length)],
+                    random.nextBoolean() ? LocalDateTime.now().plusDays(random.nextInt(30)) : null);
+            todo.setUser(user);
+            todos.add(todo);
+        }
+        ids = todoRepository.saveAll(todos).stream().map(Todo::getId).toList();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        // Deleting the user cascades to its todos on both engines
+        userRepository.deleteById(user.getId());
+        context.close();
+    }
+    
+    private Long randomId() {
+        return ids.get(random.nextInt(ids.size()));
+    }
+    
+    @Benchmark
+    public List<TodoResponse> listTodos() {
+        return todoRepository.findResponsesByUserId(user.getId());
+    }
+    
+    @Benchmark
+    public TodoStatsResponse stats() {
+        return todoRepository.aggregateStatsByUserId(user.getId());
+    }
+    
+    @Benchmark
+    public Optional<TodoResponse> findTodo() {
+        return todoRepository.findResponseByIdAndUserId(randomId(), user.getId());
+    }
+    
+    @Benchmark
+    public Todo toggleTodo() {
+        Todo todo = todoRepository.findById(randomId()).orElseThrow();
+        todo.setCompleted(!todo.getCompleted());
+        return todoRepository.save(todo);
+    }
+}
@@ -0,0 +1,110 @@
+package com.yusoph.todo.benchmark;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.yusoph.todo.config.FlexibleLocalDateTimeDeserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the buffer-based deserializer with the previous formatter-based one on a
+ * request-sized payload. Run with {@code -prof gc} to compare allocation per operation:
+ * <pre>
+ * ./mvnw test-compile -Pbenchmark -Dbenchmark="FlexibleLocalDateTimeDeserializerBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlexibleLocalDateTimeDeserializerBenchmark {
+    
+    public record Payload(LocalDateTime dueDate) {
+    }
+    
+    @Param({"2024-03-01", "2024-03-01T10:15:30", "2024-03-01T10:15:30.123"})
+    public String value;
+    
+    private byte[] json;
+    private ObjectReader current;
+    private ObjectReader legacy;
+    
+    @Setup
+    public void setUp() {
+        json = ("{\"dueDate\":\"" + value + "\"}").getBytes();
+        current = reader(new FlexibleLocalDateTimeDeserializer());
+        legacy = reader(new LegacyFlexibleLocalDateTimeDeserializer());
+    }
+    
+    private static ObjectReader reader(JsonDeserializer<LocalDateTime> deserializer) {
+        return new ObjectMapper()
+                .registerModule(new SimpleModule().addDeserializer(LocalDateTime.class, deserializer))
+                .readerFor(Payload.class);
+    }
+    
+    @Benchmark
+    public Payload current() throws IOException {
+        return current.readValue(json);
+    }
+    
+    @Benchmark
+    public Payload legacy() throws IOException {
+        return legacy.readValue(json);
+    }
+    
+    /**
+     * The implementation replaced by the buffer-based parser, kept verbatim as the baseline.
+     */
+    static class LegacyFlexibleLocalDateTimeDeserializer extends JsonDeserializer<LocalDateTime> {
+        
+        private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+        private static final DateTimeFormatter DATE_TIME_WITH_MILLIS_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+        
+        @Override
+        public LocalDateTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String dateString = p.getValueAsString();
+            
+            if (dateString == null || dateString.trim().isEmpty()) {
+                return null;
+            }
+            
+            dateString = dateString.trim();
+            
+            try {
+                if (dateString.contains("T") && dateString.contains(".")) {
+                    return LocalDateTime.parse(dateString, DATE_TIME_WITH_MILLIS_FORMATTER);
+                } else if (dateString.contains("T")) {
+                    return LocalDateTime.parse(dateString, DATE_TIME_FORMATTER);
+                } else {
+                    LocalDate date = LocalDate.parse(dateString, DATE_FORMATTER);
+                    return date.atStartOfDay();
+                }
+            } catch (DateTimeParseException e) {
+                throw new RuntimeException("Unable to parse date: " + dateString, e);
+            }
+        }
+    }
+}
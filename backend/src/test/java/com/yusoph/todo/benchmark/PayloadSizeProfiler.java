@@ -0,0 +1,60 @@
+package com.yusoph.todo.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JMH profiler reporting {@code payload.size}, the bytes a benchmark wrote per operation, next to
+ * the timing (like {@code gc.alloc.rate.norm}). Benchmarks write into {@link #output()}, which
+ * discards the bytes like {@link OutputStream#nullOutputStream()} and only counts them.
+ * Enabled with {@code -prof com.yusoph.todo.benchmark.PayloadSizeProfiler}.
+ */
+public class PayloadSizeProfiler implements InternalProfiler {
+    
+    private static final LongAdder BYTES = new LongAdder();
+    
+    private static final OutputStream OUTPUT = new OutputStream() {
+        
+        @Override
+        public void write(int b) {
+            BYTES.increment();
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+            BYTES.add(len);
+        }
+    };
+    
+    public static OutputStream output() {
+        return OUTPUT;
+    }
+    
+    @Override
+    public String getDescription() {
+        return "Bytes written per operation";
+    }
+    
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        BYTES.reset();
+    }
+    
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams,
+                                                       IterationResult result) {
+        long ops = result.getMetadata().getAllOps();
+        double perOp = ops == 0 ? Double.NaN : (double) BYTES.sum() / ops;
+        return List.of(new ScalarResult("payload.size", perOp, "B/op", AggregationPolicy.AVG));
+    }
+}
@@ -0,0 +1,98 @@
+package com.yusoph.todo.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.yusoph.todo.config.TodoColumnarHttpMessageConverter;
+import com.yusoph.todo.config.TodoJsonModule;
+import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.entity.Todo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes the same todo list as JSON, CBOR and columnar JSON. Time comes from JMH, allocation
+ * from its gc profiler and payload size from {@link PayloadSizeProfiler}:
+ * <pre>
+ * ./mvnw test-compile -Pbenchmark \
+ *     -Dbenchmark="TodoListEncodingBenchmark -prof gc -prof com.yusoph.todo.benchmark.PayloadSizeProfiler"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoListEncodingBenchmark {
+    
+    private static final TypeReference<List<TodoResponse>> TODO_LIST = new TypeReference<>() {
+    };
+    
+    @Param({"10000"})
+    public int size;
+    
+    private List<TodoResponse> todos;
+    private ObjectWriter json;
+    private ObjectWriter cbor;
+    private ObjectMapper columnarMapper;
+    
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        Todo.Priority[] priorities = Todo.Priority.values();
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 9, 0);
+        todos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // Rows come back roughly in creation order, which is what delta encoding relies on
+            createdAt = createdAt.plusSeconds(random.nextInt(3600)).plusNanos(random.nextInt(1_000_000) * 1000L);
+            todos.add(new TodoResponse((long) i + 1, "Todo item " + i, random.nextInt(3) == 0 ? null : "Description for todo " + i,
+                    random.nextBoolean(), priorities[random.nextInt(priorities.length)], createdAt,
+                    createdAt.plusMinutes(random.nextInt(600)), random.nextBoolean() ? createdAt.plusDays(7).toLocalDate().atStartOfDay() : null));
+        }
+        
+        JavaTimeModule javaTimeModule = new JavaTimeModule();
+        javaTimeModule.addSerializer(LocalDateTime.class, new LocalDateTimeSerializer(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        json = new ObjectMapper().registerModule(javaTimeModule).registerModule(new TodoJsonModule()).writerFor(TODO_LIST);
+        cbor = new ObjectMapper(new CBORFactory()).registerModule(javaTimeModule).registerModule(new TodoJsonModule()).writerFor(TODO_LIST);
+        columnarMapper = new ObjectMapper();
+    }
+    
+    @Benchmark
+    public void json() throws IOException {
+        json.writeValue(PayloadSizeProfiler.output(), todos);
+    }
+    
+    @Benchmark
+    public void cbor() throws IOException {
+        cbor.writeValue(PayloadSizeProfiler.output(), todos);
+    }
+    
+    @Benchmark
+    public void columnar() throws IOException {
+        try (JsonGenerator gen = columnarMapper.getFactory().createGenerator(PayloadSizeProfiler.output())) {
+            TodoColumnarHttpMessageConverter.write(todos, gen);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.yusoph.todo.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.yusoph.todo.config.TodoJsonModule;
+import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.entity.Todo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a {@code List<TodoResponse>} body with the reflective bean serializer and with
+ * {@link TodoJsonModule}. Output goes to a discarding stream, as the servlet response would be.
+ * <pre>
+ * ./mvnw test-compile -Pbenchmark -Dbenchmark="TodoResponseSerializationBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoResponseSerializationBenchmark {
+    
+    private static final TypeReference<List<TodoResponse>> TODO_LIST = new TypeReference<>() {
+    };
+    
+    @Param({"50", "1000"})
+    public int size;
+    
+    private List<TodoResponse> todos;
+    private ObjectWriter reflective;
+    private ObjectWriter handWritten;
+    
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Todo.Priority[] priorities = Todo.Priority.values();
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 9, 0);
+        todos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            LocalDateTime createdAt = base.plusSeconds(random.nextInt(30_000_000)).plusNanos(random.nextInt(1_000_000) * 1000L);
+            todos.add(new TodoResponse((long) i, "Todo item " + i, "Description for todo " + i + " ".repeat(random.nextInt(200)),
+                    random.nextBoolean(), priorities[random.nextInt(priorities.length)], createdAt,
+                    createdAt.plusHours(random.nextInt(100)), random.nextBoolean() ? createdAt.plusDays(7).toLocalDate().atStartOfDay() : null));
+        }
+        
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule()
+                .addSerializer(LocalDateTime.class, new LocalDateTimeSerializer(DateTimeFormatter.ISO_LOCAL_DATE_TIME)));
+        reflective = mapper.writerFor(TODO_LIST);
+        handWritten = mapper.copy().registerModule(new TodoJsonModule()).writerFor(TODO_LIST);
+    }
+    
+    @Benchmark
+    public void reflective() throws IOException {
+        reflective.writeValue(OutputStream.nullOutputStream(), todos);
+    }
+    
+    @Benchmark
+    public void handWritten() throws IOException {
+        handWritten.writeValue(OutputStream.nullOutputStream(), todos);
+    }
+}
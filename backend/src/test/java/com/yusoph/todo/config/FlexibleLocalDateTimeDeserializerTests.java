@@ -0,0 +1,73 @@
+package com.yusoph.todo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlexibleLocalDateTimeDeserializerTests {
+    
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new SimpleModule().addDeserializer(LocalDateTime.class, new FlexibleLocalDateTimeDeserializer()));
+    
+    record Payload(LocalDateTime dueDate) {
+    }
+    
+    private LocalDateTime read(String value) throws Exception {
+        return mapper.readValue("{\"dueDate\":\"" + value + "\"}", Payload.class).dueDate();
+    }
+    
+    @Test
+    void parsesDateAsStartOfDay() throws Exception {
+        assertThat(read("2024-02-29")).isEqualTo(LocalDateTime.of(2024, 2, 29, 0, 0));
+        assertThat(read("  2024-03-01 ")).isEqualTo(LocalDateTime.of(2024, 3, 1, 0, 0));
+    }
+    
+    @Test
+    void parsesDateTimeWithOptionalSecondsAndFraction() throws Exception {
+        assertThat(read("2024-03-01T10:15")).isEqualTo(LocalDateTime.of(2024, 3, 1, 10, 15));
+        assertThat(read("2024-03-01T10:15:30")).isEqualTo(LocalDateTime.of(2024, 3, 1, 10, 15, 30));
+        assertThat(read("2024-03-01T10:15:30.123")).isEqualTo(LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_000_000));
+        assertThat(read("2024-03-01T10:15:30.123456789")).isEqualTo(LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_456_789));
+    }
+    
+    @Test
+    void normalisesOffsetsToUtc() throws Exception {
+        assertThat(read("2024-03-01T10:15:30Z")).isEqualTo(LocalDateTime.of(2024, 3, 1, 10, 15, 30));
+        assertThat(read("2024-03-01T10:15:30.5+02:00")).isEqualTo(LocalDateTime.of(2024, 3, 1, 8, 15, 30, 500_000_000));
+        assertThat(read("2024-03-01T00:30:00-0130")).isEqualTo(LocalDateTime.of(2024, 3, 1, 2, 0));
+        assertThat(read("2024-03-01T23:00:00-05")).isEqualTo(LocalDateTime.of(2024, 3, 2, 4, 0));
+    }
+    
+    @Test
+    void treatsBlankAndNullAsNull() throws Exception {
+        assertThat(read("   ")).isNull();
+        assertThat(mapper.readValue("{\"dueDate\":null}", Payload.class).dueDate()).isNull();
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2024-13-01", "2023-02-29", "2024-04-31", "24-03-01", "2024/03/01", "2024-03-01T",
+            "2024-03-01T24:00:00", "2024-03-01T10:60", "2024-03-01T10:15:61", "2024-03-01T10:15:30.",
+            "2024-03-01T10:15:30.1234567890", "2024-03-01T10:15:30+19:00", "2024-03-01T10:15:30Zx",
+            "2024-03-01 10:15:30", "tomorrow"
+    })
+    void rejectsInvalidInputWithInvalidFormatException(String value) {
+        assertThatThrownBy(() -> read(value))
+                .isInstanceOf(InvalidFormatException.class)
+                .hasMessageContaining("Unable to parse date");
+    }
+    
+    @Test
+    void rejectsNonStringTokens() {
+        assertThatThrownBy(() -> mapper.readValue("{\"dueDate\":42}", Payload.class))
+                .isInstanceOf(com.fasterxml.jackson.databind.JsonMappingException.class);
+    }
+}
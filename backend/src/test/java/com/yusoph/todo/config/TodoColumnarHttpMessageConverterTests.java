@@ -0,0 +1,106 @@
+package com.yusoph.todo.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.entity.Todo;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class TodoColumnarHttpMessageConverterTests {
+    
+    private static final List<TodoResponse> TODOS = List.of(
+            new TodoResponse(1L, "Buy milk", null, false, Todo.Priority.HIGH,
+                    LocalDateTime.of(2024, 3, 1, 10, 15, 30, 120_005_999), null, null),
+            new TodoResponse(null, null, "No title", null, null,
+                    LocalDateTime.of(2024, 3, 1, 10, 15, 29), null, LocalDateTime.of(2024, 3, 2, 0, 0)));
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    
+    // Registered ahead of Jackson, as Boot does with converter beans
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new TodoListController())
+            .setMessageConverters(new TodoColumnarHttpMessageConverter(objectMapper.getFactory()),
+                    new MappingJackson2HttpMessageConverter(objectMapper))
+            .build();
+    
+    @Test
+    void encodesTimestampsAsEpochMicrosecondDeltas() throws Exception {
+        JsonNode columns = write(TODOS);
+        
+        // Nanoseconds beyond the microsecond are truncated
+        assertThat(columns.get("createdAt").get(0).asLong()).isEqualTo(1_709_288_130_120_005L);
+        assertThat(columns.get("createdAt").get(1).asLong()).isEqualTo(-1_120_005L);
+        assertThat(columns.get("updatedAt").get(0).isNull()).isTrue();
+        assertThat(columns.get("dueDate").get(1).asLong()).isEqualTo(1_709_337_600_000_000L);
+    }
+    
+    @Test
+    void keepsNullsInEveryColumn() throws Exception {
+        JsonNode columns = write(TODOS);
+        
+        assertThat(columns.get("count").asInt()).isEqualTo(2);
+        assertThat(columns.get("id").get(1).isNull()).isTrue();
+        assertThat(columns.get("title").get(1).isNull()).isTrue();
+        assertThat(columns.get("description").get(0).isNull()).isTrue();
+        assertThat(columns.get("completed").get(1).isNull()).isTrue();
+        assertThat(columns.get("priority").get(1).isNull()).isTrue();
+        assertThat(columns.get("priorityDictionary").get(columns.get("priority").get(0).asInt()).asText())
+                .isEqualTo("HIGH");
+    }
+    
+    // The converter is left out of the producible types; the columnar type is negotiated through
+    // Jackson's application/*+json and then written by the first converter that accepts it
+    @Test
+    void isSelectedByAnExplicitAccept() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/todos")
+                .accept(TodoColumnarHttpMessageConverter.COLUMNAR_JSON)).andReturn().getResponse();
+        
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(MediaType.parseMediaType(response.getContentType()))
+                .matches(TodoColumnarHttpMessageConverter.COLUMNAR_JSON::equalsTypeAndSubtype);
+        assertThat(objectMapper.readTree(response.getContentAsString()).get("count").asInt()).isEqualTo(2);
+    }
+    
+    @Test
+    void leavesAnyOtherAcceptToPlainJson() throws Exception {
+        for (MediaType accept : List.of(MediaType.ALL, MediaType.APPLICATION_JSON)) {
+            MockHttpServletResponse response = mockMvc.perform(get("/todos").accept(accept)).andReturn().getResponse();
+            
+            assertThat(MediaType.parseMediaType(response.getContentType()))
+                    .matches(MediaType.APPLICATION_JSON::equalsTypeAndSubtype);
+            assertThat(objectMapper.readTree(response.getContentAsString()).isArray()).isTrue();
+        }
+    }
+    
+    private JsonNode write(List<TodoResponse> todos) throws Exception {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            TodoColumnarHttpMessageConverter.write(todos, gen);
+        }
+        return objectMapper.readTree(out.toString());
+    }
+    
+    @RestController
+    static class TodoListController {
+        
+        @GetMapping("/todos")
+        List<TodoResponse> todos() {
+            return TODOS;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.yusoph.todo.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.entity.Todo;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodoJsonModuleTests {
+    
+    private static final TypeReference<List<TodoResponse>> TODO_LIST = new TypeReference<>() {
+    };
+    
+    private final ObjectMapper reflective = new ObjectMapper().registerModule(new JavaTimeModule()
+            .addSerializer(LocalDateTime.class, new LocalDateTimeSerializer(DateTimeFormatter.ISO_LOCAL_DATE_TIME)));
+    
+    private final ObjectMapper handWritten = reflective.copy().registerModule(new TodoJsonModule());
+    
+    private final List<TodoResponse> todos = Arrays.asList(
+            new TodoResponse(1L, "Buy milk", "2 litres, \"semi-skimmed\"\n", false, Todo.Priority.HIGH,
+                    LocalDateTime.of(2024, 3, 1, 10, 15, 30, 120_000_000), LocalDateTime.of(2024, 3, 1, 10, 15),
+                    LocalDateTime.of(2024, 3, 2, 0, 0)),
+            new TodoResponse(2L, "Übung ✓", null, true, Todo.Priority.LOW,
+                    LocalDateTime.of(999, 12, 31, 23, 59, 59, 1), null, null),
+            new TodoResponse(null, null, null, null, null, LocalDateTime.of(12345, 1, 1, 0, 0), null, null),
+            null
+    );
+    
+    @Test
+    void listOutputMatchesReflectiveSerializer() throws Exception {
+        assertThat(handWritten.writerFor(TODO_LIST).writeValueAsString(todos))
+                .isEqualTo(reflective.writerFor(TODO_LIST).writeValueAsString(todos));
+    }
+    
+    @Test
+    void singleTodoOutputMatchesReflectiveSerializer() throws Exception {
+        for (TodoResponse todo : todos.subList(0, 3)) {
+            assertThat(handWritten.writeValueAsString(todo)).isEqualTo(reflective.writeValueAsString(todo));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.yusoph.todo.dataset;
+
+import com.yusoph.todo.dataset.DatasetLoader.RowWriter;
+import com.yusoph.todo.dataset.RowGenerator.TodoRow;
+import com.yusoph.todo.dataset.RowGenerator.UserRow;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads a synthetic dataset of {@code --users} users sharing {@code --todos} todos by Zipf's law
+ * ({@link ZipfTodoCounts}, {@link RowGenerator}) into PostgreSQL or H2. Point it at a disposable
+ * database; rows are added after the ones already there:
+ * <pre>
+ * ./mvnw test-compile -Pdataset -Ddataset.users=1000000 -Ddataset.todos=100000000
+ * </pre>
+ * Users are loaded first, then todos, each by {@code --threads} writers working through contiguous
+ * ranges of users. Ids are assigned from those ranges rather than by the database, so they are
+ * deterministic too. Every user gets the same password ({@code --user-password}), hashed once.
+ */
+public final class DatasetGenerator {
+    
+    // Several partitions per thread, so a thread that drew heavy users does not finish last
+    private static final int PARTITIONS_PER_THREAD = 8;
+    
+    private record Partition(int fromUser, int toUser, long firstTodoId) {
+    }
+    
+    private final DatasetOptions options;
+    private final AtomicLong usersLoaded = new AtomicLong();
+    private final AtomicLong todosLoaded = new AtomicLong();
+    
+    private DatasetGenerator(DatasetOptions options) {
+        this.options = options;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        new DatasetGenerator(DatasetOptions.parse(args)).run();
+    }
+    
+    private void run() throws Exception {
+        long started = System.nanoTime();
+        int[] counts = ZipfTodoCounts.counts(options.users(), options.todos(), options.zipfExponent(), options.seed());
+        String passwordHash = new BCryptPasswordEncoder(options.bcryptStrength()).encode(options.userPassword());
+        RowGenerator rows = new RowGenerator(options.seed(), options.now(), options.historyDays(), passwordHash);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads());
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor();
+        progress.scheduleAtFixedRate(() -> report(started), 5, 5, TimeUnit.SECONDS);
+        try (DatasetLoader loader = DatasetLoader.create(options)) {
+            loader.beforeLoad();
+            try {
+                long userBase = loader.maxId("users");
+                long todoBase = loader.maxId("todos");
+                List<Partition> partitions = partitions(counts, todoBase);
+                System.out.printf("Loading %,d users and %,d todos into %s with %d threads (seed %d, now %s)%n",
+                        options.users(), options.todos(), options.url(), options.threads(), options.seed(), options.now());
+                
+                runAll(executor, partitions, partition -> {
+                    UserRow row = new UserRow();
+                    try (RowWriter<UserRow> writer = loader.users()) {
+                        for (int user = partition.fromUser(); user < partition.toUser(); user++) {
+                            rows.user(user, userBase + 1 + user, row);
+                            writer.write(row);
+                            usersLoaded.incrementAndGet();
+                        }
+                    }
+                });
+                runAll(executor, partitions, partition -> {
+                    TodoRow row = new TodoRow();
+                    try (RowWriter<TodoRow> writer = loader.todos()) {
+                        long firstId = partition.firstTodoId();
+                        for (int user = partition.fromUser(); user < partition.toUser(); user++) {
+                            rows.todos(user, userBase + 1 + user, firstId, counts[user], row, writer::write);
+                            firstId += counts[user];
+                            todosLoaded.addAndGet(counts[user]);
+                        }
+                    }
+                });
+                report(started);
+            } finally {
+                loader.afterLoad(executor);
+            }
+        } finally {
+            progress.shutdownNow();
+            executor.shutdownNow();
+        }
+        System.out.printf("Done in %,d s%n", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+    }
+    
+    // Contiguous user ranges of about the same number of todos each
+    private List<Partition> partitions(int[] counts, long todoBase) {
+        long perPartition = Math.max(1, options.todos() / ((long) options.threads() * PARTITIONS_PER_THREAD));
+        int maxUsers = Math.max(1, options.users() / (options.threads() * PARTITIONS_PER_THREAD));
+        List<Partition> partitions = new ArrayList<>();
+        int from = 0;
+        long firstTodoId = todoBase + 1;
+        long todos = 0;
+        for (int user = 0; user < counts.length; user++) {
+            todos += counts[user];
+            if (todos >= perPartition || user + 1 - from >= maxUsers || user + 1 == counts.length) {
+                partitions.add(new Partition(from, user + 1, firstTodoId));
+                from = user + 1;
+                firstTodoId += todos;
+                todos = 0;
+            }
+        }
+        return partitions;
+    }
+    
+    @FunctionalInterface
+    private interface PartitionTask {
+        void load(Partition partition) throws Exception;
+    }
+    
+    private static void runAll(ExecutorService executor, List<Partition> partitions, PartitionTask task)
+            throws Exception {
+        List<Future<Void>> futures = new ArrayList<>(partitions.size());
+        for (Partition partition : partitions) {
+            Callable<Void> load = () -> {
+                task.load(partition);
+                return null;
+            };
+            futures.add(executor.submit(load));
+        }
+        try {
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+    
+    private void report(long started) {
+        double seconds = Math.max(1e-3, (System.nanoTime() - started) / 1e9);
+        long users = usersLoaded.get();
+        long todos = todosLoaded.get();
+        System.out.printf("%,d/%,d users, %,d/%,d todos (%,.0f rows/s)%n",
+                users, options.users(), todos, options.todos(), (users + todos) / seconds);
+    }
+}
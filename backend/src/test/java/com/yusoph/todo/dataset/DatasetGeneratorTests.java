@@ -0,0 +1,87 @@
+package com.yusoph.todo.dataset;
+
+import com.yusoph.todo.dataset.RowGenerator.TodoRow;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DatasetGeneratorTests {
+    
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 0, 0);
+    
+    @Test
+    void spreadsTodosByZipfsLaw() {
+        int[] counts = ZipfTodoCounts.counts(10_000, 1_000_000, 1.0, 42);
+        
+        assertThat(Arrays.stream(counts).asLongStream().sum()).isEqualTo(1_000_000);
+        int[] sorted = counts.clone();
+        Arrays.sort(sorted);
+        // Heaviest user about 1 / H(10000) ≈ 10% of all todos, the median user a handful
+        assertThat(sorted[sorted.length - 1]).isBetween(100_000, 110_000);
+        assertThat(sorted[sorted.length / 2]).isBetween(5, 30);
+        // Scattered over the id range, not sorted by rank
+        assertThat(counts[0]).isNotEqualTo(sorted[sorted.length - 1]);
+    }
+    
+    @Test
+    void countsAreDeterministicBySeed() {
+        assertThat(ZipfTodoCounts.counts(1000, 50_000, 1.0, 7)).isEqualTo(ZipfTodoCounts.counts(1000, 50_000, 1.0, 7));
+        assertThat(ZipfTodoCounts.counts(1000, 50_000, 1.0, 7)).isNotEqualTo(ZipfTodoCounts.counts(1000, 50_000, 1.0, 8));
+    }
+    
+    @Test
+    void rowsOfAUserDoNotDependOnGenerationOrder() throws Exception {
+        RowGenerator rows = new RowGenerator(42, NOW, 730, "hash");
+        
+        List<String> first = todos(rows, 7);
+        todos(rows, 3);
+        List<String> second = todos(new RowGenerator(42, NOW, 730, "hash"), 7);
+        
+        assertThat(second).isEqualTo(first);
+        assertThat(todos(new RowGenerator(43, NOW, 730, "hash"), 7)).isNotEqualTo(first);
+    }
+    
+    @Test
+    void generatesRowsTheSchemaAccepts() throws Exception {
+        RowGenerator rows = new RowGenerator(42, NOW, 730, "hash");
+        RowGenerator.UserRow user = new RowGenerator.UserRow();
+        rows.user(5, 6, user);
+        long now = NOW.toEpochSecond(ZoneOffset.UTC);
+        
+        rows.todos(5, 6, 1, 2000, new TodoRow(), todo -> {
+            assertThat(todo.title.length()).isBetween(1, 200);
+            assertThat(todo.description.length()).isLessThanOrEqualTo(1000);
+            assertThat(todo.createdAt).isBetween(user.createdAt, now);
+            assertThat(todo.updatedAt).isBetween(todo.createdAt, now);
+            if (todo.dueDate != RowGenerator.NO_TIME) {
+                assertThat(todo.dueDate).isGreaterThan(todo.createdAt);
+            }
+        });
+        assertThat(user.username).isEqualTo("user6");
+        assertThat(user.password).isEqualTo("hash");
+    }
+    
+    @Test
+    void rejectsUnknownOptions() {
+        assertThat(DatasetOptions.parse("--users=10", "--todos=", "").users()).isEqualTo(10);
+        assertThatThrownBy(() -> DatasetOptions.parse("--rows=10"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("--rows=10");
+    }
+    
+    private static List<String> todos(RowGenerator rows, int user) throws Exception {
+        List<String> todos = new ArrayList<>();
+        rows.todos(user, user + 1, 1, 50, new TodoRow(), todo -> todos.add(String.join("|",
+                todo.title, todo.hasDescription ? todo.description : "", todo.priority,
+                String.valueOf(todo.completed), String.valueOf(todo.createdAt), String.valueOf(todo.updatedAt),
+                String.valueOf(todo.dueDate))));
+        return todos;
+    }
+}
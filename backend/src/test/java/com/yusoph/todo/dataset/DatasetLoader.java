@@ -0,0 +1,71 @@
+package com.yusoph.todo.dataset;
+
+import com.yusoph.todo.dataset.RowGenerator.TodoRow;
+import com.yusoph.todo.dataset.RowGenerator.UserRow;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Writes generated rows into one database. Writers are opened per partition and used by one thread
+ * each, on a connection of their own; the loader's own connection runs the statements before and
+ * after the load.
+ */
+abstract class DatasetLoader implements AutoCloseable {
+    
+    /** Writes rows of one table; closing it commits them. */
+    interface RowWriter<R> extends AutoCloseable {
+        
+        void write(R row) throws Exception;
+        
+        @Override
+        void close() throws Exception;
+    }
+    
+    protected final DatasetOptions options;
+    protected final Connection connection;
+    
+    protected DatasetLoader(DatasetOptions options) throws SQLException {
+        this.options = options;
+        this.connection = connect();
+    }
+    
+    static DatasetLoader create(DatasetOptions options) throws SQLException {
+        return switch (options.target()) {
+            case POSTGRES -> new PostgresCopyLoader(options);
+            case H2 -> new H2BatchLoader(options);
+        };
+    }
+    
+    protected Connection connect() throws SQLException {
+        return DriverManager.getConnection(options.url(), options.username(), options.password());
+    }
+    
+    /** Creates what the load needs; called first. */
+    abstract void beforeLoad() throws SQLException;
+    
+    abstract RowWriter<UserRow> users() throws SQLException;
+    
+    abstract RowWriter<TodoRow> todos() throws SQLException;
+    
+    /** Restores what {@link #beforeLoad} removed and updates statistics; called even if the load failed. */
+    abstract void afterLoad(ExecutorService executor) throws Exception;
+    
+    // Generated ids continue after the rows already there
+    long maxId(String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+    
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+}
@@ -0,0 +1,107 @@
+package com.yusoph.todo.dataset;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line of {@link DatasetGenerator}: {@code --name=value} pairs, every one optional. The
+ * connection defaults to the backend's own {@code DB_*} variables for PostgreSQL, and to a file
+ * database under {@code target/dataset} for H2.
+ *
+ * @param now the instant the dataset is generated relative to; two runs with the same seed and
+ *            {@code now} produce the same rows
+ */
+record DatasetOptions(
+        Target target,
+        String url,
+        String username,
+        String password,
+        int users,
+        long todos,
+        double zipfExponent,
+        long seed,
+        LocalDateTime now,
+        int historyDays,
+        int threads,
+        int batchSize,
+        String userPassword,
+        int bcryptStrength,
+        boolean deferIndexes) {
+    
+    enum Target {
+        POSTGRES, H2
+    }
+    
+    private static final List<String> NAMES = List.of("target", "url", "username", "password", "users", "todos",
+            "zipf-exponent", "seed", "now", "history-days", "threads", "batch-size", "user-password",
+            "bcrypt-strength", "defer-indexes");
+    
+    DatasetOptions {
+        if (users < 1) {
+            throw new IllegalArgumentException("--users must be at least 1");
+        }
+        if (todos < 0) {
+            throw new IllegalArgumentException("--todos must not be negative");
+        }
+        if (zipfExponent <= 0) {
+            throw new IllegalArgumentException("--zipf-exponent must be positive");
+        }
+        if (historyDays < 1 || threads < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("--history-days, --threads and --batch-size must be at least 1");
+        }
+    }
+    
+    static DatasetOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            int equals = arg.indexOf('=');
+            String name = arg.startsWith("--") && equals > 2 ? arg.substring(2, equals) : null;
+            if (name == null || !NAMES.contains(name)) {
+                throw new IllegalArgumentException("Unknown option: " + arg + " (expected --name=value, one of " + NAMES + ")");
+            }
+            String value = arg.substring(equals + 1);
+            // Empty for a property the dataset profile passes but the command line did not set
+            if (!value.isEmpty()) {
+                values.put(name, value);
+            }
+        }
+        
+        Target target = Target.valueOf(values.getOrDefault("target", "postgres").toUpperCase());
+        String defaultUrl = target == Target.POSTGRES
+                ? "jdbc:postgresql://" + env("DB_HOST", "localhost") + ":" + env("DB_PORT", "5432") + "/" + env("DB_NAME", "todoapp")
+                : "jdbc:h2:file:./target/dataset/todoapp";
+        String defaultUsername = target == Target.POSTGRES ? env("DB_USERNAME", "postgres") : "sa";
+        String defaultPassword = target == Target.POSTGRES ? env("DB_PASSWORD", "") : "";
+        return new DatasetOptions(
+                target,
+                values.getOrDefault("url", defaultUrl),
+                values.getOrDefault("username", defaultUsername),
+                values.getOrDefault("password", defaultPassword),
+                Integer.parseInt(values.getOrDefault("users", "100000")),
+                Long.parseLong(values.getOrDefault("todos", "10000000")),
+                Double.parseDouble(values.getOrDefault("zipf-exponent", "1.0")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                values.containsKey("now")
+                        ? LocalDateTime.parse(values.get("now"))
+                        : LocalDate.now(ZoneOffset.UTC).atStartOfDay(),
+                Integer.parseInt(values.getOrDefault("history-days", "730")),
+                Integer.parseInt(values.getOrDefault("threads",
+                        String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                Integer.parseInt(values.getOrDefault("batch-size", "10000")),
+                values.getOrDefault("user-password", "password123"),
+                Integer.parseInt(values.getOrDefault("bcrypt-strength", env("BCRYPT_STRENGTH", "10"))),
+                Boolean.parseBoolean(values.getOrDefault("defer-indexes", "true")));
+    }
+    
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,158 @@
+package com.yusoph.todo.dataset;
+
+import com.yusoph.todo.dataset.RowGenerator.TodoRow;
+import com.yusoph.todo.dataset.RowGenerator.UserRow;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Inserts rows into H2 with batched prepared statements, one transaction per {@code --batch-size}
+ * rows. The tables are created if missing, with the columns of the Flyway migrations.
+ */
+final class H2BatchLoader extends DatasetLoader {
+    
+    private static final String INSERT_USER = "INSERT INTO users (id, username, email, password, first_name, last_name,"
+            + " role, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_TODO = "INSERT INTO todos (id, title, description, completed, priority, created_at,"
+            + " updated_at, due_date, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    H2BatchLoader(DatasetOptions options) throws SQLException {
+        super(options);
+    }
+    
+    @Override
+    void beforeLoad() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE IF NOT EXISTS users (
+                        id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                        username VARCHAR(50) NOT NULL UNIQUE,
+                        email VARCHAR(255) NOT NULL UNIQUE,
+                        password VARCHAR(255) NOT NULL,
+                        first_name VARCHAR(100),
+                        last_name VARCHAR(100),
+                        role VARCHAR(20) NOT NULL DEFAULT 'USER',
+                        enabled BOOLEAN NOT NULL DEFAULT true,
+                        account_non_expired BOOLEAN NOT NULL DEFAULT true,
+                        account_non_locked BOOLEAN NOT NULL DEFAULT true,
+                        credentials_non_expired BOOLEAN NOT NULL DEFAULT true,
+                        created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                        updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                        deletion_requested_at TIMESTAMP)""");
+            statement.execute("""
+                    CREATE TABLE IF NOT EXISTS todos (
+                        id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                        title VARCHAR(200) NOT NULL,
+                        description VARCHAR(1000),
+                        completed BOOLEAN NOT NULL DEFAULT false,
+                        priority VARCHAR(20) NOT NULL DEFAULT 'MEDIUM',
+                        created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                        updated_at TIMESTAMP,
+                        due_date TIMESTAMP,
+                        user_id BIGINT NOT NULL,
+                        CONSTRAINT fk_todos_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE)""");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_todos_user_id_id ON todos(user_id, id)");
+        }
+    }
+    
+    @Override
+    RowWriter<UserRow> users() throws SQLException {
+        return new BatchWriter<>(INSERT_USER, (row, insert) -> {
+            insert.setLong(1, row.id);
+            insert.setString(2, row.username);
+            insert.setString(3, row.email);
+            insert.setString(4, row.password);
+            insert.setString(5, row.firstName);
+            insert.setString(6, row.lastName);
+            insert.setString(7, row.role);
+            setTime(insert, 8, row.createdAt);
+            setTime(insert, 9, row.createdAt);
+        });
+    }
+    
+    @Override
+    RowWriter<TodoRow> todos() throws SQLException {
+        return new BatchWriter<>(INSERT_TODO, (row, insert) -> {
+            insert.setLong(1, row.id);
+            insert.setString(2, row.title.toString());
+            insert.setString(3, row.hasDescription ? row.description.toString() : null);
+            insert.setBoolean(4, row.completed);
+            insert.setString(5, row.priority);
+            setTime(insert, 6, row.createdAt);
+            setTime(insert, 7, row.updatedAt);
+            setTime(insert, 8, row.dueDate);
+            insert.setLong(9, row.userId);
+        });
+    }
+    
+    @Override
+    void afterLoad(ExecutorService executor) throws SQLException {
+        // Explicit ids do not advance identity columns
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + (maxId("users") + 1));
+            statement.execute("ALTER TABLE todos ALTER COLUMN id RESTART WITH " + (maxId("todos") + 1));
+            statement.execute("ANALYZE");
+        }
+    }
+    
+    @FunctionalInterface
+    private interface Binder<R> {
+        void bind(R row, PreparedStatement insert) throws SQLException;
+    }
+    
+    private final class BatchWriter<R> implements RowWriter<R> {
+        
+        private final Connection batchConnection;
+        private final PreparedStatement insert;
+        private final Binder<R> binder;
+        private int pending;
+        
+        BatchWriter(String sql, Binder<R> binder) throws SQLException {
+            this.batchConnection = connect();
+            batchConnection.setAutoCommit(false);
+            this.insert = batchConnection.prepareStatement(sql);
+            this.binder = binder;
+        }
+        
+        @Override
+        public void write(R row) throws SQLException {
+            binder.bind(row, insert);
+            insert.addBatch();
+            if (++pending == options.batchSize()) {
+                flush();
+            }
+        }
+        
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+            } finally {
+                batchConnection.close();
+            }
+        }
+        
+        private void flush() throws SQLException {
+            if (pending > 0) {
+                insert.executeBatch();
+                batchConnection.commit();
+                pending = 0;
+            }
+        }
+    }
+    
+    private static void setTime(PreparedStatement insert, int index, long epochSecond) throws SQLException {
+        if (epochSecond == RowGenerator.NO_TIME) {
+            insert.setNull(index, Types.TIMESTAMP);
+        } else {
+            insert.setObject(index, LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC));
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.yusoph.todo.dataset;
+
+import com.yusoph.todo.dataset.RowGenerator.TodoRow;
+import com.yusoph.todo.dataset.RowGenerator.UserRow;
+import org.flywaydb.core.Flyway;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Streams rows with {@code COPY ... FROM STDIN} in text format, one COPY per writer, so parallel
+ * writers load the same table concurrently. Sessions run with {@code synchronous_commit = off}. The
+ * schema is migrated first, as by the backend.
+ * <p>
+ * With {@code --defer-indexes} (the default), the secondary indexes of {@code users} and
+ * {@code todos} and the foreign key of {@code todos} are dropped before the load and rebuilt after
+ * it, in parallel: one sort per index instead of a B-tree insert and a foreign key check per row.
+ * Indexes backing a primary key or unique constraint stay. The statements that rebuild them are
+ * printed before anything is dropped.
+ */
+final class PostgresCopyLoader extends DatasetLoader {
+    
+    private static final String COPY_USERS = "COPY users (id, username, email, password, first_name, last_name, role,"
+            + " enabled, account_non_expired, account_non_locked, credentials_non_expired, created_at, updated_at)"
+            + " FROM STDIN";
+    private static final String COPY_TODOS = "COPY todos (id, title, description, completed, priority, created_at,"
+            + " updated_at, due_date, user_id) FROM STDIN";
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    private final List<String> indexes = new ArrayList<>();
+    private final List<String> constraints = new ArrayList<>();
+    
+    PostgresCopyLoader(DatasetOptions options) throws SQLException {
+        super(options);
+    }
+    
+    @Override
+    void beforeLoad() throws SQLException {
+        // A new database gets the schema the backend would create on startup
+        Flyway.configure()
+                .dataSource(options.url(), options.username(), options.password())
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+        if (!options.deferIndexes()) {
+            return;
+        }
+        List<String> drops = new ArrayList<>();
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet result = statement.executeQuery("""
+                    SELECT quote_ident(conname), pg_get_constraintdef(oid) FROM pg_constraint
+                    WHERE conrelid = 'todos'::regclass AND contype = 'f'""")) {
+                while (result.next()) {
+                    String name = result.getString(1);
+                    constraints.add("ALTER TABLE todos ADD CONSTRAINT " + name + " " + result.getString(2));
+                    drops.add("ALTER TABLE todos DROP CONSTRAINT " + name);
+                }
+            }
+            try (ResultSet result = statement.executeQuery("""
+                    SELECT i.indexrelid::regclass, pg_get_indexdef(i.indexrelid) FROM pg_index i
+                    WHERE i.indrelid IN ('users'::regclass, 'todos'::regclass)
+                      AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conindid = i.indexrelid)""")) {
+                while (result.next()) {
+                    indexes.add(result.getString(2));
+                    drops.add("DROP INDEX " + result.getString(1));
+                }
+            }
+            System.out.println("Deferring indexes and constraints; if the run is interrupted, restore them with:");
+            indexes.forEach(index -> System.out.println("  " + index + ";"));
+            constraints.forEach(constraint -> System.out.println("  " + constraint + ";"));
+            for (String drop : drops) {
+                statement.execute(drop);
+            }
+        }
+    }
+    
+    @Override
+    RowWriter<UserRow> users() throws SQLException {
+        return new CopyWriter<>(COPY_USERS, (row, line) -> {
+            line.append(row.id).append('\t');
+            text(line, row.username).append('\t');
+            text(line, row.email).append('\t');
+            text(line, row.password).append('\t');
+            text(line, row.firstName).append('\t');
+            text(line, row.lastName).append('\t');
+            line.append(row.role).append("\tt\tt\tt\tt\t");
+            time(line, row.createdAt).append('\t');
+            time(line, row.createdAt);
+        });
+    }
+    
+    @Override
+    RowWriter<TodoRow> todos() throws SQLException {
+        return new CopyWriter<>(COPY_TODOS, (row, line) -> {
+            line.append(row.id).append('\t');
+            text(line, row.title).append('\t');
+            (row.hasDescription ? text(line, row.description) : line.append("\\N")).append('\t');
+            line.append(row.completed ? 't' : 'f').append('\t');
+            line.append(row.priority).append('\t');
+            time(line, row.createdAt).append('\t');
+            time(line, row.updatedAt).append('\t');
+            time(line, row.dueDate).append('\t');
+            line.append(row.userId);
+        });
+    }
+    
+    @Override
+    void afterLoad(ExecutorService executor) throws Exception {
+        // Indexes in parallel, then the foreign key: validated by one join of the loaded tables
+        List<Future<Void>> builds = new ArrayList<>();
+        for (String index : indexes) {
+            builds.add(executor.submit(execute(index)));
+        }
+        for (Future<Void> build : builds) {
+            build.get();
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String constraint : constraints) {
+                statement.execute(constraint);
+            }
+            indexes.clear();
+            constraints.clear();
+            statement.execute("SELECT setval(pg_get_serial_sequence('users', 'id'), GREATEST(MAX(id), 1)) FROM users");
+            statement.execute("SELECT setval(pg_get_serial_sequence('todos', 'id'), GREATEST(MAX(id), 1)) FROM todos");
+            // Also sets the visibility map, so index-only scans work right away
+            statement.execute("VACUUM ANALYZE users, todos");
+        }
+    }
+    
+    private Callable<Void> execute(String sql) {
+        return () -> {
+            try (Connection build = connect(); Statement statement = build.createStatement()) {
+                System.out.println("Rebuilding: " + sql);
+                statement.execute(sql);
+            }
+            return null;
+        };
+    }
+    
+    @FunctionalInterface
+    private interface LineFormat<R> {
+        void format(R row, StringBuilder line);
+    }
+    
+    private final class CopyWriter<R> implements RowWriter<R> {
+        
+        private final Connection copyConnection;
+        private final Writer out;
+        private final LineFormat<R> format;
+        private final StringBuilder line = new StringBuilder(1280);
+        
+        CopyWriter(String copy, LineFormat<R> format) throws SQLException {
+            this.copyConnection = connect();
+            try (Statement statement = copyConnection.createStatement()) {
+                statement.execute("SET synchronous_commit = off");
+            }
+            this.out = new BufferedWriter(new OutputStreamWriter(
+                    new PGCopyOutputStream(copyConnection.unwrap(PGConnection.class), copy, BUFFER_SIZE),
+                    StandardCharsets.UTF_8), BUFFER_SIZE);
+            this.format = format;
+        }
+        
+        @Override
+        public void write(R row) throws Exception {
+            line.setLength(0);
+            format.format(row, line);
+            line.append('\n');
+            out.append(line);
+        }
+        
+        // Ends the COPY, which commits it
+        @Override
+        public void close() throws Exception {
+            try {
+                out.close();
+            } finally {
+                copyConnection.close();
+            }
+        }
+    }
+    
+    // COPY text format: backslash, tab and line breaks escaped
+    private static StringBuilder text(StringBuilder line, CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> line.append("\\\\");
+                case '\t' -> line.append("\\t");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                default -> line.append(c);
+            }
+        }
+        return line;
+    }
+    
+    // yyyy-MM-dd HH:mm:ss without a formatter
+    private static StringBuilder time(StringBuilder line, long epochSecond) {
+        if (epochSecond == RowGenerator.NO_TIME) {
+            return line.append("\\N");
+        }
+        LocalDateTime time = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        line.append(time.getYear()).append('-');
+        twoDigits(line, time.getMonthValue()).append('-');
+        twoDigits(line, time.getDayOfMonth()).append(' ');
+        twoDigits(line, time.getHour()).append(':');
+        twoDigits(line, time.getMinute()).append(':');
+        return twoDigits(line, time.getSecond());
+    }
+    
+    private static StringBuilder twoDigits(StringBuilder line, int value) {
+        return line.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+}
@@ -0,0 +1,217 @@
+package com.yusoph.todo.dataset;
+
+import com.yusoph.todo.entity.Todo;
+import com.yusoph.todo.entity.User;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+
+/**
+ * Fills user and todo rows. Every user index draws from a random stream of its own, derived from the
+ * seed and the index only, so a user's rows do not depend on which thread generates them or in what
+ * order: the same seed and {@code now} give the same dataset at any parallelism.
+ * <p>
+ * Times are epoch seconds (UTC), {@link #NO_TIME} for NULL. The distributions:
+ * <ul>
+ *   <li>users signed up uniformly over the last {@code historyDays};</li>
+ *   <li>todos created since their user signed up, denser towards now;</li>
+ *   <li>20% HIGH, 50% MEDIUM, 30% LOW priority;</li>
+ *   <li>completed with a probability growing from 20% for new todos to 90% after two months,
+ *       a median of 1 (HIGH), 3 (MEDIUM) or 7 (LOW) days after creation;</li>
+ *   <li>55% with a due date, a median of 5 days after creation, from 1 day to a year;</li>
+ *   <li>60% with a description of a median of 240 characters, up to the column's 1000.</li>
+ * </ul>
+ */
+final class RowGenerator {
+    
+    static final long NO_TIME = Long.MIN_VALUE;
+    
+    private static final long DAY = 86_400;
+    private static final int MAX_DESCRIPTION = 1000;
+    
+    private static final String[] FIRST_NAMES = {"Alex", "Sam", "Maria", "John", "Aisha", "Wei", "Olga", "Carlos",
+            "Priya", "Tom", "Yuki", "Fatima", "Lukas", "Emma", "Noah", "Ana", "David", "Sara", "Omar", "Lena"};
+    private static final String[] LAST_NAMES = {"Smith", "Garcia", "Chen", "Kowalski", "Okafor", "Silva", "Nguyen",
+            "Müller", "Santos", "Ivanova", "Khan", "Rossi", "Tanaka", "Johnson", "Dubois", "Haddad", "Novak", "Reyes"};
+    private static final String[] VERBS = {"Buy", "Call", "Email", "Review", "Fix", "Write", "Plan", "Schedule",
+            "Clean", "Pay", "Book", "Update", "Prepare", "Finish", "Read", "Organize", "Renew", "Return", "Order", "Check"};
+    private static final String[] OBJECTS = {"groceries", "the dentist", "quarterly report", "car insurance", "milk",
+            "flight tickets", "pull request", "meeting notes", "tax return", "birthday gift", "garage", "invoice",
+            "project plan", "gym membership", "library books", "team offsite", "kitchen sink", "presentation slides",
+            "rent", "vacation photos"};
+    private static final String[] QUALIFIERS = {"today", "before Friday", "for mom", "with Alex", "this weekend",
+            "(urgent)", "again", "next week", "after work", "for the team"};
+    private static final String[] WORDS = {"the", "and", "to", "check", "with", "before", "after", "meeting", "notes",
+            "budget", "follow", "up", "on", "draft", "send", "list", "items", "remember", "also", "call", "back",
+            "confirm", "details", "about", "schedule", "review", "changes", "from", "last", "week", "client", "team",
+            "update", "document", "attach", "receipts", "ask", "for", "feedback", "price", "compare", "options",
+            "deadline", "moved", "tomorrow", "morning", "evening", "weekend", "store", "pick", "order", "online"};
+    
+    /** One row of {@code users}; reused for every user a writer writes. */
+    static final class UserRow {
+        long id;
+        String username;
+        String email;
+        String password;
+        String firstName;
+        String lastName;
+        String role;
+        long createdAt;
+    }
+    
+    /** One row of {@code todos}; reused for every todo a writer writes. */
+    static final class TodoRow {
+        long id;
+        final StringBuilder title = new StringBuilder(64);
+        final StringBuilder description = new StringBuilder(MAX_DESCRIPTION);
+        boolean hasDescription;
+        boolean completed;
+        String priority;
+        long createdAt;
+        long updatedAt;
+        long dueDate;
+        long userId;
+    }
+    
+    /** Receives each generated row, which is only valid until the next call. */
+    @FunctionalInterface
+    interface RowSink<R> {
+        void accept(R row) throws Exception;
+    }
+    
+    private final long seed;
+    private final long now;
+    private final long history;
+    private final String passwordHash;
+    
+    RowGenerator(long seed, LocalDateTime now, int historyDays, String passwordHash) {
+        this.seed = seed;
+        this.now = now.toEpochSecond(ZoneOffset.UTC);
+        this.history = historyDays * DAY;
+        this.passwordHash = passwordHash;
+    }
+    
+    void user(int index, long id, UserRow row) {
+        SplittableRandom random = random(index);
+        row.id = id;
+        row.createdAt = signedUpAt(random);
+        row.username = "user" + id;
+        row.email = "user" + id + "@example.com";
+        row.password = passwordHash;
+        row.firstName = pick(random, FIRST_NAMES);
+        row.lastName = pick(random, LAST_NAMES);
+        row.role = User.Role.USER.name();
+    }
+    
+    /**
+     * Generates the {@code count} todos of user {@code index}, with ids from {@code firstId} on.
+     */
+    void todos(int index, long userId, long firstId, int count, TodoRow row, RowSink<TodoRow> sink) throws Exception {
+        SplittableRandom random = random(index);
+        // The same first draw as user(), so todos come after their user signed up
+        long signedUpAt = signedUpAt(random);
+        long span = Math.max(1, now - signedUpAt);
+        for (int i = 0; i < count; i++) {
+            row.id = firstId + i;
+            row.userId = userId;
+            row.createdAt = now - (long) (span * square(random.nextDouble()));
+            
+            double p = random.nextDouble();
+            Todo.Priority priority = p < 0.2 ? Todo.Priority.HIGH : p < 0.7 ? Todo.Priority.MEDIUM : Todo.Priority.LOW;
+            row.priority = priority.name();
+            
+            double ageDays = (double) (now - row.createdAt) / DAY;
+            row.completed = random.nextDouble() < 0.2 + 0.7 * Math.min(1, ageDays / 60);
+            if (row.completed) {
+                double medianDays = switch (priority) {
+                    case HIGH -> 1;
+                    case MEDIUM -> 3;
+                    case LOW -> 7;
+                };
+                row.updatedAt = Math.min(now, row.createdAt + (long) (random.nextExponential() * medianDays / Math.log(2) * DAY));
+            } else if (random.nextDouble() < 0.25) {
+                // Edited since
+                row.updatedAt = Math.min(now, row.createdAt + (long) (random.nextExponential() * 2 * DAY));
+            } else {
+                row.updatedAt = row.createdAt;
+            }
+            
+            if (random.nextDouble() < 0.55) {
+                long days = Math.max(1, Math.min(365, Math.round(Math.exp(Math.log(5) + random.nextGaussian()))));
+                // Due at 17:00
+                row.dueDate = Math.floorDiv(row.createdAt, DAY) * DAY + days * DAY + 17 * 3600;
+            } else {
+                row.dueDate = NO_TIME;
+            }
+            
+            title(random, row.title);
+            row.hasDescription = random.nextDouble() < 0.6;
+            if (row.hasDescription) {
+                int length = (int) Math.min(MAX_DESCRIPTION, Math.exp(Math.log(240) + 0.6 * random.nextGaussian()));
+                description(random, Math.max(20, length), row.description);
+            }
+            sink.accept(row);
+        }
+    }
+    
+    private SplittableRandom random(int index) {
+        return new SplittableRandom(mix(seed ^ mix(index)));
+    }
+    
+    // Stafford's mix13: scatters neighbouring indexes over the whole state space, where the streams of
+    // states that differ by SplittableRandom's increment would overlap
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    private long signedUpAt(SplittableRandom random) {
+        return now - random.nextLong(history);
+    }
+    
+    private static void title(SplittableRandom random, StringBuilder title) {
+        title.setLength(0);
+        title.append(pick(random, VERBS)).append(' ').append(pick(random, OBJECTS));
+        if (random.nextDouble() < 0.3) {
+            title.append(' ').append(pick(random, QUALIFIERS));
+        }
+    }
+    
+    // Sentences of 6 to 15 words, cut at a word boundary at or below length
+    private static void description(SplittableRandom random, int length, StringBuilder description) {
+        description.setLength(0);
+        int sentence = 0;
+        while (true) {
+            String word = pick(random, WORDS);
+            int separator = description.isEmpty() ? 0 : 1;
+            if (description.length() + separator + word.length() + 1 > length) {
+                break;
+            }
+            if (separator > 0) {
+                description.append(' ');
+            }
+            if (sentence == 0) {
+                description.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+                sentence = 6 + random.nextInt(10);
+            } else {
+                description.append(word);
+            }
+            if (--sentence == 0) {
+                description.append('.');
+            }
+        }
+        if (!description.isEmpty() && description.charAt(description.length() - 1) != '.') {
+            description.append('.');
+        }
+    }
+    
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+    
+    private static double square(double value) {
+        return value * value;
+    }
+}
@@ -0,0 +1,58 @@
+package com.yusoph.todo.dataset;
+
+import java.util.SplittableRandom;
+
+/**
+ * Spreads a total number of todos over users by Zipf's law: the user of rank {@code r} gets a share
+ * proportional to {@code 1 / r^s}. With the default {@code s = 1} and 100k users, the heaviest user
+ * has about 8% of all todos, the top 1% of users about 60%, and the median user a sixth of the mean.
+ * <p>
+ * Ranks are assigned to user indexes by a seeded shuffle, so heavy users are scattered over the id
+ * range rather than packed at its start.
+ */
+final class ZipfTodoCounts {
+    
+    private ZipfTodoCounts() {
+    }
+    
+    /**
+     * Returns the todo count of each user index; the counts add up to exactly {@code todos}.
+     */
+    static int[] counts(int users, long todos, double exponent, long seed) {
+        double harmonic = 0;
+        for (int rank = 1; rank <= users; rank++) {
+            harmonic += Math.pow(rank, -exponent);
+        }
+        
+        // Shares rounded down; the few todos lost to rounding go one each to the heaviest ranks
+        long[] byRank = new long[users];
+        long assigned = 0;
+        for (int rank = 1; rank <= users; rank++) {
+            byRank[rank - 1] = (long) (todos * Math.pow(rank, -exponent) / harmonic);
+            assigned += byRank[rank - 1];
+        }
+        for (int rank = 0; assigned < todos; rank = (rank + 1) % users, assigned++) {
+            byRank[rank]++;
+        }
+        
+        int[] counts = new int[users];
+        for (int rank = 0; rank < users; rank++) {
+            if (byRank[rank] > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(
+                        "More than " + Integer.MAX_VALUE + " todos for one user: raise --users or lower --zipf-exponent");
+            }
+            counts[rank] = (int) byRank[rank];
+        }
+        shuffle(counts, new SplittableRandom(seed));
+        return counts;
+    }
+    
+    private static void shuffle(int[] values, SplittableRandom random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.yusoph.todo.embedded;
+
+import com.yusoph.todo.dto.AdminTodoResponse;
+import com.yusoph.todo.dto.TodoResponse;
+import com.yusoph.todo.dto.TodoStatsResponse;
+import com.yusoph.todo.entity.Todo;
+import com.yusoph.todo.entity.User;
+import com.yusoph.todo.repository.AdminTodoFilter;
+import com.yusoph.todo.repository.TodoQuery;
+import com.yusoph.todo.repository.TodoSort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class EmbeddedDatabaseTests {
+    
+    @TempDir
+    Path directory;
+    
+    private EmbeddedDatabase database;
+    private EmbeddedUserRepository users;
+    private EmbeddedTodoRepository todos;
+    
+    @AfterEach
+    void close() throws IOException {
+        if (database != null) {
+            database.destroy();
+        }
+    }
+    
+    @Test
+    void recoversFromTheLogAlone() throws IOException {
+        open();
+        User alice = users.save(user("alice"));
+        Todo first = todos.save(todo(alice, "Buy milk", Todo.Priority.HIGH));
+        todos.save(todo(alice, "Walk dog", Todo.Priority.LOW));
+        first.setCompleted(true);
+        todos.save(first);
+        
+        crash();
+        open();
+        
+        assertThat(users.findByUsername("alice")).get().extracting(User::getId).isEqualTo(alice.getId());
+        assertThat(todos.findResponsesByUserId(alice.getId()))
+                .extracting(TodoResponse::getTitle, TodoResponse::getCompleted)
+                .containsExactly(tuple("Buy milk", true),
+                        tuple("Walk dog", false));
+    }
+    
+    @Test
+    void recoversFromSnapshotPlusLaterLog() throws IOException {
+        open();
+        User alice = users.save(user("alice"));
+        todos.save(todo(alice, "Before snapshot", Todo.Priority.MEDIUM));
+        database.snapshot();
+        todos.save(todo(alice, "After snapshot", Todo.Priority.HIGH));
+        
+        crash();
+        open();
+        
+        assertThat(todos.findResponsesByUserId(alice.getId()))
+                .extracting(TodoResponse::getTitle)
+                .containsExactly("Before snapshot", "After snapshot");
+        assertThat(todos.aggregateStatsByUserId(alice.getId()))
+                .isEqualTo(new TodoStatsResponse(2L, 0L, 2L, 1L, 1L, 0L));
+    }
+    
+    @Test
+    void idsAreNotReusedAfterDeletesAndRestart() throws IOException {
+        open();
+        User alice = users.save(user("alice"));
+        Todo deleted = todos.save(todo(alice, "Short-lived", Todo.Priority.LOW));
+        todos.deleteById(deleted.getId());
+        
+        crash();
+        open();
+        
+        assertThat(todos.save(todo(alice, "Next", Todo.Priority.LOW)).getId()).isGreaterThan(deleted.getId());
+    }
+    
+    @Test
+    void deletingAUserDeletesTheirTodos() throws IOException {
+        open();
+        User alice = users.save(user("alice"));
+        User bob = users.save(user("bob"));
+        todos.save(todo(alice, "Alice's", Todo.Priority.LOW));
+        todos.save(todo(bob, "Bob's", Todo.Priority.LOW));
+        users.delete(alice);
+        
+        crash();
+        open();
+        
+        assertThat(todos.findAll()).extracting(Todo::getTitle).containsExactly("Bob's");
+        assertThat(users.existsByUsername("alice")).isFalse();
+    }
+    
+    @Test
+    void accountDeletionMarkSurvivesRestartAndTodosGoInChunks() throws IOException {
+        open();
+        User alice = users.save(user("alice"));
+        for (int i = 0; i < 5; i++) {
+            todos.save(todo(alice, "Todo " + i, Todo.Priority.LOW));
+        }
+        assertThat(users.markForDeletion(alice.getId(), LocalDateTime.of(2024, 1, 1, 12, 0))).isEqualTo(1);
+        assertThat(users.markForDeletion(alice.getId(), LocalDateTime.of(2024, 1, 1, 12, 0))).isZero();
+        
+        crash();
+        open();
+        
+        assertThat(users.findIdsPendingDeletion()).containsExactly(alice.getId());
+        assertThat(users.findById(alice.getId()).orElseThrow().isEnabled()).isFalse();
+        assertThat(todos.deleteChunkByUserId(alice.getId(), 2)).isEqualTo(2);
+        assertThat(todos.deleteChunkByUserId(alice.getId(), 2)).isEqualTo(2);
+        assertThat(todos.deleteChunkByUserId(alice.getId(), 2)).isEqualTo(1);
+        assertThat(todos.deleteChunkByUserId(alice.getId(), 2)).isZero();
+        assertThat(users.deleteRowById(alice.getId())).isEqualTo(1);
+        assertThat(users.findIdsPendingDeletion()).isEmpty();
+    }
+    
+    @Test
+    void tornLogTailIsDiscarded() throws IOException {
+        open();
+        User alice = users.save(user("alice"));
+        todos.save(todo(alice, "Kept", Todo.Priority.LOW));
+        todos.save(todo(alice, "Torn", Todo.Priority.LOW));
+        crash();
+        
+        // Corrupt the last record's checksum, as if the process died mid-write
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.getFileName().toString().startsWith("wal-")).sorted().reduce((a, b) -> b).orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            int position = 0;
+            int last = 0;
+            for (int length = file.readInt(); length != 0; file.seek(position), length = file.readInt()) {
+                last = position;
+                position += 9 + length;
+            }
+            file.seek(last + 4);
+            file.writeInt(0xBAD);
+        }
+        
+        open();
+        assertThat(todos.findAll()).extracting(Todo::getTitle).containsExactly("Kept");
+        todos.save(todo(alice, "After recovery", Todo.Priority.LOW));
+        
+        crash();
+        open();
+        assertThat(todos.findAll()).extracting(Todo::getTitle).containsExactly("Kept", "After recovery");
+    }
+    
+    @Test
+    void enforcesUniqueUsernamesAndTodoOwners() throws IOException {
+        open();
+        users.save(user("alice"));
+        
+        assertThatThrownBy(() -> users.save(user("alice"))).isInstanceOf(DataIntegrityViolationException.class);
+        User ghost = user("ghost");
+        ghost.setId(999L);
+        assertThatThrownBy(() -> todos.save(todo(ghost, "Orphan", Todo.Priority.LOW)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+    
+    @Test
+    void ordersByPriorityThenDueDateWithNullsLast() throws IOException {
+        open();
+        User alice = users.save(user("alice"));
+        Todo noDueDate = todo(alice, "High, no due date", Todo.Priority.HIGH);
+        Todo dueLater = todo(alice, "High, due later", Todo.Priority.HIGH);
+        dueLater.setDueDate(LocalDateTime.of(2030, 1, 2, 0, 0));
+        Todo dueSooner = todo(alice, "High, due sooner", Todo.Priority.HIGH);
+        dueSooner.setDueDate(LocalDateTime.of(2030, 1, 1, 0, 0));
+        todos.saveAll(List.of(todo(alice, "Low", Todo.Priority.LOW), noDueDate, dueLater, dueSooner,
+                todo(alice, "Medium", Todo.Priority.MEDIUM)));
+        
+        assertThat(todos.findResponsesByUserIdOrderedByPriorityAndDueDate(alice.getId()))
+                .extracting(TodoResponse::getTitle)
+                .containsExactly("High, due sooner", "High, due later", "High, no due date", "Medium", "Low");
+    }
+    
+    @Test
+    void listsTodosWithOwnersByCursor() throws IOException {
+        open();
+        User alice = users.save(user("alice"));
+        User bob = users.save(user("bob"));
+        Todo first = todos.save(todo(alice, "Alice 1", Todo.Priority.HIGH));
+        todos.save(todo(bob, "Bob 1", Todo.Priority.HIGH));
+        Todo third = todos.save(todo(alice, "Alice 2", Todo.Priority.LOW));
+        todos.save(todo(alice, "Alice 3", Todo.Priority.HIGH));
+        AdminTodoFilter all = new AdminTodoFilter(null, null, null);
+        
+        assertThat(todos.findWithOwners(all, null, 2))
+                .extracting(AdminTodoResponse::getTitle, AdminTodoResponse::getOwnerUsername, AdminTodoResponse::getOwnerEmail)
+                .containsExactly(tuple("Alice 1", "alice", "alice@example.com"),
+                        tuple("Bob 1", "bob", "bob@example.com"));
+        assertThat(todos.findWithOwners(all, third.getId(), 2))
+                .extracting(AdminTodoResponse::getTitle)
+                .containsExactly("Alice 3");
+        assertThat(todos.findWithOwners(new AdminTodoFilter("alice", false, Todo.Priority.HIGH), first.getId(), 10))
+                .extracting(AdminTodoResponse::getTitle)
+                .containsExactly("Alice 3");
+        assertThat(todos.findWithOwners(new AdminTodoFilter("nobody", null, null), null, 10)).isEmpty();
+    }
+    
+    @Test
+    void queriesTodosByCombinedCriteria() throws IOException {
+        open();
+        User alice = users.save(user("alice"));
+        User bob = users.save(user("bob"));
+        LocalDateTime now = LocalDateTime.now();
+        todos.save(due(todo(alice, "Buy milk", Todo.Priority.HIGH), now.plusDays(3)));
+        todos.save(due(todo(alice, "Buy oat milk", Todo.Priority.LOW), now.plusDays(1)));
+        todos.save(due(todo(alice, "Milk the cow", Todo.Priority.MEDIUM), now.plusDays(30)));
+        todos.save(todo(alice, "Milk, no due date", Todo.Priority.HIGH));
+        todos.save(due(todo(bob, "Bob's milk", Todo.Priority.HIGH), now.plusDays(2)));
+        
+        TodoQuery dueThisWeek = new TodoQuery(alice.getId(), false, EnumSet.of(Todo.Priority.HIGH, Todo.Priority.LOW),
+                now, now.plusDays(7), null, null, "MILK", TodoSort.DUE_DATE, false, null);
+        assertThat(todos.query(dueThisWeek))
+                .extracting(TodoResponse::getTitle)
+                .containsExactly("Buy oat milk", "Buy milk");
+        
+        // Descending due dates put todos without one first, as PostgreSQL does
+        TodoQuery byDueDateDescending = new TodoQuery(alice.getId(), null, null, null, null, null, null, null,
+                TodoSort.DUE_DATE, true, 2);
+        assertThat(todos.query(byDueDateDescending))
+                .extracting(TodoResponse::getTitle)
+                .containsExactly("Milk, no due date", "Milk the cow");
+        
+        TodoQuery byPriority = new TodoQuery(alice.getId(), null, null, null, null, null, null, null,
+                TodoSort.PRIORITY, false, null);
+        assertThat(todos.query(byPriority))
+                .extracting(TodoResponse::getTitle)
+                .containsExactly("Buy milk", "Milk, no due date", "Milk the cow", "Buy oat milk");
+    }
+    
+    private void open() throws IOException {
+        EmbeddedStorageProperties properties = new EmbeddedStorageProperties();
+        properties.setDirectory(directory.toString());
+        properties.setWalSegmentSize(DataSize.ofKilobytes(64));
+        database = new EmbeddedDatabase(properties);
+        users = new EmbeddedUserRepository(database);
+        todos = new EmbeddedTodoRepository(database);
+    }
+    
+    // Drops the engine without its shutdown snapshot, so the next open replays the log
+    private void crash() throws IOException {
+        database.closeWithoutSnapshot();
+        database = null;
+    }
+    
+    private static User user(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("{noop}secret")
+                .role(User.Role.USER)
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .build();
+    }
+    
+    private static Todo todo(User user, String title, Todo.Priority priority) {
+        Todo todo = new Todo(title, null, false, priority, null);
+        todo.setUser(user);
+        return todo;
+    }
+    
+    private static Todo due(Todo todo, LocalDateTime dueDate) {
+        todo.setDueDate(dueDate);
+        return todo;
+    }
+}
@@ -0,0 +1,111 @@
+package com.yusoph.todo.embedded;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+// The whole application on the embedded engine, through the same endpoints the frontend uses
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class EmbeddedTodoEndpointsTests {
+    
+    @TempDir
+    static Path directory;
+    
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        registry.add("embedded-storage.directory", () -> directory.toString());
+    }
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Test
+    void createsReadsUpdatesAndDeletesTodos() throws Exception {
+        String alice = register("alice");
+        
+        MockHttpServletResponse created = perform(alice, post("/api/todos"),
+                "{\"title\":\"Buy milk\",\"priority\":\"HIGH\",\"dueDate\":\"2030-01-01T09:00:00\"}");
+        assertThat(created.getStatus()).isEqualTo(201);
+        long id = json(created).get("id").asLong();
+        
+        JsonNode todos = json(perform(alice, get("/api/todos"), null));
+        assertThat(todos).hasSize(1);
+        assertThat(todos.get(0).get("title").asText()).isEqualTo("Buy milk");
+        assertThat(todos.get(0).get("priority").asText()).isEqualTo("HIGH");
+        
+        MockHttpServletResponse updated = perform(alice, put("/api/todos/" + id), "{\"title\":\"Buy oat milk\"}");
+        assertThat(updated.getStatus()).isEqualTo(200);
+        assertThat(json(updated).get("title").asText()).isEqualTo("Buy oat milk");
+        assertThat(json(updated).get("priority").asText()).isEqualTo("HIGH");
+        
+        MockHttpServletResponse completed = perform(alice, patch("/api/todos/" + id + "/complete"), null);
+        assertThat(json(completed).get("completed").asBoolean()).isTrue();
+        JsonNode stats = json(perform(alice, get("/api/todos/stats"), null));
+        assertThat(stats.get("total").asLong()).isEqualTo(1);
+        assertThat(stats.get("completed").asLong()).isEqualTo(1);
+        assertThat(stats.get("highPriority").asLong()).isEqualTo(1);
+        
+        assertThat(perform(alice, delete("/api/todos/" + id), null).getStatus()).isEqualTo(200);
+        assertThat(perform(alice, get("/api/todos/" + id), null).getStatus()).isEqualTo(404);
+        assertThat(json(perform(alice, get("/api/todos"), null))).isEmpty();
+    }
+    
+    @Test
+    void keepsEachUsersTodosToThemselves() throws Exception {
+        String bob = register("bob");
+        String carol = register("carol");
+        long id = json(perform(bob, post("/api/todos"), "{\"title\":\"Bob's todo\"}")).get("id").asLong();
+        
+        assertThat(json(perform(carol, get("/api/todos"), null))).isEmpty();
+        assertThat(perform(carol, get("/api/todos/" + id), null).getStatus()).isNotEqualTo(200);
+        assertThat(perform(carol, delete("/api/todos/" + id), null).getStatus()).isNotEqualTo(200);
+        assertThat(perform(bob, get("/api/todos/" + id), null).getStatus()).isEqualTo(200);
+    }
+    
+    private String register(String username) throws Exception {
+        MockHttpServletResponse response = perform(null, post("/api/auth/register"),
+                "{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\",\"password\":\"secret123\"}");
+        assertThat(response.getStatus()).isEqualTo(201);
+        return json(response).get("token").asText();
+    }
+    
+    private MockHttpServletResponse perform(String token, MockHttpServletRequestBuilder request, String body) throws Exception {
+        if (token != null) {
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(body);
+        }
+        return mockMvc.perform(request.accept(MediaType.APPLICATION_JSON)).andReturn().getResponse();
+    }
+    
+    private JsonNode json(MockHttpServletResponse response) throws Exception {
+        return objectMapper.readTree(response.getContentAsString());
+    }
+}
@@ -0,0 +1,118 @@
+package com.yusoph.todo.loadshedding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTests {
+    
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(10);
+    
+    // Initial limit 20, LOW routes may hold 12 of it, saturated after 4 updates shedding CORE
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(new LoadSheddingProperties());
+    
+    @Test
+    void shedsLowPriorityRequestsBeforeCoreOnes() {
+        acquire(RequestPriority.LOW, 12);
+        
+        assertThat(limiter.tryAcquire(RequestPriority.LOW)).isFalse();
+        acquire(RequestPriority.CORE, 8);
+        assertThat(limiter.tryAcquire(RequestPriority.CORE)).isFalse();
+        assertThat(limiter.state())
+                .containsEntry("inflight", 20)
+                .containsEntry("shedLowPriority", 1L)
+                .containsEntry("shedCore", 1L);
+        
+        limiter.release();
+        assertThat(limiter.tryAcquire(RequestPriority.LOW)).isFalse();
+        assertThat(limiter.tryAcquire(RequestPriority.CORE)).isTrue();
+    }
+    
+    @Test
+    void growsTheLimitWhileLatencyStaysAtTheBaselineAndTheLimitIsUsed() {
+        acquire(RequestPriority.CORE, 20);
+        
+        for (int i = 0; i < 5; i++) {
+            limiter.recordLatency(FAST);
+            limiter.updateLimit();
+        }
+        
+        assertThat(limit()).isGreaterThan(20);
+    }
+    
+    @Test
+    void keepsTheLimitWhenMostOfItIsUnused() {
+        acquire(RequestPriority.CORE, 2);
+        
+        for (int i = 0; i < 5; i++) {
+            limiter.recordLatency(FAST);
+            limiter.updateLimit();
+        }
+        
+        assertThat(limit()).isEqualTo(20);
+    }
+    
+    @Test
+    void shrinksTheLimitWhenLatencyRisesAboveTheBaseline() {
+        acquire(RequestPriority.CORE, 20);
+        limiter.recordLatency(FAST);
+        limiter.updateLimit();
+        int baseline = limit();
+        
+        for (int i = 0; i < 10; i++) {
+            limiter.recordLatency(SLOW);
+            limiter.updateLimit();
+        }
+        
+        assertThat(limit()).isLessThan(baseline).isGreaterThanOrEqualTo(4);
+    }
+    
+    @Test
+    void reportsSaturationOnlyAfterSustainedCoreShedding() {
+        acquire(RequestPriority.CORE, 20);
+        
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(RequestPriority.CORE)).isFalse();
+            limiter.updateLimit();
+        }
+        assertThat(limiter.isSaturated()).isFalse();
+        
+        // An update without a CORE rejection starts the count again
+        limiter.updateLimit();
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(RequestPriority.CORE);
+            limiter.updateLimit();
+        }
+        assertThat(limiter.isSaturated()).isFalse();
+        
+        limiter.tryAcquire(RequestPriority.CORE);
+        limiter.updateLimit();
+        assertThat(limiter.isSaturated()).isTrue();
+        assertThat(limiter.state()).containsEntry("saturated", true);
+    }
+    
+    @Test
+    void sheddingOnlyLowPriorityRequestsIsNotSaturation() {
+        acquire(RequestPriority.LOW, 12);
+        
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire(RequestPriority.LOW)).isFalse();
+            limiter.updateLimit();
+        }
+        
+        assertThat(limiter.isSaturated()).isFalse();
+    }
+    
+    private void acquire(RequestPriority priority, int count) {
+        for (int i = 0; i < count; i++) {
+            assertThat(limiter.tryAcquire(priority)).isTrue();
+        }
+    }
+    
+    private int limit() {
+        return (int) limiter.state().get("limit");
+    }
+}
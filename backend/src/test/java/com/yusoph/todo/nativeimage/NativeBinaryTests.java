@@ -0,0 +1,231 @@
+package com.yusoph.todo.nativeimage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Black-box tests of the native executable, run by the native profile after it is built
+ * ({@code ./mvnw -Pnative verify}). The binary, named by the {@code native.binary} system property,
+ * is started against PostgreSQL 16 in a container and driven over HTTP only, so every request goes
+ * through code paths that need reachability metadata ({@link com.yusoph.todo.config.NativeRuntimeHints}):
+ * JWT signing and parsing, JSON binding with the flexible date formats, Hibernate entities and
+ * constructor expressions, lazy associations and CBOR.
+ * <p>
+ * Skipped without the property (the regular test run) or without Docker. The binary's output goes
+ * to {@code target/native-binary-tests.log}.
+ */
+@EnabledIfSystemProperty(named = "native.binary", matches = ".+")
+@Testcontainers(disabledWithoutDocker = true)
+class NativeBinaryTests {
+    
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(30);
+    private static final AtomicInteger USERS = new AtomicInteger();
+    
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+    
+    private static final HttpClient HTTP = HttpClient.newHttpClient();
+    private static final ObjectMapper JSON = new ObjectMapper();
+    
+    private static Process app;
+    private static String baseUrl;
+    
+    @BeforeAll
+    static void startBinary() throws Exception {
+        File binary = new File(System.getProperty("native.binary"));
+        assertThat(binary).as("native binary, build it with ./mvnw -Pnative package").isExecutable();
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        baseUrl = "http://localhost:" + port;
+        
+        ProcessBuilder builder = new ProcessBuilder(binary.getAbsolutePath(),
+                "--logging.level.root=WARN", "--spring.jpa.show-sql=false")
+                .redirectErrorStream(true)
+                .redirectOutput(new File(binary.getParentFile(), "native-binary-tests.log"));
+        builder.environment().putAll(Map.of(
+                "SERVER_PORT", String.valueOf(port),
+                "DB_HOST", POSTGRES.getHost(),
+                "DB_PORT", String.valueOf(POSTGRES.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT)),
+                "DB_NAME", POSTGRES.getDatabaseName(),
+                "DB_USERNAME", POSTGRES.getUsername(),
+                "DB_PASSWORD", POSTGRES.getPassword(),
+                "RATE_LIMIT_ENABLED", "false"));
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        app = builder.start();
+        while (!isHealthy()) {
+            assertThat(app.isAlive()).as("native binary exited during startup with %s", app.info()).isTrue();
+            assertThat(System.nanoTime()).as("native binary healthy within %s", STARTUP_TIMEOUT).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+    
+    @AfterAll
+    static void stopBinary() throws InterruptedException {
+        if (app != null) {
+            app.destroy();
+            if (!app.waitFor(10, TimeUnit.SECONDS)) {
+                app.destroyForcibly();
+            }
+        }
+    }
+    
+    @Test
+    void registersAndAuthenticatesWithTheIssuedToken() throws Exception {
+        String token = newUser("native_auth");
+        
+        assertThat(token.split("\\.")).hasSize(3);
+        HttpResponse<String> me = send(get("/api/auth/me", token));
+        assertThat(me.statusCode()).isEqualTo(200);
+        assertThat(json(me).get("username").asText()).startsWith("native_auth");
+        assertThat(send(get("/api/todos", token)).statusCode()).isEqualTo(200);
+        // A signature that does not verify leaves the request anonymous
+        assertThat(send(get("/api/todos", token + "x")).statusCode()).isEqualTo(403);
+    }
+    
+    @Test
+    void acceptsTheFlexibleDateFormats() throws Exception {
+        String token = newUser("native_dates");
+        
+        assertThat(createTodo(token, "2030-01-15").get("dueDate").asText()).isEqualTo("2030-01-15T00:00:00");
+        assertThat(createTodo(token, "2030-01-15T09:30:00+02:00").get("dueDate").asText())
+                .isEqualTo("2030-01-15T07:30:00");
+        HttpResponse<String> invalid = send(post("/api/todos", token,
+                Map.of("title", "Invalid date", "dueDate", "15/01/2030")));
+        assertThat(invalid.statusCode()).isEqualTo(400);
+    }
+    
+    @Test
+    void listsTogglesAndCountsTodos() throws Exception {
+        String token = newUser("native_todos");
+        long id = createTodo(token, "2030-01-15T09:30:00").get("id").asLong();
+        createTodo(token, "2030-02-01");
+        
+        JsonNode todos = json(send(get("/api/todos", token)));
+        assertThat(todos).hasSize(2);
+        assertThat(todos.get(0).get("priority").asText()).isEqualTo("HIGH");
+        assertThat(json(send(get("/api/todos/priority/HIGH", token)))).hasSize(2);
+        
+        HttpResponse<String> toggled = send(request("/api/todos/" + id + "/toggle", token)
+                .method("PATCH", HttpRequest.BodyPublishers.noBody()).build());
+        assertThat(json(toggled).get("completed").asBoolean()).isTrue();
+        
+        JsonNode stats = json(send(get("/api/todos/stats", token)));
+        assertThat(stats.get("total").asLong()).isEqualTo(2);
+        assertThat(stats.get("completed").asLong()).isEqualTo(1);
+        assertThat(stats.get("highPriority").asLong()).isEqualTo(2);
+    }
+    
+    @Test
+    void servesCbor() throws Exception {
+        String token = newUser("native_cbor");
+        createTodo(token, "2030-01-15");
+        
+        HttpResponse<byte[]> response = HTTP.send(request("/api/todos", token)
+                .header("Accept", "application/cbor").GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(
+                contentType -> assertThat(contentType).startsWith("application/cbor"));
+        assertThat(response.body()).isNotEmpty();
+    }
+    
+    @Test
+    void restrictsAdminEndpointsToAdmins() throws Exception {
+        String token = newUser("native_owner");
+        createTodo(token, "2030-01-15");
+        assertThat(send(get("/api/admin/todos", token)).statusCode()).isEqualTo(403);
+        
+        // The admin created by the V1 migration
+        String admin = login("admin", "password123");
+        JsonNode page = json(send(get("/api/admin/todos?owner=" + username(token) + "&size=10", admin)));
+        assertThat(page.get("todos")).hasSize(1);
+        assertThat(page.get("todos").get(0).get("ownerUsername").asText()).startsWith("native_owner");
+    }
+    
+    private static boolean isHealthy() {
+        try {
+            return send(HttpRequest.newBuilder(URI.create(baseUrl + "/health")).GET().build()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    // Registers a new user and returns its JWT
+    private static String newUser(String prefix) throws Exception {
+        String username = prefix + USERS.incrementAndGet();
+        HttpResponse<String> registered = send(post("/api/auth/register", null, Map.of(
+                "username", username, "email", username + "@native.test", "password", "password123")));
+        assertThat(registered.statusCode()).isEqualTo(201);
+        return login(username, "password123");
+    }
+    
+    private static String login(String username, String password) throws Exception {
+        HttpResponse<String> response = send(post("/api/auth/login", null,
+                Map.of("username", username, "password", password)));
+        assertThat(response.statusCode()).isEqualTo(200);
+        return json(response).get("token").asText();
+    }
+    
+    private static String username(String token) throws Exception {
+        return json(send(get("/api/auth/me", token))).get("username").asText();
+    }
+    
+    private static JsonNode createTodo(String token, String dueDate) throws Exception {
+        HttpResponse<String> response = send(post("/api/todos", token, Map.of(
+                "title", "Due " + dueDate, "description", "Created by NativeBinaryTests",
+                "priority", "HIGH", "dueDate", dueDate)));
+        assertThat(response.statusCode()).isEqualTo(201);
+        return json(response);
+    }
+    
+    private static HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path));
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+    
+    private static HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+    
+    private static HttpRequest post(String path, String token, Map<String, ?> body) throws IOException {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body)))
+                .build();
+    }
+    
+    private static HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return HTTP.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+    
+    private static JsonNode json(HttpResponse<String> response) throws IOException {
+        assertThat(response.statusCode()).as(response.body()).isLessThan(300);
+        return JSON.readTree(response.body());
+    }
+}
@@ -0,0 +1,126 @@
+package com.yusoph.todo.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.yusoph.todo.security.JwtTokenProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTests {
+    
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final String OTHER_SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+    
+    private final JwtTokenProvider tokens = tokenProvider(SECRET);
+    private final RateLimitFilter filter = new RateLimitFilter(properties(),
+            new ObjectMapper().registerModule(new JavaTimeModule()));
+    
+    @Test
+    void keysRequestsByTheTokenSubjectBeforeAuthentication() throws Exception {
+        String alice = token(tokens, "alice");
+        
+        assertThat(send("GET", "/api/todos", alice, "10.0.0.1").passed()).isTrue();
+        assertThat(send("GET", "/api/todos", alice, "10.0.0.2").passed()).isTrue();
+        Result rejected = send("GET", "/api/todos", alice, "10.0.0.3");
+        
+        // Rejected without reaching the rest of the chain, so no user lookup was made
+        assertThat(rejected.passed()).isFalse();
+        assertThat(rejected.response().getStatus()).isEqualTo(429);
+        assertThat(rejected.response().getHeader("Retry-After")).isEqualTo("30");
+        assertThat(rejected.response().getHeader("RateLimit-Remaining")).isEqualTo("0");
+        assertThat(send("GET", "/api/todos", token(tokens, "bob"), "10.0.0.3").passed()).isTrue();
+    }
+    
+    @Test
+    void forgedTokensShareTheSubjectsBucket() throws Exception {
+        String forged = token(tokenProvider(OTHER_SECRET), "alice");
+        
+        assertThat(send("GET", "/api/todos", forged, "10.0.0.1").passed()).isTrue();
+        assertThat(send("GET", "/api/todos", token(tokens, "alice"), "10.0.0.2").passed()).isTrue();
+        // The signature is left to JwtAuthenticationFilter, so a forged subject gets no bucket of its own
+        assertThat(send("GET", "/api/todos", forged, "10.0.0.3").passed()).isFalse();
+    }
+    
+    @Test
+    void keysMissingOrMalformedTokensByClientIp() throws Exception {
+        assertThat(send("GET", "/api/todos", null, "10.0.0.1").passed()).isTrue();
+        assertThat(send("GET", "/api/todos", "not-a-jwt", "10.0.0.1").passed()).isTrue();
+        assertThat(send("GET", "/api/todos", "not.a.jwt", "10.0.0.1").passed()).isFalse();
+        assertThat(send("GET", "/api/todos", token(tokens, "alice"), "10.0.0.1").passed()).isTrue();
+    }
+    
+    @Test
+    void keysLoginByClientIpEvenWithAToken() throws Exception {
+        assertThat(send("POST", "/api/auth/login", token(tokens, "alice"), "10.0.0.1").passed()).isTrue();
+        assertThat(send("POST", "/api/auth/login", token(tokens, "bob"), "10.0.0.1").passed()).isFalse();
+        assertThat(send("POST", "/api/auth/login", null, "10.0.0.2").passed()).isTrue();
+    }
+    
+    @Test
+    void groupsHaveSeparateBuckets() throws Exception {
+        String alice = token(tokens, "alice");
+        send("GET", "/api/todos", alice, "10.0.0.1");
+        send("GET", "/api/todos", alice, "10.0.0.1");
+        
+        Result write = send("POST", "/api/todos", alice, "10.0.0.1");
+        
+        assertThat(write.passed()).isTrue();
+        assertThat(write.response().getHeader("RateLimit-Limit")).isEqualTo("300");
+    }
+    
+    @Test
+    void ignoresRoutesOutsideTheApi() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(send("GET", "/health", null, "10.0.0.1").passed()).isTrue();
+        }
+    }
+    
+    private record Result(boolean passed, MockHttpServletResponse response) {
+    }
+    
+    private Result send(String method, String uri, String token, String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(ip);
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return new Result(chain.getRequest() != null, response);
+    }
+    
+    // Two reads, one login per minute; the other groups keep the 300 / minute default
+    private static RateLimitProperties properties() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getGroups().put(RateLimitGroup.TODO_READ, limit(2));
+        properties.getGroups().put(RateLimitGroup.AUTH, limit(1));
+        return properties;
+    }
+    
+    private static RateLimitProperties.Limit limit(int capacity) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setPeriod(Duration.ofMinutes(1));
+        return limit;
+    }
+    
+    private static JwtTokenProvider tokenProvider(String secret) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "secret", secret);
+        ReflectionTestUtils.setField(provider, "expiration", 60_000L);
+        return provider;
+    }
+    
+    private static String token(JwtTokenProvider provider, String username) {
+        return provider.generateToken(User.withUsername(username).password("password").build());
+    }
+}
@@ -0,0 +1,78 @@
+package com.yusoph.todo.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTests {
+    
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    
+    @Test
+    void allowsABurstOfCapacityThenRejectsUntilATokenIsEmitted() {
+        TokenBucket bucket = new TokenBucket(0);
+        
+        for (int i = 0; i < 3; i++) {
+            TokenBucket.Decision decision = bucket.tryConsume(0, 3, SECOND);
+            assertThat(decision.allowed()).isTrue();
+            assertThat(decision.remaining()).isEqualTo(2 - i);
+        }
+        TokenBucket.Decision rejected = bucket.tryConsume(0, 3, SECOND);
+        
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.remaining()).isZero();
+        assertThat(rejected.retryAfterNanos()).isEqualTo(SECOND);
+        assertThat(bucket.tryConsume(SECOND - 1, 3, SECOND).allowed()).isFalse();
+        assertThat(bucket.tryConsume(SECOND, 3, SECOND).allowed()).isTrue();
+    }
+    
+    @Test
+    void isIdleOnceFullyRefilled() {
+        TokenBucket bucket = new TokenBucket(0);
+        bucket.tryConsume(0, 3, SECOND);
+        bucket.tryConsume(0, 3, SECOND);
+        
+        assertThat(bucket.isIdle(SECOND)).isFalse();
+        assertThat(bucket.isIdle(2 * SECOND)).isTrue();
+    }
+    
+    @Test
+    void storeSpreadsClientsBeyondMaxKeysOverOverflowStripes() {
+        TokenBucketStore store = new TokenBucketStore(1, 0);
+        TokenBucket tracked = store.bucketFor("ip:10.0.0.1", 0);
+        String first = "ip:10.0.0.2";
+        String second = differentStripe(first);
+        
+        TokenBucket overflow = store.bucketFor(first, 0);
+        
+        assertThat(store.bucketFor("ip:10.0.0.1", 0)).isSameAs(tracked);
+        assertThat(overflow).isNotSameAs(tracked);
+        assertThat(store.bucketFor(first, 0)).isSameAs(overflow);
+        assertThat(store.bucketFor(second, 0)).isNotSameAs(overflow);
+        assertThat(store.size()).isEqualTo(1);
+    }
+    
+    @Test
+    void storeEvictsIdleBucketsAndTracksNewClientsAgain() {
+        TokenBucketStore store = new TokenBucketStore(1, 0);
+        store.bucketFor("ip:10.0.0.1", 0).tryConsume(0, 3, SECOND);
+        
+        assertThat(store.evictIdle(0)).isZero();
+        assertThat(store.evictIdle(SECOND)).isEqualTo(1);
+        assertThat(store.size()).isZero();
+        store.bucketFor("ip:10.0.0.2", SECOND);
+        assertThat(store.size()).isEqualTo(1);
+    }
+    
+    private static String differentStripe(String key) {
+        int stripe = Math.floorMod(key.hashCode(), TokenBucketStore.OVERFLOW_STRIPES);
+        for (int i = 3; ; i++) {
+            String candidate = "ip:10.0.0." + i;
+            if (Math.floorMod(candidate.hashCode(), TokenBucketStore.OVERFLOW_STRIPES) != stripe) {
+                return candidate;
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.yusoph.todo.repository;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Names the repository method whose plan a test checks; {@link RepositoryPlanCoverageTests} requires one
+ * for every method of the repositories.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@interface PlanOf {
+    
+    String value();
+}
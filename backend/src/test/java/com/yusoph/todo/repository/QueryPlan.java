@@ -0,0 +1,74 @@
+package com.yusoph.todo.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The output of {@code EXPLAIN (FORMAT JSON)} for one statement, flattened into its plan nodes.
+ */
+record QueryPlan(String sql, JsonNode root) {
+    
+    private static final ObjectMapper JSON = new ObjectMapper();
+    
+    static QueryPlan parse(String sql, String explainJson) {
+        try {
+            return new QueryPlan(sql, JSON.readTree(explainJson).get(0).get("Plan"));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Not EXPLAIN (FORMAT JSON) output: " + explainJson, e);
+        }
+    }
+    
+    List<JsonNode> nodes() {
+        List<JsonNode> nodes = new ArrayList<>();
+        collect(root, nodes);
+        return nodes;
+    }
+    
+    private static void collect(JsonNode node, List<JsonNode> nodes) {
+        nodes.add(node);
+        JsonNode children = node.get("Plans");
+        if (children != null) {
+            children.forEach(child -> collect(child, nodes));
+        }
+    }
+    
+    List<String> nodeTypes() {
+        return nodes().stream().map(node -> node.get("Node Type").asText()).toList();
+    }
+    
+    // Relations read by a sequential scan
+    List<String> seqScans() {
+        return nodes().stream()
+                .filter(node -> node.get("Node Type").asText().equals("Seq Scan"))
+                .map(node -> node.get("Relation Name").asText())
+                .toList();
+    }
+    
+    // Relations read by any scan, once per scan
+    List<String> relations() {
+        return nodes().stream()
+                .filter(node -> node.has("Relation Name"))
+                .map(node -> node.get("Relation Name").asText())
+                .toList();
+    }
+    
+    // Indexes read by index, index-only and bitmap index scans
+    List<String> indexes() {
+        return nodes().stream()
+                .filter(node -> node.has("Index Name"))
+                .map(node -> node.get("Index Name").asText())
+                .toList();
+    }
+    
+    boolean sorts() {
+        return nodeTypes().stream().anyMatch(type -> type.equals("Sort") || type.equals("Incremental Sort"));
+    }
+    
+    @Override
+    public String toString() {
+        return sql + "\n" + root.toPrettyString();
+    }
+}
@@ -0,0 +1,195 @@
+package com.yusoph.todo.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plan-regression tests: PostgreSQL 16 in a container (the version of docker-compose.yml), created by
+ * the Flyway migrations so the indexes under test are the ones that ship, and seeded once per JVM with
+ * a production-like distribution. Subclasses run a repository method and assert on
+ * the {@code EXPLAIN (FORMAT JSON)} plan of the statement it sent, planned for the values it bound.
+ * Without Docker the tests are skipped.
+ * <p>
+ * Every table the repositories read is large enough that a sequential scan is a real cost:
+ * {@value #USERS} users, {@value #TODOS} todos spread over them by a power law (a few heavy users, a
+ * long tail of light ones), and the completed todos older than the archive's 30 days moved to
+ * {@code todos_archive}, as the archiver leaves them.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryPlanTestSupport.RecordingConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+abstract class QueryPlanTestSupport {
+    
+    static final int USERS = 20_000;
+    static final int TODOS = 300_000;
+    static final int PENDING_DELETIONS = 3;
+    
+    // Started once and shared by every plan test class; Ryuk removes it when the JVM exits
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+    
+    static {
+        POSTGRES.start();
+        seed();
+    }
+    
+    @TestConfiguration
+    static class RecordingConfiguration {
+        
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? RecordingDataSource.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @BeforeEach
+    void clearExecutions() {
+        RecordingDataSource.clear();
+    }
+    
+    private static void seed() {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load()
+                .migrate();
+        try (Connection connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(),
+                POSTGRES.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("SELECT setseed(0.46)");
+            statement.execute("""
+                    INSERT INTO users (username, email, password, role, enabled, deletion_requested_at)
+                    SELECT 'user' || g, 'user' || g || '@example.com', 'x', 'USER', g > %d,
+                           CASE WHEN g <= %d THEN now() END
+                    FROM generate_series(1, %d) g""".formatted(PENDING_DELETIONS, PENDING_DELETIONS, USERS));
+            // Created every 3 minutes back from now; a third completed an hour after creation, a
+            // quarter without a due date, a tenth with "milk" in the title
+            statement.execute("""
+                    INSERT INTO todos (title, description, completed, priority, created_at, updated_at, due_date, user_id)
+                    SELECT 'Todo ' || g || CASE WHEN g %% 10 = 0 THEN ' milk' ELSE '' END,
+                           CASE WHEN g %% 2 = 0 THEN repeat('d', 200) END,
+                           g %% 3 = 0,
+                           (ARRAY['LOW', 'MEDIUM', 'HIGH'])[1 + g %% 3],
+                           created,
+                           created + interval '1 hour',
+                           CASE WHEN g %% 4 <> 0 THEN created + (g %% 30) * interval '1 day' END,
+                           (SELECT min(id) FROM users WHERE role = 'USER') + floor(power(random(), 3) * %d)::bigint
+                    FROM (SELECT g, now() - (g * interval '3 minutes') AS created
+                          FROM generate_series(1, %d) g) s""".formatted(USERS, TODOS));
+            statement.execute("""
+                    WITH moved AS (
+                        DELETE FROM todos WHERE completed AND COALESCE(updated_at, created_at) < now() - interval '30 days'
+                        RETURNING id, title, description, completed, priority, created_at, updated_at, due_date, user_id)
+                    INSERT INTO todos_archive (id, title, description, completed, priority, created_at, updated_at,
+                                               due_date, user_id, archived_at)
+                    SELECT id, title, description, completed, priority, created_at, updated_at, due_date, user_id, now()
+                    FROM moved""");
+            statement.execute("VACUUM ANALYZE");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Seeding the plan-test database failed", e);
+        }
+    }
+    
+    // A heavy but not the heaviest user: hundreds of todos, well under 1% of the table
+    protected long activeUserId() {
+        return new JdbcTemplate(dataSource).queryForObject(
+                "SELECT user_id FROM todos GROUP BY user_id ORDER BY count(*) DESC OFFSET 10 LIMIT 1", Long.class);
+    }
+    
+    /**
+     * Runs {@code action} without executing its statement and returns the statement's plan. For methods
+     * that send a single statement; nothing is read or written.
+     */
+    protected QueryPlan planOf(Runnable action) {
+        List<RecordingDataSource.Execution> executions = RecordingDataSource.dryRun(action);
+        assertThat(executions).as("statements sent").hasSize(1);
+        return explain(executions.get(0));
+    }
+    
+    /**
+     * Runs {@code action} for real and returns the plans of every statement it sent, in order. For
+     * methods whose later statements depend on the results of earlier ones.
+     */
+    protected List<QueryPlan> plansOf(Runnable action) {
+        RecordingDataSource.clear();
+        action.run();
+        List<RecordingDataSource.Execution> executions = RecordingDataSource.executions();
+        List<QueryPlan> plans = new ArrayList<>(executions.size());
+        for (RecordingDataSource.Execution execution : executions) {
+            plans.add(explain(execution));
+        }
+        return plans;
+    }
+    
+    // No table read in full
+    protected static void assertIndexed(QueryPlan plan) {
+        assertThat(plan.seqScans()).as("sequential scans in %s", plan).isEmpty();
+    }
+    
+    // No table read in full, and rows come in index order rather than through a sort
+    protected static void assertIndexOrdered(QueryPlan plan) {
+        assertIndexed(plan);
+        assertThat(plan.sorts()).as("sorts in %s", plan).isFalse();
+    }
+    
+    // Admin-wide reads of a large share of one table, where one sequential pass is the cheapest plan
+    // and accepted; it must stay one pass over that table only
+    protected static void assertSinglePassOver(QueryPlan plan, String table) {
+        assertThat(plan.relations()).as("relations read in %s", plan).containsExactly(table);
+    }
+    
+    // On a connection of its own, with the statement's bindings replayed. Custom plans only: a plan
+    // cached generically after a few runs would not depend on the values under test.
+    private QueryPlan explain(RecordingDataSource.Execution execution) {
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET plan_cache_mode = force_custom_plan");
+            }
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + execution.sql())) {
+                for (RecordingDataSource.Binding binding : execution.bindings()) {
+                    binding.applyTo(explain);
+                }
+                try (ResultSet result = explain.executeQuery()) {
+                    result.next();
+                    return QueryPlan.parse(execution.sql(), result.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("EXPLAIN failed for " + execution.sql(), e);
+        }
+    }
+}
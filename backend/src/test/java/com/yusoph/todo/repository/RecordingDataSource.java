@@ -0,0 +1,155 @@
+package com.yusoph.todo.repository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Wraps a {@link DataSource} to record every prepared statement executed through it, with the values
+ * bound to it, so plan tests can EXPLAIN a repository method's statement with the very parameters
+ * PostgreSQL would plan it for.
+ * <p>
+ * In a {@link #dryRun dry run} the first statement is recorded and then fails with {@link DryRun}
+ * instead of executing: admin-wide reads return no rows to map, and deletes delete nothing.
+ */
+final class RecordingDataSource {
+    
+    /**
+     * A parameter setter call, such as {@code setLong(1, 42)}, to replay on the EXPLAIN statement.
+     */
+    record Binding(Method setter, Object[] args) {
+        
+        void applyTo(PreparedStatement statement) throws SQLException {
+            try {
+                setter.invoke(statement, args);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sql) {
+                    throw sql;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+    
+    record Execution(String sql, List<Binding> bindings) {
+    }
+    
+    static final class DryRun extends SQLException {
+        
+        private DryRun() {
+            super("Not executed: plan test dry run");
+        }
+    }
+    
+    private static final List<Execution> EXECUTIONS = new CopyOnWriteArrayList<>();
+    private static volatile boolean dryRun;
+    
+    private RecordingDataSource() {
+    }
+    
+    static DataSource wrap(DataSource target) {
+        return proxy(DataSource.class, target, (method, args, call) ->
+                method.getName().equals("getConnection") ? connection((Connection) call.proceed()) : call.proceed());
+    }
+    
+    static void clear() {
+        EXECUTIONS.clear();
+    }
+    
+    static List<Execution> executions() {
+        return List.copyOf(EXECUTIONS);
+    }
+    
+    /**
+     * Runs {@code action} with statements recorded but not executed, and returns what was recorded:
+     * as the first statement fails, at most one. The {@code DryRun} failure is expected and swallowed;
+     * any other failure is rethrown.
+     */
+    static List<Execution> dryRun(Runnable action) {
+        clear();
+        dryRun = true;
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            if (!causedByDryRun(e)) {
+                throw e;
+            }
+        } finally {
+            dryRun = false;
+        }
+        return executions();
+    }
+    
+    private static boolean causedByDryRun(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DryRun) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static Connection connection(Connection target) {
+        return proxy(Connection.class, target, (method, args, call) ->
+                method.getName().equals("prepareStatement")
+                        ? statement((PreparedStatement) call.proceed(), (String) args[0])
+                        : call.proceed());
+    }
+    
+    private static PreparedStatement statement(PreparedStatement target, String sql) {
+        List<Binding> bindings = new ArrayList<>();
+        return proxy(PreparedStatement.class, target, (method, args, call) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bindings.add(new Binding(method, args.clone()));
+            } else if (name.equals("clearParameters")) {
+                bindings.clear();
+            } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                EXECUTIONS.add(new Execution(sql, List.copyOf(bindings)));
+                if (dryRun) {
+                    throw new DryRun();
+                }
+            }
+            return call.proceed();
+        });
+    }
+    
+    @FunctionalInterface
+    private interface Call {
+        Object proceed() throws Throwable;
+    }
+    
+    @FunctionalInterface
+    private interface Interceptor {
+        Object intercept(Method method, Object[] args, Call call) throws Throwable;
+    }
+    
+    // equals and hashCode stay with the proxy, so it is one object to its callers
+    private static <T> T proxy(Class<T> type, T target, Interceptor interceptor) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            return interceptor.intercept(method, args, () -> {
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }));
+    }
+}
@@ -0,0 +1,42 @@
+package com.yusoph.todo.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every method declared by the repositories, custom fragment included, has its plan checked by a
+ * {@link PlanOf} test, so a new query cannot ship without one. Runs without Docker.
+ */
+class RepositoryPlanCoverageTests {
+    
+    private static final Set<Class<?>> REPOSITORIES = Set.of(
+            TodoRepository.class, TodoRepositoryCustom.class, UserRepository.class);
+    
+    private static final Set<Class<?>> PLAN_TESTS = Set.of(
+            TodoRepositoryPlanTests.class, TodoQueryPlanTests.class, UserRepositoryPlanTests.class);
+    
+    @Test
+    void everyRepositoryMethodHasAPlanTest() {
+        Set<String> declared = REPOSITORIES.stream()
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods()))
+                .filter(method -> !method.isSynthetic() && !method.isDefault())
+                .map(Method::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Set<String> planned = PLAN_TESTS.stream()
+                .flatMap(test -> Stream.of(test.getDeclaredMethods()))
+                .filter(method -> method.isAnnotationPresent(PlanOf.class))
+                .map(method -> method.getAnnotation(PlanOf.class).value())
+                .collect(Collectors.toCollection(TreeSet::new));
+        
+        assertThat(planned).as("methods with a plan test").containsAll(declared);
+        assertThat(declared).as("methods named by @PlanOf").containsAll(planned);
+    }
+}
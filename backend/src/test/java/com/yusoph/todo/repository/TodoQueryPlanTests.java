@@ -0,0 +1,95 @@
+package com.yusoph.todo.repository;
+
+import com.yusoph.todo.entity.Todo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plans of {@link TodoRepositoryCustom#query}: a user's todos are always found through a user-leading
+ * index, and the id, creation and due-date orders come straight from the index, without a sort.
+ */
+class TodoQueryPlanTests extends QueryPlanTestSupport {
+    
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    
+    @Autowired
+    private TodoRepository todoRepository;
+    
+    @Test
+    @PlanOf("query")
+    void pagesByIdFromTheUserIdIndex() {
+        QueryPlan plan = plan(query(TodoSort.ID, false).withLimit(50));
+        
+        assertThat(plan.seqScans()).as(plan.toString()).isEmpty();
+        assertThat(plan.sorts()).as(plan.toString()).isFalse();
+        assertThat(plan.indexes()).as(plan.toString()).containsExactly("idx_todos_user_id_id");
+    }
+    
+    @Test
+    @PlanOf("query")
+    void readsACreatedRangeNewestFirstFromTheCreatedIndex() {
+        TodoQuery query = new TodoQuery(null, null, null, null, null, NOW.minusDays(30), NOW, null,
+                TodoSort.CREATED_AT, true, 10);
+        QueryPlan plan = plan(query);
+        
+        assertThat(plan.seqScans()).as(plan.toString()).isEmpty();
+        assertThat(plan.sorts()).as(plan.toString()).isFalse();
+        assertThat(plan.indexes()).as(plan.toString()).containsExactly("idx_todos_user_created");
+    }
+    
+    @Test
+    @PlanOf("query")
+    void readsADueRangeInDueOrderFromTheDueIndex() {
+        TodoQuery query = new TodoQuery(null, null, null, NOW.minusDays(60), NOW.plusDays(7), null, null, null,
+                TodoSort.DUE_DATE, false, 10);
+        QueryPlan plan = plan(query);
+        
+        assertThat(plan.seqScans()).as(plan.toString()).isEmpty();
+        assertThat(plan.sorts()).as(plan.toString()).isFalse();
+        assertThat(plan.indexes()).as(plan.toString()).containsExactly("idx_todos_user_due");
+    }
+    
+    @Test
+    @PlanOf("query")
+    void sortsByDueDateDescendingWithABackwardScan() {
+        QueryPlan plan = plan(query(TodoSort.DUE_DATE, true).withLimit(20));
+        
+        assertThat(plan.seqScans()).as(plan.toString()).isEmpty();
+        assertThat(plan.sorts()).as(plan.toString()).isFalse();
+    }
+    
+    @Test
+    @PlanOf("query")
+    void combinesEveryFilterWithoutScanningTheTable() {
+        TodoQuery query = new TodoQuery(null, false, EnumSet.of(Todo.Priority.HIGH, Todo.Priority.MEDIUM),
+                NOW.minusDays(10), NOW.plusDays(10), NOW.minusDays(60), NOW, "milk", TodoSort.DUE_DATE, false, 100);
+        QueryPlan plan = plan(query);
+        
+        assertThat(plan.seqScans()).as(plan.toString()).isEmpty();
+        assertThat(plan.indexes()).as(plan.toString()).anyMatch(index -> index.startsWith("idx_todos_user_"));
+    }
+    
+    // The priority rank is computed, so it is sorted, but only over the one user's rows
+    @Test
+    @PlanOf("query")
+    void sortsOnlyTheUsersRowsByPriority() {
+        QueryPlan plan = plan(query(TodoSort.PRIORITY, false));
+        
+        assertThat(plan.seqScans()).as(plan.toString()).isEmpty();
+        assertThat(plan.indexes()).as(plan.toString()).anyMatch(index -> index.startsWith("idx_todos_user_"));
+    }
+    
+    private TodoQuery query(TodoSort sort, boolean descending) {
+        return new TodoQuery(null, null, null, null, null, null, null, null, sort, descending, null);
+    }
+    
+    private QueryPlan plan(TodoQuery query) {
+        TodoQuery forUser = query.forUser(activeUserId());
+        return planOf(() -> todoRepository.query(forUser));
+    }
+}
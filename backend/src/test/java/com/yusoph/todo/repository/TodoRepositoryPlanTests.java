@@ -0,0 +1,308 @@
+package com.yusoph.todo.repository;
+
+import com.yusoph.todo.dto.TodoField;
+import com.yusoph.todo.entity.Todo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plans of every {@link TodoRepository} method. A user's todos are always found through a user-leading
+ * index, lookups by id through the primary key, and the archiver's batches through its partial index.
+ * Admin-wide reads that match a large share of all todos are allowed one sequential pass.
+ */
+class TodoRepositoryPlanTests extends QueryPlanTestSupport {
+    
+    private static final int CHUNK = 1000;
+    
+    @Autowired
+    private TodoRepository todoRepository;
+    
+    private long userId;
+    private final LocalDateTime now = LocalDateTime.now();
+    
+    @BeforeEach
+    void pickUser() {
+        userId = activeUserId();
+    }
+    
+    // A user's todos
+    
+    @Test
+    @PlanOf("findByUserId")
+    void findByUserId() {
+        assertIndexed(planOf(() -> todoRepository.findByUserId(userId)));
+    }
+    
+    @Test
+    @PlanOf("findByUserIdAndCompleted")
+    void findByUserIdAndCompleted() {
+        assertIndexed(planOf(() -> todoRepository.findByUserIdAndCompleted(userId, false)));
+    }
+    
+    @Test
+    @PlanOf("findByUserIdAndPriority")
+    void findByUserIdAndPriority() {
+        assertIndexed(planOf(() -> todoRepository.findByUserIdAndPriority(userId, Todo.Priority.HIGH)));
+    }
+    
+    // The computed priority rank is sorted, but only over the user's rows
+    @Test
+    @PlanOf("findAllByUserIdOrderedByPriorityAndDueDate")
+    void findAllByUserIdOrderedByPriorityAndDueDate() {
+        assertIndexed(planOf(() -> todoRepository.findAllByUserIdOrderedByPriorityAndDueDate(userId)));
+    }
+    
+    @Test
+    @PlanOf("findResponsesByUserId")
+    void findResponsesByUserId() {
+        assertIndexed(planOf(() -> todoRepository.findResponsesByUserId(userId)));
+    }
+    
+    // The bootstrap's first page: in (user_id, id) order, cut off at the page size
+    @Test
+    @PlanOf("findResponsesByUserId")
+    void findResponsesByUserIdFirstPage() {
+        assertIndexOrdered(planOf(() -> todoRepository.findResponsesByUserId(userId,
+                PageRequest.of(0, 50, Sort.by("id")))));
+    }
+    
+    @Test
+    @PlanOf("findResponsesByUserIdOrderedByPriorityAndDueDate")
+    void findResponsesByUserIdOrderedByPriorityAndDueDate() {
+        assertIndexed(planOf(() -> todoRepository.findResponsesByUserIdOrderedByPriorityAndDueDate(userId)));
+    }
+    
+    @Test
+    @PlanOf("findResponsesByUserIdAndCompleted")
+    void findResponsesByUserIdAndCompleted() {
+        assertIndexed(planOf(() -> todoRepository.findResponsesByUserIdAndCompleted(userId, false)));
+    }
+    
+    @Test
+    @PlanOf("findResponsesByUserIdAndPriority")
+    void findResponsesByUserIdAndPriority() {
+        assertIndexed(planOf(() -> todoRepository.findResponsesByUserIdAndPriority(userId, Todo.Priority.MEDIUM)));
+    }
+    
+    @Test
+    @PlanOf("aggregateStatsByUserId")
+    void aggregateStatsByUserId() {
+        assertIndexed(planOf(() -> todoRepository.aggregateStatsByUserId(userId)));
+    }
+    
+    @Test
+    @PlanOf("findFields")
+    void findFieldsOfAUser() {
+        assertIndexed(planOf(() -> todoRepository.findFields(EnumSet.of(TodoField.ID, TodoField.TITLE),
+                TodoFilter.forUser(userId), true)));
+    }
+    
+    // Single todos
+    
+    @Test
+    @PlanOf("findResponseById")
+    void findResponseById() {
+        assertIndexed(planOf(() -> todoRepository.findResponseById(42L)));
+    }
+    
+    @Test
+    @PlanOf("findResponseByIdAndUserId")
+    void findResponseByIdAndUserId() {
+        assertIndexed(planOf(() -> todoRepository.findResponseByIdAndUserId(42L, userId)));
+    }
+    
+    // Admin pages
+    
+    // The bootstrap's first page for admins: primary key order, no sort of all todos
+    @Test
+    @PlanOf("findAllResponses")
+    void findAllResponsesFirstPage() {
+        assertIndexOrdered(planOf(() -> todoRepository.findAllResponses(PageRequest.of(0, 50, Sort.by("id")))));
+    }
+    
+    @Test
+    @PlanOf("findWithOwners")
+    void findWithOwners() {
+        assertIndexOrdered(planOf(() -> todoRepository.findWithOwners(new AdminTodoFilter(null, null, null), 1000L, 51)));
+    }
+    
+    // One owner's todos: found through the username and the user's index, then sorted by id
+    @Test
+    @PlanOf("findWithOwners")
+    void findWithOwnersOfOneOwner() {
+        assertIndexed(planOf(() -> todoRepository.findWithOwners(
+                new AdminTodoFilter("user42", false, Todo.Priority.HIGH), null, 51)));
+    }
+    
+    // Admin-wide reads of a large share of all todos
+    
+    @Test
+    @PlanOf("findAllResponses")
+    void findAllResponsesSorted() {
+        assertSinglePassOver(planOf(() -> todoRepository.findAllResponses(Sort.by(Sort.Direction.DESC, "priority")
+                .and(Sort.by(Sort.Direction.ASC, "dueDate")))), "todos");
+    }
+    
+    @Test
+    @PlanOf("findAllOrderedByPriorityAndDueDate")
+    void findAllOrderedByPriorityAndDueDate() {
+        assertSinglePassOver(planOf(() -> todoRepository.findAllOrderedByPriorityAndDueDate()), "todos");
+    }
+    
+    @Test
+    @PlanOf("findByCompleted")
+    void findByCompleted() {
+        assertSinglePassOver(planOf(() -> todoRepository.findByCompleted(false)), "todos");
+    }
+    
+    @Test
+    @PlanOf("findByPriority")
+    void findByPriority() {
+        assertSinglePassOver(planOf(() -> todoRepository.findByPriority(Todo.Priority.HIGH)), "todos");
+    }
+    
+    @Test
+    @PlanOf("findByCompletedAndPriority")
+    void findByCompletedAndPriority() {
+        assertSinglePassOver(planOf(() -> todoRepository.findByCompletedAndPriority(false, Todo.Priority.HIGH)), "todos");
+    }
+    
+    @Test
+    @PlanOf("aggregateStats")
+    void aggregateStats() {
+        assertSinglePassOver(planOf(() -> todoRepository.aggregateStats()), "todos");
+    }
+    
+    // Substring matches cannot use a b-tree index; without a trigram index every title is read
+    @Test
+    @PlanOf("findByTitleContainingIgnoreCase")
+    void findByTitleContainingIgnoreCase() {
+        assertSinglePassOver(planOf(() -> todoRepository.findByTitleContainingIgnoreCase("milk")), "todos");
+    }
+    
+    @Test
+    @PlanOf("findResponsesByTitleLikeIgnoreCase")
+    void findResponsesByTitleContainingIgnoreCase() {
+        assertSinglePassOver(planOf(() -> todoRepository.findResponsesByTitleContainingIgnoreCase("milk")), "todos");
+    }
+    
+    @Test
+    @PlanOf("findFields")
+    void findFieldsByTitle() {
+        assertSinglePassOver(planOf(() -> todoRepository.findFields(EnumSet.of(TodoField.ID),
+                TodoFilter.searchTitle("milk"), false)), "todos");
+    }
+    
+    // Most open todos with a due date are past it, so "overdue" is a large share too
+    @Test
+    @PlanOf("findByDueDateBefore")
+    void findByDueDateBefore() {
+        assertSinglePassOver(planOf(() -> todoRepository.findByDueDateBefore(now)), "todos");
+    }
+    
+    @Test
+    @PlanOf("findOverdueTodos")
+    void findOverdueTodos() {
+        assertSinglePassOver(planOf(() -> todoRepository.findOverdueTodos(now)), "todos");
+    }
+    
+    @Test
+    @PlanOf("findOverdueResponses")
+    void findOverdueResponses() {
+        assertSinglePassOver(planOf(() -> todoRepository.findOverdueResponses(now)), "todos");
+    }
+    
+    @Test
+    @PlanOf("findFields")
+    void findFieldsOverdue() {
+        assertSinglePassOver(planOf(() -> todoRepository.findFields(EnumSet.of(TodoField.ID),
+                TodoFilter.overdue(now), false)), "todos");
+    }
+    
+    // Unused by the application, and no index leads with created_at: a day of todos costs a full pass
+    // and a sort. Kept visible here rather than indexed for no caller.
+    @Test
+    @PlanOf("findTodosCreatedBetween")
+    void findTodosCreatedBetween() {
+        assertSinglePassOver(planOf(() -> todoRepository.findTodosCreatedBetween(now.minusDays(1), now)), "todos");
+    }
+    
+    // Catalog statistics only: neither table is read
+    @Test
+    @PlanOf("estimateStats")
+    void estimateStats() {
+        List<QueryPlan> plans = plansOf(() -> todoRepository.estimateStats());
+        
+        assertThat(plans).isNotEmpty().allSatisfy(plan ->
+                assertThat(plan.relations()).as(plan.toString()).doesNotContain("todos", "todos_archive"));
+    }
+    
+    @Test
+    @PlanOf("estimateArchivedStats")
+    void estimateArchivedStats() {
+        List<QueryPlan> plans = plansOf(() -> todoRepository.estimateArchivedStats());
+        
+        assertThat(plans).isNotEmpty().allSatisfy(plan ->
+                assertThat(plan.relations()).as(plan.toString()).doesNotContain("todos", "todos_archive"));
+    }
+    
+    // Bulk writes
+    
+    @Test
+    @PlanOf("deleteChunkByUserId")
+    void deleteChunkByUserId() {
+        assertIndexed(planOf(() -> todoRepository.deleteChunkByUserId(userId, CHUNK)));
+    }
+    
+    @Test
+    @PlanOf("deleteArchivedChunkByUserId")
+    void deleteArchivedChunkByUserId() {
+        assertIndexed(planOf(() -> todoRepository.deleteArchivedChunkByUserId(userId, CHUNK)));
+    }
+    
+    // Only the todos completed since the last batch qualify; idx_todos_archivable finds them
+    @Test
+    @PlanOf("archiveCompletedBefore")
+    void archiveCompletedBefore() {
+        QueryPlan plan = planOf(() -> todoRepository.archiveCompletedBefore(now.minusDays(30), CHUNK));
+        
+        assertIndexed(plan);
+        assertThat(plan.indexes()).as(plan.toString()).contains("idx_todos_archivable");
+    }
+    
+    // Archive
+    
+    // A few hundred rows: a bitmap scan and a sort may beat reading them in index order
+    @Test
+    @PlanOf("findArchivedResponsesByUserId")
+    void findArchivedResponsesByUserId() {
+        assertIndexed(planOf(() -> todoRepository.findArchivedResponsesByUserId(userId)));
+    }
+    
+    @Test
+    @PlanOf("aggregateArchivedStatsByUserId")
+    void aggregateArchivedStatsByUserId() {
+        assertIndexed(planOf(() -> todoRepository.aggregateArchivedStatsByUserId(userId)));
+    }
+    
+    @Test
+    @PlanOf("findAllArchivedResponses")
+    void findAllArchivedResponses() {
+        assertSinglePassOver(planOf(() -> todoRepository.findAllArchivedResponses()), "todos_archive");
+    }
+    
+    @Test
+    @PlanOf("aggregateArchivedStats")
+    void aggregateArchivedStats() {
+        assertSinglePassOver(planOf(() -> todoRepository.aggregateArchivedStats()), "todos_archive");
+    }
+}
@@ -0,0 +1,73 @@
+package com.yusoph.todo.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plans of every {@link UserRepository} method: each finds its users through the primary key, a unique
+ * constraint or, for pending deletions, the partial index of the few rows that have one.
+ */
+class UserRepositoryPlanTests extends QueryPlanTestSupport {
+    
+    private static final String USERNAME = "user" + USERS / 2;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    @PlanOf("findByUsername")
+    void findByUsername() {
+        assertIndexed(planOf(() -> userRepository.findByUsername(USERNAME)));
+    }
+    
+    @Test
+    @PlanOf("findByEmail")
+    void findByEmail() {
+        assertIndexed(planOf(() -> userRepository.findByEmail(USERNAME + "@example.com")));
+    }
+    
+    @Test
+    @PlanOf("existsByUsername")
+    void existsByUsername() {
+        assertIndexed(planOf(() -> userRepository.existsByUsername(USERNAME)));
+    }
+    
+    @Test
+    @PlanOf("existsByEmail")
+    void existsByEmail() {
+        assertIndexed(planOf(() -> userRepository.existsByEmail(USERNAME + "@example.com")));
+    }
+    
+    @Test
+    @PlanOf("updatePassword")
+    void updatePassword() {
+        assertIndexed(planOf(() -> userRepository.updatePassword(USERNAME, "{noop}secret")));
+    }
+    
+    @Test
+    @PlanOf("markForDeletion")
+    void markForDeletion() {
+        assertIndexed(planOf(() -> userRepository.markForDeletion(42L, LocalDateTime.now())));
+    }
+    
+    @Test
+    @PlanOf("findIdsPendingDeletion")
+    void findIdsPendingDeletion() {
+        QueryPlan plan = planOf(() -> userRepository.findIdsPendingDeletion());
+        
+        assertIndexed(plan);
+        assertThat(plan.indexes()).as(plan.toString()).containsExactly("idx_users_deletion_requested");
+    }
+    
+    // The cascade to todos runs in the foreign key's trigger, which EXPLAIN does not plan; it deletes
+    // through the user-leading todo indexes
+    @Test
+    @PlanOf("deleteRowById")
+    void deleteRowById() {
+        assertIndexed(planOf(() -> userRepository.deleteRowById(42L)));
+    }
+}
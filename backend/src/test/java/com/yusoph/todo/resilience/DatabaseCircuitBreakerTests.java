@@ -0,0 +1,136 @@
+package com.yusoph.todo.resilience;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import javax.sql.DataSource;
+import java.net.ConnectException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatabaseCircuitBreakerTests {
+    
+    private static final RuntimeException OUTAGE = new CannotCreateTransactionException("Could not open JPA EntityManager",
+            new SQLTransientConnectionException("Connection is not available"));
+    
+    private final ResilienceProperties properties = new ResilienceProperties();
+    private final SwitchableDataSource dataSource = new SwitchableDataSource();
+    private DatabaseCircuitBreaker circuitBreaker;
+    
+    @AfterEach
+    void destroy() {
+        if (circuitBreaker != null) {
+            circuitBreaker.destroy();
+        }
+    }
+    
+    @Test
+    void opensAfterConsecutiveOutageFailures() {
+        circuitBreaker = create(dataSource);
+        
+        circuitBreaker.recordFailure(OUTAGE);
+        circuitBreaker.recordFailure(OUTAGE);
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure(OUTAGE);
+        circuitBreaker.recordFailure(OUTAGE);
+        assertThat(circuitBreaker.isOpen()).isFalse();
+        
+        assertThat(circuitBreaker.recordFailure(OUTAGE)).isTrue();
+        assertThat(circuitBreaker.isOpen()).isTrue();
+        assertThat(circuitBreaker.state())
+                .containsEntry("circuit", DatabaseCircuitBreaker.State.OPEN)
+                .containsKey("openSince");
+    }
+    
+    @Test
+    void failingStatementsDoNotCount() {
+        circuitBreaker = create(dataSource);
+        
+        for (int i = 0; i < 5; i++) {
+            assertThat(circuitBreaker.recordFailure(new DataIntegrityViolationException("duplicate key"))).isFalse();
+            assertThat(circuitBreaker.recordFailure(new SQLException("syntax error", "42601"))).isFalse();
+        }
+        
+        assertThat(circuitBreaker.isOpen()).isFalse();
+        assertThat(circuitBreaker.state()).containsEntry("consecutiveFailures", 0);
+    }
+    
+    @Test
+    void recognisesOutagesByTypeOrSqlStateAnywhereInTheCauseChain() {
+        assertThat(DatabaseCircuitBreaker.isOutage(new IllegalStateException(new SQLException("terminated", "08006")))).isTrue();
+        assertThat(DatabaseCircuitBreaker.isOutage(new SQLException("starting up", "57P03"))).isTrue();
+        assertThat(DatabaseCircuitBreaker.isOutage(new RuntimeException(new ConnectException("refused")))).isTrue();
+        assertThat(DatabaseCircuitBreaker.isOutage(new IllegalStateException("no cause"))).isFalse();
+    }
+    
+    @Test
+    void probeClosesTheCircuitOnceTheDatabaseIsReachable() throws Exception {
+        properties.setProbeInterval(Duration.ofMillis(20));
+        circuitBreaker = create(dataSource);
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.recordFailure(OUTAGE);
+        }
+        
+        Thread.sleep(100);
+        assertThat(circuitBreaker.isOpen()).isTrue();
+        
+        dataSource.reachable = true;
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (circuitBreaker.isOpen() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(circuitBreaker.isOpen()).isFalse();
+        assertThat(circuitBreaker.state())
+                .containsEntry("circuit", DatabaseCircuitBreaker.State.CLOSED)
+                .containsEntry("consecutiveFailures", 0)
+                .doesNotContainKey("openSince");
+    }
+    
+    @Test
+    void staysClosedWithoutADataSource() {
+        circuitBreaker = create(null);
+        
+        for (int i = 0; i < 5; i++) {
+            assertThat(circuitBreaker.recordFailure(OUTAGE)).isTrue();
+        }
+        
+        assertThat(circuitBreaker.isEnabled()).isFalse();
+        assertThat(circuitBreaker.isOpen()).isFalse();
+    }
+    
+    private DatabaseCircuitBreaker create(DataSource dataSource) {
+        StaticListableBeanFactory beans = dataSource == null
+                ? new StaticListableBeanFactory()
+                : new StaticListableBeanFactory(Map.of("dataSource", dataSource));
+        return new DatabaseCircuitBreaker(properties, beans.getBeanProvider(DataSource.class));
+    }
+    
+    private static class SwitchableDataSource extends AbstractDataSource {
+        
+        volatile boolean reachable;
+        
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (!reachable) {
+                throw new SQLTransientConnectionException("Connection refused");
+            }
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> method.getName().equals("isValid") ? Boolean.TRUE : null);
+        }
+        
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.yusoph.todo.resilience;
+
+import com.yusoph.todo.dto.UpdateUserRequest;
+import com.yusoph.todo.dto.UserResponse;
+import com.yusoph.todo.entity.User;
+import com.yusoph.todo.exception.DatabaseUnavailableException;
+import com.yusoph.todo.repository.UserRepository;
+import com.yusoph.todo.security.JwtTokenProvider;
+import com.yusoph.todo.service.AccountDeletionService;
+import com.yusoph.todo.service.AuthService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.SQLTransientConnectionException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DegradedModeAspectTests {
+    
+    private static final RuntimeException OUTAGE = new CannotCreateTransactionException("Could not open JPA EntityManager",
+            new SQLTransientConnectionException("Connection is not available"));
+    
+    private final User alice = User.builder()
+            .id(1L)
+            .username("alice")
+            .email("alice@example.com")
+            .password("hash")
+            .firstName("Alice")
+            .lastName("Smith")
+            .role(User.Role.USER)
+            .createdAt(LocalDateTime.of(2024, 3, 1, 10, 0))
+            .build();
+    
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private DatabaseCircuitBreaker circuitBreaker;
+    private AuthService authService;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        ResilienceProperties properties = new ResilienceProperties();
+        // Never reached: the probe interval outlasts every test
+        DataSource dataSource = new DriverManagerDataSource("jdbc:postgresql://localhost:1/unreachable");
+        circuitBreaker = new DatabaseCircuitBreaker(properties,
+                new StaticListableBeanFactory(Map.of("dataSource", dataSource)).getBeanProvider(DataSource.class));
+        SnapshotStore snapshotStore = new SnapshotStore(properties, new Jackson2ObjectMapperBuilder());
+        
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new AuthService(userRepository, mock(PasswordEncoder.class),
+                mock(JwtTokenProvider.class), mock(AuthenticationManager.class), mock(AccountDeletionService.class)));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new DegradedModeAspect(circuitBreaker, snapshotStore));
+        authService = proxyFactory.getProxy();
+        
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+        circuitBreaker.destroy();
+    }
+    
+    @Test
+    void servesTheLastGoodResultWithoutTouchingTheDatabaseWhileOpen() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+        UserResponse fresh = authService.getCurrentUser();
+        assertThat(response.getHeader(DegradedModeAspect.STALE_HEADER)).isNull();
+        
+        open();
+        UserResponse stale = authService.getCurrentUser();
+        
+        assertThat(stale).isEqualTo(fresh).isNotSameAs(fresh);
+        assertThat(response.getHeader(DegradedModeAspect.STALE_HEADER)).isEqualTo("true");
+        assertThat(response.getHeader("Age")).isNotNull();
+        verify(userRepository, times(1)).findByUsername("alice");
+    }
+    
+    @Test
+    void fallsBackToTheSnapshotWhenACallHitsAnOutage() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice)).thenThrow(OUTAGE);
+        UserResponse fresh = authService.getCurrentUser();
+        
+        assertThat(authService.getCurrentUser()).isEqualTo(fresh);
+        assertThat(response.getHeader(DegradedModeAspect.STALE_HEADER)).isEqualTo("true");
+        assertThat(circuitBreaker.isOpen()).isFalse();
+        assertThat(circuitBreaker.state()).containsEntry("consecutiveFailures", 1);
+    }
+    
+    @Test
+    void failsFastWithoutASnapshotOrForWritesWhileOpen() {
+        open();
+        
+        assertThatThrownBy(() -> authService.getCurrentUser()).isInstanceOf(DatabaseUnavailableException.class);
+        assertThatThrownBy(() -> authService.updateUser(new UpdateUserRequest())).isInstanceOf(DatabaseUnavailableException.class);
+        verifyNoInteractions(userRepository);
+    }
+    
+    @Test
+    void failingStatementsAreNotAnsweredFromTheSnapshot() {
+        IllegalStateException failure = new IllegalStateException("query failed");
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice)).thenThrow(failure);
+        authService.getCurrentUser();
+        
+        assertThatThrownBy(() -> authService.getCurrentUser()).isSameAs(failure);
+        assertThat(response.getHeader(DegradedModeAspect.STALE_HEADER)).isNull();
+        assertThat(circuitBreaker.state()).containsEntry("consecutiveFailures", 0);
+    }
+    
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.recordFailure(OUTAGE);
+        }
+        assertThat(circuitBreaker.isOpen()).isTrue();
+    }
+}
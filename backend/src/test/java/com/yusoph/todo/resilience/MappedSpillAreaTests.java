@@ -0,0 +1,81 @@
+package com.yusoph.todo.resilience;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class MappedSpillAreaTests {
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void spillFileIsReadableByItsOwnerOnly() throws Exception {
+        assumeTrue(directory.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        Path existing = Files.createFile(directory.resolve("spill"));
+        Files.setPosixFilePermissions(existing, PosixFilePermissions.fromString("rw-r--r--"));
+        
+        try (MappedSpillArea area = new MappedSpillArea(existing, 64)) {
+            assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(existing))).isEqualTo("rw-------");
+        }
+        try (MappedSpillArea area = new MappedSpillArea(directory.resolve("fresh"), 64)) {
+            assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(directory.resolve("fresh")))).isEqualTo("rw-------");
+        }
+    }
+    
+    @Test
+    void readsBackAppendedEntries() throws Exception {
+        try (MappedSpillArea area = new MappedSpillArea(directory.resolve("spill"), 64)) {
+            long first = area.append(bytes(10, 1));
+            long second = area.append(bytes(20, 2));
+            
+            assertThat(area.read(first, 10)).isEqualTo(bytes(10, 1));
+            assertThat(area.read(second, 20)).isEqualTo(bytes(20, 2));
+        }
+    }
+    
+    @Test
+    void entriesDoNotStraddleTheEndOfTheRing() throws Exception {
+        try (MappedSpillArea area = new MappedSpillArea(directory.resolve("spill"), 64)) {
+            area.append(bytes(50, 1));
+            long wrapped = area.append(bytes(20, 2));
+            
+            assertThat(wrapped).isEqualTo(64);
+            assertThat(area.read(wrapped, 20)).isEqualTo(bytes(20, 2));
+        }
+    }
+    
+    @Test
+    void overwrittenEntriesAreGone() throws Exception {
+        try (MappedSpillArea area = new MappedSpillArea(directory.resolve("spill"), 64)) {
+            long oldest = area.append(bytes(30, 1));
+            long kept = area.append(bytes(30, 2));
+            long newest = area.append(bytes(30, 3));
+            
+            assertThat(area.read(oldest, 30)).isNull();
+            assertThat(area.read(kept, 30)).isEqualTo(bytes(30, 2));
+            assertThat(area.read(newest, 30)).isEqualTo(bytes(30, 3));
+        }
+    }
+    
+    @Test
+    void rejectsEntriesLargerThanTheRing() throws Exception {
+        try (MappedSpillArea area = new MappedSpillArea(directory.resolve("spill"), 64)) {
+            assertThatThrownBy(() -> area.append(new byte[65])).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+    
+    private static byte[] bytes(int length, int value) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) value);
+        return bytes;
+    }
+}
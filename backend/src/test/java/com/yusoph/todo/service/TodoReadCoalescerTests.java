@@ -0,0 +1,163 @@
+package com.yusoph.todo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TodoReadCoalescerTests {
+    
+    private final TodoReadCoalescer coalescer = new TodoReadCoalescer(new NoOpTransactionManager());
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    
+    TodoReadCoalescerTests() {
+        coalescer.bindTo(registry);
+    }
+    
+    @AfterEach
+    void shutDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void sharesOneQueryBetweenIdenticalConcurrentReads() throws Exception {
+        Future<List<String>> leader = read(1L, blockingLoader(() -> new ArrayList<>(List.of("a", "b"))));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<List<String>> waiter = read(1L, countingLoader(List.of("unexpected")));
+        awaitCoalesced(1);
+        release.countDown();
+        
+        List<String> first = leader.get(5, TimeUnit.SECONDS);
+        List<String> second = waiter.get(5, TimeUnit.SECONDS);
+        assertThat(loads).hasValue(1);
+        assertThat(first).containsExactly("a", "b");
+        assertThat(second).containsExactly("a", "b").isNotSameAs(first);
+        assertThatThrownBy(() -> second.add("c")).isInstanceOf(UnsupportedOperationException.class);
+    }
+    
+    @Test
+    void readsOfOtherUsersDoNotShareAQuery() throws Exception {
+        Future<List<String>> leader = read(1L, blockingLoader(() -> List.of("a")));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        assertThat(read(2L, countingLoader(List.of("b"))).get(5, TimeUnit.SECONDS)).containsExactly("b");
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).containsExactly("a");
+        assertThat(loads).hasValue(2);
+    }
+    
+    @Test
+    void readsAfterAWriteDoNotJoinAQueryThatStartedBeforeIt() throws Exception {
+        Future<List<String>> leader = read(1L, blockingLoader(() -> List.of("before")));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        // No transaction here, so the version is bumped right away
+        coalescer.invalidateAfterCommit(1L);
+        assertThat(read(1L, countingLoader(List.of("after"))).get(5, TimeUnit.SECONDS)).containsExactly("after");
+        assertThat(readAll(countingLoader(List.of("all after"))).get(5, TimeUnit.SECONDS)).containsExactly("all after");
+        release.countDown();
+        
+        assertThat(leader.get(5, TimeUnit.SECONDS)).containsExactly("before");
+        assertThat(loads).hasValue(3);
+        assertThat(registry.get("todo.reads.coalesced").functionCounter().count()).isZero();
+    }
+    
+    @Test
+    void propagatesTheFailureToEveryWaiterAndForgetsIt() throws Exception {
+        Future<List<String>> leader = read(1L, blockingLoader(() -> {
+            throw new IllegalStateException("database down");
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<List<String>> waiter = read(1L, countingLoader(List.of("unexpected")));
+        awaitCoalesced(1);
+        release.countDown();
+        
+        for (Future<List<String>> caller : List.of(leader, waiter)) {
+            assertThatThrownBy(() -> caller.get(5, TimeUnit.SECONDS))
+                    .cause()
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("database down");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(registry.get("todo.reads.in.flight").gauge().value()).isZero();
+        
+        assertThat(read(1L, countingLoader(List.of("retried"))).get(5, TimeUnit.SECONDS)).containsExactly("retried");
+    }
+    
+    private Future<List<String>> read(Long userId, Supplier<List<String>> loader) {
+        return executor.submit(() -> coalescer.execute(userId, "all", null, loader, List::copyOf));
+    }
+    
+    private Future<List<String>> readAll(Supplier<List<String>> loader) {
+        return read(null, loader);
+    }
+    
+    private Supplier<List<String>> blockingLoader(Supplier<List<String>> result) {
+        return () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return result.get();
+        };
+    }
+    
+    private Supplier<List<String>> countingLoader(List<String> result) {
+        return () -> {
+            loads.incrementAndGet();
+            return result;
+        };
+    }
+    
+    private void awaitCoalesced(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("todo.reads.coalesced").functionCounter().count() < count) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+    
+    // The coalescer only needs a transaction boundary, not a database
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+        
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+        
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+        
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -1,5 +1,7 @@
 -- Migration script for adding user authentication
--- Run this script if you have existing data
+-- Run this script if you have existing data from before authentication, before the backend first starts:
+-- Flyway then marks the database as being at V1__baseline.sql. Later changes are Flyway migrations in
+-- backend/src/main/resources/db/migration.
 
 -- Step 1: Create users table
 CREATE TABLE IF NOT EXISTS users (
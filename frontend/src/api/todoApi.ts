@@ -83,6 +83,18 @@ export interface TodoStats {
   highPriority: number;
   mediumPriority: number;
   lowPriority: number;
+  // False for admin estimates across all users; errorBounds then holds a ± margin per count
+  exact?: boolean;
+  errorBounds?: Omit<TodoStats, 'exact' | 'errorBounds'>;
+}
+
+// Everything the todo page needs on load, in one request
+export interface Bootstrap {
+  user: User;
+  // First page of todos, ordered by id
+  todos: Todo[];
+  hasMoreTodos: boolean;
+  stats: TodoStats;
 }
 
 // Token management
@@ -127,10 +139,71 @@ api.interceptors.response.use(
   }
 );
 
+// Compact list layout served for Accept: application/vnd.todo.columnar+json
+export const COLUMNAR_JSON = 'application/vnd.todo.columnar+json';
+
+interface ColumnarTodos {
+  count: number;
+  id: (number | null)[];
+  title: (string | null)[];
+  description: (string | null)[];
+  completed: (boolean | null)[];
+  priorityDictionary: Todo['priority'][];
+  // Indexes into priorityDictionary
+  priority: (number | null)[];
+  // Epoch-microsecond deltas from the previous non-null value in the column
+  createdAt: (number | null)[];
+  updatedAt: (number | null)[];
+  dueDate: (number | null)[];
+}
+
+// Timestamps come back in the same zone-less ISO form as the JSON endpoints: microsecond fraction
+// without trailing zeros, omitted when zero
+const decodeTimestamps = (deltas: (number | null)[]): (string | null)[] => {
+  let previous = 0;
+  return deltas.map(delta => {
+    if (delta === null) {
+      return null;
+    }
+    previous += delta;
+    const millis = Math.floor(previous / 1000);
+    const iso = new Date(millis).toISOString();
+    const fraction = (iso.slice(20, 23) + String(previous - millis * 1000).padStart(3, '0')).replace(/0+$/, '');
+    return fraction ? `${iso.slice(0, 19)}.${fraction}` : iso.slice(0, 19);
+  });
+};
+
+export const decodeColumnarTodos = (columns: ColumnarTodos): Todo[] => {
+  const createdAt = decodeTimestamps(columns.createdAt);
+  const updatedAt = decodeTimestamps(columns.updatedAt);
+  const dueDate = decodeTimestamps(columns.dueDate);
+  const todos: Todo[] = new Array(columns.count);
+  for (let i = 0; i < columns.count; i++) {
+    const index = columns.priority[i];
+    const priority: Todo['priority'] | null = index === null ? null : columns.priorityDictionary[index];
+    // Nulls are kept as the JSON endpoints return them, not replaced with defaults
+    todos[i] = {
+      id: columns.id[i] as number,
+      title: columns.title[i] as string,
+      description: columns.description[i] as string,
+      completed: columns.completed[i] as boolean,
+      priority: priority as Todo['priority'],
+      createdAt: createdAt[i] as string,
+      updatedAt: updatedAt[i] as string,
+      dueDate: dueDate[i],
+    };
+  }
+  return todos;
+};
+
 export const todoApi = {
-  // Get all todos
-  getAllTodos: (): Promise<Todo[]> => 
-    api.get('/todos').then(response => response.data),
+  // Get all todos; pass fields to have the backend select only those columns.
+  // Full lists are fetched in the columnar layout and decoded here.
+  getAllTodos: (fields?: (keyof Todo)[]): Promise<Todo[]> => 
+    fields
+      ? api.get('/todos', { params: { fields: fields.join(',') } }).then(response => response.data)
+      : api.get('/todos', { headers: { Accept: COLUMNAR_JSON } })
+          .then(response => decodeColumnarTodos(response.data)),
 
   // Get todo by ID
   getTodoById: (id: number): Promise<Todo> => 
@@ -162,11 +235,33 @@ export const todoApi = {
   }): Promise<Todo[]> => 
     api.get('/todos/search', { params }).then(response => response.data),
 
+  // Filter and sort on the backend in one query; priorities are sent comma-separated
+  queryTodos: (params: {
+    completed?: boolean;
+    priority?: ('LOW' | 'MEDIUM' | 'HIGH')[];
+    dueFrom?: string;
+    dueTo?: string;
+    createdFrom?: string;
+    createdTo?: string;
+    text?: string;
+    sort?: 'id' | 'createdAt' | 'dueDate' | 'priority';
+    direction?: 'asc' | 'desc';
+    limit?: number;
+  }): Promise<Todo[]> =>
+    api.get('/todos/query', { params: { ...params, priority: params.priority?.join(',') } })
+      .then(response => response.data),
+
   // Get todo statistics
   getTodoStats: (): Promise<TodoStats> => 
     api.get('/todos/stats').then(response => response.data),
 };
 
+// Bootstrap API
+export const bootstrapApi = {
+  getBootstrap: (): Promise<Bootstrap> =>
+    api.get('/bootstrap').then(response => response.data),
+};
+
 // Authentication API
 export const authApi = {
   // Register new user
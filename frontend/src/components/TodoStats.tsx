@@ -28,6 +28,8 @@ const TodoStatsComponent: React.FC<TodoStatsProps> = ({ stats, loading = false }
   }
 
   const completionRate = stats.total > 0 ? Math.round((stats.completed / stats.total) * 100) : 0;
+  // Admin stats on large tables are estimates
+  const approx = stats.exact === false ? '≈' : '';
 
   return (
     <Card sx={{ mb: 4, bgcolor: 'grey.50' }}>
@@ -69,7 +71,7 @@ const TodoStatsComponent: React.FC<TodoStatsProps> = ({ stats, loading = false }
               color="primary"
               sx={{ fontSize: { xs: '1.5rem', sm: '2rem' } }}
             >
-              {stats.total}
+              {approx}{stats.total}
             </Typography>
             <Typography 
               variant="body2" 
@@ -93,7 +95,7 @@ const TodoStatsComponent: React.FC<TodoStatsProps> = ({ stats, loading = false }
               color="success.main"
               sx={{ fontSize: { xs: '1.5rem', sm: '2rem' } }}
             >
-              {stats.completed}
+              {approx}{stats.completed}
             </Typography>
             <Typography 
               variant="body2" 
@@ -117,7 +119,7 @@ const TodoStatsComponent: React.FC<TodoStatsProps> = ({ stats, loading = false }
               color="warning.main"
               sx={{ fontSize: { xs: '1.5rem', sm: '2rem' } }}
             >
-              {stats.pending}
+              {approx}{stats.pending}
             </Typography>
             <Typography 
               variant="body2" 
@@ -141,7 +143,7 @@ const TodoStatsComponent: React.FC<TodoStatsProps> = ({ stats, loading = false }
               color="error.main"
               sx={{ fontSize: { xs: '1.5rem', sm: '2rem' } }}
             >
-              {stats.highPriority || 0}
+              {approx}{stats.highPriority || 0}
             </Typography>
             <Typography 
               variant="body2" 
@@ -1,7 +1,8 @@
-import React, { createContext, useContext, useState, useEffect } from 'react';
+import React, { createContext, useContext, useState, useEffect, useRef } from 'react';
 import type { ReactNode } from 'react';
-import { authApi, tokenManager } from '../api/todoApi';
-import type { User, LoginRequest, RegisterRequest } from '../api/todoApi';
+import axios from 'axios';
+import { authApi, bootstrapApi, tokenManager } from '../api/todoApi';
+import type { User, LoginRequest, RegisterRequest, Bootstrap } from '../api/todoApi';
 
 interface AuthContextType {
   user: User | null;
@@ -11,6 +12,8 @@ interface AuthContextType {
   logout: () => Promise<void>;
   isAuthenticated: boolean;
   updateUserProfile: (user: User) => void;
+  // Todos and stats fetched along with the user; returned once, then null
+  takeBootstrap: () => Bootstrap | null;
 }
 
 const AuthContext = createContext<AuthContextType | undefined>(undefined);
@@ -30,17 +33,34 @@ interface AuthProviderProps {
 export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
   const [user, setUser] = useState<User | null>(null);
   const [loading, setLoading] = useState(true);
+  const bootstrapRef = useRef<Bootstrap | null>(null);
+
+  // One request for the user, first page of todos and stats
+  const loadBootstrap = async () => {
+    const data = await bootstrapApi.getBootstrap();
+    bootstrapRef.current = data;
+    setUser(data.user);
+  };
+
+  const takeBootstrap = () => {
+    const data = bootstrapRef.current;
+    bootstrapRef.current = null;
+    return data;
+  };
 
   // Load user on mount if token exists
   useEffect(() => {
     const loadUser = async () => {
       if (tokenManager.isAuthenticated()) {
         try {
-          const userData = await authApi.getCurrentUser();
-          setUser(userData);
+          await loadBootstrap();
         } catch (error) {
           console.error('Failed to load user:', error);
-          tokenManager.removeToken();
+          // Only a rejected token is dropped; an outage or a network error keeps the session for a retry
+          const status = axios.isAxiosError(error) ? error.response?.status : undefined;
+          if (status === 401 || status === 403) {
+            tokenManager.removeToken();
+          }
         }
       }
       setLoading(false);
@@ -51,14 +71,12 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
 
   const login = async (data: LoginRequest) => {
     await authApi.login(data);
-    const userData = await authApi.getCurrentUser();
-    setUser(userData);
+    await loadBootstrap();
   };
 
   const register = async (data: RegisterRequest) => {
     await authApi.register(data);
-    const userData = await authApi.getCurrentUser();
-    setUser(userData);
+    await loadBootstrap();
   };
 
   const logout = async () => {
@@ -67,6 +85,7 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
     } catch (error) {
       console.error('Logout error:', error);
     } finally {
+      bootstrapRef.current = null;
       setUser(null);
       tokenManager.removeToken();
     }
@@ -84,6 +103,7 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
     logout,
     isAuthenticated: !!user,
     updateUserProfile,
+    takeBootstrap,
   };
 
   return <AuthContext.Provider value={value}>{children}</AuthContext.Provider>;
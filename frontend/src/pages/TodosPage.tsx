@@ -33,7 +33,7 @@ import TodoStatsComponent from '../components/TodoStats';
 import { useAuth } from '../contexts/AuthContext';
 
 export default function TodosPage() {
-  const { user, logout } = useAuth();
+  const { user, logout, takeBootstrap } = useAuth();
   const navigate = useNavigate();
   const [anchorEl, setAnchorEl] = useState<null | HTMLElement>(null);
   const [todos, setTodos] = useState<Todo[]>([]);
@@ -72,7 +72,20 @@ export default function TodosPage() {
   };
 
   useEffect(() => {
-    loadTodos();
+    // Use the data fetched with the user on sign-in; fall back to the list endpoints
+    const initial = takeBootstrap();
+    if (!initial) {
+      loadTodos();
+      return;
+    }
+    setTodos(initial.todos);
+    setStats(initial.stats);
+    setLoading(false);
+    if (initial.hasMoreTodos) {
+      todoApi.getAllTodos()
+        .then(setTodos)
+        .catch(err => console.error('Error loading remaining todos:', err));
+    }
   }, []);
 
   // Filter todos based on search and filters